@@ -32,13 +32,16 @@ import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Arrays;
+import java.util.Optional;
 
 /**
  * A {@link GremlinScriptEngine} implementation that evaluates Gremlin scripts using {@code gremlin-language}. As it
  * uses {@code gremlin-language} and thus the ANTLR parser, it is not capable of process arbitrary scripts as the
  * {@code GremlinGroovyScriptEngine} can and is therefore a more secure Gremlin evaluator. It is obviously restricted
  * to the capabilities of the ANTLR grammar so therefore syntax that includes things like lambdas are not supported.
- * For bytecode evaluation it simply uses the {@link JavaTranslator}.
+ * For bytecode evaluation it simply uses the {@link JavaTranslator}, by way of a {@link TraversalPlanCache} when one
+ * is provided by a {@link TraversalPlanCacheCustomizer}.
  * <p/>
  * As an internal note, technically, this is an incomplete implementation of the {@link GremlinScriptEngine} in the
  * traditional sense as a drop-in replacement for something like the {@code GremlinGroovyScriptEngine}. As a result,
@@ -50,6 +53,7 @@ import java.io.Reader;
  */
 public class GremlinLangScriptEngine extends AbstractScriptEngine implements GremlinScriptEngine {
     private volatile GremlinScriptEngineFactory factory;
+    private final Optional<TraversalPlanCache> planCache;
 
     /**
      * Creates a new instance using no {@link Customizer}.
@@ -59,6 +63,9 @@ public class GremlinLangScriptEngine extends AbstractScriptEngine implements Gre
     }
 
     public GremlinLangScriptEngine(final Customizer... customizers) {
+        planCache = Arrays.stream(customizers).
+                filter(p -> p instanceof TraversalPlanCacheCustomizer).
+                map(p -> ((TraversalPlanCacheCustomizer) p).getTraversalPlanCache()).findFirst();
     }
 
     @Override
@@ -74,7 +81,8 @@ public class GremlinLangScriptEngine extends AbstractScriptEngine implements Gre
     }
 
     /**
-     * Bytecode is evaluated by the {@link JavaTranslator}.
+     * Bytecode is evaluated by the {@link JavaTranslator}. If there is a {@link TraversalPlanCache} the traversal is
+     * returned with its strategies already applied.
      */
     @Override
     public Traversal.Admin eval(final Bytecode bytecode, final Bindings bindings, final String traversalSource) throws ScriptException {
@@ -91,7 +99,9 @@ public class GremlinLangScriptEngine extends AbstractScriptEngine implements Gre
         if (!(b instanceof TraversalSource))
             throw new IllegalArgumentException(traversalSource + " is of type " + b.getClass().getSimpleName() + " and is not an instance of TraversalSource");
 
-        return JavaTranslator.of((TraversalSource) b).translate(bytecode);
+        return planCache.isPresent() ?
+                planCache.get().translate((TraversalSource) b, bytecode) :
+                JavaTranslator.of((TraversalSource) b).translate(bytecode);
     }
 
     /**
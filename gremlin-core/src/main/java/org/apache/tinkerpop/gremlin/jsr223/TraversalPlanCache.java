@@ -0,0 +1,611 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.jsr223;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Seedable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.IsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.TraversalStrategyProxy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.BytecodeHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.ConnectiveP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.util.function.Lambda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the traversals that {@link Bytecode} compiles to, so that a request which has the same
+ * {@link Bytecode} as an earlier one against the same {@link TraversalSource} does not go through the
+ * {@link JavaTranslator} and the strategies again. The traversal is stored once its strategies are applied and a
+ * clone of it is handed out on each hit. The least recently used traversal is evicted once the cache is full.
+ * <p/>
+ * The {@link Bytecode} is normalized before it is used as a key: a {@link Bytecode.Binding} that is an argument of
+ * an instruction counts as a slot for a value of the class it holds, a child {@link Traversal} as its {@link Bytecode} and a {@link TraversalStrategy} as
+ * its class and configuration. Literals remain part of the key as strategies may fold them into the steps they
+ * produce. {@link Bytecode} is not cached if it holds a lambda or an {@link Element}, if it sets the initial value of
+ * a side-effect or a sack or a graph computer, or if its traversal has a {@link Seedable} step.
+ * <p/>
+ * Bytecode that differs only in the values of its bindings shares a traversal, into whose clone the values are bound
+ * on a hit. That is only done where each bound value is found as is in the ids of a {@link GraphStep} or in the
+ * predicate of a {@link HasContainer} or an {@link IsStep}, and once a traversal compiled for other values proved
+ * equal to the re-bound one. Otherwise the traversal is cached for the values of the bindings as well, as a strategy
+ * may have used them. Bytecode is only cached once it is seen a second time, so that bytecode which is seen once
+ * does not pay for the copy that the cache keeps.
+ * <p/>
+ * A traversal is assumed to compile the same way for as long as it is in the cache, so the cache should be
+ * {@link #clear() cleared} when something its strategies rely on, like a schema, changes.
+ */
+public final class TraversalPlanCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final Set<String> UNCACHEABLE_SOURCE_OPERATORS = new HashSet<>(Arrays.asList(
+            TraversalSource.Symbols.withSideEffect, TraversalSource.Symbols.withSack, TraversalSource.Symbols.withComputer));
+
+    private final int maxSize;
+    private final Map<Key, Plan> plans;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TraversalPlanCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public TraversalPlanCache(final int maxSize) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("The maxSize of the cache must be greater than zero");
+        this.maxSize = maxSize;
+        this.plans = new LinkedHashMap<Key, Plan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Plan> eldest) {
+                if (size() <= TraversalPlanCache.this.maxSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Gets the traversal for the {@link Bytecode} with its strategies applied, from the cache when it is there and
+     * otherwise by translating it with the {@link JavaTranslator} and caching it.
+     */
+    public Traversal.Admin<?, ?> translate(final TraversalSource traversalSource, final Bytecode bytecode) {
+        final List<Object> values = new ArrayList<>();
+        final Key key = Key.of(traversalSource, bytecode, values);
+        if (null != key) {
+            final Optional<Traversal.Admin<?, ?>> plan = this.get(key, values);
+            if (plan.isPresent()) return plan.get();
+        }
+        final Traversal.Admin<?, ?> traversal = JavaTranslator.of(traversalSource).translate(bytecode);
+        traversal.applyStrategies();
+        if (null != key) this.put(key, values, bytecode, traversal);
+        return traversal;
+    }
+
+    /**
+     * Gets a clone of the traversal cached for the {@link Bytecode}, which has its strategies applied already.
+     */
+    public Optional<Traversal.Admin<?, ?>> get(final TraversalSource traversalSource, final Bytecode bytecode) {
+        final List<Object> values = new ArrayList<>();
+        final Key key = Key.of(traversalSource, bytecode, values);
+        return null == key ? Optional.empty() : this.get(key, values);
+    }
+
+    /**
+     * Caches the traversal that the {@link Bytecode} was translated to once its strategies are applied. The
+     * traversal should not have been iterated yet.
+     */
+    public void put(final TraversalSource traversalSource, final Bytecode bytecode, final Traversal.Admin<?, ?> traversal) {
+        final List<Object> values = new ArrayList<>();
+        final Key key = Key.of(traversalSource, bytecode, values);
+        if (null != key) this.put(key, values, bytecode, traversal);
+    }
+
+    private Optional<Traversal.Admin<?, ?>> get(final Key key, final List<Object> values) {
+        Plan plan = this.lookup(key);
+        if (Plan.BY_VALUE == plan)
+            plan = this.lookup(key.withValues(values));
+        if (null != plan && null != plan.template) {
+            final boolean sameValues = plan.values.equals(values);
+            if (sameValues || plan.verified) {
+                final Traversal.Admin<?, ?> traversal = plan.copy(sameValues ? plan.values : values);
+                if (null != traversal) {
+                    this.hits.increment();
+                    return Optional.of(traversal);
+                }
+            }
+        }
+        this.misses.increment();
+        return Optional.empty();
+    }
+
+    private void put(final Key key, final List<Object> values, final Bytecode bytecode, final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.isLocked())
+            throw new IllegalArgumentException("The traversal must have its strategies applied before it is cached");
+        if (!TraversalHelper.getStepsOfAssignableClassRecursively(Seedable.class, traversal).isEmpty())
+            return;
+
+        final Plan plan = this.lookup(key);
+        if (Plan.BY_VALUE == plan) {
+            final Key valueKey = key.withValues(values);
+            if (null == this.lookup(valueKey)) this.store(valueKey, Plan.SEEN);
+            else this.store(valueKey, Plan.of(traversal, values, bytecode));
+        } else if (null == plan) {
+            // bytecode is only copied into the cache once it is seen again
+            this.store(key, Plan.SEEN);
+        } else if (null == plan.template) {
+            final Plan created = Plan.of(traversal, values, bytecode);
+            if (null == created.bindings) this.storeByValue(key, values, created);
+            else this.store(key, created);
+        } else if (!plan.verified && !plan.values.equals(values)) {
+            // the re-bound traversal has to match one compiled for other values before it is trusted
+            final Traversal.Admin<?, ?> rebound = plan.copy(values);
+            if (null != rebound && rebound.equals(traversal)) {
+                plan.verified = true;
+            } else {
+                this.store(key.withValues(plan.values), plan);
+                this.storeByValue(key, values, Plan.of(traversal, values, bytecode));
+            }
+        }
+    }
+
+    private void storeByValue(final Key key, final List<Object> values, final Plan plan) {
+        synchronized (this.plans) {
+            this.plans.put(key, Plan.BY_VALUE);
+            this.plans.put(key.withValues(values), plan);
+        }
+    }
+
+    private Plan lookup(final Key key) {
+        synchronized (this.plans) {
+            return this.plans.get(key);
+        }
+    }
+
+    private void store(final Key key, final Plan plan) {
+        synchronized (this.plans) {
+            this.plans.put(key, plan);
+        }
+    }
+
+    /**
+     * Removes all of the traversals from the cache.
+     */
+    public void clear() {
+        synchronized (this.plans) {
+            this.plans.clear();
+        }
+    }
+
+    /**
+     * Gets the number of entries in the cache, which also counts the {@link Bytecode} that was seen only once.
+     */
+    public int size() {
+        synchronized (this.plans) {
+            return this.plans.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Gets the number of times a traversal was found in the cache.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Gets the number of times cacheable {@link Bytecode} was not found in the cache.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Gets the number of traversals removed to keep the cache within its maximum size.
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * A cached traversal along with the values of the bindings it was compiled for and, for each {@link Slot} of the
+     * traversal, the index of the binding whose value it holds.
+     */
+    private static final class Plan {
+
+        /**
+         * Marks {@link Bytecode} that was seen once but whose traversal is not kept yet.
+         */
+        private static final Plan SEEN = new Plan(null, null, null, null);
+
+        /**
+         * Marks a shape of {@link Bytecode} whose traversals are cached for the values of their bindings.
+         */
+        private static final Plan BY_VALUE = new Plan(null, null, null, null);
+
+        private final Traversal.Admin<?, ?> template;
+        private final List<Object> values;
+        private final List<Slot> slots;
+        private final int[] bindings;
+        private volatile boolean verified;
+
+        private Plan(final Traversal.Admin<?, ?> template, final List<Object> values, final List<Slot> slots, final int[] bindings) {
+            this.template = template;
+            this.values = values;
+            this.slots = slots;
+            this.bindings = bindings;
+            this.verified = null != bindings && values.isEmpty();
+        }
+
+        private static Plan of(final Traversal.Admin<?, ?> traversal, final List<Object> values, final Bytecode bytecode) {
+            final Traversal.Admin<?, ?> template = traversal.clone();
+            final List<Slot> slots = Slot.of(template);
+            return new Plan(template, values, slots, locate(slots, values, bytecode));
+        }
+
+        /**
+         * Finds the binding whose value each slot holds, which relies on the value being the same instance as the one
+         * bound, or returns {@code null} if a binding is not found or if its value could be mistaken for another.
+         */
+        private static int[] locate(final List<Slot> slots, final List<Object> values, final Bytecode bytecode) {
+            final Set<Object> literals = Collections.newSetFromMap(new IdentityHashMap<>());
+            addLiterals(bytecode, literals);
+            final boolean[] found = new boolean[values.size()];
+            final int[] bindings = new int[slots.size()];
+            for (int i = 0; i < slots.size(); i++) {
+                bindings[i] = -1;
+                final Object value = slots.get(i).get();
+                for (int j = 0; j < values.size(); j++) {
+                    if (value == values.get(j)) {
+                        if (-1 != bindings[i]) return null;
+                        bindings[i] = j;
+                        found[j] = true;
+                    }
+                }
+            }
+            for (int j = 0; j < values.size(); j++) {
+                if (!found[j] || null == values.get(j) || literals.contains(values.get(j))) return null;
+            }
+            return bindings;
+        }
+
+        private static void addLiterals(final Object value, final Set<Object> literals) {
+            if (value instanceof Bytecode) {
+                for (final Bytecode.Instruction instruction : ((Bytecode) value).getInstructions()) {
+                    for (final Object argument : instruction.getArguments()) {
+                        addLiterals(argument, literals);
+                    }
+                }
+            } else if (value instanceof Map) {
+                for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    addLiterals(entry.getKey(), literals);
+                    addLiterals(entry.getValue(), literals);
+                }
+            } else if (value instanceof Collection) {
+                for (final Object item : (Collection<?>) value) {
+                    addLiterals(item, literals);
+                }
+            } else if (null != value && !(value instanceof Bytecode.Binding)) {
+                literals.add(value);
+            }
+        }
+
+        /**
+         * Clones the template and binds the values into it, or returns {@code null} if the clone shares a slot with
+         * the template so that binding would change the template too.
+         */
+        private Traversal.Admin<?, ?> copy(final List<Object> values) {
+            final Traversal.Admin<?, ?> traversal;
+            // steps are not written with concurrent cloning in mind so each template is cloned by one thread at a time
+            synchronized (this.template) {
+                traversal = this.template.clone();
+            }
+            if (values == this.values) return traversal;
+
+            final List<Slot> slots = Slot.of(traversal);
+            if (slots.size() != this.slots.size()) return null;
+            for (int i = 0; i < slots.size(); i++) {
+                if (-1 == this.bindings[i]) continue;
+                if (!this.verified && slots.get(i).owner() == this.slots.get(i).owner()) return null;
+                slots.get(i).set(values.get(this.bindings[i]));
+            }
+            return traversal;
+        }
+    }
+
+    /**
+     * A place in a compiled traversal that may hold the value of a binding.
+     */
+    private static abstract class Slot {
+
+        abstract Object get();
+
+        abstract void set(final Object value);
+
+        /**
+         * Gets the object that is changed when the value is set, which must not be shared with the template.
+         */
+        abstract Object owner();
+
+        private static List<Slot> of(final Traversal.Admin<?, ?> traversal) {
+            final List<Slot> slots = new ArrayList<>();
+            addSlots(traversal, slots);
+            return slots;
+        }
+
+        private static void addSlots(final Traversal.Admin<?, ?> traversal, final List<Slot> slots) {
+            for (final Step<?, ?> step : traversal.getSteps()) {
+                if (step instanceof GraphStep && null != ((GraphStep<?, ?>) step).getIds()) {
+                    for (int i = 0; i < ((GraphStep<?, ?>) step).getIds().length; i++) {
+                        slots.add(new IdSlot((GraphStep<?, ?>) step, i));
+                    }
+                }
+                if (step instanceof HasContainerHolder) {
+                    for (final HasContainer hasContainer : ((HasContainerHolder) step).getHasContainers()) {
+                        addSlots(hasContainer.getPredicate(), slots);
+                    }
+                }
+                if (step instanceof IsStep)
+                    addSlots(((IsStep<?>) step).getPredicate(), slots);
+                if (step instanceof TraversalParent) {
+                    for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                        addSlots(child, slots);
+                    }
+                    for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                        addSlots(child, slots);
+                    }
+                }
+            }
+        }
+
+        private static void addSlots(final P<?> predicate, final List<Slot> slots) {
+            if (predicate instanceof ConnectiveP) {
+                for (final P<?> p : ((ConnectiveP<?>) predicate).getPredicates()) {
+                    addSlots(p, slots);
+                }
+            } else if (null != predicate && predicate.getValue() == predicate.getOriginalValue()) {
+                // a value that was converted from the one bound could not be bound again
+                slots.add(new PredicateSlot(predicate));
+            }
+        }
+    }
+
+    private static final class IdSlot extends Slot {
+
+        private final GraphStep<?, ?> step;
+        private final int index;
+
+        private IdSlot(final GraphStep<?, ?> step, final int index) {
+            this.step = step;
+            this.index = index;
+        }
+
+        @Override
+        Object get() {
+            return this.step.getIds()[this.index];
+        }
+
+        @Override
+        void set(final Object value) {
+            // the ids array is shared with the template so it is replaced rather than written to
+            final Object[] ids = this.step.getIds().clone();
+            ids[this.index] = value;
+            this.step.clearIds();
+            this.step.addIds(ids);
+        }
+
+        @Override
+        Object owner() {
+            return this.step;
+        }
+    }
+
+    private static final class PredicateSlot extends Slot {
+
+        private final P predicate;
+
+        private PredicateSlot(final P<?> predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        Object get() {
+            return this.predicate.getValue();
+        }
+
+        @Override
+        void set(final Object value) {
+            this.predicate.bindValue(value);
+        }
+
+        @Override
+        Object owner() {
+            return this.predicate;
+        }
+    }
+
+    /**
+     * The normalized form of {@link Bytecode} and of the values it holds, where {@code kind} keeps apart the forms
+     * of different things that would otherwise hold equal parts.
+     */
+    private static final class Key {
+
+        private static final Object UNCACHEABLE = new Object();
+
+        private final Object kind;
+        private final List<Object> parts;
+        private final int hashCode;
+
+        private Key(final Object kind, final List<Object> parts) {
+            this.kind = kind;
+            this.parts = parts;
+            this.hashCode = 31 * System.identityHashCode(kind) + parts.hashCode();
+        }
+
+        /**
+         * Gets the key for the shape of the {@link Bytecode}, where each binding is a slot, and adds the values of the
+         * bindings to {@code values} in the order of their slots.
+         */
+        private static Key of(final TraversalSource traversalSource, final Bytecode bytecode, final List<Object> values) {
+            if (BytecodeHelper.isGraphOperation(bytecode)) return null;
+            for (final Bytecode.Instruction instruction : bytecode.getSourceInstructions()) {
+                if (UNCACHEABLE_SOURCE_OPERATORS.contains(instruction.getOperator())) return null;
+            }
+            final Object normalized = normalize(bytecode, values);
+            // the traversal source is compared by identity as it is what holds the graph and the strategies
+            return UNCACHEABLE == normalized ? null : new Key(traversalSource, Arrays.asList((Object) normalized));
+        }
+
+        /**
+         * Gets the key for this shape of {@link Bytecode} bound to the values.
+         */
+        private Key withValues(final List<Object> values) {
+            final List<Object> normalized = new ArrayList<>(values.size());
+            for (final Object value : values) {
+                normalized.add(normalize(value, null));
+            }
+            return new Key(Bytecode.Binding.class, Arrays.asList(this, normalized));
+        }
+
+        private static Object normalize(final Bytecode bytecode, final List<Object> values) {
+            final List<Object> parts = new ArrayList<>();
+            for (final Bytecode.Instruction instruction : bytecode.getSourceInstructions()) {
+                if (!normalize(instruction, parts, values)) return UNCACHEABLE;
+            }
+            // a null marks where the source instructions end and the step instructions begin
+            parts.add(null);
+            for (final Bytecode.Instruction instruction : bytecode.getStepInstructions()) {
+                if (!normalize(instruction, parts, values)) return UNCACHEABLE;
+            }
+            return new Key(Bytecode.class, parts);
+        }
+
+        private static boolean normalize(final Bytecode.Instruction instruction, final List<Object> parts, final List<Object> values) {
+            final Object[] arguments = instruction.getArguments();
+            parts.add(instruction.getOperator());
+            parts.add(arguments.length);
+            for (final Object argument : arguments) {
+                final Object normalized = normalize(argument, values);
+                if (UNCACHEABLE == normalized) return false;
+                parts.add(normalized);
+            }
+            return true;
+        }
+
+        /**
+         * Normalizes the value, where a {@link Bytecode.Binding} becomes a slot for the class of its value unless
+         * {@code values} is {@code null}, in which case it becomes its value as it does within a collection.
+         */
+        private static Object normalize(final Object value, final List<Object> values) {
+            if (null == value) return null;
+            if (value instanceof Bytecode.Binding) {
+                final Object bound = ((Bytecode.Binding) value).value();
+                final Object normalized = normalize(bound, null);
+                if (null == values || UNCACHEABLE == normalized) return normalized;
+                values.add(bound);
+                return new Key(Bytecode.Binding.class, Arrays.asList(null == bound ? null : bound.getClass()));
+            }
+            if (value instanceof Bytecode) return normalize((Bytecode) value, values);
+            if (value instanceof Traversal) return normalize(((Traversal) value).asAdmin().getBytecode(), values);
+            if (value instanceof TraversalStrategyProxy)
+                return normalize(((TraversalStrategyProxy) value).getStrategyClass(), ((TraversalStrategyProxy) value).getConfiguration());
+            if (value instanceof TraversalStrategy)
+                return normalize(value.getClass(), ((TraversalStrategy) value).getConfiguration());
+            if (value instanceof Lambda || value instanceof Element || value.getClass().isSynthetic() || value.getClass().isArray())
+                return UNCACHEABLE;
+            if (value instanceof Map) {
+                final Map<Object, Object> map = new HashMap<>();
+                for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    final Object k = normalize(entry.getKey(), null);
+                    final Object v = normalize(entry.getValue(), null);
+                    if (UNCACHEABLE == k || UNCACHEABLE == v) return UNCACHEABLE;
+                    map.put(k, v);
+                }
+                return new Key(Map.class, Arrays.asList((Object) map));
+            }
+            if (value instanceof Collection) {
+                final List<Object> items = new ArrayList<>();
+                for (final Object item : (Collection<?>) value) {
+                    final Object normalized = normalize(item, null);
+                    if (UNCACHEABLE == normalized) return UNCACHEABLE;
+                    items.add(normalized);
+                }
+                // sets compare without regard to the order of their items
+                return value instanceof Set ?
+                        new Key(Set.class, Arrays.asList((Object) new HashSet<>(items))) :
+                        new Key(List.class, items);
+            }
+            return value;
+        }
+
+        private static Object normalize(final Class<?> strategyClass, final Configuration configuration) {
+            final Map<String, Object> settings = new HashMap<>();
+            final Iterator<String> keys = configuration.getKeys();
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                final Object normalized = normalize(configuration.getProperty(key), null);
+                if (UNCACHEABLE == normalized) return UNCACHEABLE;
+                settings.put(key, normalized);
+            }
+            return new Key(TraversalStrategy.class, Arrays.asList(strategyClass, settings));
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Key)) return false;
+            final Key key = (Key) other;
+            return this.hashCode == key.hashCode && this.kind == key.kind && this.parts.equals(key.parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+}
@@ -46,4 +46,15 @@ public interface Messenger<M> {
      */
     public void sendMessage(final MessageScope messageScope, final M message);
 
+    /**
+     * The currently executing vertex can vote to halt, which allows a {@link GraphComputer} to skip it in later
+     * iterations until it is sent a message or the {@link VertexProgram} wakes it with
+     * {@link VertexProgram#wakeHaltedVertices(Memory)}. A vertex should only vote to halt if executing it without
+     * messages would not change its state, send a message or add to the {@link Memory}, other than to vote to halt
+     * again. The default implementation is a no-op, as a {@link GraphComputer} is free to execute every vertex.
+     */
+    public default void voteToHalt() {
+
+    }
+
 }
@@ -104,6 +104,19 @@ public interface VertexProgram<M> extends Cloneable {
      */
     public boolean terminate(final Memory memory);
 
+    /**
+     * This method is called at the start of each iteration to determine if the vertices that voted to halt with
+     * {@link Messenger#voteToHalt()} should be executed in that iteration regardless of whether they were sent messages,
+     * which is needed when the state of the {@link Memory} changes what an execution does.
+     * The default implementation returns {@code false}.
+     *
+     * @param memory The memory at the start of the iteration.
+     * @return whether or not to execute the vertices that voted to halt
+     */
+    public default boolean wakeHaltedVertices(final Memory memory) {
+        return false;
+    }
+
     /**
      * This method is called at the start of each iteration of each "computational chunk."
      * The set of vertices in the graph are typically not processed with full parallelism.
@@ -153,6 +153,9 @@ public class ConnectedComponentVertexProgram implements VertexProgram<String> {
                 memory.add(VOTE_TO_HALT, false);
             }
         }
+
+        // without messages a later execution has nothing to compare, so the vertex can sleep until it is sent one
+        messenger.voteToHalt();
     }
 
     @Override
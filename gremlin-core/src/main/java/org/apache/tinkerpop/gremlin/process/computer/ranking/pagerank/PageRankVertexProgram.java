@@ -48,6 +48,21 @@ import java.util.Optional;
 import java.util.Set;
 
 /**
+ * Computes the PageRank of each vertex by power iteration until the summed change of the ranks falls below the
+ * epsilon or the maximum number of iterations is reached.
+ * <p/>
+ * In delta mode, which is enabled with {@link Builder#delta(boolean)}, each vertex instead adds the changes it
+ * receives to its rank right away and keeps the part of them that it has not propagated yet, which it only sends to
+ * its adjacent vertices once it exceeds the epsilon divided by the number of vertices. Vertices vote to halt after
+ * each execution, so that a {@link GraphComputer} which skips halted vertices only executes those whose rank still
+ * changes. The energy of vertices without edges and the teleportation energy are accumulated in {@link Memory} and
+ * collected by each vertex whenever it executes, where all vertices are woken when the uncollected energy would
+ * exceed the epsilon. The ranks start out uniform, or from the ranks of an
+ * {@link Builder#initialRank(Traversal.Admin)} scaled to sum to one. Each vertex sends its initial rank once, in the
+ * first iteration, and the unpropagated change it keeps is then the difference between its initial rank and the rank
+ * its adjacent vertices give it, so that after a warm start from the ranks of a previous computation only the
+ * vertices whose rank actually moved with the change of the graph keep propagating.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class PageRankVertexProgram implements VertexProgram<Double> {
@@ -64,6 +79,13 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
     private static final String INITIAL_RANK_TRAVERSAL = "gremlin.pageRankVertexProgram.initialRankTraversal";
     private static final String TELEPORTATION_ENERGY = "gremlin.pageRankVertexProgram.teleportationEnergy";
     private static final String CONVERGENCE_ERROR = "gremlin.pageRankVertexProgram.convergenceError";
+    private static final String DELTA = "gremlin.pageRankVertexProgram.delta";
+    private static final String RESIDUAL = "gremlin.pageRankVertexProgram.residual";
+    private static final String COLLECTED_ENERGY = "gremlin.pageRankVertexProgram.collectedEnergy";
+    private static final String INITIAL_ENERGY = "gremlin.pageRankVertexProgram.initialEnergy";
+    private static final String TELEPORTED_ENERGY = "gremlin.pageRankVertexProgram.teleportedEnergy";
+    private static final String WOKEN_ENERGY = "gremlin.pageRankVertexProgram.wokenEnergy";
+    private static final String WAKE = "gremlin.pageRankVertexProgram.wake";
 
     private MessageScope.Local<Double> incidentMessageScope = MessageScope.Local.of(__::outE);
     private MessageScope.Local<Double> countMessageScope = MessageScope.Local.of(new MessageScope.Local.ReverseTraversalSupplier(this.incidentMessageScope));
@@ -72,6 +94,7 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
     private double alpha = 0.85d;
     private double epsilon = 0.00001d;
     private int maxIterations = 20;
+    private boolean delta = false;
     private String property = PAGE_RANK;
     private Set<VertexComputeKey> vertexComputeKeys;
     private Set<MemoryComputeKey> memoryComputeKeys;
@@ -93,13 +116,29 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
         this.epsilon = configuration.getDouble(EPSILON, this.epsilon);
         this.maxIterations = configuration.getInt(MAX_ITERATIONS, 20);
         this.property = configuration.getString(PROPERTY, PAGE_RANK);
-        this.vertexComputeKeys = new HashSet<>(Arrays.asList(
-                VertexComputeKey.of(this.property, false),
-                VertexComputeKey.of(EDGE_COUNT, true)));
-        this.memoryComputeKeys = new HashSet<>(Arrays.asList(
-                MemoryComputeKey.of(TELEPORTATION_ENERGY, Operator.sum, true, true),
-                MemoryComputeKey.of(VERTEX_COUNT, Operator.sum, true, true),
-                MemoryComputeKey.of(CONVERGENCE_ERROR, Operator.sum, false, true)));
+        this.delta = configuration.getBoolean(DELTA, false);
+        if (this.delta) {
+            this.vertexComputeKeys = new HashSet<>(Arrays.asList(
+                    VertexComputeKey.of(this.property, false),
+                    VertexComputeKey.of(EDGE_COUNT, true),
+                    VertexComputeKey.of(RESIDUAL, true),
+                    VertexComputeKey.of(COLLECTED_ENERGY, true)));
+            this.memoryComputeKeys = new HashSet<>(Arrays.asList(
+                    MemoryComputeKey.of(INITIAL_ENERGY, Operator.sum, true, true),
+                    MemoryComputeKey.of(TELEPORTED_ENERGY, Operator.sum, true, true),
+                    MemoryComputeKey.of(WOKEN_ENERGY, Operator.assign, true, true),
+                    MemoryComputeKey.of(WAKE, Operator.assign, true, true),
+                    MemoryComputeKey.of(VERTEX_COUNT, Operator.sum, true, true),
+                    MemoryComputeKey.of(CONVERGENCE_ERROR, Operator.sum, false, true)));
+        } else {
+            this.vertexComputeKeys = new HashSet<>(Arrays.asList(
+                    VertexComputeKey.of(this.property, false),
+                    VertexComputeKey.of(EDGE_COUNT, true)));
+            this.memoryComputeKeys = new HashSet<>(Arrays.asList(
+                    MemoryComputeKey.of(TELEPORTATION_ENERGY, Operator.sum, true, true),
+                    MemoryComputeKey.of(VERTEX_COUNT, Operator.sum, true, true),
+                    MemoryComputeKey.of(CONVERGENCE_ERROR, Operator.sum, false, true)));
+        }
     }
 
     @Override
@@ -109,6 +148,7 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
         configuration.setProperty(EPSILON, this.epsilon);
         configuration.setProperty(PROPERTY, this.property);
         configuration.setProperty(MAX_ITERATIONS, this.maxIterations);
+        configuration.setProperty(DELTA, this.delta);
         if (null != this.edgeTraversal)
             this.edgeTraversal.storeState(configuration, EDGE_TRAVERSAL);
         if (null != this.initialRankTraversal)
@@ -143,7 +183,7 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
     @Override
     public Set<MessageScope> getMessageScopes(final Memory memory) {
         final Set<MessageScope> set = new HashSet<>();
-        set.add(memory.isInitialIteration() ? this.countMessageScope : this.incidentMessageScope);
+        set.add(memory.isInitialIteration() && !this.delta ? this.countMessageScope : this.incidentMessageScope);
         return set;
     }
 
@@ -161,14 +201,24 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
 
     @Override
     public void setup(final Memory memory) {
-        memory.set(TELEPORTATION_ENERGY, null == this.initialRankTraversal ? 1.0d : 0.0d);
+        if (this.delta) {
+            // the energy of vertices without edges in the initial iteration, which is scaled along with the
+            // initial ranks and completed by the teleportation energy once their sum is known
+            memory.set(INITIAL_ENERGY, 0.0d);
+            memory.set(TELEPORTED_ENERGY, 0.0d);
+            memory.set(WOKEN_ENERGY, 0.0d);
+            memory.set(WAKE, false);
+        } else
+            memory.set(TELEPORTATION_ENERGY, null == this.initialRankTraversal ? 1.0d : 0.0d);
         memory.set(VERTEX_COUNT, 0.0d);
         memory.set(CONVERGENCE_ERROR, 1.0d);
     }
 
     @Override
     public void execute(final Vertex vertex, Messenger<Double> messenger, final Memory memory) {
-        if (memory.isInitialIteration()) {
+        if (this.delta) {
+            this.executeDelta(vertex, messenger, memory);
+        } else if (memory.isInitialIteration()) {
             messenger.sendMessage(this.countMessageScope, 1.0d);
             memory.add(VERTEX_COUNT, 1.0d);
         } else {
@@ -204,16 +254,106 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
         }
     }
 
+    private void executeDelta(final Vertex vertex, final Messenger<Double> messenger, final Memory memory) {
+        if (memory.isInitialIteration()) {
+            // the edges are counted locally rather than with messages, so that the initial rank is sent right away
+            final double edgeCount = IteratorUtils.count(TraversalUtil.applyAll(vertex, this.incidentMessageScope.getIncidentTraversal().get().asAdmin()));
+            final double initialRank = null == this.initialRankTraversal ?
+                    1.0d :
+                    TraversalUtil.apply(vertex, this.initialRankTraversal.get()).doubleValue();
+            vertex.property(VertexProperty.Cardinality.single, EDGE_COUNT, edgeCount);
+            vertex.property(VertexProperty.Cardinality.single, this.property, initialRank);
+            memory.add(VERTEX_COUNT, 1.0d);
+            memory.add(INITIAL_ENERGY, initialRank);
+            if (edgeCount > 0.0d)
+                messenger.sendMessage(this.incidentMessageScope, this.alpha * initialRank / edgeCount);
+            else
+                memory.add(TELEPORTED_ENERGY, this.alpha * initialRank);
+            messenger.voteToHalt();
+            return;
+        }
+        final double vertexCount = memory.<Double>get(VERTEX_COUNT);
+        final double teleportedEnergy = memory.<Double>get(TELEPORTED_ENERGY);
+        final double edgeCount = vertex.value(EDGE_COUNT);
+        double pageRank = vertex.value(this.property);
+        double residual;
+        if (1 == memory.getIteration()) {
+            // the initial ranks are scaled to sum to one, as the changes then sum to zero and fade out in as many
+            // iterations as without delta mode, while any missing or excess energy would only fade out by alpha
+            final double initialEnergy = memory.<Double>get(INITIAL_ENERGY);
+            final double received = IteratorUtils.reduce(messenger.receiveMessages(), 0.0d, (a, b) -> a + b);
+            final double initialRank = initialEnergy > 0.0d ? pageRank / initialEnergy : 0.0d;
+            pageRank = initialEnergy > 0.0d ? received / initialEnergy : 0.0d;
+            // the initial rank was propagated already, so only its difference to the rank given by the adjacent
+            // vertices is left to propagate
+            residual = pageRank - initialRank;
+        } else {
+            final double received = IteratorUtils.reduce(messenger.receiveMessages(), 0.0d, (a, b) -> a + b);
+            pageRank = pageRank + received;
+            residual = vertex.<Double>value(RESIDUAL) + received;
+        }
+        final double collectedEnergy = vertex.<Double>property(COLLECTED_ENERGY).orElse(0.0d);
+        if (collectedEnergy != teleportedEnergy) {
+            final double teleportation = (teleportedEnergy - collectedEnergy) / vertexCount;
+            pageRank = pageRank + teleportation;
+            residual = residual + teleportation;
+            vertex.property(VertexProperty.Cardinality.single, COLLECTED_ENERGY, teleportedEnergy);
+        }
+        vertex.property(VertexProperty.Cardinality.single, this.property, pageRank);
+        if (Math.abs(residual) > this.epsilon / vertexCount) {
+            memory.add(CONVERGENCE_ERROR, Math.abs(residual));
+            final double propagation = this.alpha * residual;
+            if (edgeCount > 0.0d)
+                messenger.sendMessage(this.incidentMessageScope, propagation / edgeCount);
+            else
+                memory.add(TELEPORTED_ENERGY, propagation);
+            residual = 0.0d;
+        }
+        vertex.property(VertexProperty.Cardinality.single, RESIDUAL, residual);
+        messenger.voteToHalt();
+    }
+
+    @Override
+    public boolean wakeHaltedVertices(final Memory memory) {
+        return this.delta && memory.<Boolean>get(WAKE);
+    }
+
     @Override
     public boolean terminate(final Memory memory) {
+        if (this.delta)
+            return this.terminateDelta(memory);
         boolean terminate = memory.<Double>get(CONVERGENCE_ERROR) < this.epsilon || memory.getIteration() >= this.maxIterations;
         memory.set(CONVERGENCE_ERROR, 0.0d);
         return terminate;
     }
 
+    private boolean terminateDelta(final Memory memory) {
+        if (memory.isInitialIteration()) {
+            // every vertex collects the teleportation energy and the scaled energy of the vertices without edges
+            final double initialEnergy = memory.<Double>get(INITIAL_ENERGY);
+            final double teleportedEnergy = (1.0d - this.alpha) +
+                    (initialEnergy > 0.0d ? memory.<Double>get(TELEPORTED_ENERGY) / initialEnergy : 0.0d);
+            memory.set(TELEPORTED_ENERGY, teleportedEnergy);
+            memory.set(WOKEN_ENERGY, teleportedEnergy);
+            memory.set(WAKE, true);
+            memory.set(CONVERGENCE_ERROR, 0.0d);
+            return false;
+        }
+        final double teleportedEnergy = memory.<Double>get(TELEPORTED_ENERGY);
+        final boolean wake = Math.abs(teleportedEnergy - memory.<Double>get(WOKEN_ENERGY)) > this.epsilon;
+        if (wake)
+            memory.set(WOKEN_ENERGY, teleportedEnergy);
+        // the ranks hold every change received, so the computation ends once the changes still sent are negligible
+        final boolean terminate = (!wake && memory.<Double>get(CONVERGENCE_ERROR) < this.epsilon) ||
+                memory.getIteration() >= this.maxIterations;
+        memory.set(WAKE, wake);
+        memory.set(CONVERGENCE_ERROR, 0.0d);
+        return terminate;
+    }
+
     @Override
     public String toString() {
-        return StringFactory.vertexProgramString(this, "alpha=" + this.alpha + ", epsilon=" + this.epsilon + ", iterations=" + this.maxIterations);
+        return StringFactory.vertexProgramString(this, "alpha=" + this.alpha + ", epsilon=" + this.epsilon + ", iterations=" + this.maxIterations + (this.delta ? ", delta" : ""));
     }
 
     //////////////////////////////
@@ -253,6 +393,18 @@ public class PageRankVertexProgram implements VertexProgram<Double> {
             return this;
         }
 
+        /**
+         * Only propagates the change of the rank of a vertex once it exceeds the epsilon divided by the number of
+         * vertices, rather than propagating every rank in every iteration. This is off by default, as each vertex that
+         * executes costs more than without delta mode, which only pays off when the ranks of most vertices settle
+         * early, such as on a warm start from the ranks of a previous computation after a change to the graph. From
+         * uniform ranks, where nearly every rank keeps changing until the end, delta mode is slower.
+         */
+        public Builder delta(final boolean delta) {
+            this.configuration.setProperty(DELTA, delta);
+            return this;
+        }
+
         public Builder initialRank(final Traversal.Admin<Vertex, ? extends Number> initialRankTraversal) {
             PureTraversal.storeState(this.configuration, INITIAL_RANK_TRAVERSAL, initialRankTraversal);
             return this;
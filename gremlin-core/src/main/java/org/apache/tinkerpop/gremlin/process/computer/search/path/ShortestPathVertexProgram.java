@@ -30,12 +30,15 @@ import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexPr
 import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.ProgramVertexProgramStep;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.VertexProgramStep;
 import org.apache.tinkerpop.gremlin.process.computer.util.AbstractVertexProgramBuilder;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.Operator;
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ImmutablePath;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.IndexedTraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
@@ -65,6 +68,14 @@ import java.util.Set;
 import java.util.function.Function;
 
 /**
+ * Finds the shortest paths from the source vertices to the target vertices. Paths measured by a distance traversal
+ * are found by sending the paths themselves to adjacent vertices until no shorter paths are found. Paths measured in
+ * hops are found by a breadth-first search whose messages only point to the vertex they came from, where each vertex
+ * keeps the vertices it was first reached from and the paths are put together from those predecessors once the
+ * search ends. As the first hop count at which a vertex is reached is its distance, the search ends as soon as every
+ * target was reached from every source. With a single source and a single target and an edge traversal that can be
+ * reversed, the target also searches backwards and the search ends once both searches meet.
+ *
  * @author Daniel Kuppitz (http://gremlin.guru)
  */
 public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Edge, Number>> {
@@ -82,6 +93,18 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
     private static final String STATE = "gremlin.shortestPathVertexProgram.state";
     private static final String PATHS = "gremlin.shortestPathVertexProgram.paths";
     private static final String VOTE_TO_HALT = "gremlin.shortestPathVertexProgram.voteToHalt";
+    private static final String PREDECESSORS = "gremlin.shortestPathVertexProgram.predecessors";
+    private static final String IS_TARGET = "gremlin.shortestPathVertexProgram.isTarget";
+    private static final String SOURCE_COUNT = "gremlin.shortestPathVertexProgram.sourceCount";
+    private static final String TARGET_COUNT = "gremlin.shortestPathVertexProgram.targetCount";
+    private static final String SOURCE_VERTEX = "gremlin.shortestPathVertexProgram.sourceVertex";
+    private static final String TARGET_VERTEX = "gremlin.shortestPathVertexProgram.targetVertex";
+    private static final String SETTLED_PAIRS = "gremlin.shortestPathVertexProgram.settledPairs";
+    private static final String BIDIRECTIONAL = "gremlin.shortestPathVertexProgram.bidirectional";
+    private static final String MEETING_DISTANCE = "gremlin.shortestPathVertexProgram.meetingDistance";
+    private static final String SEARCH_ITERATIONS = "gremlin.shortestPathVertexProgram.searchIterations";
+    private static final String PREDECESSOR_LINKS = "gremlin.shortestPathVertexProgram.predecessorLinks";
+    private static final String REACHED_TARGETS = "gremlin.shortestPathVertexProgram.reachedTargets";
 
     private static final int SEARCH = 0;
     private static final int COLLECT_PATHS = 1;
@@ -103,16 +126,29 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
     private Step<Vertex, Path> programStep;
     private Number maxDistance;
     private boolean distanceEqualsNumberOfHops;
+    private boolean reversibleEdgeTraversal;
     private boolean includeEdges;
     private boolean standalone;
 
     private static final Set<VertexComputeKey> VERTEX_COMPUTE_KEYS = new HashSet<>(Arrays.asList(
             VertexComputeKey.of(PATHS, true),
+            VertexComputeKey.of(PREDECESSORS, true),
+            VertexComputeKey.of(IS_TARGET, true),
             VertexComputeKey.of(TraversalVertexProgram.HALTED_TRAVERSERS, false)));
 
     private final Set<MemoryComputeKey> memoryComputeKeys = new HashSet<>(Arrays.asList(
             MemoryComputeKey.of(VOTE_TO_HALT, Operator.and, false, true),
-            MemoryComputeKey.of(STATE, Operator.assign, true, true)));
+            MemoryComputeKey.of(STATE, Operator.assign, true, true),
+            MemoryComputeKey.of(SOURCE_COUNT, Operator.sum, false, true),
+            MemoryComputeKey.of(TARGET_COUNT, Operator.sum, false, true),
+            MemoryComputeKey.of(SOURCE_VERTEX, Operator.assign, false, true),
+            MemoryComputeKey.of(TARGET_VERTEX, Operator.assign, true, true),
+            MemoryComputeKey.of(SETTLED_PAIRS, Operator.sum, false, true),
+            MemoryComputeKey.of(BIDIRECTIONAL, Operator.assign, true, true),
+            MemoryComputeKey.of(MEETING_DISTANCE, Operator.min, false, true),
+            MemoryComputeKey.of(SEARCH_ITERATIONS, Operator.assign, false, true),
+            MemoryComputeKey.of(PREDECESSOR_LINKS, Operator.addAll, false, true),
+            MemoryComputeKey.of(REACHED_TARGETS, Operator.addAll, false, true)));
 
     private ShortestPathVertexProgram() {
 
@@ -137,6 +173,7 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             this.maxDistance = (Number) configuration.getProperty(MAX_DISTANCE);
 
         this.distanceEqualsNumberOfHops = this.distanceTraversal.equals(DEFAULT_DISTANCE_TRAVERSAL);
+        this.reversibleEdgeTraversal = isReversible(this.edgeTraversal.get());
         this.includeEdges = configuration.getBoolean(INCLUDE_EDGES, false);
         this.standalone = !configuration.containsKey(VertexProgramStep.ROOT_TRAVERSAL);
 
@@ -235,6 +272,13 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
     public void setup(final Memory memory) {
         memory.set(VOTE_TO_HALT, true);
         memory.set(STATE, SEARCH);
+        memory.set(SOURCE_COUNT, 0L);
+        memory.set(TARGET_COUNT, 0L);
+        memory.set(SETTLED_PAIRS, 0L);
+        memory.set(BIDIRECTIONAL, false);
+        memory.set(MEETING_DISTANCE, Integer.MAX_VALUE);
+        memory.set(PREDECESSOR_LINKS, new ArrayList<>());
+        memory.set(REACHED_TARGETS, new ArrayList<>());
     }
 
     @Override
@@ -243,7 +287,10 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
         switch (memory.<Integer>get(STATE)) {
 
             case COLLECT_PATHS:
-                collectShortestPaths(vertex, memory);
+                if (this.distanceEqualsNumberOfHops)
+                    collectPredecessors(vertex, memory);
+                else
+                    collectShortestPaths(vertex, memory);
                 return;
 
             case UPDATE_HALTED_TRAVERSERS:
@@ -251,6 +298,11 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
                 return;
         }
 
+        if (this.distanceEqualsNumberOfHops) {
+            searchByHops(vertex, messenger, memory);
+            return;
+        }
+
         boolean voteToHalt = true;
 
         if (memory.isInitialIteration()) {
@@ -261,7 +313,10 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
             copyHaltedTraversersFromMemory(vertex);
 
             // ignore vertices that don't pass the start-vertex filter
-            if (!isStartVertex(vertex)) return;
+            if (!isStartVertex(vertex)) {
+                messenger.voteToHalt();
+                return;
+            }
 
             // start to track paths for all valid start-vertices
             final Map<Vertex, Pair<Number, Set<Path>>> paths = new HashMap<>();
@@ -333,6 +388,15 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
 
         // VOTE_TO_HALT will be set to true if an iteration hasn't found any new paths
         memory.add(VOTE_TO_HALT, voteToHalt);
+
+        // a vertex that found no new paths finds none without messages either
+        if (voteToHalt) messenger.voteToHalt();
+    }
+
+    @Override
+    public boolean wakeHaltedVertices(final Memory memory) {
+        // every vertex takes part in collecting the paths and updating the halted traversers
+        return memory.<Integer>get(STATE) != SEARCH;
     }
 
     @Override
@@ -340,10 +404,23 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
         if (memory.isInitialIteration() && this.haltedTraversersIndex != null) {
             this.haltedTraversersIndex.clear();
         }
-        final boolean voteToHalt = memory.get(VOTE_TO_HALT);
+        final int state = memory.get(STATE);
+        boolean voteToHalt = memory.get(VOTE_TO_HALT);
+        if (state == SEARCH && this.distanceEqualsNumberOfHops) {
+            if (memory.isInitialIteration()) {
+                memory.set(BIDIRECTIONAL, this.reversibleEdgeTraversal &&
+                        memory.<Long>get(SOURCE_COUNT) == 1L && memory.<Long>get(TARGET_COUNT) == 1L);
+            }
+            // the search can end before the last vertices are reached once the distance of every pair is settled
+            if (!voteToHalt && isSettled(memory)) {
+                memory.set(VOTE_TO_HALT, true);
+                voteToHalt = true;
+            }
+        }
         if (voteToHalt) {
-            final int state = memory.get(STATE);
             if (state == COLLECT_PATHS) {
+                if (this.distanceEqualsNumberOfHops)
+                    memory.set(SHORTEST_PATHS, makeShortestPaths(memory));
                 // After paths were collected,
                 // a) the VP is done in standalone mode (paths will be in memory) or
                 // b) the halted traversers will be updated in order to have the paths available in the traversal
@@ -352,7 +429,11 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
                 return false;
             }
             if (state == UPDATE_HALTED_TRAVERSERS) return true;
-            else memory.set(STATE, COLLECT_PATHS); // collect paths if no new paths were found
+            else {
+                // collect paths if no new paths were found
+                memory.set(STATE, COLLECT_PATHS);
+                memory.set(SEARCH_ITERATIONS, memory.getIteration());
+            }
             return false;
         } else {
             memory.set(VOTE_TO_HALT, true);
@@ -460,6 +541,243 @@ public class ShortestPathVertexProgram implements VertexProgram<Triplet<Path, Ed
         }
     }
 
+    /**
+     * Searches for the shortest paths measured in hops, where a vertex is first reached at its distance from the
+     * source and only keeps the vertices it was reached from at that distance. In a bidirectional search the target
+     * searches along the reversed edges from the second iteration on, when the number of sources and targets is known.
+     */
+    private void searchByHops(final Vertex vertex, final Messenger<Triplet<Path, Edge, Number>> messenger,
+                              final Memory memory) {
+
+        final Map<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>> predecessors;
+        final List<Vertex> reachedFrom = new ArrayList<>();
+        final boolean bidirectional;
+        final Vertex target;
+
+        if (memory.isInitialIteration()) {
+
+            copyHaltedTraversersFromMemory(vertex);
+
+            bidirectional = false;
+            target = null;
+            predecessors = new HashMap<>();
+            final boolean isEndVertex = isEndVertex(vertex);
+            if (isEndVertex) {
+                vertex.property(VertexProperty.Cardinality.single, IS_TARGET, true);
+                memory.add(TARGET_COUNT, 1L);
+                memory.add(TARGET_VERTEX, ReferenceFactory.detach(vertex));
+            }
+            if (isStartVertex(vertex)) {
+                final Vertex source = ReferenceFactory.detach(vertex);
+                memory.add(SOURCE_COUNT, 1L);
+                memory.add(SOURCE_VERTEX, source);
+                predecessors.put(source, Pair.with(0, new HashSet<>()));
+                reachedFrom.add(source);
+                if (isEndVertex) memory.add(SETTLED_PAIRS, 1L);
+            }
+        } else {
+
+            bidirectional = memory.get(BIDIRECTIONAL);
+            target = bidirectional ? memory.get(TARGET_VERTEX) : null;
+            predecessors = vertex.<Map<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>>>property(PREDECESSORS)
+                    .orElseGet(HashMap::new);
+
+            // the backward search starts at the target
+            if (bidirectional && 1 == memory.getIteration() && vertex.property(IS_TARGET).isPresent()) {
+                predecessors.put(target, Pair.with(0, new HashSet<>()));
+                reachedFrom.add(target);
+            }
+
+            final Iterator<Triplet<Path, Edge, Number>> iterator = messenger.receiveMessages();
+            while (iterator.hasNext()) {
+                final Triplet<Path, Edge, Number> triplet = iterator.next();
+                final Vertex origin = triplet.getValue0().get(0);
+                final Vertex predecessor = triplet.getValue0().get(1);
+                final Number distance = triplet.getValue2();
+                final Pair<Number, Set<Pair<Vertex, Edge>>> pair = predecessors.get(origin);
+                if (null == pair) {
+                    // the first messages from an origin arrive over the shortest paths
+                    final Set<Pair<Vertex, Edge>> links = new HashSet<>();
+                    links.add(Pair.with(predecessor, triplet.getValue1()));
+                    predecessors.put(origin, Pair.with(distance, links));
+                    reachedFrom.add(origin);
+                } else if (NumberHelper.compare(distance, pair.getValue0()) == 0) {
+                    pair.getValue1().add(Pair.with(predecessor, triplet.getValue1()));
+                }
+            }
+        }
+
+        if (!reachedFrom.isEmpty()) {
+            vertex.property(VertexProperty.Cardinality.single, PREDECESSORS, predecessors);
+            final Vertex self = ReferenceFactory.detach(vertex);
+            for (final Vertex origin : reachedFrom) {
+                final boolean backward = bidirectional && origin.equals(target);
+                if (!backward && !memory.isInitialIteration() && vertex.property(IS_TARGET).isPresent())
+                    memory.add(SETTLED_PAIRS, 1L);
+                final Number distance = NumberHelper.add(predecessors.get(origin).getValue0(), 1);
+                if (!exceedsMaxDistance(distance))
+                    sendPredecessor(vertex, self, origin, distance, backward, messenger);
+            }
+            if (bidirectional && predecessors.containsKey(target)) {
+                for (final Map.Entry<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>> entry : predecessors.entrySet()) {
+                    if (!entry.getKey().equals(target))
+                        memory.add(MEETING_DISTANCE, NumberHelper.add(entry.getValue().getValue0(),
+                                predecessors.get(target).getValue0()));
+                }
+            }
+        }
+
+        final boolean voteToHalt = reachedFrom.isEmpty();
+        memory.add(VOTE_TO_HALT, voteToHalt);
+        if (voteToHalt) messenger.voteToHalt();
+    }
+
+    private void sendPredecessor(final Vertex vertex, final Vertex self, final Vertex origin, final Number distance,
+                                 final boolean backward, final Messenger<Triplet<Path, Edge, Number>> messenger) {
+
+        final Traversal.Admin<Vertex, Edge> edgeTraversal = backward ?
+                VertexProgramHelper.reverse(this.edgeTraversal.getPure()) :
+                this.edgeTraversal.getPure();
+        edgeTraversal.addStart(edgeTraversal.getTraverserGenerator().generate(vertex, edgeTraversal.getStartStep(), 1));
+
+        final Path path = ImmutablePath.make().extend(origin, Collections.emptySet()).extend(self, Collections.emptySet());
+        while (edgeTraversal.hasNext()) {
+            final Edge edge = edgeTraversal.next();
+            Vertex otherV = edge.inVertex();
+            if (otherV.equals(vertex))
+                otherV = edge.outVertex();
+            messenger.sendMessage(MessageScope.Global.of(otherV),
+                    Triplet.with(path, this.includeEdges ? ReferenceFactory.detach(edge) : null, distance));
+        }
+    }
+
+    private static boolean isSettled(final Memory memory) {
+        if (memory.<Boolean>get(BIDIRECTIONAL) && memory.<Integer>get(MEETING_DISTANCE) < Integer.MAX_VALUE)
+            return true;
+        return memory.<Long>get(SETTLED_PAIRS) == memory.<Long>get(SOURCE_COUNT) * memory.<Long>get(TARGET_COUNT);
+    }
+
+    /**
+     * Only an edge traversal that walks along a single direction and filters the edges it walks over can be walked
+     * backwards by reversing that direction.
+     */
+    private static boolean isReversible(final Traversal.Admin<Vertex, Edge> edgeTraversal) {
+        int vertexSteps = 0;
+        for (final Step<?, ?> step : edgeTraversal.getSteps()) {
+            if (step instanceof VertexStep && ((VertexStep<?>) step).returnsEdge())
+                vertexSteps++;
+            else if (!(step instanceof FilterStep))
+                return false;
+        }
+        return vertexSteps == 1;
+    }
+
+    /**
+     * Moves the predecessors of a vertex into the VP's memory.
+     * @param vertex The current vertex.
+     * @param memory The VertexProgram's memory.
+     */
+    private void collectPredecessors(final Vertex vertex, final Memory memory) {
+
+        final VertexProperty<Map<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>>> predecessorProperty =
+                vertex.property(PREDECESSORS);
+
+        if (predecessorProperty.isPresent()) {
+            final Vertex self = ReferenceFactory.detach(vertex);
+            final List<Triplet<Vertex, Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>>> links = new ArrayList<>();
+            for (final Map.Entry<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>> entry : predecessorProperty.value().entrySet()) {
+                links.add(Triplet.with(entry.getKey(), self, entry.getValue()));
+            }
+            memory.add(PREDECESSOR_LINKS, links);
+            if (vertex.property(IS_TARGET).isPresent())
+                memory.add(REACHED_TARGETS, new ArrayList<>(Collections.singletonList(self)));
+            predecessorProperty.remove();
+        }
+    }
+
+    /**
+     * Puts the shortest paths together from the predecessors of the vertices. A bidirectional search that met
+     * joins the paths from the source and from the target at the vertices in between them whose distances are
+     * settled in both searches.
+     */
+    private List<Path> makeShortestPaths(final Memory memory) {
+
+        final Map<Vertex, Map<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>>> predecessors = new HashMap<>();
+        for (final Triplet<Vertex, Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>> link :
+                memory.<List<Triplet<Vertex, Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>>>>get(PREDECESSOR_LINKS)) {
+            predecessors.computeIfAbsent(link.getValue0(), k -> new HashMap<>()).put(link.getValue1(), link.getValue2());
+        }
+
+        final List<Path> result = new ArrayList<>();
+        final boolean bidirectional = memory.get(BIDIRECTIONAL);
+        final Vertex source = bidirectional ? memory.get(SOURCE_VERTEX) : null;
+        final int meetingDistance = memory.get(MEETING_DISTANCE);
+
+        if (bidirectional && meetingDistance < Integer.MAX_VALUE) {
+            if (this.maxDistance != null && NumberHelper.compare(meetingDistance, this.maxDistance) > 0)
+                return result;
+            final Map<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>> forward =
+                    predecessors.getOrDefault(source, Collections.emptyMap());
+            final Map<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>> backward =
+                    predecessors.getOrDefault(memory.<Vertex>get(TARGET_VERTEX), Collections.emptyMap());
+            // the search iterations bound the distances known from the source, the rest is known from the target
+            final int split = Math.min(memory.<Integer>get(SEARCH_ITERATIONS), meetingDistance);
+            for (final Map.Entry<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>> entry : forward.entrySet()) {
+                final Pair<Number, Set<Pair<Vertex, Edge>>> fromTarget = backward.get(entry.getKey());
+                if (entry.getValue().getValue0().intValue() != split || null == fromTarget ||
+                        fromTarget.getValue0().intValue() != meetingDistance - split)
+                    continue;
+                for (final List<Element> head : walkPredecessors(forward, entry.getKey())) {
+                    for (final List<Element> tail : walkPredecessors(backward, entry.getKey())) {
+                        final List<Element> elements = new ArrayList<>(head);
+                        for (int i = tail.size() - 2; i >= 0; i--) {
+                            elements.add(tail.get(i));
+                        }
+                        result.add(makePath(elements));
+                    }
+                }
+            }
+        } else {
+            for (final Vertex target : memory.<List<Vertex>>get(REACHED_TARGETS)) {
+                for (final Map.Entry<Vertex, Map<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>>> entry : predecessors.entrySet()) {
+                    // the target only searched backwards in a bidirectional search
+                    if ((!bidirectional || entry.getKey().equals(source)) && entry.getValue().containsKey(target)) {
+                        for (final List<Element> elements : walkPredecessors(entry.getValue(), target)) {
+                            result.add(makePath(elements));
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<List<Element>> walkPredecessors(final Map<Vertex, Pair<Number, Set<Pair<Vertex, Edge>>>> predecessors,
+                                                 final Vertex vertex) {
+        final List<List<Element>> result = new ArrayList<>();
+        final Set<Pair<Vertex, Edge>> links = predecessors.get(vertex).getValue1();
+        if (links.isEmpty()) {
+            result.add(new ArrayList<>(Collections.singletonList(vertex)));
+        } else {
+            for (final Pair<Vertex, Edge> link : links) {
+                for (final List<Element> elements : walkPredecessors(predecessors, link.getValue0())) {
+                    if (link.getValue1() != null) elements.add(link.getValue1());
+                    elements.add(vertex);
+                    result.add(elements);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Path makePath(final List<Element> elements) {
+        Path result = ImmutablePath.make();
+        for (final Element element : elements) {
+            result = result.extend(element, Collections.emptySet());
+        }
+        return result;
+    }
+
     private void updateHaltedTraversers(final Vertex vertex, final Memory memory) {
         if (isStartVertex(vertex)) {
             final List<Path> paths = memory.get(SHORTEST_PATHS);
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.computer.traversal;
+
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+
+import java.util.Iterator;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code Future} of a {@link GraphComputer} computation that hands the halted traversers of a
+ * {@link TraversalVertexProgram} to the caller while it still runs, rather than holding all of them in the
+ * {@link TraversalVertexProgram#HALTED_TRAVERSERS} memory key of the {@link ComputerResult}. A {@link GraphComputer}
+ * may only return one when {@link TraversalVertexProgram#canStreamHaltedTraversers()} is {@code true}, as then the
+ * halted traversers are read by nothing but the {@code ComputerResultStep} that follows the traversal.
+ */
+public interface HaltedTraverserStream<S> extends Future<ComputerResult> {
+
+    /**
+     * Gets the halted traversers as they are produced, where {@code hasNext()} waits for more until the computation
+     * is done. The computation may be held up until the traversers are taken, so they must be iterated to the end,
+     * or the computation cancelled, for it to complete.
+     */
+    public Iterator<Traverser.Admin<S>> haltedTraversers();
+}
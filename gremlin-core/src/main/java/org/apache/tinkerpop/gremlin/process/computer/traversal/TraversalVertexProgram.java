@@ -133,6 +133,15 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
         return this.traversal;
     }
 
+    /**
+     * Determines if the halted traversers are read by nothing but the {@link ComputerResultStep} that follows the
+     * traversal, in which case a {@link GraphComputer} may hand them over as they are produced with a
+     * {@link HaltedTraverserStream} rather than hold them in the {@link #HALTED_TRAVERSERS} memory key.
+     */
+    public boolean canStreamHaltedTraversers() {
+        return this.returnHaltedTraversers && this.traversal.get().getParent().asStep().getNextStep() instanceof ComputerResultStep;
+    }
+
     public static <R> TraverserSet<R> loadHaltedTraversers(final Configuration configuration) {
         if (!configuration.containsKey(HALTED_TRAVERSERS))
             return new TraverserSet<>();
@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.process.computer.traversal.step.map;
 
 import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.StreamingComputerResult;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
@@ -41,10 +42,11 @@ import java.util.Set;
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class ComputerResultStep<S> extends AbstractStep<ComputerResult, S> {
+public final class ComputerResultStep<S> extends AbstractStep<ComputerResult, S> implements AutoCloseable {
 
     private final boolean attachElements = Boolean.valueOf(System.getProperty("is.testing", "false"));
     private Iterator<Traverser.Admin<S>> currentIterator = EmptyIterator.instance();
+    private ComputerResult currentResult = null;
 
     public ComputerResultStep(final Traversal.Admin traversal) {
         super(traversal);
@@ -66,13 +68,26 @@ public final class ComputerResultStep<S> extends AbstractStep<ComputerResult, S>
                 return this.currentIterator.next();
             else {
                 final ComputerResult result = this.starts.next().get();
-                this.currentIterator = attach(result.memory().exists(TraversalVertexProgram.HALTED_TRAVERSERS)
-                        ? result.memory().<TraverserSet<S>>get(TraversalVertexProgram.HALTED_TRAVERSERS).iterator()
-                        : EmptyIterator.instance(), result.graph());
+                this.currentResult = result;
+                if (result instanceof StreamingComputerResult)
+                    this.currentIterator = attach(((StreamingComputerResult) result).<S>haltedTraversers(), result.graph());
+                else
+                    this.currentIterator = attach(result.memory().exists(TraversalVertexProgram.HALTED_TRAVERSERS)
+                            ? result.memory().<TraverserSet<S>>get(TraversalVertexProgram.HALTED_TRAVERSERS).iterator()
+                            : EmptyIterator.instance(), result.graph());
             }
         }
     }
 
+    /**
+     * Cancels the computation of a {@link StreamingComputerResult} whose halted traversers were not all taken.
+     */
+    @Override
+    public void close() throws Exception {
+        if (this.currentResult instanceof StreamingComputerResult)
+            this.currentResult.close();
+    }
+
     @Override
     public String toString() {
         return StringFactory.stepString(this);
@@ -87,6 +102,7 @@ public final class ComputerResultStep<S> extends AbstractStep<ComputerResult, S>
     public ComputerResultStep<S> clone() {
         final ComputerResultStep<S> clone = (ComputerResultStep<S>) super.clone();
         clone.currentIterator = EmptyIterator.instance();
+        clone.currentResult = null;
         return clone;
     }
 }
@@ -23,9 +23,11 @@ import org.apache.tinkerpop.gremlin.process.computer.Computer;
 import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.HaltedTraverserStream;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.step.VertexComputing;
 import org.apache.tinkerpop.gremlin.process.computer.util.EmptyMemory;
+import org.apache.tinkerpop.gremlin.process.computer.util.StreamingComputerResult;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSideEffects;
@@ -65,6 +67,8 @@ public abstract class VertexProgramStep extends AbstractStep<ComputerResult, Com
                 this.first = false;
                 final Graph graph = this.getTraversal().getGraph().get();
                 future = this.getComputer().apply(graph).program(this.generateProgram(graph, EmptyMemory.instance())).submit();
+                if (future instanceof HaltedTraverserStream)
+                    return this.getTraversal().getTraverserGenerator().generate(this.stream(graph, (HaltedTraverserStream<?>) future), this, 1l);
                 final ComputerResult result = future.get();
                 this.processMemorySideEffects(result.memory());
                 return this.getTraversal().getTraverserGenerator().generate(result, this, 1l);
@@ -73,6 +77,8 @@ public abstract class VertexProgramStep extends AbstractStep<ComputerResult, Com
                 final Graph graph = traverser.get().graph();
                 final Memory memory = traverser.get().memory();
                 future = this.getComputer().apply(graph).program(this.generateProgram(graph, memory)).submit();
+                if (future instanceof HaltedTraverserStream)
+                    return traverser.split(this.stream(graph, (HaltedTraverserStream<?>) future), this);
                 final ComputerResult result = future.get();
                 this.processMemorySideEffects(result.memory());
                 return traverser.split(result, this);
@@ -116,6 +122,14 @@ public abstract class VertexProgramStep extends AbstractStep<ComputerResult, Com
         return false;
     }
 
+    /**
+     * Wraps a computation that hands over its halted traversers as they are produced, whose side-effects are only
+     * processed once the {@link ComputerResultStep} has taken all of them.
+     */
+    private ComputerResult stream(final Graph graph, final HaltedTraverserStream<?> stream) {
+        return new StreamingComputerResult(graph, stream, result -> this.processMemorySideEffects(result.memory()));
+    }
+
     private void processMemorySideEffects(final Memory memory) {
         // update the traversal side-effects with the state of the memory after the OLAP job execution
         final TraversalSideEffects sideEffects = this.getTraversal().getSideEffects();
@@ -34,6 +34,14 @@ public final class ImmutableMemory implements Memory.Admin {
         this.baseMemory = baseMemory;
     }
 
+    /**
+     * Gets the memory that this memory is an immutable view of, which may offer details specific to its
+     * {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer}.
+     */
+    public Memory getBaseMemory() {
+        return this.baseMemory;
+    }
+
     @Override
     public Set<String> keys() {
         return this.baseMemory.keys();
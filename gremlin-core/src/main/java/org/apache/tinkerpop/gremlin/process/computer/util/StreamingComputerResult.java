@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.computer.util;
+
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.HaltedTraverserStream;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * The {@link ComputerResult} of a computation that is still running, whose halted traversers are taken from a
+ * {@link HaltedTraverserStream} as they are produced. The {@link Memory} is only there once the computation is done,
+ * so {@link #memory()} waits for it, and the {@link Graph} is the one that the computation was submitted to.
+ */
+public final class StreamingComputerResult implements ComputerResult {
+
+    private final Graph graph;
+    private final HaltedTraverserStream<?> stream;
+    private final Consumer<ComputerResult> onComplete;
+    private volatile ComputerResult result = null;
+
+    /**
+     * @param graph      the graph that the computation was submitted to
+     * @param stream     the running computation
+     * @param onComplete called with the final result once the halted traversers are all taken
+     */
+    public StreamingComputerResult(final Graph graph, final HaltedTraverserStream<?> stream, final Consumer<ComputerResult> onComplete) {
+        this.graph = graph;
+        this.stream = stream;
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * Gets the halted traversers of the computation, which completes the result when they run out.
+     */
+    public <S> Iterator<Traverser.Admin<S>> haltedTraversers() {
+        final Iterator<Traverser.Admin<S>> iterator = (Iterator) this.stream.haltedTraversers();
+        return new Iterator<Traverser.Admin<S>>() {
+            @Override
+            public boolean hasNext() {
+                if (iterator.hasNext()) return true;
+                complete();
+                return false;
+            }
+
+            @Override
+            public Traverser.Admin<S> next() {
+                if (!this.hasNext()) throw FastNoSuchElementException.instance();
+                return iterator.next();
+            }
+        };
+    }
+
+    @Override
+    public Graph graph() {
+        return this.graph;
+    }
+
+    @Override
+    public Memory memory() {
+        return this.complete().memory();
+    }
+
+    /**
+     * Cancels the computation if it is still running.
+     */
+    @Override
+    public void close() {
+        if (!this.stream.isDone()) this.stream.cancel(true);
+    }
+
+    private synchronized ComputerResult complete() {
+        if (null == this.result) {
+            try {
+                this.result = this.stream.get();
+            } catch (final InterruptedException ie) {
+                this.stream.cancel(true);
+                throw new TraversalInterruptedException();
+            } catch (final ExecutionException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            this.onComplete.accept(this.result);
+        }
+        return this.result;
+    }
+
+    @Override
+    public String toString() {
+        // the memory is not asked for before the computation is done as that could wait on the halted traversers
+        return null == this.result ? "result[" + this.graph + ",streaming]" : StringFactory.computeResultString(this);
+    }
+}
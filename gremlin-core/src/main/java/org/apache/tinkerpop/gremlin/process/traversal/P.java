@@ -67,6 +67,15 @@ public class P<V> implements Predicate<V>, Serializable, Cloneable {
         this.value = value;
     }
 
+    /**
+     * Replaces the value as if the {@code P} had been constructed with it, so that it also becomes the original
+     * value.
+     */
+    public void bindValue(final V value) {
+        this.value = value;
+        this.originalValue = value;
+    }
+
     @Override
     public boolean test(final V testValue) {
         return this.biPredicate.test(testValue, this.value);
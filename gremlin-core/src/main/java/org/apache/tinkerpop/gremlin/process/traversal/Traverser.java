@@ -192,6 +192,21 @@ public interface Traverser<T> extends Serializable, Comparable<Traverser<T>>, Cl
          */
         public <R> Admin<R> split(final R r, final Step<T, R> step);
 
+        /**
+         * Generate the same child traverser as {@link #split(Object, Step)} for a caller that is done with the current
+         * traverser and holds the only reference to it, in which case the current traverser may be reused as the child
+         * rather than copied. The current traverser must not be used once this method is called. The default
+         * implementation simply calls {@link #split(Object, Step)}.
+         *
+         * @param r    The current object of the child
+         * @param step The step yielding the split
+         * @param <R>  The current object type of the child
+         * @return The split traverser, which may be this traverser
+         */
+        public default <R> Admin<R> recycle(final R r, final Step<T, R> step) {
+            return this.split(r, step);
+        }
+
         /**
          * Generate a sibling traverser of the current traverser with a full copy of all state within the sibling.
          *
@@ -36,21 +36,44 @@ public abstract class FilterStep<S> extends AbstractStep<S, S> {
     @Override
     protected Traverser.Admin<S> processNextStart() {
         while (true) {
-            try {
-                final Traverser.Admin<S> traverser = this.starts.next();
-                if (this.filter(traverser))
-                    return traverser;
-            } catch (GremlinTypeErrorException ex) {
-                if (this instanceof BinaryReductionStep || getTraversal().isRoot()) {
-                    /*
-                     * Either we are at a known reduction point (TraversalFilterStep, WhereTraversalStep), or we
-                     * are at the top level of the query. In either of these cases we do a binary reduction from
-                     * ERROR -> FALSE and filter the solution quietly.
-                     */
-                } else {
-                    // not a ternary -> binary reducer, pass the ERROR on
-                    throw ex;
-                }
+            final Traverser.Admin<S> traverser = this.starts.next();
+            if (this.test(traverser))
+                return traverser;
+        }
+    }
+
+    @Override
+    protected int processNextStarts(final Traverser.Admin<S>[] traversers) {
+        while (true) {
+            final int size = this.starts.next(traversers);
+            if (0 == size)
+                return 0;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                final Traverser.Admin<S> traverser = traversers[i];
+                traversers[i] = null;
+                if (this.test(traverser))
+                    traversers[count++] = traverser;
+            }
+            if (count > 0)
+                return count;
+        }
+    }
+
+    private boolean test(final Traverser.Admin<S> traverser) {
+        try {
+            return this.filter(traverser);
+        } catch (GremlinTypeErrorException ex) {
+            if (this instanceof BinaryReductionStep || getTraversal().isRoot()) {
+                /*
+                 * Either we are at a known reduction point (TraversalFilterStep, WhereTraversalStep), or we
+                 * are at the top level of the query. In either of these cases we do a binary reduction from
+                 * ERROR -> FALSE and filter the solution quietly.
+                 */
+                return false;
+            } else {
+                // not a ternary -> binary reducer, pass the ERROR on
+                throw ex;
             }
         }
     }
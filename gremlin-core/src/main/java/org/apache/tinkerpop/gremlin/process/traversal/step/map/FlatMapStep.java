@@ -42,7 +42,7 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
     protected Traverser.Admin<E> processNextStart() {
         while (true) {
             if (this.iterator.hasNext()) {
-                return this.head.split(this.iterator.next(), this);
+                return this.nextSplit();
             } else {
                 closeIterator();
                 this.head = this.starts.next();
@@ -51,6 +51,37 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
         }
     }
 
+    @Override
+    protected int processNextStarts(final Traverser.Admin<E>[] traversers) {
+        int count = 0;
+        while (count < traversers.length) {
+            if (this.iterator.hasNext()) {
+                traversers[count++] = this.nextSplit();
+            } else {
+                closeIterator();
+                if (!this.starts.hasNext())
+                    break;
+                this.head = this.starts.next();
+                this.iterator = this.flatMap(this.head);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Splits the head for the next object of the iterator, recycling the head for the last one as it is not needed
+     * after that, which saves the copy for steps like {@code inV()} or {@code values()} that mostly have one.
+     */
+    private Traverser.Admin<E> nextSplit() {
+        final E end = this.iterator.next();
+        if (!this.isRecycling() || this.iterator.hasNext())
+            return this.head.split(end, this);
+
+        final Traverser.Admin<S> traverser = this.head;
+        this.head = null;
+        return traverser.recycle(end, this);
+    }
+
     protected abstract Iterator<E> flatMap(final Traverser.Admin<S> traverser);
 
     @Override
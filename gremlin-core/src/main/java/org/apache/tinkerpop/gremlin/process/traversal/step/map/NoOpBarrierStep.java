@@ -22,22 +22,55 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.LocalBarrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.util.Collections;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
+ * A barrier that bulks up to {@code maxBarrierSize} traversers before passing them on. An adaptive barrier starts at
+ * that size and, each time it fills, doubles its size when at least half of the traversers it took were merged into
+ * others and halves it when almost none were. It does not grow, and shrinks back instead, while the live objects the
+ * last garbage collection left in the old generation of the heap fill most of it, and at its smallest size it lets
+ * traversers pass through without bulking for a while before trying again.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements LocalBarrier<S> {
+public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements LocalBarrier<S>, Profiling {
+
+    private static final int MIN_ADAPTIVE_BARRIER_SIZE = 64;
+    private static final int MAX_ADAPTIVE_BARRIER_GROWTH = 8;
+    private static final int BYPASS_BARRIER_FILLS = 4;
+    private static final double GROW_MERGE_RATIO = 0.5d;
+    private static final double SHRINK_MERGE_RATIO = 0.05d;
+    private static final double MEMORY_PRESSURE_RATIO = 0.8d;
+
+    /**
+     * The heap pool that holds long lived objects, which is the one heap pool that supports a usage threshold for
+     * the common collectors, or {@code null} if there is none.
+     */
+    private static final MemoryPoolMXBean TENURED_POOL = ManagementFactory.getMemoryPoolMXBeans().stream().
+            filter(pool -> pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported() && pool.isCollectionUsageThresholdSupported()).
+            reduce((a, b) -> b).orElse(null);
 
     private int maxBarrierSize;
+    private boolean adaptive;
+    private int barrierSize;
+    private int peakBarrierSize;
+    private long bypassRemaining = 0L;
+    private long bypassedTraversers = 0L;
+    private MutableMetrics metrics = null;
     private TraverserSet<S> barrier;
 
     public NoOpBarrierStep(final Traversal.Admin traversal) {
@@ -45,18 +78,44 @@ public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements Loca
     }
 
     public NoOpBarrierStep(final Traversal.Admin traversal, final int maxBarrierSize) {
+        this(traversal, maxBarrierSize, false);
+    }
+
+    /**
+     * Creates a barrier that is adaptive when {@code adaptive} is {@code true} and {@code maxBarrierSize} is bounded,
+     * in which case {@code maxBarrierSize} is its starting size.
+     */
+    public NoOpBarrierStep(final Traversal.Admin traversal, final int maxBarrierSize, final boolean adaptive) {
         super(traversal);
         this.maxBarrierSize = maxBarrierSize;
+        this.adaptive = adaptive && maxBarrierSize != Integer.MAX_VALUE;
+        this.barrierSize = maxBarrierSize;
+        this.peakBarrierSize = maxBarrierSize;
         this.barrier = (TraverserSet<S>) this.traversal.getTraverserSetSupplier().get();
     }
 
     @Override
     protected Traverser.Admin<S> processNextStart() throws NoSuchElementException {
-        if (this.barrier.isEmpty())
+        if (this.barrier.isEmpty()) {
+            if (this.bypassRemaining > 0) {
+                final Traverser.Admin<S> traverser = this.starts.next();
+                traverser.setStepId(this.getNextStep().getId());
+                this.bypassRemaining--;
+                this.bypassedTraversers++;
+                if (null != this.metrics) this.annotate();
+                return traverser;
+            }
             this.processAllStarts();
+        }
         return this.barrier.remove();
     }
 
+    @Override
+    public void setMetrics(final MutableMetrics metrics) {
+        this.metrics = metrics;
+        if (this.adaptive) this.annotate();
+    }
+
     @Override
     public Set<TraverserRequirement> getRequirements() {
         return Collections.singleton(TraverserRequirement.BULK);
@@ -64,11 +123,56 @@ public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements Loca
 
     @Override
     public void processAllStarts() {
-        while ((this.maxBarrierSize == Integer.MAX_VALUE || this.barrier.size() < this.maxBarrierSize) && this.starts.hasNext()) {
+        final int size = this.barrierSize;
+        final int startSize = this.barrier.size();
+        long taken = 0L;
+        while ((size == Integer.MAX_VALUE || this.barrier.size() < size) && this.starts.hasNext()) {
             final Traverser.Admin<S> traverser = this.starts.next();
             traverser.setStepId(this.getNextStep().getId()); // when barrier is reloaded, the traversers should be at the next step
             this.barrier.add(traverser);
+            taken++;
         }
+        // a barrier that did not fill only saw the tail of the starts which says little about the ones to come
+        if (this.adaptive && taken > 0 && this.barrier.size() >= size)
+            this.adapt(taken, this.barrier.size() - startSize);
+    }
+
+    /**
+     * Chooses the size of the next fill of an adaptive barrier from how many of the traversers taken in the last fill
+     * were merged into others.
+     */
+    private void adapt(final long taken, final int added) {
+        final double mergeRatio = 1d - ((double) added / taken);
+        final int minBarrierSize = Math.min(MIN_ADAPTIVE_BARRIER_SIZE, this.maxBarrierSize);
+        // the heap is only looked at where the barrier would grow or has grown beyond its starting size
+        final boolean memoryPressure = (mergeRatio >= GROW_MERGE_RATIO || this.barrierSize > this.maxBarrierSize) &&
+                isMemoryPressured();
+        if (mergeRatio >= GROW_MERGE_RATIO && !memoryPressure) {
+            this.barrierSize = (int) Math.min((long) this.barrierSize * 2, (long) this.maxBarrierSize * MAX_ADAPTIVE_BARRIER_GROWTH);
+            this.peakBarrierSize = Math.max(this.peakBarrierSize, this.barrierSize);
+        } else if (mergeRatio < SHRINK_MERGE_RATIO || memoryPressure) {
+            if (this.barrierSize > minBarrierSize)
+                this.barrierSize = Math.max(this.barrierSize / 2, minBarrierSize);
+            else if (mergeRatio < SHRINK_MERGE_RATIO)
+                this.bypassRemaining = (long) this.maxBarrierSize * BYPASS_BARRIER_FILLS;
+        }
+        if (null != this.metrics) this.annotate();
+    }
+
+    /**
+     * Determines if the objects that survived the last collection of the old generation fill most of it, which unlike
+     * the current usage of the heap does not count garbage that is yet to be collected.
+     */
+    private static boolean isMemoryPressured() {
+        if (null == TENURED_POOL) return false;
+        final MemoryUsage usage = TENURED_POOL.getCollectionUsage();
+        return null != usage && usage.getMax() > 0 && usage.getUsed() > usage.getMax() * MEMORY_PRESSURE_RATIO;
+    }
+
+    private void annotate() {
+        this.metrics.setAnnotation("barrierSize", this.barrierSize);
+        this.metrics.setAnnotation("peakBarrierSize", this.peakBarrierSize);
+        this.metrics.setAnnotation("bypassedTraversers", this.bypassedTraversers);
     }
 
     @Override
@@ -97,6 +201,11 @@ public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements Loca
     @Override
     public NoOpBarrierStep<S> clone() {
         final NoOpBarrierStep<S> clone = (NoOpBarrierStep<S>) super.clone();
+        clone.barrierSize = this.maxBarrierSize;
+        clone.peakBarrierSize = this.maxBarrierSize;
+        clone.bypassRemaining = 0L;
+        clone.bypassedTraversers = 0L;
+        clone.metrics = null;
         clone.barrier = (TraverserSet<S>) this.traversal.getTraverserSetSupplier().get();
         return clone;
     }
@@ -108,16 +217,32 @@ public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements Loca
 
     @Override
     public int hashCode() {
-        return super.hashCode() ^ this.maxBarrierSize;
+        return super.hashCode() ^ this.maxBarrierSize ^ Boolean.hashCode(this.adaptive);
     }
 
     @Override
     public void reset() {
         super.reset();
         this.barrier.clear();
+        this.barrierSize = this.maxBarrierSize;
+        this.peakBarrierSize = this.maxBarrierSize;
+        this.bypassRemaining = 0L;
+        this.bypassedTraversers = 0L;
     }
 
     public int getMaxBarrierSize() {
         return maxBarrierSize;
     }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Gets the size that the barrier fills up to next, which is the {@link #getMaxBarrierSize()} unless the barrier
+     * {@link #isAdaptive()}.
+     */
+    public int getBarrierSize() {
+        return barrierSize;
+    }
 }
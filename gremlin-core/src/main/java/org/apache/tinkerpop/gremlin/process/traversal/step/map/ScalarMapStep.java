@@ -37,7 +37,19 @@ public abstract class ScalarMapStep<S, E> extends MapStep<S,E> {
     @Override
     protected Traverser.Admin<E> processNextStart() {
         final Traverser.Admin<S> traverser = this.starts.next();
-        return traverser.split(this.map(traverser), this);
+        return this.isRecycling() ? traverser.recycle(this.map(traverser), this) : traverser.split(this.map(traverser), this);
+    }
+
+    @Override
+    protected int processNextStarts(final Traverser.Admin<E>[] traversers) {
+        // the starts are taken into the same array that their splits replace them in
+        final Traverser.Admin<S>[] starts = (Traverser.Admin<S>[]) (Traverser.Admin[]) traversers;
+        final int size = this.starts.next(starts);
+        final boolean recycling = this.isRecycling();
+        for (int i = 0; i < size; i++) {
+            traversers[i] = recycling ? starts[i].recycle(this.map(starts[i]), this) : starts[i].split(this.map(starts[i]), this);
+        }
+        return size;
     }
 
     protected abstract E map(final Traverser.Admin<S> traverser);
@@ -24,9 +24,11 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.EmptyTraverser;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -45,6 +47,12 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     protected ExpandableStepIterator<S> starts;
     protected Traverser.Admin<E> nextEnd = EmptyTraverser.instance();
     protected boolean traverserStepIdAndLabelsSetByChild = false;
+    protected int batchSize = 0;
+    protected boolean recycling = false;
+
+    private Traverser.Admin<E>[] ends = null;
+    private int endIndex = 0;
+    private int endCount = 0;
 
     protected Step<?, S> previousStep = EmptyStep.instance();
     protected Step<E, ?> nextStep = EmptyStep.instance();
@@ -84,6 +92,39 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     public void reset() {
         this.starts.clear();
         this.nextEnd = EmptyTraverser.instance();
+        this.clearEnds();
+    }
+
+    /**
+     * Sets the number of traversers that this step takes from the previous step and processes with
+     * {@link #processNextStarts(Traverser.Admin[])} at a time, where zero, the default, has it process them one at a
+     * time with {@link #processNextStart()}.
+     */
+    public void setBatchSize(final int batchSize) {
+        if (batchSize < 0)
+            throw new IllegalArgumentException("The batchSize must not be negative: " + batchSize);
+        this.batchSize = batchSize;
+        this.starts.setBatchSize(batchSize);
+        this.clearEnds();
+        this.ends = null;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * Sets whether the step may {@link Traverser.Admin#recycle(Object, Step) recycle} a traverser that it takes from
+     * the previous step into the traverser that it produces from it, rather than split a copy of it. This is only safe
+     * when nothing else holds on to the traverser once it is taken, which is determined by the
+     * {@code TraverserRecycleStrategy} that turns this on. It is off by default.
+     */
+    public void setRecycling(final boolean recycling) {
+        this.recycling = recycling;
+    }
+
+    public boolean isRecycling() {
+        return this.recycling;
     }
 
     @Override
@@ -129,6 +170,13 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
             } finally {
                 this.nextEnd = EmptyTraverser.instance();
             }
+        } else if (this.batchSize > 0) {
+            if (this.endIndex < this.endCount || this.fillEnds()) {
+                final Traverser.Admin<E> traverser = this.ends[this.endIndex];
+                this.ends[this.endIndex++] = null;
+                return traverser;
+            }
+            throw FastNoSuchElementException.instance();
         } else {
             while (true) {
                 if (Thread.interrupted()) throw new TraversalInterruptedException();
@@ -143,6 +191,8 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     public boolean hasNext() {
         if (EmptyTraverser.instance() != this.nextEnd)
             return true;
+        else if (this.batchSize > 0)
+            return this.endIndex < this.endCount || this.fillEnds();
         else {
             try {
                 while (true) {
@@ -169,8 +219,51 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
         this.traversal = traversal;
     }
 
+    /**
+     * Fills the array from its start with up to its length of the next traversers of this step, ready for the next
+     * step, and gets how many there are, which is zero once there are no more. Unless the step has a
+     * {@link #getBatchSize() batchSize} this is the same as calling {@link #next()} while {@link #hasNext()}.
+     */
+    public int nextBatch(final Traverser.Admin<E>[] traversers) {
+        int count = 0;
+        if (EmptyTraverser.instance() != this.nextEnd) {
+            traversers[count++] = this.prepareTraversalForNextStep(this.nextEnd);
+            this.nextEnd = EmptyTraverser.instance();
+        }
+        while (count < traversers.length && this.endIndex < this.endCount) {
+            traversers[count++] = this.ends[this.endIndex];
+            this.ends[this.endIndex++] = null;
+        }
+        if (this.batchSize > 0)
+            return count > 0 ? count : this.processBatch(traversers);
+        while (count < traversers.length && this.hasNext()) {
+            traversers[count++] = this.next();
+        }
+        return count;
+    }
+
     protected abstract Traverser.Admin<E> processNextStart() throws NoSuchElementException;
 
+    /**
+     * Processes the next starts of a step with a {@link #getBatchSize() batchSize}, filling the array from its start
+     * with up to its length of traversers and getting how many there are, which is zero once there are no more.
+     * Traversers with no bulk are dropped afterwards. By default this calls {@link #processNextStart()} for each
+     * traverser, so steps override it to process the starts they take with {@link ExpandableStepIterator#next(Traverser.Admin[])}
+     * in a single loop.
+     */
+    protected int processNextStarts(final Traverser.Admin<E>[] traversers) {
+        int count = 0;
+        try {
+            while (count < traversers.length) {
+                final Traverser.Admin<E> traverser = this.processNextStart();
+                traversers[count++] = traverser;
+            }
+        } catch (final NoSuchElementException e) {
+            // return what there is, which is nothing if the step is done
+        }
+        return count;
+    }
+
     @Override
     public String toString() {
         return StringFactory.stepString(this);
@@ -185,6 +278,8 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
             clone.previousStep = EmptyStep.instance();
             clone.nextStep = EmptyStep.instance();
             clone.nextEnd = EmptyTraverser.instance();
+            clone.ends = null;
+            clone.starts.setBatchSize(this.batchSize);
             clone.traversal = EmptyTraversal.instance();
             clone.labels = new LinkedHashSet<>(this.labels);
             clone.reset();
@@ -216,6 +311,44 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
         return traverserStepIdAndLabelsSetByChild;
     }
 
+    private boolean fillEnds() {
+        if (null == this.ends)
+            this.ends = new Traverser.Admin[this.batchSize];
+        this.endIndex = 0;
+        this.endCount = this.processBatch(this.ends);
+        return this.endCount > 0;
+    }
+
+    private int processBatch(final Traverser.Admin<E>[] traversers) {
+        while (true) {
+            if (Thread.interrupted()) throw new TraversalInterruptedException();
+            final int size;
+            try {
+                size = this.processNextStarts(traversers);
+            } catch (final NoSuchElementException e) {
+                return 0;
+            }
+            if (0 == size)
+                return 0;
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                final Traverser.Admin<E> traverser = traversers[i];
+                traversers[i] = null;
+                if (traverser.bulk() > 0)
+                    traversers[count++] = this.prepareTraversalForNextStep(traverser);
+            }
+            if (count > 0)
+                return count;
+        }
+    }
+
+    private void clearEnds() {
+        if (null != this.ends)
+            Arrays.fill(this.ends, null);
+        this.endIndex = 0;
+        this.endCount = 0;
+    }
+
     protected Traverser.Admin<E> prepareTraversalForNextStep(final Traverser.Admin<E> traverser) {
         if (!this.traverserStepIdAndLabelsSetByChild) {
             traverser.setStepId(this.nextStep.getId());
@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Iterator;
 
 /**
@@ -32,6 +33,9 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
 
     private TraverserSet<S> traverserSet;
     private final Step<S, ?> hostStep;
+    private Traverser.Admin<S>[] batch = null;
+    private int batchIndex = 0;
+    private int batchCount = 0;
 
     public ExpandableStepIterator(final Step<S, ?> hostStep) {
         this(hostStep, new TraverserSet<>());
@@ -44,7 +48,10 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
 
     @Override
     public boolean hasNext() {
-        return !this.traverserSet.isEmpty() || this.hostStep.getPreviousStep().hasNext();
+        if (!this.traverserSet.isEmpty()) return true;
+        return null == this.batch ?
+                this.hostStep.getPreviousStep().hasNext() :
+                this.batchIndex < this.batchCount || this.fillBatch();
     }
 
     @Override
@@ -52,12 +59,42 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
         if (!this.traverserSet.isEmpty())
             return this.traverserSet.remove();
         /////////////
-        if (this.hostStep.getPreviousStep().hasNext())
-            return this.hostStep.getPreviousStep().next();
+        if (null == this.batch) {
+            if (this.hostStep.getPreviousStep().hasNext())
+                return this.hostStep.getPreviousStep().next();
+        } else if (this.batchIndex < this.batchCount || this.fillBatch()) {
+            final Traverser.Admin<S> traverser = this.batch[this.batchIndex];
+            this.batch[this.batchIndex++] = null;
+            return traverser;
+        }
         /////////////
         return this.traverserSet.remove();
     }
 
+    /**
+     * Fills the array from its start with up to its length of the next traversers and gets how many there are,
+     * which is zero once there are no more.
+     */
+    public int next(final Traverser.Admin<S>[] traversers) {
+        int count = 0;
+        while (count < traversers.length && !this.traverserSet.isEmpty()) {
+            traversers[count++] = this.traverserSet.remove();
+        }
+        while (count < traversers.length && this.batchIndex < this.batchCount) {
+            traversers[count++] = this.batch[this.batchIndex];
+            this.batch[this.batchIndex++] = null;
+        }
+        return count > 0 ? count : nextBatch(this.hostStep.getPreviousStep(), traversers);
+    }
+
+    /**
+     * Sets the number of traversers to take from the previous step at a time, where zero takes them one at a time.
+     */
+    public void setBatchSize(final int batchSize) {
+        this.clearBatch();
+        this.batch = batchSize > 0 ? new Traverser.Admin[batchSize] : null;
+    }
+
     public void add(final Iterator<Traverser.Admin<S>> iterator) {
         iterator.forEachRemaining(this.traverserSet::add);
     }
@@ -73,5 +110,29 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
 
     public void clear() {
         this.traverserSet.clear();
+        this.clearBatch();
+    }
+
+    private boolean fillBatch() {
+        this.batchIndex = 0;
+        this.batchCount = nextBatch(this.hostStep.getPreviousStep(), this.batch);
+        return this.batchCount > 0;
+    }
+
+    private void clearBatch() {
+        if (null != this.batch)
+            Arrays.fill(this.batch, null);
+        this.batchIndex = 0;
+        this.batchCount = 0;
+    }
+
+    private static <S> int nextBatch(final Step<?, S> step, final Traverser.Admin<S>[] traversers) {
+        if (step instanceof AbstractStep)
+            return ((AbstractStep<?, S>) step).nextBatch(traversers);
+        int count = 0;
+        while (count < traversers.length && step.hasNext()) {
+            traversers[count++] = step.next();
+        }
+        return count;
     }
 }
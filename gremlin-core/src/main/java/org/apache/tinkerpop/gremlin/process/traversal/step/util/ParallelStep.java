@@ -0,0 +1,297 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Barrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A start step that runs a {@link GraphStep}, the steps that follow it and the {@link ReducingBarrierStep} or
+ * {@link CollectingBarrierStep} that ends them on the common {@link ForkJoinPool}. The traversers of the
+ * {@link GraphStep} are read on the calling thread through a {@link Spliterator} from which batches are split off as
+ * they are needed, each of which is processed up to the barrier by its own clone of the child traversal, and the
+ * barriers of the batches are merged in order into the barrier of the child traversal from which the results are
+ * then taken. The steps before the barrier must not share state between traversers, which is up to the
+ * {@code ParallelStrategy} that adds this step to check. There are never more batches processed at once than
+ * available processors, whatever the parallelism asked for, and all traversals share the same pool so that none can
+ * grow it.
+ */
+public final class ParallelStep<S, E> extends AbstractStep<S, E> implements TraversalParent {
+
+    private Traversal.Admin<S, E> parallelTraversal;
+    private final int parallelism;
+    private boolean done = false;
+
+    public ParallelStep(final Traversal.Admin traversal, final Traversal.Admin<S, E> parallelTraversal, final int parallelism) {
+        super(traversal);
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater than zero: " + parallelism);
+        this.parallelTraversal = this.integrateChild(parallelTraversal);
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    @Override
+    protected Traverser.Admin<E> processNextStart() throws NoSuchElementException {
+        if (!this.done) {
+            this.done = true;
+            this.processBatches();
+        }
+        return this.parallelTraversal.nextTraverser();
+    }
+
+    /**
+     * Splits batches off the traversers of the {@link GraphStep} and submits them to the pool, waiting for the
+     * oldest batch to finish and merging its barrier once as many batches as allowed are being processed, so that
+     * neither the traversers nor the barriers of the whole traversal are held at once.
+     */
+    private void processBatches() {
+        final Spliterator<Traverser.Admin> starts = Spliterators.spliteratorUnknownSize(
+                (GraphStep<?, ?>) this.parallelTraversal.getStartStep(), Spliterator.ORDERED);
+
+        // set what the clones of the batches read before they are made on other threads
+        this.parallelTraversal.getTraverserRequirements();
+        this.parallelTraversal.getTraverserGenerator();
+
+        final int maxRunning = Math.min(this.parallelism, Runtime.getRuntime().availableProcessors());
+        final Deque<ForkJoinTask<Object>> running = new ArrayDeque<>(maxRunning);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final AtomicBoolean cancelled = new AtomicBoolean(false);
+        Object barrier = ReducingBarrierStep.NON_EMITTING_SEED;
+        try {
+            Spliterator<Traverser.Admin> batch;
+            while (null != (batch = starts.trySplit())) {
+                if (running.size() == maxRunning)
+                    barrier = this.mergeBarriers(barrier, this.join(running.removeFirst(), failure));
+                // the batch is spread over the threads that are free, which are all of them for the first batch so
+                // that graphs with fewer traversers than a batch are still processed in parallel
+                for (final Spliterator<Traverser.Admin> piece : split(batch, maxRunning - running.size())) {
+                    running.addLast(ForkJoinPool.commonPool().submit(new BatchTask(piece, failure, cancelled)));
+                }
+            }
+            while (!running.isEmpty()) {
+                barrier = this.mergeBarriers(barrier, this.join(running.removeFirst(), failure));
+            }
+        } catch (final RuntimeException | Error e) {
+            // the batches still running when the traversal fails or is interrupted stop at their next traverser,
+            // including the one whose wait was interrupted, which is no longer in the queue
+            cancelled.set(true);
+            running.forEach(task -> task.cancel(false));
+            throw e;
+        }
+
+        if (ReducingBarrierStep.NON_EMITTING_SEED != barrier)
+            ((Barrier) this.parallelTraversal.getEndStep()).addBarrier(barrier);
+    }
+
+    /**
+     * Splits a batch into at most the given number of pieces in the order of their traversers.
+     */
+    private static List<Spliterator<Traverser.Admin>> split(final Spliterator<Traverser.Admin> batch, final int pieces) {
+        if (pieces < 2)
+            return Collections.singletonList(batch);
+        final Spliterator<Traverser.Admin> prefix = batch.trySplit();
+        if (null == prefix)
+            return Collections.singletonList(batch);
+        final List<Spliterator<Traverser.Admin>> split = new ArrayList<>(pieces);
+        split.addAll(split(prefix, pieces / 2));
+        split.addAll(split(batch, pieces - pieces / 2));
+        return split;
+    }
+
+    private Object join(final ForkJoinTask<Object> task, final AtomicReference<Throwable> failure) {
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            throw new TraversalInterruptedException();
+        } catch (final ExecutionException e) {
+            final Throwable cause = null == failure.get() ? e.getCause() : failure.get();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            else if (cause instanceof Error)
+                throw (Error) cause;
+            else
+                throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Processes the traversers of a batch with a clone of the child traversal and gets the barrier of its end step
+     * without emitting it, which is {@link ReducingBarrierStep#NON_EMITTING_SEED} if there is none.
+     */
+    private Object processBatch(final Spliterator<Traverser.Admin> batch, final AtomicBoolean cancelled) {
+        final Traversal.Admin<S, E> batchTraversal = this.parallelTraversal.clone();
+        ((GraphStep<?, ?>) batchTraversal.getStartStep()).setIteratorSupplier(Collections::emptyIterator);
+        ((Step) batchTraversal.getSteps().get(1)).addStarts(Spliterators.iterator(batch));
+
+        // the batch checks whether it was cancelled each time a traverser reaches the barrier
+        final Step<?, E> endStep = batchTraversal.getEndStep();
+        final Step cancellationStep = new CancellationStep<>(batchTraversal, cancelled);
+        cancellationStep.setPreviousStep(endStep.getPreviousStep());
+        cancellationStep.setNextStep(endStep);
+        endStep.getPreviousStep().setNextStep(cancellationStep);
+        endStep.setPreviousStep(cancellationStep);
+
+        if (endStep instanceof CollectingBarrierStep) {
+            // the barrier is merged as it is rather than by nextBarrier() which detaches the traversers for OLAP
+            final CollectingBarrierStep<E> barrierStep = (CollectingBarrierStep<E>) endStep;
+            barrierStep.processAllStarts();
+            return barrierStep.traverserSet;
+        } else {
+            final ReducingBarrierStep<?, E> barrierStep = (ReducingBarrierStep<?, E>) endStep;
+            return barrierStep.hasNextBarrier() ? barrierStep.nextBarrier() : ReducingBarrierStep.NON_EMITTING_SEED;
+        }
+    }
+
+    private Object mergeBarriers(final Object barrier, final Object otherBarrier) {
+        if (ReducingBarrierStep.NON_EMITTING_SEED == barrier)
+            return otherBarrier;
+        else if (ReducingBarrierStep.NON_EMITTING_SEED == otherBarrier)
+            return barrier;
+
+        final Step<?, E> endStep = this.parallelTraversal.getEndStep();
+        if (endStep instanceof CollectingBarrierStep) {
+            ((TraverserSet) barrier).addAll((TraverserSet) otherBarrier);
+            return barrier;
+        } else {
+            return ((ReducingBarrierStep<?, Object>) endStep).getBiOperator().apply(barrier, otherBarrier);
+        }
+    }
+
+    @Override
+    public List<Traversal.Admin<S, E>> getGlobalChildren() {
+        return Collections.singletonList(this.parallelTraversal);
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return this.parallelTraversal.getTraverserRequirements();
+    }
+
+    @Override
+    public ParallelStep<S, E> clone() {
+        final ParallelStep<S, E> clone = (ParallelStep<S, E>) super.clone();
+        clone.parallelTraversal = this.parallelTraversal.clone();
+        clone.done = false;
+        return clone;
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> parentTraversal) {
+        super.setTraversal(parentTraversal);
+        integrateChild(this.parallelTraversal);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.done = false;
+        this.parallelTraversal.reset();
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.stepString(this, this.parallelism, this.parallelTraversal);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() ^ this.parallelTraversal.hashCode() ^ Integer.hashCode(this.parallelism);
+    }
+
+    /**
+     * Stops a batch of a traversal that fails or is interrupted, as the threads of the common pool that process the
+     * batches are never interrupted. It sits in front of the barrier of the clone of the child traversal, outside of
+     * its list of steps, and passes the traversers on until the flag is set.
+     */
+    private static final class CancellationStep<S> extends AbstractStep<S, S> {
+
+        private final AtomicBoolean cancelled;
+
+        private CancellationStep(final Traversal.Admin traversal, final AtomicBoolean cancelled) {
+            super(traversal);
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected Traverser.Admin<S> processNextStart() throws NoSuchElementException {
+            if (this.cancelled.get()) throw new TraversalInterruptedException();
+            return this.starts.next();
+        }
+    }
+
+    /**
+     * Processes a batch on a thread of the pool. A batch that has not started when its traversal fails or is
+     * interrupted does not start.
+     */
+    private final class BatchTask implements Callable<Object> {
+
+        private final Spliterator<Traverser.Admin> batch;
+        private final AtomicReference<Throwable> failure;
+        private final AtomicBoolean cancelled;
+
+        private BatchTask(final Spliterator<Traverser.Admin> batch, final AtomicReference<Throwable> failure,
+                          final AtomicBoolean cancelled) {
+            this.batch = batch;
+            this.failure = failure;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public Object call() {
+            if (this.cancelled.get())
+                throw new TraversalInterruptedException();
+            try {
+                return processBatch(this.batch, this.cancelled);
+            } catch (final Throwable t) {
+                // keep the original as the fork/join pool may rethrow a copy of it and stop the other batches
+                this.failure.compareAndSet(null, t);
+                this.cancelled.set(true);
+                throw t;
+            }
+        }
+    }
+}
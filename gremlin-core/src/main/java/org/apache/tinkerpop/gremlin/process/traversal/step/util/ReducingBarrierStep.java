@@ -107,8 +107,19 @@ public abstract class ReducingBarrierStep<S, E> extends AbstractStep<S, E> imple
             this.seed = getSeedSupplier().get();
         }
 
-        while (this.starts.hasNext())
-            this.seed = this.reducingBiOperator.apply(this.seed, this.projectTraverser(this.starts.next()));
+        if (this.batchSize > 0) {
+            final Traverser.Admin<S>[] traversers = new Traverser.Admin[this.batchSize];
+            int size;
+            while ((size = this.starts.next(traversers)) > 0) {
+                for (int i = 0; i < size; i++) {
+                    this.seed = this.reducingBiOperator.apply(this.seed, this.projectTraverser(traversers[i]));
+                    traversers[i] = null;
+                }
+            }
+        } else {
+            while (this.starts.hasNext())
+                this.seed = this.reducingBiOperator.apply(this.seed, this.projectTraverser(this.starts.next()));
+        }
     }
 
     @Override
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.IdStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code BatchStrategy} is an OLTP-only strategy that has the steps of the root traversal which can process their
+ * starts in batches do so with a {@link AbstractStep#setBatchSize(int) batchSize}. A batched step takes up to that
+ * many traversers from the previous step in one call and runs them through a single loop, which saves the calls
+ * that would otherwise be made for each traverser by each step. The other steps are left to process their starts one
+ * at a time and pass traversers to and from batched steps as usual.
+ * <p/>
+ * As a batched step reads ahead of the steps after it, much like a {@code barrier()}, the strategy does not apply
+ * to traversals that mutate the graph. It is not registered by default.
+ *
+ * @example <pre>
+ * g.withStrategies(BatchStrategy.build().batchSize(256).create()).V().out().has("age", gt(30)).count()
+ * </pre>
+ */
+public final class BatchStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
+
+    public static final String BATCH_SIZE = "batchSize";
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * The steps that process their starts in a single loop. Only these classes are batched and not their subclasses,
+     * which may change how the starts are processed.
+     */
+    private static final Set<Class<? extends Step>> BATCHED_STEPS = new HashSet<>(Arrays.asList(
+            HasStep.class,
+            VertexStep.class,
+            PropertiesStep.class,
+            IdStep.class,
+            CountGlobalStep.class));
+
+    private static final BatchStrategy INSTANCE = new BatchStrategy(DEFAULT_BATCH_SIZE);
+
+    private final int batchSize;
+
+    private BatchStrategy(final int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("The batchSize must be greater than zero: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.isRoot() ||
+                TraversalHelper.onGraphComputer(traversal) ||
+                TraversalHelper.hasStepOfAssignableClassRecursively(Mutating.class, traversal))
+            return;
+
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (BATCHED_STEPS.contains(step.getClass()))
+                ((AbstractStep<?, ?>) step).setBatchSize(this.batchSize);
+        }
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    public static BatchStrategy create(final Configuration configuration) {
+        return new BatchStrategy(configuration.getInt(BATCH_SIZE, DEFAULT_BATCH_SIZE));
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(STRATEGY, BatchStrategy.class.getCanonicalName());
+        map.put(BATCH_SIZE, this.batchSize);
+        return new MapConfiguration(map);
+    }
+
+    public static BatchStrategy instance() {
+        return INSTANCE;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+
+        private int batchSize = DEFAULT_BATCH_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * The number of traversers that a batched step processes at a time.
+         */
+        public Builder batchSize(final int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public BatchStrategy create() {
+            return new BatchStrategy(this.batchSize);
+        }
+    }
+}
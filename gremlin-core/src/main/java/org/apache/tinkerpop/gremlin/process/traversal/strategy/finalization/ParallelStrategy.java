@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Barrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LocalBarrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Seedable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CallStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code ParallelStrategy} is an OLTP-only strategy that runs the start of a traversal on several threads. When the
+ * traversal starts with {@code V()} or {@code E()} and the steps after it lead to a {@code count()}, {@code sum()},
+ * {@code min()}, {@code max()}, {@code mean()}, {@code fold()}, {@code group()}, {@code groupCount()}, {@code tree()},
+ * {@code order()} or {@code sample()}, the strategy replaces those steps with a {@link ParallelStep}. It splits the
+ * vertices or edges into batches as it reads them, processes no more of them at once than the given parallelism or
+ * the available processors on the common {@code ForkJoinPool} and then merges their barriers, much as a
+ * {@code GraphComputer} would, before the rest of the traversal goes on from the merged barrier on the calling thread.
+ * <p/>
+ * The steps before the barrier must not share state between traversers, so the strategy leaves the traversal as it
+ * is if they include global barriers like {@code dedup()} or {@code limit()}, side-effects, lambdas, random steps,
+ * {@code call()} or mutations. As the batches read the graph from other threads, the strategy does not apply to
+ * graphs that support transactions. Each batch only bulks its own traversers, so traversals whose batches
+ * reach many of the same vertices do more work in total than they would on one thread. It is not registered by
+ * default.
+ *
+ * @example <pre>
+ * g.withStrategies(ParallelStrategy.build().parallelism(4).create()).V().out().out().groupCount().by("name")
+ * </pre>
+ */
+public final class ParallelStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
+
+    public static final String PARALLELISM = "parallelism";
+
+    private static final Set<Class<? extends FinalizationStrategy>> PRIORS = Collections.singleton(BatchStrategy.class);
+
+    private static final Collection<Class> NON_PARALLEL_STEPS = Arrays.asList(ProfileSideEffectStep.class, ProfileStep.class);
+
+    private static final ParallelStrategy INSTANCE = new ParallelStrategy(Runtime.getRuntime().availableProcessors());
+
+    private final int parallelism;
+
+    private ParallelStrategy(final int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("The parallelism must be greater than zero: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!traversal.isRoot() ||
+                this.parallelism < 2 ||
+                TraversalHelper.onGraphComputer(traversal) ||
+                !GraphStep.isStartStep(traversal.getStartStep()) ||
+                traversal.getGraph().map(graph -> graph.features().graph().supportsTransactions()).orElse(true) ||
+                TraversalHelper.hasStepOfAssignableClassRecursively(NON_PARALLEL_STEPS, traversal))
+            return;
+
+        Step<?, ?> barrierStep = null;
+        for (final Step<?, ?> step : traversal.getSteps().subList(1, traversal.getSteps().size())) {
+            if (isMergeableBarrier(step)) {
+                barrierStep = step;
+                break;
+            } else if (!isStateless(step, true))
+                return;
+        }
+        if (null == barrierStep)
+            return;
+
+        final Traversal.Admin parallelTraversal = new DefaultTraversal<>();
+        TraversalHelper.removeToTraversal((Step) traversal.getStartStep(), barrierStep.getNextStep(), parallelTraversal);
+        traversal.addStep(0, new ParallelStep<>(traversal, parallelTraversal, this.parallelism));
+    }
+
+    /**
+     * Determines if the barriers of the step from each batch can be merged into one. The {@code fold()} of a
+     * seed other than an empty collection is not, as each batch would fold the seed in again.
+     */
+    private static boolean isMergeableBarrier(final Step<?, ?> step) {
+        if (!(step instanceof ReducingBarrierStep || step instanceof CollectingBarrierStep) ||
+                step instanceof SideEffectCapable || step instanceof LambdaHolder)
+            return false;
+        if (step instanceof FoldStep) {
+            final Object seed = ((FoldStep<?, ?>) step).getSeedSupplier().get();
+            if (!(seed instanceof Collection) || !((Collection) seed).isEmpty())
+                return false;
+        }
+        return !(step instanceof TraversalParent) || ((TraversalParent) step).getLocalChildren().stream().
+                allMatch(child -> isStateless(child, false));
+    }
+
+    /**
+     * Determines if the step processes each traverser on its own. A step in a global scope, which sees all the
+     * traversers, must not be a barrier other than a {@link LocalBarrier}, while a local child traversal is reset
+     * for each traverser and may have barriers of its own.
+     */
+    private static boolean isStateless(final Step<?, ?> step, final boolean global) {
+        if (step instanceof Mutating || step instanceof SideEffectCapable || step instanceof LambdaHolder ||
+                step instanceof Seedable || step instanceof CallStep)
+            return false;
+        if (global && step instanceof Barrier && !(step instanceof LocalBarrier))
+            return false;
+        if (step instanceof TraversalParent) {
+            final TraversalParent parent = (TraversalParent) step;
+            return parent.getLocalChildren().stream().allMatch(child -> isStateless(child, false)) &&
+                    parent.getGlobalChildren().stream().allMatch(child -> isStateless(child, global));
+        }
+        return true;
+    }
+
+    private static boolean isStateless(final Traversal.Admin<?, ?> traversal, final boolean global) {
+        return traversal.getSteps().stream().allMatch(step -> isStateless(step, global));
+    }
+
+    @Override
+    public Set<Class<? extends FinalizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public static ParallelStrategy create(final Configuration configuration) {
+        return new ParallelStrategy(configuration.getInt(PARALLELISM, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(STRATEGY, ParallelStrategy.class.getCanonicalName());
+        map.put(PARALLELISM, this.parallelism);
+        return new MapConfiguration(map);
+    }
+
+    /**
+     * Gets a {@code ParallelStrategy} with a parallelism of the number of available processors.
+     */
+    public static ParallelStrategy instance() {
+        return INSTANCE;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private Builder() {
+        }
+
+        /**
+         * The number of threads that process the batches of the traversal.
+         */
+        public Builder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public ParallelStrategy create() {
+            return new ParallelStrategy(this.parallelism);
+        }
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
 
+import org.apache.commons.configuration2.Configuration;
+import org.apache.commons.configuration2.MapConfiguration;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
@@ -39,7 +41,9 @@ import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -47,18 +51,22 @@ import java.util.Set;
  * {@link FlatMapStep} if neither path-tracking nor partial path-tracking is required, and the next step is not the
  * traversal's last step or a {@link Barrier}. {@link NoOpBarrierStep}s allow traversers to be bulked, thus this strategy
  * is meant to reduce memory requirements and improve the overall query performance.
+ * The inserted barriers hold 2500 traversers. When the strategy is configured to be {@code adaptive}, they start at that
+ * size instead, which they grow where traversers bulk and shrink or bypass where they do not.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @example <pre>
  * __.out().bothE().count()      // is replaced by __.out().barrier(2500).bothE().count()
  * __.both().both().valueMap()   // is replaced by __.both().barrier(2500).both().barrier(2500).valueMap()
+ * g.withStrategies(LazyBarrierStrategy.build().adaptive(true).create()).V().out().out().groupCount()
  * </pre>
  */
 public final class LazyBarrierStrategy extends AbstractTraversalStrategy<TraversalStrategy.OptimizationStrategy> implements TraversalStrategy.OptimizationStrategy {
 
     public static final String BARRIER_PLACEHOLDER = Graph.Hidden.hide("gremlin.lazyBarrier.position");
     public static final String BARRIER_COPY_LABELS = Graph.Hidden.hide("gremlin.lazyBarrier.copyLabels");
-    private static final LazyBarrierStrategy INSTANCE = new LazyBarrierStrategy();
+    public static final String ADAPTIVE = "adaptive";
+    private static final LazyBarrierStrategy INSTANCE = new LazyBarrierStrategy(false);
     private static final Set<Class<? extends OptimizationStrategy>> PRIORS = new HashSet<>(Arrays.asList(
             CountStrategy.class,
             PathRetractionStrategy.class,
@@ -73,7 +81,10 @@ public final class LazyBarrierStrategy extends AbstractTraversalStrategy<Travers
     private static final int BIG_START_SIZE = 5;
     protected static final int MAX_BARRIER_SIZE = 2500;
 
-    private LazyBarrierStrategy() {
+    private final boolean adaptive;
+
+    private LazyBarrierStrategy(final boolean adaptive) {
+        this.adaptive = adaptive;
     }
 
     @Override
@@ -92,7 +103,7 @@ public final class LazyBarrierStrategy extends AbstractTraversalStrategy<Travers
             final Step<?, ?> step = traversal.getSteps().get(i);
 
             if (step.getLabels().contains(BARRIER_PLACEHOLDER)) {
-                TraversalHelper.insertAfterStep(new NoOpBarrierStep<>(traversal, MAX_BARRIER_SIZE), step, traversal);
+                TraversalHelper.insertAfterStep(new NoOpBarrierStep<>(traversal, MAX_BARRIER_SIZE, this.adaptive), step, traversal);
                 step.removeLabel(BARRIER_PLACEHOLDER);
                 if (step.getLabels().contains(BARRIER_COPY_LABELS)) {
                     step.removeLabel(BARRIER_COPY_LABELS);
@@ -122,7 +133,7 @@ public final class LazyBarrierStrategy extends AbstractTraversalStrategy<Travers
                         !(step.getNextStep() instanceof NoneStep) &&
                         !(step.getNextStep() instanceof EmptyStep) &&
                         !(step.getNextStep() instanceof ProfileSideEffectStep)) {
-                    final Step noOpBarrierStep = new NoOpBarrierStep<>(traversal, MAX_BARRIER_SIZE);
+                    final Step noOpBarrierStep = new NoOpBarrierStep<>(traversal, MAX_BARRIER_SIZE, this.adaptive);
                     TraversalHelper.copyLabels(step, noOpBarrierStep, true);
                     TraversalHelper.insertAfterStep(noOpBarrierStep, step, traversal);
                 } else
@@ -141,7 +152,49 @@ public final class LazyBarrierStrategy extends AbstractTraversalStrategy<Travers
         return PRIORS;
     }
 
+    public boolean isAdaptive() {
+        return this.adaptive;
+    }
+
+    public static LazyBarrierStrategy create(final Configuration configuration) {
+        return new LazyBarrierStrategy(configuration.getBoolean(ADAPTIVE, false));
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(STRATEGY, LazyBarrierStrategy.class.getCanonicalName());
+        map.put(ADAPTIVE, this.adaptive);
+        return new MapConfiguration(map);
+    }
+
     public static LazyBarrierStrategy instance() {
         return INSTANCE;
     }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+
+        private boolean adaptive = false;
+
+        private Builder() {
+        }
+
+        /**
+         * Inserts barriers that adapt their size to how many traversers they merge, growing up to eight times the
+         * size of 2500 where traversers bulk, which takes more memory in front of steps such as {@code limit()}
+         * that need few of them.
+         */
+        public Builder adaptive(final boolean adaptive) {
+            this.adaptive = adaptive;
+            return this;
+        }
+
+        public LazyBarrierStrategy create() {
+            return new LazyBarrierStrategy(this.adaptive);
+        }
+    }
 }
@@ -66,6 +66,13 @@ public class B_LP_O_P_S_SE_SL_Traverser<T> extends B_O_S_SE_SL_Traverser<T> {
         return clone;
     }
 
+    @Override
+    public <R> Traverser.Admin<R> recycle(final R r, final Step<T, R> step) {
+        final B_LP_O_P_S_SE_SL_Traverser<R> traverser = (B_LP_O_P_S_SE_SL_Traverser<R>) super.recycle(r, step);
+        traverser.path = traverser.path.clone().extend(r, step.getLabels());
+        return traverser;
+    }
+
     @Override
     public Traverser.Admin<T> split() {
         final B_LP_O_P_S_SE_SL_Traverser<T> clone = (B_LP_O_P_S_SE_SL_Traverser<T>) super.split();
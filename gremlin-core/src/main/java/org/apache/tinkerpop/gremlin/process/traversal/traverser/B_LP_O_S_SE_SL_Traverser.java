@@ -71,6 +71,15 @@ public class B_LP_O_S_SE_SL_Traverser<T> extends B_O_S_SE_SL_Traverser<T> {
         return clone;
     }
 
+    @Override
+    public <R> Traverser.Admin<R> recycle(final R r, final Step<T, R> step) {
+        final B_LP_O_S_SE_SL_Traverser<R> traverser = (B_LP_O_S_SE_SL_Traverser<R>) super.recycle(r, step);
+        traverser.path = traverser.path.clone();
+        final Set<String> labels = step.getLabels();
+        if (!labels.isEmpty()) traverser.path = traverser.path.extend(r, labels);
+        return traverser;
+    }
+
     @Override
     public Traverser.Admin<T> split() {
         final B_LP_O_S_SE_SL_Traverser<T> clone = (B_LP_O_S_SE_SL_Traverser<T>) super.split();
@@ -114,6 +114,13 @@ public class B_O_S_SE_SL_Traverser<T> extends B_O_Traverser<T> {
         return clone;
     }
 
+    @Override
+    public <R> Traverser.Admin<R> recycle(final R r, final Step<T, R> step) {
+        final B_O_S_SE_SL_Traverser<R> traverser = (B_O_S_SE_SL_Traverser<R>) super.recycle(r, step);
+        traverser.sack = null == traverser.sack ? null : null == traverser.sideEffects.getSackSplitter() ? traverser.sack : traverser.sideEffects.getSackSplitter().apply(traverser.sack);
+        return traverser;
+    }
+
     @Override
     public Traverser.Admin<T> split() {
         final B_O_S_SE_SL_Traverser<T> clone = (B_O_S_SE_SL_Traverser<T>) super.split();
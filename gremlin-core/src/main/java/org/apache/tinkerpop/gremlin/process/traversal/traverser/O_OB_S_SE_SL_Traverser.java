@@ -140,6 +140,13 @@ public class O_OB_S_SE_SL_Traverser<T> extends O_Traverser<T> {
         return clone;
     }
 
+    @Override
+    public <R> Traverser.Admin<R> recycle(final R r, final Step<T, R> step) {
+        final O_OB_S_SE_SL_Traverser<R> traverser = (O_OB_S_SE_SL_Traverser<R>) super.recycle(r, step);
+        traverser.sack = null == traverser.sack ? null : null == traverser.sideEffects.getSackSplitter() ? traverser.sack : traverser.sideEffects.getSackSplitter().apply(traverser.sack);
+        return traverser;
+    }
+
     @Override
     public Traverser.Admin<T> split() {
         final O_OB_S_SE_SL_Traverser<T> clone = (O_OB_S_SE_SL_Traverser<T>) super.split();
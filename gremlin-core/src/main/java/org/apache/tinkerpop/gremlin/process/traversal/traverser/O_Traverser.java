@@ -54,6 +54,18 @@ public abstract class O_Traverser<T> extends AbstractTraverser<T> {
         return clone;
     }
 
+    /**
+     * Moves this traverser to the new object in place. The tags and loops that {@link #split(Object, Step)} copies
+     * only so that the two traversers do not share them are kept as they are, since the current traverser is not used
+     * again, and subclasses override this to redo the rest of what they do in {@link #split(Object, Step)}.
+     */
+    @Override
+    public <R> Admin<R> recycle(final R r, final Step<T, R> step) {
+        final O_Traverser<R> traverser = (O_Traverser<R>) this;
+        traverser.t = r;
+        return traverser;
+    }
+
     @Override
     public Admin<T> split() {
         final O_Traverser<T> clone = (O_Traverser<T>) super.split();
@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.jsr223;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CountStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SubgraphStrategy;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.apache.tinkerpop.gremlin.util.function.Lambda;
+import org.junit.Test;
+
+import javax.script.Bindings;
+import javax.script.ScriptException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class TraversalPlanCacheTest {
+
+    private final GraphTraversalSource g = EmptyGraph.instance().traversal();
+
+    @Test
+    public void shouldCloneCachedTraversal() {
+        final TraversalPlanCache cache = new TraversalPlanCache();
+        final Bytecode bytecode = g.V().out("knows").count().asAdmin().getBytecode();
+
+        final Traversal.Admin<?, ?> first = cache.translate(g, bytecode);
+        assertEquals(1, cache.size());
+        assertFalse(cache.get(g, bytecode).isPresent());
+
+        final Traversal.Admin<?, ?> second = cache.translate(g, bytecode);
+        final Traversal.Admin<?, ?> third = cache.translate(g, bytecode);
+        assertTrue(first.isLocked());
+        assertTrue(third.isLocked());
+        assertNotSame(second, third);
+        assertEquals(first.getSteps().toString(), third.getSteps().toString());
+        assertEquals(3, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.size());
+        assertEquals(0L, third.next());
+    }
+
+    @Test
+    public void shouldShareTraversalBetweenBoundIds() {
+        final TraversalPlanCache cache = new TraversalPlanCache();
+        cache.translate(g, boundIds(1000L));
+        cache.translate(g, boundIds(2000L));
+        cache.translate(g, boundIds(3000L));
+        assertEquals(3, cache.getMisses());
+
+        final Traversal.Admin<?, ?> fourth = cache.translate(g, boundIds(4000L));
+        final Traversal.Admin<?, ?> fifth = cache.translate(g, boundIds(2000L));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.size());
+        assertArrayEquals(new Object[]{4000L}, ((GraphStep<?, ?>) fourth.getStartStep()).getIds());
+        assertArrayEquals(new Object[]{2000L}, ((GraphStep<?, ?>) fifth.getStartStep()).getIds());
+        assertEquals(compile(boundIds(4000L)), fourth);
+    }
+
+    @Test
+    public void shouldShareTraversalBetweenBoundPredicateValues() {
+        final TraversalPlanCache cache = new TraversalPlanCache();
+        for (final String name : Arrays.asList("marko", "vadas", "josh", "peter")) {
+            final Bytecode bytecode = new Bytecode();
+            bytecode.addStep("V");
+            bytecode.addStep("has", "name", new Bytecode.Binding<>("x", name));
+            final Traversal.Admin<?, ?> traversal = cache.translate(g, bytecode);
+            assertEquals(compile(bytecode), traversal);
+        }
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldNotShareTraversalWhereStrategiesUsedBoundValue() {
+        final TraversalPlanCache cache = new TraversalPlanCache();
+        // CountStrategy turns the bound value into the size of a limit()
+        final GraphTraversalSource counting = g.withStrategies(CountStrategy.instance());
+        for (final long count : Arrays.asList(1000L, 1000L, 2000L, 3000L, 3000L, 3000L)) {
+            final Bytecode bytecode = new Bytecode();
+            bytecode.addStep("V");
+            bytecode.addStep("count");
+            bytecode.addStep("is", new Bytecode.Binding<>("x", count));
+            final Traversal.Admin<?, ?> traversal = cache.translate(counting, bytecode);
+            final Traversal.Admin<?, ?> compiled = JavaTranslator.of(counting).translate(bytecode);
+            compiled.applyStrategies();
+            assertEquals(compiled, traversal);
+            assertEquals(count + 1, ((RangeGlobalStep<?>) traversal.getSteps().get(1)).getHighRange());
+        }
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void shouldKeepLiteralsInKey() {
+        final TraversalPlanCache cache = new TraversalPlanCache();
+        cache.translate(g, g.V().out("knows").asAdmin().getBytecode());
+        cache.translate(g, g.V().out("created").asAdmin().getBytecode());
+        cache.translate(g, g.V().has("age", 29).asAdmin().getBytecode());
+        cache.translate(g, g.V().has("age", 29L).asAdmin().getBytecode());
+        assertEquals(4, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void shouldKeepStrategyConfigurationInKey() {
+        final TraversalPlanCache cache = new TraversalPlanCache();
+        cache.translate(g, g.withStrategies(SubgraphStrategy.build().vertices(__.hasLabel("person")).create()).V().asAdmin().getBytecode());
+        cache.translate(g, g.withStrategies(SubgraphStrategy.build().vertices(__.hasLabel("person")).create()).V().asAdmin().getBytecode());
+        cache.translate(g, g.withStrategies(SubgraphStrategy.build().vertices(__.hasLabel("software")).create()).V().asAdmin().getBytecode());
+        cache.translate(g, g.withStrategies(SubgraphStrategy.build().vertices(__.hasLabel("person")).create()).V().asAdmin().getBytecode());
+        assertEquals(3, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void shouldKeepTraversalSourceInKey() {
+        final TraversalPlanCache cache = new TraversalPlanCache();
+        final Bytecode bytecode = g.V().asAdmin().getBytecode();
+        cache.translate(g, bytecode);
+        cache.translate(EmptyGraph.instance().traversal(), bytecode);
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() {
+        final TraversalPlanCache cache = new TraversalPlanCache(2);
+        final Bytecode a = g.V().out().asAdmin().getBytecode();
+        final Bytecode b = g.V().in().asAdmin().getBytecode();
+        final Bytecode c = g.V().both().asAdmin().getBytecode();
+
+        cache.translate(g, a);
+        cache.translate(g, a);
+        cache.translate(g, b);
+        cache.translate(g, b);
+        cache.translate(g, a);
+        cache.translate(g, c);
+        cache.translate(g, c);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.get(g, a).isPresent());
+        assertFalse(cache.get(g, b).isPresent());
+        assertTrue(cache.get(g, c).isPresent());
+    }
+
+    @Test
+    public void shouldNotCacheUncacheableTraversals() {
+        final TraversalPlanCache cache = new TraversalPlanCache();
+        cache.translate(g, g.V().map(Lambda.function("it.get()")).asAdmin().getBytecode());
+        cache.translate(g, g.withSideEffect("x", 1).V().asAdmin().getBytecode());
+        cache.translate(g, g.withSack(1).V().asAdmin().getBytecode());
+        cache.translate(g, g.V().coin(0.5).asAdmin().getBytecode());
+        cache.translate(g, g.V().local(__.sample(1)).asAdmin().getBytecode());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCacheTraversalWithoutStrategiesApplied() {
+        final Traversal.Admin<?, ?> traversal = g.V().asAdmin();
+        new TraversalPlanCache().put(g, traversal.getBytecode(), traversal);
+    }
+
+    @Test
+    public void shouldEvalBytecodeWithPlanCache() throws ScriptException {
+        final TraversalPlanCache cache = new TraversalPlanCache();
+        final GremlinLangScriptEngine scriptEngine = new GremlinLangScriptEngine((TraversalPlanCacheCustomizer) () -> cache);
+        final Bindings bindings = scriptEngine.createBindings();
+        bindings.put("g", g);
+
+        final Bytecode bytecode = g.V().count().asAdmin().getBytecode();
+        final Traversal.Admin<?, ?> first = scriptEngine.eval(bytecode, bindings, "g");
+        scriptEngine.eval(bytecode, bindings, "g");
+        final Traversal.Admin<?, ?> third = scriptEngine.eval(bytecode, bindings, "g");
+        assertTrue(third.isLocked());
+        assertEquals(0L, first.next());
+        assertEquals(0L, third.next());
+        assertEquals(1, cache.getHits());
+    }
+
+    private Traversal.Admin<?, ?> compile(final Bytecode bytecode) {
+        final Traversal.Admin<?, ?> traversal = JavaTranslator.of(g).translate(bytecode);
+        traversal.applyStrategies();
+        return traversal;
+    }
+
+    private static Bytecode boundIds(final Object id) {
+        final Bytecode bytecode = new Bytecode();
+        bytecode.addStep("V", new Bytecode.Binding<>("x", id));
+        return bytecode;
+    }
+}
@@ -23,10 +23,15 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.StepTest;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Florian Grieskamp
@@ -52,4 +57,49 @@ public class NoOpBarrierStepTest extends StepTest {
         final NoOpBarrierStep<?> barrier = (NoOpBarrierStep<?>) traversal.getStartStep();
         assertEquals(customBarrierSize, barrier.getMaxBarrierSize());
     }
+
+    @Test
+    public void shouldNotAdaptFixedBarrierSize() {
+        final NoOpBarrierStep<?> barrier = iterateBarrier(IntStream.range(0, 10000).map(i -> i / 4).boxed().toArray(), false);
+        assertFalse(barrier.isAdaptive());
+        assertEquals(100, barrier.getBarrierSize());
+    }
+
+    @Test
+    public void shouldGrowAdaptiveBarrierWhenTraversersMerge() {
+        final NoOpBarrierStep<?> barrier = iterateBarrier(IntStream.range(0, 10000).map(i -> i / 4).boxed().toArray(), true);
+        assertTrue(barrier.isAdaptive());
+        assertTrue(barrier.getBarrierSize() > 100);
+        assertTrue(barrier.getBarrierSize() <= 800);
+    }
+
+    @Test
+    public void shouldShrinkAdaptiveBarrierWhenTraversersDoNotMerge() {
+        final NoOpBarrierStep<?> barrier = iterateBarrier(IntStream.range(0, 10000).boxed().toArray(), true);
+        assertEquals(64, barrier.getBarrierSize());
+    }
+
+    @Test
+    public void shouldResetAdaptiveBarrier() {
+        final NoOpBarrierStep<?> barrier = iterateBarrier(IntStream.range(0, 10000).boxed().toArray(), true);
+        assertEquals(64, barrier.getBarrierSize());
+        barrier.reset();
+        assertEquals(100, barrier.getBarrierSize());
+    }
+
+    @Test
+    public void shouldNotEqualBarrierThatDiffersInAdaptivity() {
+        final Traversal.Admin<?, ?> traversal = __.identity().asAdmin();
+        assertEquals(new NoOpBarrierStep<>(traversal, 100, true), new NoOpBarrierStep<>(traversal, 100, true));
+        assertNotEquals(new NoOpBarrierStep<>(traversal, 100, true), new NoOpBarrierStep<>(traversal, 100, false));
+    }
+
+    private static NoOpBarrierStep<?> iterateBarrier(final Object[] starts, final boolean adaptive) {
+        // inject() would bulk the starts itself so they are streamed one at a time to reach the barrier unmerged
+        final Traversal.Admin<Object, Object> traversal = __.<Object>inject(0).flatMap(t -> Arrays.asList(starts).iterator()).asAdmin();
+        final NoOpBarrierStep<Object> barrier = new NoOpBarrierStep<>(traversal, 100, adaptive);
+        traversal.addStep(barrier);
+        assertEquals(starts.length, traversal.toList().size());
+        return barrier;
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.LocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.IdStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class BatchStrategyTest {
+
+    @Test
+    public void shouldBatchStepsOfRootTraversal() {
+        final Traversal.Admin<?, ?> traversal = applyStrategy(__.out().has("age", 32).local(__.out().id()).count().asAdmin(), 16);
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            final int batchSize = ((AbstractStep<?, ?>) step).getBatchSize();
+            if (step instanceof VertexStep || step instanceof HasStep || step instanceof CountGlobalStep)
+                assertEquals(step.toString(), 16, batchSize);
+            else
+                assertEquals(step.toString(), 0, batchSize);
+        }
+
+        final Traversal.Admin<?, ?> local = ((LocalStep<?, ?>) traversal.getSteps().get(2)).getLocalChildren().get(0);
+        for (final Step<?, ?> step : local.getSteps()) {
+            assertEquals(step.toString(), 0, ((AbstractStep<?, ?>) step).getBatchSize());
+        }
+    }
+
+    @Test
+    public void shouldNotBatchMutatingTraversal() {
+        final Traversal.Admin<?, ?> traversal = applyStrategy(__.out().id().sideEffect(__.property("x", 1)).asAdmin(), 16);
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            assertEquals(step.toString(), 0, ((AbstractStep<?, ?>) step).getBatchSize());
+        }
+    }
+
+    @Test
+    public void shouldNotBatchSubclassesOfBatchedSteps() {
+        final Traversal.Admin<?, ?> traversal = __.out().asAdmin();
+        final VertexStep<?> original = (VertexStep<?>) traversal.getStartStep();
+        final VertexStep<?> subclass = new VertexStep(traversal, original.getReturnClass(), original.getDirection()) {};
+        traversal.removeStep(0);
+        traversal.addStep(subclass);
+        traversal.addStep(new IdStep<>(traversal));
+        applyStrategy(traversal, 16);
+        assertEquals(0, subclass.getBatchSize());
+        assertEquals(16, ((AbstractStep<?, ?>) traversal.getEndStep()).getBatchSize());
+    }
+
+    @Test
+    public void shouldCreateFromConfiguration() {
+        final BatchStrategy strategy = BatchStrategy.build().batchSize(128).create();
+        assertEquals(128, BatchStrategy.create(strategy.getConfiguration()).getBatchSize());
+        assertEquals(BatchStrategy.DEFAULT_BATCH_SIZE, BatchStrategy.instance().getBatchSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowBatchSizeOfZero() {
+        BatchStrategy.build().batchSize(0).create();
+    }
+
+    private static Traversal.Admin<?, ?> applyStrategy(final Traversal.Admin<?, ?> traversal, final int batchSize) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(BatchStrategy.build().batchSize(batchSize).create());
+        traversal.setStrategies(strategies);
+        traversal.applyStrategies();
+        return traversal;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SampleGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class ParallelStrategyTest {
+
+    private static final GraphTraversalSource g = EmptyGraph.instance().traversal();
+
+    @Parameterized.Parameter()
+    public Traversal.Admin<?, ?> original;
+
+    @Parameterized.Parameter(value = 1)
+    public Class<? extends Step> barrierClass;
+
+    @Parameterized.Parameter(value = 2)
+    public int remainingSteps;
+
+    @Test
+    public void doTest() {
+        final String repr = this.original.toString();
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(ParallelStrategy.build().parallelism(4).create());
+        this.original.setStrategies(strategies);
+        this.original.applyStrategies();
+
+        if (null == this.barrierClass) {
+            assertFalse(repr, this.original.getStartStep() instanceof ParallelStep);
+        } else {
+            assertTrue(repr, this.original.getStartStep() instanceof ParallelStep);
+            final ParallelStep<?, ?> parallelStep = (ParallelStep<?, ?>) this.original.getStartStep();
+            assertEquals(repr, 4, parallelStep.getParallelism());
+            final Traversal.Admin<?, ?> parallelTraversal = parallelStep.getGlobalChildren().get(0);
+            assertTrue(repr, parallelTraversal.getStartStep() instanceof GraphStep);
+            assertEquals(repr, this.barrierClass, parallelTraversal.getEndStep().getClass());
+            assertEquals(repr, this.remainingSteps, this.original.getSteps().size());
+        }
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Iterable<Object[]> generateTestParameters() {
+        return Arrays.asList(new Object[][]{
+                {g.V().out().out().count().asAdmin(), CountGlobalStep.class, 1},
+                {g.V().out().out().groupCount().by("name").asAdmin(), GroupCountStep.class, 1},
+                {g.V().out().group().by("name").by(__.out().count()).unfold().asAdmin(), GroupStep.class, 2},
+                {g.E().has("weight", 1.0).values("weight").sum().asAdmin(), SumGlobalStep.class, 1},
+                {g.V().out().local(__.out().limit(1)).fold().asAdmin(), FoldStep.class, 1},
+                {g.V().out().order().by("name").limit(2).asAdmin(), OrderGlobalStep.class, 2},
+                {g.V().where(__.out().count().is(2)).sample(1).asAdmin(), SampleGlobalStep.class, 1},
+                {g.V().out().out().asAdmin(), null, 0},
+                {g.V(1).out().count().asAdmin(), CountGlobalStep.class, 1},
+                {g.V().out().dedup().count().asAdmin(), null, 0},
+                {g.V().out().limit(2).count().asAdmin(), null, 0},
+                {g.V().union(__.out().limit(1)).count().asAdmin(), null, 0},
+                {g.V().out().aggregate("x").count().asAdmin(), null, 0},
+                {g.V().out().coin(0.5).count().asAdmin(), null, 0},
+                {g.V().out().map(t -> t.get()).count().asAdmin(), null, 0},
+                {g.V().out().property("x", 1).count().asAdmin(), null, 0},
+                {g.V().out().count().profile().asAdmin(), null, 0},
+                {g.V().out().fold(0, (a, b) -> a).asAdmin(), null, 0},
+                {g.V().out().groupCount("m").by("name").asAdmin(), null, 0},
+                {g.inject(1).count().asAdmin(), null, 0},
+                {__.V().out().count().asAdmin(), null, 0}
+        });
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.LocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.IdStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class TraverserRecycleStrategyTest {
+
+    @Test
+    public void shouldRecycleMapStepsOfRootTraversal() {
+        final Traversal.Admin<?, ?> traversal = applyStrategy(__.out().local(__.out().id()).values("name").id().asAdmin());
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            final boolean recycling = ((AbstractStep<?, ?>) step).isRecycling();
+            if (step instanceof VertexStep || step instanceof PropertiesStep || step instanceof IdStep)
+                assertTrue(step.toString(), recycling);
+            else
+                assertFalse(step.toString(), recycling);
+        }
+
+        final Traversal.Admin<?, ?> local = ((LocalStep<?, ?>) traversal.getSteps().get(1)).getLocalChildren().get(0);
+        for (final Step<?, ?> step : local.getSteps()) {
+            assertFalse(step.toString(), ((AbstractStep<?, ?>) step).isRecycling());
+        }
+    }
+
+    @Test
+    public void shouldNotRecycleAfterLambda() {
+        final Traversal.Admin<?, ?> traversal = applyStrategy(__.out().sideEffect(t -> {}).values("name").asAdmin());
+        assertTrue(((AbstractStep<?, ?>) traversal.getSteps().get(0)).isRecycling());
+        assertFalse(((AbstractStep<?, ?>) traversal.getSteps().get(1)).isRecycling());
+        assertFalse(((AbstractStep<?, ?>) traversal.getSteps().get(2)).isRecycling());
+    }
+
+    @Test
+    public void shouldNotRecycleAfterLambdaInChildTraversal() {
+        final Traversal.Admin<?, ?> traversal = applyStrategy(__.local(__.filter(t -> true)).out().asAdmin());
+        assertFalse(((AbstractStep<?, ?>) traversal.getEndStep()).isRecycling());
+    }
+
+    @Test
+    public void shouldNotChangeTraversersKeptBySideEffectLambda() {
+        final List<Traverser<String>> kept = new ArrayList<>();
+        final Traversal.Admin<String, String> traversal = applyStrategy(__.inject("a", "b", "c").sideEffect(kept::add).constant("x").asAdmin());
+        assertEquals(Arrays.asList("x", "x", "x"), traversal.toList());
+        assertEquals(3, kept.size());
+        assertEquals("a", kept.get(0).get());
+        assertEquals("b", kept.get(1).get());
+        assertEquals("c", kept.get(2).get());
+    }
+
+    @Test
+    public void shouldNotChangePathsKeptBeforeRecycling() {
+        final Traversal.Admin<String, String> traversal = g().inject("a", "b").as("x").path().aggregate("p").
+                constant("c").as("y").asAdmin();
+        final List<Traverser.Admin<String>> traversers = nextTraversers(traversal);
+        assertTrue(((AbstractStep<?, ?>) traversal.getEndStep()).isRecycling());
+
+        assertEquals(2, traversers.size());
+        assertEquals("a", traversers.get(0).path().get("x"));
+        assertEquals("b", traversers.get(1).path().get("x"));
+        for (final Traverser.Admin<String> traverser : traversers) {
+            assertEquals("c", traverser.get());
+            assertEquals("c", traverser.path().get("y"));
+        }
+        final BulkSet<Path> kept = traversal.getSideEffects().get("p");
+        assertEquals(2, kept.size());
+        for (final Path path : kept) {
+            assertEquals(1, path.size());
+            assertTrue(path.hasLabel("x"));
+            assertFalse(path.hasLabel("y"));
+        }
+    }
+
+    @Test
+    public void shouldNotShareSacksKeptBeforeRecycling() {
+        final Traversal.Admin<String, String> traversal = g().withSack((Supplier<List<String>>) ArrayList::new, (UnaryOperator<List<String>>) ArrayList::new).
+                inject("a", "b").sack().aggregate("s").constant("c").asAdmin();
+        final List<Traverser.Admin<String>> traversers = nextTraversers(traversal);
+        assertTrue(((AbstractStep<?, ?>) traversal.getEndStep()).isRecycling());
+
+        final BulkSet<List<String>> kept = traversal.getSideEffects().get("s");
+        assertEquals(2, traversers.size());
+        for (final Traverser.Admin<String> traverser : traversers) {
+            for (final List<String> sack : kept) {
+                assertNotSame(sack, traverser.sack());
+            }
+            traverser.<List<String>>sack().add("c");
+        }
+        for (final List<String> sack : kept) {
+            assertTrue(sack.isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldNotChangeTraversersLeavingBarrier() {
+        final Traversal.Admin<String, String> traversal = g().inject("a", "b", "a").barrier().as("x").
+                constant("c").as("y").asAdmin();
+        final List<Traverser.Admin<String>> traversers = nextTraversers(traversal);
+        assertTrue(((AbstractStep<?, ?>) traversal.getEndStep()).isRecycling());
+
+        assertEquals(2, traversers.size());
+        assertNotSame(traversers.get(0), traversers.get(1));
+        assertEquals("a", traversers.get(0).path().get("x"));
+        assertEquals(2, traversers.get(0).bulk());
+        assertEquals("b", traversers.get(1).path().get("x"));
+        assertEquals(1, traversers.get(1).bulk());
+        for (final Traverser.Admin<String> traverser : traversers) {
+            assertEquals("c", traverser.get());
+            assertEquals("c", traverser.path().get("y"));
+        }
+    }
+
+    @Test
+    public void shouldNotChangeTraversersAlreadyReturned() {
+        final Traversal.Admin<List<String>, String> traversal = g().inject(Arrays.asList("a", "b"), Arrays.asList("c")).
+                <String>unfold().order().asAdmin();
+        final List<Traverser.Admin<String>> traversers = nextTraversers(traversal);
+        assertTrue(((AbstractStep<?, ?>) traversal.getSteps().get(1)).isRecycling());
+
+        assertEquals(3, traversers.size());
+        assertEquals("a", traversers.get(0).get());
+        assertEquals("b", traversers.get(1).get());
+        assertEquals("c", traversers.get(2).get());
+    }
+
+    private static GraphTraversalSource g() {
+        return EmptyGraph.instance().traversal().withStrategies(TraverserRecycleStrategy.instance());
+    }
+
+    private static <S, E> List<Traverser.Admin<E>> nextTraversers(final Traversal.Admin<S, E> traversal) {
+        final List<Traverser.Admin<E>> traversers = new ArrayList<>();
+        while (traversal.hasNext()) {
+            traversers.add(traversal.nextTraverser());
+        }
+        return traversers;
+    }
+
+    private static <S, E> Traversal.Admin<S, E> applyStrategy(final Traversal.Admin<S, E> traversal) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(TraverserRecycleStrategy.instance());
+        traversal.setStrategies(strategies);
+        traversal.applyStrategies();
+        return traversal;
+    }
+}
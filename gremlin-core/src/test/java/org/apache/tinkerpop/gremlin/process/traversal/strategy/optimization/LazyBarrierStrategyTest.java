@@ -23,7 +23,9 @@ import org.apache.tinkerpop.gremlin.process.traversal.Translator;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.translator.GroovyTranslator;
 import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
 import org.junit.Test;
@@ -70,6 +72,14 @@ public class LazyBarrierStrategyTest {
         assertEquals(repr, this.optimized, this.original);
     }
 
+    /**
+     * Appends the adaptive {@link NoOpBarrierStep} that the strategy inserts when configured to, which
+     * {@code barrier()} does not create.
+     */
+    private static <S, E> GraphTraversal<S, E> adaptiveBarrier(final GraphTraversal<S, E> traversal) {
+        return traversal.asAdmin().addStep(new NoOpBarrierStep<>(traversal.asAdmin(), LazyBarrierStrategy.MAX_BARRIER_SIZE, true));
+    }
+
     @Parameterized.Parameters(name = "{0}")
     public static Iterable<Object[]> generateTestParameters() {
         final int LAZY_SIZE = LazyBarrierStrategy.MAX_BARRIER_SIZE;
@@ -80,6 +90,7 @@ public class LazyBarrierStrategyTest {
                 {__.out().out().count(), __.out().out().count(), Collections.emptyList()},
                 {__.out().out().out().count(), __.out().out().barrier(LAZY_SIZE).out().count(), Collections.emptyList()},
                 {__.out().out().out().out().count(), __.out().out().barrier(LAZY_SIZE).out().barrier(LAZY_SIZE).out().count(), Collections.emptyList()},
+                {__.out().out().out().out().count(), adaptiveBarrier(adaptiveBarrier(__.out().out()).out()).out().count(), Collections.singletonList(LazyBarrierStrategy.build().adaptive(true).create())},
                 {__.out().out().out().count(), __.out().out().barrier(LAZY_SIZE).outE().count(), Arrays.asList(CountStrategy.instance(), AdjacentToIncidentStrategy.instance())},
                 {__.out().out().out().count().is(P.gt(10)), __.out().out().barrier(LAZY_SIZE).outE().limit(11).count().is(P.gt(10)), Arrays.asList(CountStrategy.instance(), AdjacentToIncidentStrategy.instance())},
                 {__.outE().inV().outE().inV().outE().inV().groupCount(), __.outE().inV().outE().inV().barrier(LAZY_SIZE).outE().inV().groupCount(), Collections.emptyList()},
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class TraverserRecycleTest {
+
+    @Test
+    public void shouldRecycleTraverserInPlace() {
+        final Step<String, String> step = new IdentityStep<>(__.identity().asAdmin());
+        final B_O_S_SE_SL_Traverser<String> traverser = new B_O_S_SE_SL_Traverser<>("a", step, 3);
+        traverser.getTags().add("x");
+        final Traverser.Admin<String> recycled = traverser.recycle("b", step);
+        assertSame(traverser, recycled);
+        assertEquals("b", recycled.get());
+        assertEquals(3, recycled.bulk());
+        assertEquals(Collections.singleton("x"), recycled.getTags());
+    }
+
+    @Test
+    public void shouldSplitLikeRecycleForPathTraversers() {
+        final Step<String, String> step = new IdentityStep<>(__.identity().asAdmin());
+        step.addLabel("b");
+        final B_LP_O_S_SE_SL_Traverser<String> split = new B_LP_O_S_SE_SL_Traverser<>("a", step, 1);
+        final B_LP_O_S_SE_SL_Traverser<String> recycle = new B_LP_O_S_SE_SL_Traverser<>("a", step, 1);
+        final Traverser.Admin<String> splitChild = split.split("c", step);
+        final Traverser.Admin<String> recycleChild = recycle.recycle("c", step);
+        assertNotSame(split, splitChild);
+        assertSame(recycle, recycleChild);
+        assertEquals(splitChild.path(), recycleChild.path());
+        assertEquals(Arrays.asList("a", "c"), recycleChild.path().objects());
+    }
+
+    @Test
+    public void shouldSplitForDefaultRecycle() {
+        final Step<String, String> step = new IdentityStep<>(__.identity().asAdmin());
+        final Traverser.Admin<String> traverser = new ProjectedTraverser<>(new B_O_Traverser<>("a", 1), Collections.emptyList());
+        final Traverser.Admin<String> recycled = traverser.recycle("b", step);
+        assertNotSame(traverser, recycled);
+        assertEquals("a", traverser.get());
+        assertEquals("b", recycled.get());
+    }
+}
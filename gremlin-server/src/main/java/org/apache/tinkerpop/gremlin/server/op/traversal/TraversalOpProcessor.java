@@ -18,6 +18,7 @@
  */
 package org.apache.tinkerpop.gremlin.server.op.traversal;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Timer;
 import io.netty.channel.ChannelException;
 import io.netty.channel.ChannelHandlerContext;
@@ -27,6 +28,7 @@ import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.jsr223.JavaTranslator;
+import org.apache.tinkerpop.gremlin.jsr223.TraversalPlanCache;
 import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
 import org.apache.tinkerpop.gremlin.process.traversal.Failure;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
@@ -56,6 +58,7 @@ import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -80,10 +83,52 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
 
     private static final Bindings EMPTY_BINDINGS = new SimpleBindings();
 
+    /**
+     * Configuration setting for the number of compiled traversals to keep in a {@link TraversalPlanCache} so that
+     * requests with the same bytecode do not apply the strategies again. The cache is not used when this is zero.
+     */
+    public static final String CONFIG_TRAVERSAL_PLAN_CACHE_SIZE = "traversalPlanCacheSize";
+
+    /**
+     * Default size of the {@link TraversalPlanCache}, which is zero so that it is not used unless configured.
+     */
+    public static final int DEFAULT_TRAVERSAL_PLAN_CACHE_SIZE = 0;
+
+    static final Settings.ProcessorSettings DEFAULT_SETTINGS = new Settings.ProcessorSettings();
+
+    static {
+        DEFAULT_SETTINGS.className = TraversalOpProcessor.class.getCanonicalName();
+        DEFAULT_SETTINGS.config = new HashMap<String, Object>() {{
+            put(CONFIG_TRAVERSAL_PLAN_CACHE_SIZE, DEFAULT_TRAVERSAL_PLAN_CACHE_SIZE);
+        }};
+    }
+
+    private TraversalPlanCache planCache = null;
+
     public TraversalOpProcessor() {
         super(false);
     }
 
+    @Override
+    public void init(final Settings settings) {
+        final int planCacheSize = Integer.parseInt(settings.optionalProcessor(TraversalOpProcessor.class).orElse(DEFAULT_SETTINGS).config.
+                getOrDefault(CONFIG_TRAVERSAL_PLAN_CACHE_SIZE, DEFAULT_TRAVERSAL_PLAN_CACHE_SIZE).toString());
+        if (planCacheSize > 0) {
+            planCache = new TraversalPlanCache(planCacheSize);
+            registerPlanCacheGauge("hits", planCache::getHits);
+            registerPlanCacheGauge("misses", planCache::getMisses);
+            registerPlanCacheGauge("evictions", planCache::getEvictions);
+            registerPlanCacheGauge("size", planCache::size);
+        }
+    }
+
+    private static <T> void registerPlanCacheGauge(final String metric, final Gauge<T> gauge) {
+        // replaces the gauge of any earlier instance of this processor
+        final String metricName = name(GremlinServer.class, "op", "traversal", "planCache", metric);
+        MetricManager.INSTANCE.getRegistry().remove(metricName);
+        MetricManager.INSTANCE.getGuage(gauge, metricName);
+    }
+
     @Override
     public String getName() {
         return OP_PROCESSOR_NAME;
@@ -181,7 +226,11 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
         final Traversal.Admin<?, ?> traversal;
         try {
             final Optional<String> lambdaLanguage = BytecodeHelper.getLambdaLanguage(bytecode);
-            if (!lambdaLanguage.isPresent())
+            final Optional<Traversal.Admin<?, ?>> cached = null == planCache || lambdaLanguage.isPresent() ?
+                    Optional.empty() : planCache.get(g, bytecode);
+            if (cached.isPresent())
+                traversal = cached.get();
+            else if (!lambdaLanguage.isPresent())
                 traversal = JavaTranslator.of(g).translate(bytecode);
             else
                 traversal = context.getGremlinExecutor().eval(bytecode, EMPTY_BINDINGS, lambdaLanguage.get(), traversalSourceName);
@@ -217,8 +266,12 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
                 beforeProcessing(graph, context);
 
                 try {
-                    // compile the traversal - without it getEndStep() has nothing in it
-                    traversal.applyStrategies();
+                    // compile the traversal - without it getEndStep() has nothing in it. a traversal from the plan
+                    // cache is compiled already
+                    if (!traversal.isLocked()) {
+                        traversal.applyStrategies();
+                        if (null != planCache) planCache.put(g, bytecode, traversal);
+                    }
                     handleIterator(context, new TraverserIterator(traversal), graph);
                 } catch (Exception ex) {
                     Throwable t = ex;
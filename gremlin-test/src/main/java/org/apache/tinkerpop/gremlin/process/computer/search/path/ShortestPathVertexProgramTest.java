@@ -24,6 +24,7 @@ import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -35,6 +36,7 @@ import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.CREW;
 import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.GRATEFUL;
 import static org.apache.tinkerpop.gremlin.LoadGraphWith.GraphData.MODERN;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -224,6 +226,28 @@ public class ShortestPathVertexProgramTest extends AbstractGremlinProcessTest {
         helper.checkResults(expected, shortestPaths);
     }
 
+    @Test
+    @LoadGraphWith(GRATEFUL)
+    public void shouldFindSameEqualLengthPathsWithBidirectionalSearch() throws Exception {
+        // a constant distance traversal finds the paths by sending them to adjacent vertices instead of searching
+        // from both ends
+        final List<List<Path>> shortestPaths = new ArrayList<>();
+        for (final boolean byHops : Arrays.asList(true, false)) {
+            final ShortestPathVertexProgram.Builder builder = ShortestPathVertexProgram.build()
+                    .edgeTraversal(__.outE("followedBy"))
+                    .source(__.has("song", "name", "BERTHA"))
+                    .target(__.has("song", "name", "CHINA DOLL"))
+                    .includeEdges(true);
+            if (!byHops) builder.distanceTraversal(__.<Edge>start().<Number>constant(1));
+            final ComputerResult result = graph.compute(graphProvider.getGraphComputer(graph).getClass()).
+                    program(builder.create(graph)).submit().get();
+            assertTrue(result.memory().exists(ShortestPathVertexProgram.SHORTEST_PATHS));
+            shortestPaths.add(result.memory().get(ShortestPathVertexProgram.SHORTEST_PATHS));
+        }
+        assertFalse(shortestPaths.get(1).isEmpty());
+        helper.checkResults(shortestPaths.get(1), shortestPaths.get(0));
+    }
+
     @Test
     @LoadGraphWith(MODERN)
     public void shouldRespectMaxDistance() throws Exception {
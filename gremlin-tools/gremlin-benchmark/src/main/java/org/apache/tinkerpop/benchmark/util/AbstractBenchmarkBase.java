@@ -22,6 +22,7 @@ import org.junit.Test;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
@@ -70,6 +71,10 @@ public abstract class AbstractBenchmarkBase {
             runnerOptions.forks(getForks());
         }
 
+        if (isGcProfiled()) {
+            runnerOptions.addProfiler(GCProfiler.class);
+        }
+
         if (getReportDir() != null) {
             final String dtmStr = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
             final String filePath = getReportDir() + className + "-" + dtmStr + ".json";
@@ -104,6 +109,14 @@ public abstract class AbstractBenchmarkBase {
         return System.getProperty("benchmarkReportDir", DEFAULT_BENCHMARK_DIRECTORY);
     }
 
+    /**
+     * Determines if the JMH {@code GCProfiler} should report allocation rates alongside the timings, which is off
+     * unless the {@code gcProfiler} system property is set.
+     */
+    protected boolean isGcProfiled() {
+        return Boolean.parseBoolean(System.getProperty("gcProfiler", "false"));
+    }
+
     protected String[] getJvmArgs() {
         return System.getProperty("jvmArgs", DEFAULT_JVM_ARGS).split(" ");
     }
@@ -20,14 +20,20 @@ package org.apache.tinkerpop.gremlin.process;
 
 import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
 import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ParallelStrategy;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +47,17 @@ import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
 @LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
 public class GraphTraversalBenchmark extends AbstractGraphBenchmark {
 
+    private GraphTraversalSource gBatched;
+    private GraphTraversalSource gParallel;
+
+    @Setup
+    @Override
+    public void prepare() throws IOException {
+        super.prepare();
+        gBatched = g.withStrategies(BatchStrategy.instance());
+        gParallel = g.withStrategies(ParallelStrategy.instance());
+    }
+
     @Benchmark
     public List<Vertex> g_V_outE_inV_outE_inV_outE_inV() throws Exception {
         return g.V().outE().inV().outE().inV().outE().inV().toList();
@@ -51,6 +68,56 @@ public class GraphTraversalBenchmark extends AbstractGraphBenchmark {
         return g.V().out().out().out().toList();
     }
 
+    @Benchmark
+    public List<Vertex> g_V_out_out_out_batched() throws Exception {
+        return gBatched.V().out().out().out().toList();
+    }
+
+    @Benchmark
+    public Long g_V_out_out_out_count() throws Exception {
+        return g.V().out().out().out().count().next();
+    }
+
+    @Benchmark
+    public Long g_V_out_out_out_count_batched() throws Exception {
+        return gBatched.V().out().out().out().count().next();
+    }
+
+    @Benchmark
+    public Long g_V_out_out_out_count_parallel() throws Exception {
+        return gParallel.V().out().out().out().count().next();
+    }
+
+    @Benchmark
+    public Map<Object, Long> g_V_out_out_groupCount_byXnameX() throws Exception {
+        return g.V().out().out().<Object>groupCount().by("name").next();
+    }
+
+    @Benchmark
+    public Map<Object, Long> g_V_out_out_groupCount_byXnameX_parallel() throws Exception {
+        return gParallel.V().out().out().<Object>groupCount().by("name").next();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_hasXperformances_gtX100XX_id() throws Exception {
+        return g.V().out().out().has("performances", P.gt(100)).id().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_hasXperformances_gtX100XX_id_batched() throws Exception {
+        return gBatched.V().out().out().has("performances", P.gt(100)).id().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_valuesXnameX() throws Exception {
+        return g.V().out().out().values("name").toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_valuesXnameX_batched() throws Exception {
+        return gBatched.V().out().out().values("name").toList();
+    }
+
     @Benchmark
     public List<Path> g_V_out_out_out_path() throws Exception {
         return g.V().out().out().out().path().toList();
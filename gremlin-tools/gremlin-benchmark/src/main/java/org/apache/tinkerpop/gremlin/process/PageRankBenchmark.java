@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares {@link PageRankVertexProgram} on {@link TinkerGraphComputer} with and without its delta mode, both from
+ * uniform ranks and warm started from the ranks a delta computation gave before some edges were added to the graph.
+ * The number of iterations each computation took is counted alongside the timings. Delta mode is slower from uniform
+ * ranks, as nearly every rank keeps changing until the end, while the warm start is where it pays off, as only the
+ * ranks around the added edges move.
+ */
+@State(Scope.Thread)
+public class PageRankBenchmark extends AbstractBenchmarkBase {
+
+    private static final String PREVIOUS_RANK = "previousRank";
+
+    @Param({"false", "true"})
+    public boolean delta;
+
+    private TinkerGraph graph;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Iterations {
+        public long iterations;
+    }
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        graph = TinkerGraph.open();
+        final Random random = new Random(123456789L);
+        final List<Vertex> vertices = new ArrayList<>();
+        final List<Vertex> endpoints = new ArrayList<>();
+        for (int ix = 0; ix < 20000; ix++) {
+            final Vertex v = graph.addVertex("person");
+            vertices.add(v);
+            if (endpoints.isEmpty()) {
+                endpoints.add(v);
+                continue;
+            }
+            for (int ie = 0; ie < 5; ie++) {
+                final Vertex other = endpoints.get(random.nextInt(endpoints.size()));
+                v.addEdge("knows", other);
+                endpoints.add(other);
+                endpoints.add(v);
+            }
+        }
+
+        final ComputerResult result = graph.compute().program(PageRankVertexProgram.build().delta(true).create(graph)).submit().get();
+        result.graph().vertices().forEachRemaining(v ->
+                graph.vertices(v.id()).next().property(PREVIOUS_RANK, v.<Double>value(PageRankVertexProgram.PAGE_RANK)));
+        for (int ix = 0; ix < 20; ix++) {
+            vertices.get(random.nextInt(vertices.size())).addEdge("knows", vertices.get(random.nextInt(vertices.size())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graph.close();
+    }
+
+    @Benchmark
+    public ComputerResult pageRank(final Iterations iterations) throws Exception {
+        final ComputerResult result = graph.compute().program(PageRankVertexProgram.build().delta(delta).create(graph)).submit().get();
+        iterations.iterations += result.memory().getIteration();
+        return result;
+    }
+
+    @Benchmark
+    public ComputerResult pageRankFromPreviousRanks(final Iterations iterations) throws Exception {
+        final ComputerResult result = graph.compute().program(PageRankVertexProgram.build().delta(delta).
+                initialRank(__.<Vertex, Double>coalesce(__.values(PREVIOUS_RANK), __.constant(0.0d)).asAdmin()).create(graph)).submit().get();
+        iterations.iterations += result.memory().getIteration();
+        return result;
+    }
+}
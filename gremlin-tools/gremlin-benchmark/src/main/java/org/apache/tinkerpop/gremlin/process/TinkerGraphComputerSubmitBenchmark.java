@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the overhead of each submission to {@link TinkerGraphComputer} with jobs that do little work, which is
+ * where the threads and the partitioning of the vertices that a graph keeps between submissions matter most. The
+ * mutating variant adds and removes a vertex before each submission so that the vertices have to be partitioned again.
+ */
+@State(Scope.Thread)
+public class TinkerGraphComputerSubmitBenchmark extends AbstractBenchmarkBase {
+
+    @Param({"100", "10000"})
+    public int vertexCount;
+
+    private TinkerGraph graph;
+    private GraphTraversalSource g;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        graph = TinkerGraph.open();
+        g = graph.traversal().withComputer();
+        final Random random = new Random(123456789L);
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int ix = 0; ix < vertexCount; ix++) {
+            final Vertex v = graph.addVertex("person");
+            if (!vertices.isEmpty()) {
+                for (int ie = 0; ie < 3; ie++) {
+                    v.addEdge("knows", vertices.get(random.nextInt(vertices.size())));
+                }
+            }
+            vertices.add(v);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graph.close();
+    }
+
+    @Benchmark
+    public Long countWithComputer() {
+        return g.V().count().next();
+    }
+
+    @Benchmark
+    public Long countWithComputerAfterMutation() {
+        graph.addVertex("person").remove();
+        return g.V().count().next();
+    }
+
+    @Benchmark
+    public ComputerResult pageRankSingleIteration() throws Exception {
+        return graph.compute().program(PageRankVertexProgram.build().iterations(1).create(graph)).submit().get();
+    }
+}
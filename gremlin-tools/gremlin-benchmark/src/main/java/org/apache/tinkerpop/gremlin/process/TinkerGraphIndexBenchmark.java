@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Benchmarks lookups against the indices of a {@link TinkerGraph} where the indexed values match many vertices. The
+ * limited lookups should only read as much of the index as they need, which shows in the allocation rates reported
+ * by the GC profiler when comparing them to the unlimited ones.
+ */
+public class TinkerGraphIndexBenchmark extends AbstractGraphBenchmark {
+
+    private static final int VERTEX_COUNT = 100000;
+
+    @Setup
+    @Override
+    public void prepare() throws IOException {
+        super.prepare();
+        final TinkerGraph tinkerGraph = (TinkerGraph) graph;
+        tinkerGraph.createIndex("tenant", Vertex.class);
+        tinkerGraph.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        for (int ix = 0; ix < VERTEX_COUNT; ix++) {
+            graph.addVertex(T.label, "person", "tenant", "a", "age", ix % 100);
+        }
+    }
+
+    @Override
+    protected boolean isGcProfiled() {
+        return true;
+    }
+
+    @Benchmark
+    public List<Vertex> g_V_hasXtenant_aX_limitX10X() {
+        return g.V().has("tenant", "a").limit(10).toList();
+    }
+
+    @Benchmark
+    public List<Vertex> g_V_hasXtenant_aX() {
+        return g.V().has("tenant", "a").toList();
+    }
+
+    @Benchmark
+    public List<Vertex> g_V_hasXage_gteX50XX_limitX10X() {
+        return g.V().has("age", P.gte(50)).limit(10).toList();
+    }
+
+    @Benchmark
+    public List<Vertex> g_V_hasLabelXpersonX_limitX10X() {
+        return g.V().hasLabel("person").limit(10).toList();
+    }
+
+    @Benchmark
+    public Long g_V_hasXtenant_aX_hasXage_ltX10XX_limitX10X_count() {
+        return g.V().has("tenant", "a").has("age", P.lt(10)).limit(10).count().next();
+    }
+}
@@ -19,11 +19,17 @@
 package org.apache.tinkerpop.gremlin.process;
 
 import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
+import org.apache.tinkerpop.gremlin.jsr223.JavaTranslator;
+import org.apache.tinkerpop.gremlin.jsr223.TraversalPlanCache;
 import org.apache.tinkerpop.gremlin.process.traversal.Bindings;
+import org.apache.tinkerpop.gremlin.process.traversal.Bytecode;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
@@ -54,6 +60,20 @@ public class TraversalConstructionBenchmark  extends AbstractGraphBenchmark {
 
     private static final Bindings b = Bindings.instance();
 
+    private final TraversalPlanCache planCache = new TraversalPlanCache();
+    private Bytecode mediumBytecode;
+    private Bytecode mediumWithBindingsBytecode;
+    private Bytecode longBytecode;
+
+    @Setup
+    @Override
+    public void prepare() throws IOException {
+        super.prepare();
+        mediumBytecode = constructMedium().asAdmin().getBytecode();
+        mediumWithBindingsBytecode = constructMediumWithBindings().asAdmin().getBytecode();
+        longBytecode = constructLong().asAdmin().getBytecode();
+    }
+
     @Benchmark
     public GraphTraversal constructShort() throws Exception {
         return g.V().out("knows");
@@ -65,7 +85,7 @@ public class TraversalConstructionBenchmark  extends AbstractGraphBenchmark {
     }
 
     @Benchmark
-    public GraphTraversal constructMedium() throws Exception {
+    public GraphTraversal constructMedium() {
         return g.V().has("person","name","marko").
                 project("user","knows","created").
                 by(project("name","age").by("name").by("age")).
@@ -74,7 +94,7 @@ public class TraversalConstructionBenchmark  extends AbstractGraphBenchmark {
     }
 
     @Benchmark
-    public GraphTraversal constructMediumWithBindings() throws Exception {
+    public GraphTraversal constructMediumWithBindings() {
         return g.V().has("person","name",b.of("x","marko")).
                 project("user","knows","created").
                 by(project("name","age").by("name").by("age")).
@@ -83,7 +103,7 @@ public class TraversalConstructionBenchmark  extends AbstractGraphBenchmark {
     }
 
     @Benchmark
-    public GraphTraversal constructLong() throws Exception {
+    public GraphTraversal constructLong() {
         return g.V().
                 match(as("a").has("song", "name", "HERE COMES SUNSHINE"),
                       as("a").map(inE("followedBy").values("weight").mean()).as("b"),
@@ -152,4 +172,35 @@ public class TraversalConstructionBenchmark  extends AbstractGraphBenchmark {
 
         return t;
     }
+
+    @Benchmark
+    public Traversal compileMedium() {
+        return compile(mediumBytecode);
+    }
+
+    @Benchmark
+    public Traversal compileMediumWithPlanCache() {
+        return planCache.translate(g, mediumBytecode);
+    }
+
+    @Benchmark
+    public Traversal compileMediumWithBindingsWithPlanCache() {
+        return planCache.translate(g, mediumWithBindingsBytecode);
+    }
+
+    @Benchmark
+    public Traversal compileLong() {
+        return compile(longBytecode);
+    }
+
+    @Benchmark
+    public Traversal compileLongWithPlanCache() {
+        return planCache.translate(g, longBytecode);
+    }
+
+    private Traversal compile(final Bytecode bytecode) {
+        final Traversal.Admin<?, ?> traversal = JavaTranslator.of(g).translate(bytecode);
+        traversal.applyStrategies();
+        return traversal;
+    }
 }
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process;
+
+import org.apache.tinkerpop.benchmark.util.AbstractGraphBenchmark;
+import org.apache.tinkerpop.gremlin.LoadGraphWith;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.TraverserRecycleStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.LazyBarrierStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Benchmarks the traversers allocated by map steps against a {@link TinkerGraph} loaded with the Grateful Dead data
+ * set. The {@code LazyBarrierStrategy} is removed so that every traverser goes through each step rather than being
+ * bulked, and each traversal is run once with the {@link TraverserRecycleStrategy} and once without it, so that the
+ * allocation rates reported by the GC profiler can be compared for traversers that are reused rather than split by
+ * steps like {@code inV()} and {@code id()}.
+ */
+@LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+public class TraverserAllocationBenchmark extends AbstractGraphBenchmark {
+
+    private GraphTraversalSource gSplit;
+    private GraphTraversalSource gRecycle;
+
+    @Setup
+    @Override
+    public void prepare() throws IOException {
+        super.prepare();
+        gSplit = g.withoutStrategies(LazyBarrierStrategy.class);
+        gRecycle = gSplit.withStrategies(TraverserRecycleStrategy.instance());
+    }
+
+    @Override
+    protected boolean isGcProfiled() {
+        return true;
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_id_split() {
+        return gSplit.V().out().out().id().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_id_recycle() {
+        return gRecycle.V().out().out().id().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_outE_inV_outE_inV_id_split() {
+        return gSplit.V().outE().inV().outE().inV().id().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_outE_inV_outE_inV_id_recycle() {
+        return gRecycle.V().outE().inV().outE().inV().id().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_valuesXnameX_split() {
+        return gSplit.V().out().out().values("name").toList();
+    }
+
+    @Benchmark
+    public List<Object> g_V_out_out_valuesXnameX_recycle() {
+        return gRecycle.V().out().out().values("name").toList();
+    }
+
+    @Benchmark
+    public List<Object> g_withSackX1X_V_outE_inV_outE_inV_sack_split() {
+        return gSplit.withSack(1).V().outE().inV().outE().inV().sack().toList();
+    }
+
+    @Benchmark
+    public List<Object> g_withSackX1X_V_outE_inV_outE_inV_sack_recycle() {
+        return gRecycle.withSack(1).V().outE().inV().outE().inV().sack().toList();
+    }
+
+    @Benchmark
+    public List<Path> g_V_outE_inV_outE_inV_path_split() {
+        return gSplit.V().outE().inV().outE().inV().path().toList();
+    }
+
+    @Benchmark
+    public List<Path> g_V_outE_inV_outE_inV_path_recycle() {
+        return gRecycle.V().outE().inV().outE().inV().path().toList();
+    }
+}
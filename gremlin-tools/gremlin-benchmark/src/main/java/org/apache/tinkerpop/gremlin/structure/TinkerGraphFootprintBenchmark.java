@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure;
+
+import org.apache.commons.configuration2.BaseConfiguration;
+import org.apache.commons.configuration2.Configuration;
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the heap held by a {@link TinkerGraph} with and without {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY},
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES} and {@link TinkerGraph#GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES}
+ * for the Grateful Dead data set and a synthetic graph with a power-law degree distribution. The bytes per edge of each graph are printed once it is loaded and the
+ * benchmarks themselves measure the cost of walking its adjacency and reading its properties.
+ */
+@State(Scope.Thread)
+public class TinkerGraphFootprintBenchmark extends AbstractBenchmarkBase {
+
+    private static final String GRATEFUL_DEAD = "/org/apache/tinkerpop/gremlin/structure/io/gryo/grateful-dead-v3d0.kryo";
+
+    @Param({"false", "true"})
+    public boolean compactAdjacency;
+
+    @Param({"standard", "compact", "offHeap"})
+    public String properties;
+
+    @Param({"grateful", "powerlaw"})
+    public String data;
+
+    private TinkerGraph graph;
+    private GraphTraversalSource g;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        final long before = usedHeap();
+
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY, compactAdjacency);
+        configuration.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES, !properties.equals("standard"));
+        configuration.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES, properties.equals("offHeap"));
+        graph = TinkerGraph.open(configuration);
+        if (data.equals("grateful")) {
+            try (final InputStream stream = TinkerGraphFootprintBenchmark.class.getResourceAsStream(GRATEFUL_DEAD)) {
+                GryoReader.build().create().readGraph(stream, graph);
+            }
+        } else {
+            generatePowerLaw(graph, 100000, 5);
+        }
+        g = graph.traversal();
+
+        final long edges = g.E().count().next();
+        System.out.println(String.format("%n%s graph with compactAdjacency=%s and %s properties holds %d edges at %.1f bytes per edge",
+                data, compactAdjacency, properties, edges, (usedHeap() - before) / (double) edges));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graph.close();
+    }
+
+    @Benchmark
+    public long g_V_outE_count() {
+        return g.V().outE().count().next();
+    }
+
+    @Benchmark
+    public long g_V_out_out_count() {
+        return g.V().out().out().count().next();
+    }
+
+    @Benchmark
+    public long g_V_bothE_count() {
+        return g.V().bothE().count().next();
+    }
+
+    @Benchmark
+    public long g_V_valuesXnameX_count() {
+        return g.V().values("name").count().next();
+    }
+
+    /**
+     * Grows a graph by preferential attachment where each new vertex links to {@code edgesPerVertex} existing vertices
+     * chosen in proportion to their degree, which gives a few heavily connected vertices and many sparse ones.
+     */
+    private static void generatePowerLaw(final Graph graph, final int vertexCount, final int edgesPerVertex) {
+        final Random random = new Random(123456789L);
+        final List<Vertex> endpoints = new ArrayList<>();
+        final String[] labels = {"knows", "likes", "follows"};
+        for (int ix = 0; ix < vertexCount; ix++) {
+            final Vertex v = graph.addVertex(T.label, "person", "name", "person" + ix, "age", random.nextInt(100));
+            if (endpoints.isEmpty()) {
+                endpoints.add(v);
+                continue;
+            }
+            for (int ie = 0; ie < edgesPerVertex; ie++) {
+                final Vertex other = endpoints.get(random.nextInt(endpoints.size()));
+                v.addEdge(labels[random.nextInt(labels.length)], other);
+                endpoints.add(other);
+                endpoints.add(v);
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int ix = 0; ix < 4; ix++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -18,12 +18,13 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
-import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.ComputerResultStep;
 import org.apache.tinkerpop.gremlin.process.computer.traversal.strategy.optimization.GraphFilterStrategy;
 import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
 import org.apache.tinkerpop.gremlin.process.computer.util.DefaultComputerResult;
@@ -38,17 +39,15 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -62,25 +61,27 @@ public final class TinkerGraphComputer implements GraphComputer {
                 TraversalStrategies.GlobalCache.getStrategies(GraphComputer.class).clone().removeStrategies(GraphFilterStrategy.class));
     }
 
+    /**
+     * The number of halted traversers of a {@link TraversalVertexProgram} to hold at most, configured with
+     * {@link #configure(String, Object)}. When set, the halted traversers are streamed to the
+     * {@link ComputerResultStep} that follows the traversal through a queue of this size, which the computation waits
+     * on while it is full, instead of being held in memory until the computation is done.
+     */
+    public static final String HALTED_TRAVERSER_BUFFER_SIZE = "gremlin.tinkergraph.computer.haltedTraverserBufferSize";
+
+    private static final int REDUCE_PARTITIONS_PER_WORKER = 8;
+
     private ResultGraph resultGraph = null;
     private Persist persist = null;
 
     private VertexProgram<?> vertexProgram;
     private final TinkerGraph graph;
     private TinkerMemory memory;
-    private final TinkerMessageBoard messageBoard = new TinkerMessageBoard();
     private boolean executed = false;
     private final Set<MapReduce> mapReducers = new HashSet<>();
     private int workers = Runtime.getRuntime().availableProcessors();
     private final GraphFilter graphFilter = new GraphFilter();
-
-    private final ThreadFactory threadFactoryBoss = new BasicThreadFactory.Builder().namingPattern(TinkerGraphComputer.class.getSimpleName() + "-boss").build();
-
-    /**
-     * An {@code ExecutorService} that schedules up background work. Since a {@link GraphComputer} is only used once
-     * for a {@link VertexProgram} a single threaded executor is sufficient.
-     */
-    private final ExecutorService computerService = Executors.newSingleThreadExecutor(threadFactoryBoss);
+    private int haltedTraverserBufferSize = 0;
 
     public TinkerGraphComputer(final TinkerGraph graph) {
         this.graph = graph;
@@ -128,6 +129,13 @@ public final class TinkerGraphComputer implements GraphComputer {
         return this;
     }
 
+    @Override
+    public GraphComputer configure(final String key, final Object value) {
+        if (HALTED_TRAVERSER_BUFFER_SIZE.equals(key))
+            this.haltedTraverserBufferSize = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString());
+        return this;
+    }
+
     @Override
     public Future<ComputerResult> submit() {
         // a graph computer can only be executed once
@@ -154,32 +162,44 @@ public final class TinkerGraphComputer implements GraphComputer {
 
         // initialize the memory
         this.memory = new TinkerMemory(this.vertexProgram, this.mapReducers);
-        final Future<ComputerResult> result = computerService.submit(() -> {
+        // stream the halted traversers if nothing but the ComputerResultStep that follows the traversal needs them
+        final TinkerHaltedTraverserStream<Object> haltedTraverserStream = this.haltedTraverserBufferSize > 0 &&
+                this.vertexProgram instanceof TraversalVertexProgram &&
+                ((TraversalVertexProgram) this.vertexProgram).canStreamHaltedTraversers() ?
+                new TinkerHaltedTraverserStream<>(this.haltedTraverserBufferSize) : null;
+        this.memory.setHaltedTraverserStream(haltedTraverserStream);
+        // the threads and the partitioning of the vertices are kept by the graph for the computations that follow
+        final TinkerGraphComputerRuntime runtime = TinkerHelper.getComputerRuntime(this.graph);
+        final Future<ComputerResult> result = runtime.submit(() -> {
             final long time = System.currentTimeMillis();
             final TinkerGraphComputerView view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, null != this.vertexProgram ? this.vertexProgram.getVertexComputeKeys() : Collections.emptySet());
-            final TinkerWorkerPool workers = new TinkerWorkerPool(this.graph, this.memory, this.workers);
+            final TinkerWorkerPool workers = new TinkerWorkerPool(runtime, view, this.memory, this.workers);
             try {
                 if (null != this.vertexProgram) {
+                    final TinkerMessageBoard messageBoard = new TinkerMessageBoard<>(this.graph, view.vertexCount(), this.vertexProgram.getMessageCombiner());
                     // execute the vertex program
                     this.vertexProgram.setup(this.memory);
                     while (true) {
                         if (Thread.interrupted()) throw new TraversalInterruptedException();
                         this.memory.completeSubRound();
+                        if (this.vertexProgram.wakeHaltedVertices(this.memory.asImmutable()))
+                            messageBoard.wakeAll();
                         workers.setVertexProgram(this.vertexProgram);
                         workers.executeVertexProgram((vertices, vertexProgram, workerMemory) -> {
                             vertexProgram.workerIterationStart(workerMemory.asImmutable());
                             while (vertices.hasNext()) {
                                 final Vertex vertex = vertices.next();
                                 if (Thread.interrupted()) throw new TraversalInterruptedException();
+                                if (!messageBoard.activate(messageBoard.slot(vertex))) continue;
                                 vertexProgram.execute(
                                         ComputerGraph.vertexProgram(vertex, vertexProgram),
-                                        new TinkerMessenger<>(vertex, this.messageBoard, vertexProgram.getMessageCombiner()),
+                                        new TinkerMessenger<>(vertex, messageBoard),
                                         workerMemory);
                             }
                             vertexProgram.workerIterationEnd(workerMemory.asImmutable());
                             workerMemory.complete();
                         });
-                        this.messageBoard.completeIteration();
+                        messageBoard.completeIteration();
                         this.memory.completeSubRound();
                         if (this.vertexProgram.terminate(this.memory)) {
                             this.memory.incrIteration();
@@ -193,40 +213,59 @@ public final class TinkerGraphComputer implements GraphComputer {
 
                 // execute mapreduce jobs
                 for (final MapReduce mapReduce : mapReducers) {
-                    final TinkerMapEmitter<?, ?> mapEmitter = new TinkerMapEmitter<>(mapReduce.doStage(MapReduce.Stage.REDUCE));
-                    final SynchronizedIterator<Vertex> vertices = new SynchronizedIterator<>(this.graph.vertices());
+                    final boolean doCombine = mapReduce.doStage(MapReduce.Stage.COMBINE) && mapReduce.doStage(MapReduce.Stage.REDUCE);
+                    final TinkerMapEmitter mapEmitter = new TinkerMapEmitter<>(mapReduce.doStage(MapReduce.Stage.REDUCE), this.workers * REDUCE_PARTITIONS_PER_WORKER);
                     workers.setMapReduce(mapReduce);
-                    workers.executeMapReduce(workerMapReduce -> {
+                    workers.executeMapReduce((vertices, workerMapReduce) -> {
+                        final TinkerMapEmitter.Worker workerEmitter = mapEmitter.worker();
                         workerMapReduce.workerStart(MapReduce.Stage.MAP);
-                        while (true) {
+                        while (vertices.hasNext()) {
                             if (Thread.interrupted()) throw new TraversalInterruptedException();
-                            final Vertex vertex = vertices.next();
-                            if (null == vertex) break;
-                            workerMapReduce.map(ComputerGraph.mapReduce(vertex), mapEmitter);
+                            workerMapReduce.map(ComputerGraph.mapReduce(vertices.next()), workerEmitter);
                         }
                         workerMapReduce.workerEnd(MapReduce.Stage.MAP);
+                        // without a combine stage the buffer is merged right away, else once all workers are done mapping
+                        if (!doCombine) workerEmitter.complete();
                     });
+
+                    // each worker combines the values that it emitted for a key before they are merged
+                    if (doCombine) {
+                        workers.executeMapReduce(workerMapReduce -> {
+                            TinkerMapEmitter.Worker workerEmitter;
+                            while (null != (workerEmitter = mapEmitter.nextWorker())) {
+                                workerMapReduce.workerStart(MapReduce.Stage.COMBINE);
+                                workerEmitter.combine(workerMapReduce);
+                                workerMapReduce.workerEnd(MapReduce.Stage.COMBINE);
+                                workerEmitter.complete();
+                            }
+                        });
+                    }
                     // sort results if a map output sort is defined
                     mapEmitter.complete(mapReduce);
 
-                    // no need to run combiners as this is single machine
                     if (mapReduce.doStage(MapReduce.Stage.REDUCE)) {
-                        final TinkerReduceEmitter<?, ?> reduceEmitter = new TinkerReduceEmitter<>();
-                        final SynchronizedIterator<Map.Entry<?, Queue<?>>> keyValues = new SynchronizedIterator((Iterator) mapEmitter.reduceMap.entrySet().iterator());
+                        // the workers claim the partitions of the keys and reduce each into its own emitter
+                        final List<List<Map.Entry<?, List<?>>>> partitions = (List) mapEmitter.getReducePartitions();
+                        final List<TinkerReduceEmitter<?, ?>> reduceEmitters = new ArrayList<>(partitions.size());
+                        for (int i = 0; i < partitions.size(); i++) {
+                            reduceEmitters.add(new TinkerReduceEmitter<>());
+                        }
+                        final AtomicInteger nextPartition = new AtomicInteger(0);
                         workers.executeMapReduce(workerMapReduce -> {
                             workerMapReduce.workerStart(MapReduce.Stage.REDUCE);
-                            while (true) {
-                                if (Thread.interrupted()) throw new TraversalInterruptedException();
-                                final Map.Entry<?, Queue<?>> entry = keyValues.next();
-                                if (null == entry) break;
-                                workerMapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter);
+                            int partition;
+                            while ((partition = nextPartition.getAndIncrement()) < partitions.size()) {
+                                for (final Map.Entry<?, List<?>> entry : partitions.get(partition)) {
+                                    if (Thread.interrupted()) throw new TraversalInterruptedException();
+                                    workerMapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitters.get(partition));
+                                }
                             }
                             workerMapReduce.workerEnd(MapReduce.Stage.REDUCE);
                         });
-                        reduceEmitter.complete(mapReduce); // sort results if a reduce output sort is defined
-                        mapReduce.addResultToMemory(this.memory, reduceEmitter.reduceQueue.iterator());
+                        // sort results if a reduce output sort is defined
+                        mapReduce.addResultToMemory(this.memory, TinkerReduceEmitter.complete(mapReduce, (List) reduceEmitters));
                     } else {
-                        mapReduce.addResultToMemory(this.memory, mapEmitter.mapQueue.iterator());
+                        mapReduce.addResultToMemory(this.memory, mapEmitter.getMapList().iterator());
                     }
                 }
                 // update runtime and return the newly computed graph
@@ -244,10 +283,14 @@ public final class TinkerGraphComputer implements GraphComputer {
                 throw new RuntimeException(ex);
             } finally {
                 workers.close();
+                // the caller takes the halted traversers until this marks their end and then gets the result
+                if (null != haltedTraverserStream) haltedTraverserStream.complete();
             }
         });
-        this.computerService.shutdown();
-        return result;
+        if (null == haltedTraverserStream)
+            return result;
+        haltedTraverserStream.setComputation(result);
+        return haltedTraverserStream;
     }
 
     @Override
@@ -255,19 +298,6 @@ public final class TinkerGraphComputer implements GraphComputer {
         return StringFactory.graphComputerString(this);
     }
 
-    private static class SynchronizedIterator<V> {
-
-        private final Iterator<V> iterator;
-
-        public SynchronizedIterator(final Iterator<V> iterator) {
-            this.iterator = iterator;
-        }
-
-        public synchronized V next() {
-            return this.iterator.hasNext() ? this.iterator.next() : null;
-        }
-    }
-
     @Override
     public Features features() {
         return new Features() {
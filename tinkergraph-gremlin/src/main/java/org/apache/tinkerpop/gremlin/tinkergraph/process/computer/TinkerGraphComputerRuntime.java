@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The state that the {@link TinkerGraphComputer} submissions to a {@link TinkerGraph} share, so that each does not
+ * start threads and split up the vertices all over again. The threads of the boss and the workers are pooled and
+ * stay around for a while once a computation is done. The vertices are indexed and split into chunks once, and again
+ * only when a vertex or an edge was added or removed since.
+ */
+public final class TinkerGraphComputerRuntime implements AutoCloseable {
+
+    private static final int CHUNKS_PER_WORKER = 16;
+
+    private final TinkerGraph graph;
+    private final ExecutorService bossService = Executors.newCachedThreadPool(new BasicThreadFactory.Builder()
+            .namingPattern(TinkerGraphComputer.class.getSimpleName() + "-boss-%d").daemon(true).build());
+    private final ExecutorService workerService = Executors.newCachedThreadPool(new BasicThreadFactory.Builder()
+            .namingPattern("tinker-worker-%d").daemon(true).build());
+
+    private Partitioning partitioning = null;
+
+    public TinkerGraphComputerRuntime(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Runs a computation on a boss thread of its own.
+     */
+    public <V> Future<V> submit(final Callable<V> computation) {
+        return this.bossService.submit(computation);
+    }
+
+    /**
+     * Gets the service that the workers of every computation run on.
+     */
+    public ExecutorService getWorkerService() {
+        return this.workerService;
+    }
+
+    /**
+     * Indexes the vertices with {@link TinkerHelper#indexVertices(Vertex[])}, unless that was already done since
+     * the structure of the graph last changed, and gets the vertices in the order of their index.
+     */
+    public synchronized Partitioning getPartitioning() {
+        final long structureChanges = TinkerHelper.getStructureChanges(this.graph);
+        if (null == this.partitioning || this.partitioning.structureChanges != structureChanges) {
+            final Vertex[] vertices = TinkerHelper.getVertexArray(this.graph);
+            TinkerHelper.indexVertices(vertices);
+            this.partitioning = new Partitioning(structureChanges, vertices);
+        }
+        return this.partitioning;
+    }
+
+    @Override
+    public void close() {
+        this.bossService.shutdown();
+        this.workerService.shutdown();
+    }
+
+    /**
+     * The vertices of the graph at a point in time along with their chunks for each number of workers.
+     */
+    public static final class Partitioning {
+
+        private final long structureChanges;
+        private final Vertex[] vertices;
+        private final long[] weights;
+        private final Map<Integer, int[]> chunks = new ConcurrentHashMap<>();
+
+        private Partitioning(final long structureChanges, final Vertex[] vertices) {
+            this.structureChanges = structureChanges;
+            this.vertices = vertices;
+            // the running total of the weights, which count each vertex once plus once per incident edge
+            this.weights = new long[vertices.length];
+            long weight = 0;
+            for (int i = 0; i < vertices.length; i++) {
+                weight += 1 + TinkerHelper.countEdges((TinkerVertex) vertices[i]);
+                this.weights[i] = weight;
+            }
+        }
+
+        public Vertex[] getVertices() {
+            return this.vertices;
+        }
+
+        /**
+         * Gets the bounds of the chunks for the number of workers, where chunk {@code i} runs from {@code chunks[i]}
+         * up to {@code chunks[i + 1]}.
+         */
+        public int[] getChunks(final int numberOfWorkers) {
+            return this.chunks.computeIfAbsent(numberOfWorkers, this::split);
+        }
+
+        private int[] split(final int numberOfWorkers) {
+            // a chunk ends once it reaches the weight of its share, so a vertex heavier than that is a chunk by itself
+            final long totalWeight = 0 == this.weights.length ? 0 : this.weights[this.weights.length - 1];
+            final long chunkWeight = Math.max(1, totalWeight / ((long) numberOfWorkers * CHUNKS_PER_WORKER));
+            final List<Integer> chunks = new ArrayList<>();
+            chunks.add(0);
+            long start = 0;
+            for (int i = 0; i < this.weights.length; i++) {
+                if (this.weights[i] - start >= chunkWeight || i == this.weights.length - 1) {
+                    chunks.add(i + 1);
+                    start = this.weights[i];
+                }
+            }
+            return chunks.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
@@ -39,28 +40,37 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * The view of a {@link TinkerGraph} during a computation, which holds the values of the compute keys apart from the
+ * graph. Each compute key has an array with a cell for each vertex at its index from
+ * {@link TinkerHelper#getComputerIndex(TinkerVertex)}. A cell holds a lone value as it is, which is read as a
+ * {@link VertexProperty} that is only stored, with an identifier of its own, once its identifier or meta-properties
+ * are asked for, while several values or stored properties are held in a list.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerGraphComputerView {
 
     private final TinkerGraph graph;
     protected final Map<String, VertexComputeKey> computeKeys;
-    private Map<Element, Map<String, List<VertexProperty<?>>>> computeProperties;
+    private final Map<String, Object[]> computeValues = new HashMap<>();
     private final Set<Object> legalVertices = new HashSet<>();
     private final Map<Object, Set<Object>> legalEdges = new HashMap<>();
     private final GraphFilter graphFilter;
+    private final int vertexCount;
 
     public TinkerGraphComputerView(final TinkerGraph graph, final GraphFilter graphFilter, final Set<VertexComputeKey> computeKeys) {
         this.graph = graph;
+        this.vertexCount = TinkerHelper.getComputerRuntime(graph).getPartitioning().getVertices().length;
         this.computeKeys = new HashMap<>();
         computeKeys.forEach(key -> this.computeKeys.put(key.getKey(), key));
-        this.computeProperties = new ConcurrentHashMap<>();
+        computeKeys.forEach(key -> this.computeValues.put(key.getKey(), new Object[this.vertexCount]));
         this.graphFilter = graphFilter;
         if (this.graphFilter.hasFilter()) {
             graph.vertices().forEachRemaining(vertex -> {
@@ -81,13 +91,25 @@ public final class TinkerGraphComputerView {
     public <V> Property<V> addProperty(final TinkerVertex vertex, final String key, final V value) {
         ElementHelper.validateProperty(key, value);
         if (isComputeKey(key)) {
-            final TinkerVertexProperty<V> property = new TinkerVertexProperty<V>((TinkerVertex) vertex, key, value) {
-                @Override
-                public void remove() {
-                    removeProperty(vertex, key, this);
-                }
-            };
-            this.addValue(vertex, key, property);
+            final Object[] values = this.computeValues.computeIfAbsent(key, k -> new Object[this.vertexCount]);
+            final int index = TinkerHelper.getComputerIndex(vertex);
+            final Object cell = values[index];
+
+            // a null value is held as a property so that it can be told apart from an empty cell
+            if (null == cell && null != value) {
+                values[index] = value;
+                return new ComputeProperty<>(vertex, key, value);
+            }
+
+            final VertexProperty<V> property = this.createProperty(vertex, key, value);
+            if (cell instanceof PropertyList) {
+                ((PropertyList) cell).add(property);
+            } else {
+                final PropertyList properties = new PropertyList();
+                if (null != cell) properties.add(this.createProperty(vertex, key, cell));
+                properties.add(property);
+                values[index] = properties;
+            }
             return property;
         } else {
             throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
@@ -106,8 +128,8 @@ public final class TinkerGraphComputerView {
         for (final List<VertexProperty> properties : TinkerHelper.getProperties(vertex).values()) {
             list.addAll(properties);
         }
-        for (final List<VertexProperty<?>> properties : this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).values()) {
-            list.addAll(properties);
+        for (final String key : this.computeValues.keySet()) {
+            list.addAll(this.getValue(vertex, key));
         }
         return list;
     }
@@ -128,13 +150,19 @@ public final class TinkerGraphComputerView {
         return !this.graphFilter.hasEdgeFilter() || this.legalEdges.get(vertex.id()).contains(edge.id());
     }
 
+    /**
+     * The number of vertices in the graph, each of which has an index below it from
+     * {@link TinkerHelper#getComputerIndex(TinkerVertex)}.
+     */
+    protected int vertexCount() {
+        return this.vertexCount;
+    }
+
     protected void complete() {
         // remove all transient properties from the vertices
         for (final VertexComputeKey computeKey : this.computeKeys.values()) {
             if (computeKey.isTransient()) {
-                for (final Map<String, List<VertexProperty<?>>> properties : this.computeProperties.values()) {
-                    properties.remove(computeKey.getKey());
-                }
+                this.computeValues.remove(computeKey.getKey());
             }
         }
     }
@@ -193,17 +221,23 @@ public final class TinkerGraphComputerView {
 
     private void addPropertiesToOriginalGraph() {
         TinkerHelper.dropGraphComputerView(this.graph);
-        this.computeProperties.forEach((element, properties) -> {
-            properties.forEach((key, vertexProperties) -> {
-                vertexProperties.forEach(vertexProperty -> {
-                    final VertexProperty<?> newVertexProperty = ((Vertex) element).property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value(), T.id, vertexProperty.id());
-                    vertexProperty.properties().forEachRemaining(property -> {
-                        newVertexProperty.property(property.key(), property.value());
-                    });
-                });
+        for (final Vertex vertex : TinkerHelper.getVertices(this.graph).values()) {
+            final int index = TinkerHelper.getComputerIndex((TinkerVertex) vertex);
+            this.computeValues.forEach((key, values) -> {
+                final Object cell = values[index];
+                if (cell instanceof PropertyList) {
+                    for (final VertexProperty<?> vertexProperty : (PropertyList) cell) {
+                        final VertexProperty<?> newVertexProperty = vertex.property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value(), T.id, vertexProperty.id());
+                        vertexProperty.properties().forEachRemaining(property -> {
+                            newVertexProperty.property(property.key(), property.value());
+                        });
+                    }
+                } else if (null != cell) {
+                    vertex.property(VertexProperty.Cardinality.list, key, cell);
+                }
             });
-        });
-        this.computeProperties.clear();
+        }
+        this.computeValues.clear();
     }
 
     //////////////////////
@@ -212,20 +246,146 @@ public final class TinkerGraphComputerView {
         return this.computeKeys.containsKey(key);
     }
 
-    private void addValue(final Vertex vertex, final String key, final VertexProperty property) {
-        final Map<String, List<VertexProperty<?>>> elementProperties = this.computeProperties.computeIfAbsent(vertex, k -> new HashMap<>());
-        elementProperties.compute(key, (k, v) -> {
-            if (null == v) v = new ArrayList<>();
-            v.add(property);
-            return v;
-        });
+    private <V> VertexProperty<V> createProperty(final TinkerVertex vertex, final String key, final V value) {
+        return new TinkerVertexProperty<V>(vertex, key, value) {
+            @Override
+            public void remove() {
+                removeProperty(vertex, key, this);
+            }
+        };
+    }
+
+    /**
+     * Gets the stored property for the value of the key on the vertex, storing one in place of the value if it is
+     * held as it is.
+     */
+    private <V> VertexProperty<V> storeProperty(final TinkerVertex vertex, final String key, final V value) {
+        final Object[] values = this.computeValues.get(key);
+        final int index = TinkerHelper.getComputerIndex(vertex);
+        final Object cell = null == values ? null : values[index];
+        if (cell instanceof PropertyList) {
+            for (final VertexProperty<?> property : (PropertyList) cell) {
+                if (Objects.equals(property.value(), value)) return (VertexProperty<V>) property;
+            }
+        }
+        final VertexProperty<V> property = this.createProperty(vertex, key, value);
+        if (null != cell && !(cell instanceof PropertyList) && cell.equals(value)) {
+            final PropertyList properties = new PropertyList();
+            properties.add(property);
+            values[index] = properties;
+        }
+        return property;
     }
 
     private void removeValue(final Vertex vertex, final String key, final VertexProperty property) {
-        this.computeProperties.<List<Map<String, VertexProperty<?>>>>getOrDefault(vertex, Collections.emptyMap()).get(key).remove(property);
+        final Object[] values = this.computeValues.get(key);
+        if (null == values) return;
+        final int index = TinkerHelper.getComputerIndex((TinkerVertex) vertex);
+        final Object cell = values[index];
+        if (cell instanceof PropertyList) {
+            ((PropertyList) cell).remove(property);
+            if (((PropertyList) cell).isEmpty()) values[index] = null;
+        } else if (null != cell && cell.equals(property.value())) {
+            values[index] = null;
+        }
+    }
+
+    private List<VertexProperty<?>> getValue(final TinkerVertex vertex, final String key) {
+        final Object[] values = this.computeValues.get(key);
+        final Object cell = null == values ? null : values[TinkerHelper.getComputerIndex(vertex)];
+        if (null == cell)
+            return Collections.emptyList();
+        else if (cell instanceof PropertyList)
+            return (PropertyList) cell;
+        else
+            return Collections.singletonList(new ComputeProperty<>(vertex, key, cell));
+    }
+
+    /**
+     * The stored properties of a compute key on a vertex.
+     */
+    private static final class PropertyList extends ArrayList<VertexProperty<?>> {
     }
 
-    private List<VertexProperty<?>> getValue(final Vertex vertex, final String key) {
-        return this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).getOrDefault(key, Collections.emptyList());
+    /**
+     * A value of a compute key held as it is, which is stored as a property of its own once it needs an identifier or
+     * meta-properties.
+     */
+    private final class ComputeProperty<V> implements VertexProperty<V> {
+
+        private final TinkerVertex vertex;
+        private final String key;
+        private final V value;
+        private VertexProperty<V> stored;
+
+        private ComputeProperty(final TinkerVertex vertex, final String key, final V value) {
+            this.vertex = vertex;
+            this.key = key;
+            this.value = value;
+        }
+
+        private VertexProperty<V> stored() {
+            if (null == this.stored) this.stored = storeProperty(this.vertex, this.key, this.value);
+            return this.stored;
+        }
+
+        @Override
+        public String key() {
+            return this.key;
+        }
+
+        @Override
+        public V value() {
+            return this.value;
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public Vertex element() {
+            return this.vertex;
+        }
+
+        @Override
+        public Object id() {
+            return this.stored().id();
+        }
+
+        @Override
+        public <U> Property<U> property(final String key, final U value) {
+            return this.stored().property(key, value);
+        }
+
+        @Override
+        public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
+            return null == this.stored ? Collections.emptyIterator() : this.stored.properties(propertyKeys);
+        }
+
+        @Override
+        public void remove() {
+            if (null == this.stored)
+                removeValue(this.vertex, this.key, this);
+            else
+                this.stored.remove();
+        }
+
+        @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
+        @Override
+        public boolean equals(final Object object) {
+            return ElementHelper.areEqual(this, object);
+        }
+
+        @Override
+        public int hashCode() {
+            return ElementHelper.hashCode((Element) this);
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.propertyString(this);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.HaltedTraverserStream;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hands the halted traversers of a {@link TinkerGraphComputer} computation to the caller through a bounded queue.
+ * The workers and the master add to the queue as they halt traversers and wait while it is full, so that no more
+ * than its capacity is held at a time however large the result. The computation adds a completion marker once it
+ * ends, however it ends, after which the caller gets the result. Cancelling the stream releases the threads that
+ * wait on a full queue, so a traversal that is closed before it took all of the traversers leaves none behind.
+ */
+final class TinkerHaltedTraverserStream<S> implements HaltedTraverserStream<S> {
+
+    /**
+     * How long a thread waits on a full queue before it checks again whether the stream was cancelled.
+     */
+    private static final long OFFER_MILLIS = 100;
+
+    /**
+     * Marks the end of the halted traversers in the queue.
+     */
+    private static final Object COMPLETE = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private volatile Future<ComputerResult> computation;
+    private volatile boolean cancelled = false;
+
+    TinkerHaltedTraverserStream(final int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    void setComputation(final Future<ComputerResult> computation) {
+        this.computation = computation;
+    }
+
+    /**
+     * Adds the traversers to the queue, waiting for room as long as it is full and the stream is not cancelled.
+     */
+    void addAll(final TraverserSet<S> traversers) {
+        for (final Traverser.Admin<S> traverser : traversers) {
+            if (!this.offer(traverser))
+                throw new TraversalInterruptedException();
+        }
+    }
+
+    /**
+     * Adds the completion marker to the queue once the computation has added all of its traversers, whether it
+     * finished or failed.
+     */
+    void complete() {
+        try {
+            this.offer(COMPLETE);
+        } catch (final TraversalInterruptedException tie) {
+            // the computation was interrupted and fails, so the traversers that the caller has not taken are dropped
+            this.cancelled = true;
+            this.end();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean offer(final Object element) {
+        try {
+            while (!this.cancelled) {
+                if (this.queue.offer(element, OFFER_MILLIS, TimeUnit.MILLISECONDS))
+                    return true;
+            }
+            return false;
+        } catch (final InterruptedException ie) {
+            throw new TraversalInterruptedException();
+        }
+    }
+
+    @Override
+    public Iterator<Traverser.Admin<S>> haltedTraversers() {
+        return new Iterator<Traverser.Admin<S>>() {
+
+            private Object next = null;
+
+            @Override
+            public boolean hasNext() {
+                if (null == this.next) {
+                    try {
+                        this.next = queue.take();
+                    } catch (final InterruptedException ie) {
+                        cancel(true);
+                        throw new TraversalInterruptedException();
+                    }
+                }
+                if (COMPLETE != this.next)
+                    return true;
+                // the marker is put back for any later call and for other iterators of the stream
+                queue.offer(COMPLETE);
+                this.next = null;
+                return false;
+            }
+
+            @Override
+            public Traverser.Admin<S> next() {
+                if (!this.hasNext()) throw FastNoSuchElementException.instance();
+                final Traverser.Admin<S> traverser = (Traverser.Admin<S>) this.next;
+                this.next = null;
+                return traverser;
+            }
+        };
+    }
+
+    /**
+     * Cancels the computation and ends the halted traversers. The traversers still in the queue are dropped, which
+     * the threads waiting to add to it see within {@link #OFFER_MILLIS}.
+     */
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        this.cancelled = true;
+        final boolean cancelled = this.computation.cancel(mayInterruptIfRunning);
+        this.end();
+        return cancelled;
+    }
+
+    private void end() {
+        // each thread still adding may get one more traverser in after the flag is set
+        do {
+            this.queue.clear();
+        } while (!this.queue.offer(COMPLETE));
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.computation.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return this.computation.isDone();
+    }
+
+    @Override
+    public ComputerResult get() throws InterruptedException, ExecutionException {
+        return this.computation.get();
+    }
+
+    @Override
+    public ComputerResult get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return this.computation.get(timeout, unit);
+    }
+}
@@ -21,55 +21,186 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
+ * Gathers the key/values that the workers emit in the map stage. Each worker emits into its own {@link Worker}
+ * buffer, which groups the values by key without contention and applies {@link MapReduce#combine} to them once the
+ * map stage is done when the job has a combine stage. The buffers are then merged into partitions that hash the keys,
+ * so that the workers can reduce the partitions in parallel.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerMapEmitter<K, V> implements MapReduce.MapEmitter<K, V> {
 
-    public Map<K, Queue<V>> reduceMap;
-    public Queue<KeyValue<K, V>> mapQueue;
     private final boolean doReduce;
+    private final Map<K, List<V>>[] partitions;
+    private final Queue<Worker> workers = new ConcurrentLinkedQueue<>();
+    private List<List<Map.Entry<K, List<V>>>> reducePartitions;
+    private List<KeyValue<K, V>> mapList;
 
-    public TinkerMapEmitter(final boolean doReduce) {
+    public TinkerMapEmitter(final boolean doReduce, final int numberOfPartitions) {
         this.doReduce = doReduce;
-        if (this.doReduce)
-            this.reduceMap = new ConcurrentHashMap<>();
-        else
-            this.mapQueue = new ConcurrentLinkedQueue<>();
+        this.partitions = new Map[this.doReduce ? numberOfPartitions : 0];
+        for (int i = 0; i < this.partitions.length; i++) {
+            this.partitions[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Creates the buffer of a worker, which is only merged into the partitions by {@link Worker#complete()} and else
+     * when the map stage is completed.
+     */
+    public Worker worker() {
+        final Worker worker = new Worker();
+        this.workers.add(worker);
+        return worker;
+    }
+
+    /**
+     * Takes the next buffer of a worker that was not completed yet or {@code null} if there is none.
+     */
+    public Worker nextWorker() {
+        return this.workers.poll();
     }
 
     @Override
-    public void emit(K key, V value) {
-        if (this.doReduce)
-            this.reduceMap.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).add(value);
-        else
-            this.mapQueue.add(new KeyValue<>(key, value));
+    public void emit(final K key, final V value) {
+        if (this.doReduce) {
+            final Map<K, List<V>> partition = this.partition(key);
+            synchronized (partition) {
+                partition.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+            }
+        } else {
+            synchronized (this.workers) {
+                if (null == this.mapList) this.mapList = new ArrayList<>();
+                this.mapList.add(new KeyValue<>(key, value));
+            }
+        }
+    }
+
+    /**
+     * Gets the key/values grouped into partitions that can be reduced independently of each other. The partitions
+     * follow the order of the keys if a map output sort is defined.
+     */
+    public List<List<Map.Entry<K, List<V>>>> getReducePartitions() {
+        return this.reducePartitions;
+    }
+
+    /**
+     * Gets the key/values of a map-only job.
+     */
+    public List<KeyValue<K, V>> getMapList() {
+        return null == this.mapList ? Collections.emptyList() : this.mapList;
     }
 
     protected void complete(final MapReduce<K, V, ?, ?, ?> mapReduce) {
-        if (!this.doReduce && mapReduce.getMapKeySort().isPresent()) {
-            final Comparator<K> comparator = mapReduce.getMapKeySort().get();
-            final List<KeyValue<K, V>> list = new ArrayList<>(this.mapQueue);
-            Collections.sort(list, Comparator.comparing(KeyValue::getKey, comparator));
-            this.mapQueue.clear();
-            this.mapQueue.addAll(list);
+        // buffers that were not completed by a combine stage are merged as they are
+        Worker worker;
+        while (null != (worker = this.nextWorker())) {
+            worker.complete();
+        }
+        if (!this.doReduce) {
+            if (mapReduce.getMapKeySort().isPresent())
+                this.getMapList().sort(Comparator.comparing(KeyValue::getKey, mapReduce.getMapKeySort().get()));
         } else if (mapReduce.getMapKeySort().isPresent()) {
-            final Comparator<K> comparator = mapReduce.getMapKeySort().get();
-            final List<Map.Entry<K, Queue<V>>> list = new ArrayList<>();
-            list.addAll(this.reduceMap.entrySet());
-            Collections.sort(list, Comparator.comparing(Map.Entry::getKey, comparator));
-            this.reduceMap = new LinkedHashMap<>();
-            list.forEach(entry -> this.reduceMap.put(entry.getKey(), entry.getValue()));
+            // sorted keys are split into ranges so that the reduced key/values keep their order
+            final List<Map.Entry<K, List<V>>> list = new ArrayList<>();
+            for (final Map<K, List<V>> partition : this.partitions) {
+                list.addAll(partition.entrySet());
+            }
+            list.sort(Comparator.comparing(Map.Entry::getKey, mapReduce.getMapKeySort().get()));
+            final int size = Math.max(1, (list.size() + this.partitions.length - 1) / this.partitions.length);
+            this.reducePartitions = new ArrayList<>();
+            for (int i = 0; i < list.size(); i += size) {
+                this.reducePartitions.add(list.subList(i, Math.min(list.size(), i + size)));
+            }
+        } else {
+            this.reducePartitions = new ArrayList<>(this.partitions.length);
+            for (final Map<K, List<V>> partition : this.partitions) {
+                this.reducePartitions.add(new ArrayList<>(partition.entrySet()));
+            }
+        }
+    }
+
+    private int partitionIndex(final K key) {
+        final int hash = Objects.hashCode(key);
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % this.partitions.length;
+    }
+
+    private Map<K, List<V>> partition(final K key) {
+        return this.partitions[this.partitionIndex(key)];
+    }
+
+    /**
+     * The key/values that a single worker emits.
+     */
+    public final class Worker implements MapReduce.MapEmitter<K, V> {
+
+        private Map<K, List<V>> buffer = new HashMap<>();
+        private final List<KeyValue<K, V>> keyValues = new ArrayList<>();
+
+        private Worker() {
+        }
+
+        @Override
+        public void emit(final K key, final V value) {
+            if (doReduce)
+                this.buffer.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+            else
+                this.keyValues.add(new KeyValue<>(key, value));
+        }
+
+        /**
+         * Replaces the values of each key by what the combine stage of the worker's {@link MapReduce} emits for them.
+         */
+        public void combine(final MapReduce<K, V, K, V, ?> workerMapReduce) {
+            final Map<K, List<V>> combined = new HashMap<>();
+            final MapReduce.ReduceEmitter<K, V> emitter = (key, value) ->
+                    combined.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+            for (final Map.Entry<K, List<V>> entry : this.buffer.entrySet()) {
+                workerMapReduce.combine(entry.getKey(), entry.getValue().iterator(), emitter);
+            }
+            this.buffer = combined;
+        }
+
+        /**
+         * Merges the buffer into the partitions, taking the lock of each partition once.
+         */
+        public void complete() {
+            workers.remove(this);
+            if (!doReduce) {
+                synchronized (workers) {
+                    if (null == mapList) mapList = new ArrayList<>(this.keyValues.size());
+                    mapList.addAll(this.keyValues);
+                }
+                return;
+            }
+            final List<Map.Entry<K, List<V>>>[] split = new List[partitions.length];
+            for (final Map.Entry<K, List<V>> entry : this.buffer.entrySet()) {
+                final int index = partitionIndex(entry.getKey());
+                if (null == split[index]) split[index] = new ArrayList<>();
+                split[index].add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+            }
+            for (int i = 0; i < split.length; i++) {
+                if (null == split[i]) continue;
+                synchronized (partitions[i]) {
+                    for (final Map.Entry<K, List<V>> entry : split[i]) {
+                        final List<V> values = partitions[i].putIfAbsent(entry.getKey(), entry.getValue());
+                        if (null != values) values.addAll(entry.getValue());
+                    }
+                }
+            }
+            this.buffer = Collections.emptyMap();
         }
     }
 }
@@ -23,11 +23,16 @@ import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.Memory;
 import org.apache.tinkerpop.gremlin.process.computer.MemoryComputeKey;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.MemoryHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -46,7 +51,9 @@ public final class TinkerMemory implements Memory.Admin {
     public Map<String, Optional<Object>> currentMap;
     private final AtomicInteger iteration = new AtomicInteger(0);
     private final AtomicLong runtime = new AtomicLong(0l);
+    private final List<long[]> workerRuntimes = new ArrayList<>();
     private boolean inExecute = false;
+    private TinkerHaltedTraverserStream<Object> haltedTraverserStream = null;
 
     public TinkerMemory(final VertexProgram<?> vertexProgram, final Set<MapReduce> mapReducers) {
         // ConcurrentHashMap makes us use Optional since you cant store null in them as values (or keys)
@@ -92,6 +99,33 @@ public final class TinkerMemory implements Memory.Admin {
         return this.runtime.get();
     }
 
+    /**
+     * Gets the time in nanoseconds that each worker spent executing the vertex program in each iteration, indexed by
+     * iteration and then by worker, which shows how evenly the vertices were spread among the workers.
+     */
+    public List<long[]> getWorkerRuntimes() {
+        return Collections.unmodifiableList(this.workerRuntimes);
+    }
+
+    protected void addWorkerRuntimes(final long[] workerRuntimes) {
+        this.workerRuntimes.add(workerRuntimes);
+    }
+
+    protected void setHaltedTraverserStream(final TinkerHaltedTraverserStream<Object> haltedTraverserStream) {
+        this.haltedTraverserStream = haltedTraverserStream;
+    }
+
+    /**
+     * Hands the traversers to the {@link TinkerHaltedTraverserStream} if the key is that of the halted traversers and
+     * there is a stream, in which case they are not kept in memory.
+     */
+    protected boolean streamHaltedTraversers(final String key, final Object value) {
+        if (null == this.haltedTraverserStream || !TraversalVertexProgram.HALTED_TRAVERSERS.equals(key))
+            return false;
+        this.haltedTraverserStream.addAll((TraverserSet<Object>) value);
+        return true;
+    }
+
     protected void complete() {
         this.iteration.decrementAndGet();
         this.previousMap = this.currentMap;
@@ -125,7 +159,7 @@ public final class TinkerMemory implements Memory.Admin {
         checkKeyValue(key, value);
         if (this.inExecute)
             throw Memory.Exceptions.memorySetOnlyDuringVertexProgramSetUpAndTerminate(key);
-        this.currentMap.put(key, Optional.ofNullable(value));
+        this.currentMap.put(key, Optional.ofNullable(this.streamHaltedTraversers(key, value) ? new TraverserSet<>() : value));
     }
 
     @Override
@@ -133,6 +167,7 @@ public final class TinkerMemory implements Memory.Admin {
         checkKeyValue(key, value);
         if (!this.inExecute)
             throw Memory.Exceptions.memoryAddOnlyDuringVertexProgramExecute(key);
+        if (this.streamHaltedTraversers(key, value)) return;
         this.currentMap.compute(key, (k, v) -> Optional.ofNullable(null == v || !v.isPresent() ? value : this.memoryKeys.get(key).getReducer().apply(v.get(), value)));
     }
 
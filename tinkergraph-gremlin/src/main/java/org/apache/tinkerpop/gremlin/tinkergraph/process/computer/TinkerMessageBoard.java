@@ -18,29 +18,335 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedVertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
+ * Holds the messages of a computation in arrays addressed by the index that the
+ * {@link TinkerGraphComputerView} gives each vertex, with a pair of buffers per {@link MessageScope} that swap on
+ * every iteration. When the messages are combined and the first of them is a {@code Double} or a {@code Long}, the
+ * combined values of the scope are held unboxed. The arrays of a buffer are only allocated once a message is sent to
+ * it, so a scope costs nothing until it is used.
+ * <p/>
+ * The board also tracks the vertices that voted to halt. Once a vertex has voted, each message wakes the vertices it
+ * is sent to for the next iteration, and a halted vertex that is not woken is skipped. Halted vertices are only
+ * skipped in an iteration whose messages were all sent while waking, so the iteration after the first vote still
+ * executes every vertex.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerMessageBoard<M> {
 
-    public Map<MessageScope, Map<Vertex,Queue<M>>> sendMessages = new ConcurrentHashMap<>();
-    public Map<MessageScope, Map<Vertex, Queue<M>>> receiveMessages = new ConcurrentHashMap<>();
-    public Set<MessageScope> previousMessageScopes = new HashSet<>();
-    public Set<MessageScope> currentMessageScopes = new HashSet<>();
+    private static final int LOCK_STRIPES = 256;
+
+    private final TinkerGraph graph;
+    private final int vertexCount;
+    private final MessageCombiner<M> combiner;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private volatile Scope<M>[] scopes = new Scope[0];
+    private final Bits halted;
+    private Bits sendWoken;
+    private Bits receiveWoken;
+    private volatile boolean halting = false;
+    private boolean sendWaking = false;
+    private boolean receiveWaking = false;
+
+    public TinkerMessageBoard(final TinkerGraph graph, final int vertexCount, final Optional<MessageCombiner<M>> combiner) {
+        this.graph = graph;
+        this.vertexCount = vertexCount;
+        this.combiner = combiner.orElse(null);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.locks[i] = new Object();
+        }
+        this.halted = new Bits(vertexCount);
+        this.sendWoken = new Bits(vertexCount);
+        this.receiveWoken = new Bits(vertexCount);
+    }
+
+    /**
+     * Gets the index of the vertex on the board or {@code -1} if it is not a vertex of the graph.
+     */
+    public int slot(Vertex vertex) {
+        while (vertex instanceof WrappedVertex) {
+            vertex = ((WrappedVertex<Vertex>) vertex).getBaseVertex();
+        }
+        if (!(vertex instanceof TinkerVertex))
+            vertex = TinkerHelper.getVertices(this.graph).get(vertex.id());
+        return null == vertex ? -1 : TinkerHelper.getComputerIndex((TinkerVertex) vertex);
+    }
+
+    /**
+     * Sends the message to the vertex at the slot, returning {@code true} if it is the first message of the scope to
+     * that slot in this iteration. A global message wakes its vertex, while the receivers of a local message are only
+     * known to the sender, which wakes them with {@link #wake(int)}.
+     */
+    public boolean sendMessage(final MessageScope messageScope, final int slot, final M message) {
+        if (slot < 0) return false;
+        final boolean first = this.getScope(messageScope, message).send.add(slot, message);
+        if (first && messageScope instanceof MessageScope.Global) this.wake(slot);
+        return first;
+    }
+
+    public void voteToHalt(final int slot) {
+        if (!this.halting) this.halting = true;
+        this.halted.set(slot);
+    }
+
+    /**
+     * Determines if the messages of this iteration wake the vertices that they are sent to.
+     */
+    public boolean isWaking() {
+        return this.sendWaking;
+    }
+
+    public void wake(final int slot) {
+        if (this.sendWaking && slot >= 0) this.sendWoken.set(slot);
+    }
+
+    /**
+     * Makes every vertex that voted to halt execute again.
+     */
+    public void wakeAll() {
+        this.halted.clear();
+    }
+
+    /**
+     * Determines if the vertex executes in this iteration, which it does unless it voted to halt and was not woken.
+     * A vertex that executes is no longer halted unless it votes again.
+     */
+    public boolean activate(final int slot) {
+        if (slot < 0 || !this.halted.get(slot)) return true;
+        if (this.receiveWaking && !this.receiveWoken.get(slot)) return false;
+        this.halted.unset(slot);
+        return true;
+    }
+
+    public Scope<M>[] getScopes() {
+        return this.scopes;
+    }
 
     public void completeIteration() {
-        this.receiveMessages = this.sendMessages;
-        this.sendMessages = new ConcurrentHashMap<>();
-        this.previousMessageScopes = this.currentMessageScopes;
-        this.currentMessageScopes = new HashSet<>();
+        for (final Scope<M> scope : this.scopes) {
+            scope.completeIteration();
+        }
+        final Bits woken = this.receiveWoken;
+        if (this.receiveWaking) woken.clear();
+        this.receiveWoken = this.sendWoken;
+        this.sendWoken = woken;
+        this.receiveWaking = this.sendWaking;
+        this.sendWaking = this.halting;
+    }
+
+    private Scope<M> getScope(final MessageScope messageScope, final M message) {
+        final Scope<M>[] current = this.scopes;
+        for (final Scope<M> scope : current) {
+            if (scope.messageScope == messageScope) return scope;
+        }
+        for (final Scope<M> scope : current) {
+            if (scope.messageScope.equals(messageScope)) return scope;
+        }
+        return this.addScope(messageScope, message);
+    }
+
+    private synchronized Scope<M> addScope(final MessageScope messageScope, final M message) {
+        for (final Scope<M> scope : this.scopes) {
+            if (scope.messageScope.equals(messageScope)) return scope;
+        }
+        final Class<?> numberType = null != this.combiner && (message instanceof Double || message instanceof Long) ?
+                message.getClass() : null;
+        final Scope<M> scope = new Scope<>(messageScope,
+                new Messages<>(this.vertexCount, this.combiner, this.locks, numberType),
+                new Messages<>(this.vertexCount, this.combiner, this.locks, numberType));
+        final Scope<M>[] scopes = Arrays.copyOf(this.scopes, this.scopes.length + 1);
+        scopes[scopes.length - 1] = scope;
+        this.scopes = scopes;
+        return scope;
+    }
+
+    static final class Scope<M> {
+
+        private final MessageScope messageScope;
+        private Messages<M> send;
+        private Messages<M> receive;
+
+        private Scope(final MessageScope messageScope, final Messages<M> send, final Messages<M> receive) {
+            this.messageScope = messageScope;
+            this.send = send;
+            this.receive = receive;
+        }
+
+        public MessageScope getMessageScope() {
+            return this.messageScope;
+        }
+
+        /**
+         * Determines if any message of the scope was sent in the previous iteration.
+         */
+        public boolean hasMessages() {
+            return this.receive.sent;
+        }
+
+        public Iterator<M> receiveMessages(final int slot) {
+            return slot < 0 ? Collections.emptyIterator() : this.receive.get(slot);
+        }
+
+        private void completeIteration() {
+            final Messages<M> cleared = this.receive;
+            cleared.clear();
+            this.receive = this.send;
+            this.send = cleared;
+        }
+    }
+
+    private static final class Messages<M> {
+
+        private final int vertexCount;
+        private final MessageCombiner<M> combiner;
+        private final Object[] locks;
+        private final Class<?> numberType;
+        private long[] numbers;
+        private volatile boolean[] numbered;
+        private volatile Object[] values;
+        private volatile boolean sent = false;
+
+        private Messages(final int vertexCount, final MessageCombiner<M> combiner, final Object[] locks, final Class<?> numberType) {
+            this.vertexCount = vertexCount;
+            this.combiner = combiner;
+            this.locks = locks;
+            this.numberType = numberType;
+        }
+
+        private boolean add(final int slot, final M message) {
+            if (!this.sent) this.sent = true;
+            final boolean number = null != this.numberType && this.numberType == message.getClass();
+            final boolean[] numbered = number ? this.numbered() : this.numbered;
+            synchronized (this.locks[slot & (LOCK_STRIPES - 1)]) {
+                final Object[] values = this.values;
+                final boolean first = (null == numbered || !numbered[slot]) && (null == values || null == values[slot]);
+                if (number) {
+                    final M combined = numbered[slot] ? this.combiner.combine(this.decode(slot), message) : message;
+                    if (this.numberType == combined.getClass()) {
+                        this.numbers[slot] = Double.class == this.numberType ?
+                                Double.doubleToRawLongBits((Double) combined) : (Long) combined;
+                        numbered[slot] = true;
+                        return first;
+                    }
+                    numbered[slot] = false;
+                    this.addValue(slot, combined);
+                } else {
+                    this.addValue(slot, message);
+                }
+                return first;
+            }
+        }
+
+        private void addValue(final int slot, final M message) {
+            final Object[] values = this.values();
+            if (null == this.combiner) {
+                if (null == values[slot]) values[slot] = new ArrayList<>(1);
+                ((List<M>) values[slot]).add(message);
+            } else {
+                values[slot] = null == values[slot] ? message : this.combiner.combine((M) values[slot], message);
+            }
+        }
+
+        private Iterator<M> get(final int slot) {
+            final Object[] values = this.values;
+            final Object value = null == values ? null : values[slot];
+            if (null == this.combiner)
+                return null == value ? Collections.emptyIterator() : ((List<M>) value).iterator();
+
+            final boolean[] numbered = this.numbered;
+            final M number = null != numbered && numbered[slot] ? this.decode(slot) : null;
+            if (null == number)
+                return null == value ? Collections.emptyIterator() : IteratorUtils.of((M) value);
+            return IteratorUtils.of(null == value ? number : this.combiner.combine(number, (M) value));
+        }
+
+        private M decode(final int slot) {
+            // each branch is boxed on its own as a conditional over a Double and a Long would promote both to double
+            if (Double.class == this.numberType)
+                return (M) Double.valueOf(Double.longBitsToDouble(this.numbers[slot]));
+            return (M) Long.valueOf(this.numbers[slot]);
+        }
+
+        // the arrays of a buffer are only created once a message is sent to it, so a scope that is used in a single
+        // iteration or only ever holds values of one kind does not cost a set of arrays for every vertex of the graph
+
+        private boolean[] numbered() {
+            if (null == this.numbered) {
+                synchronized (this) {
+                    if (null == this.numbered) {
+                        this.numbers = new long[this.vertexCount];
+                        this.numbered = new boolean[this.vertexCount];
+                    }
+                }
+            }
+            return this.numbered;
+        }
+
+        private Object[] values() {
+            if (null == this.values) {
+                synchronized (this) {
+                    if (null == this.values) this.values = new Object[this.vertexCount];
+                }
+            }
+            return this.values;
+        }
+
+        private void clear() {
+            if (!this.sent) return;
+            this.sent = false;
+            if (null != this.numbered) Arrays.fill(this.numbered, false);
+            if (null != this.values) Arrays.fill(this.values, null);
+        }
+    }
+
+    /**
+     * A fixed size set of slots that threads can change concurrently.
+     */
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+
+        private Bits(final int size) {
+            this.words = new AtomicLongArray((size + 63) >>> 6);
+        }
+
+        private boolean get(final int slot) {
+            return 0 != (this.words.get(slot >>> 6) & (1L << slot));
+        }
+
+        private void set(final int slot) {
+            final long bit = 1L << slot;
+            if (0 == (this.words.get(slot >>> 6) & bit))
+                this.words.getAndAccumulate(slot >>> 6, bit, (word, mask) -> word | mask);
+        }
+
+        private void unset(final int slot) {
+            final long bit = 1L << slot;
+            if (0 != (this.words.get(slot >>> 6) & bit))
+                this.words.getAndAccumulate(slot >>> 6, ~bit, (word, mask) -> word & mask);
+        }
+
+        private void clear() {
+            for (int i = 0; i < this.words.length(); i++) {
+                this.words.set(i, 0L);
+            }
+        }
     }
 }
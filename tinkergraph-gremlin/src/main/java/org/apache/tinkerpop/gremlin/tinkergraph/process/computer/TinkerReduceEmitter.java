@@ -20,33 +20,40 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
 import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
+ * Gathers the key/values that are reduced from a partition of the map output. Each partition is reduced by a single
+ * worker into its own emitter, so the emitters need no synchronization and their key/values are streamed into the
+ * memory one partition after the other.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerReduceEmitter<OK, OV> implements MapReduce.ReduceEmitter<OK, OV> {
 
-    protected Queue<KeyValue<OK, OV>> reduceQueue = new ConcurrentLinkedQueue<>();
+    protected final List<KeyValue<OK, OV>> reduceList = new ArrayList<>();
 
     @Override
     public void emit(final OK key, final OV value) {
-        this.reduceQueue.add(new KeyValue<>(key, value));
+        this.reduceList.add(new KeyValue<>(key, value));
     }
 
-    protected void complete(final MapReduce<?, ?, OK, OV, ?> mapReduce) {
+    /**
+     * Gets the key/values of all partitions in the order of the partitions, sorted if a reduce output sort is defined.
+     */
+    protected static <OK, OV> Iterator<KeyValue<OK, OV>> complete(final MapReduce<?, ?, OK, OV, ?> mapReduce,
+                                                                  final List<TinkerReduceEmitter<OK, OV>> reduceEmitters) {
         if (mapReduce.getReduceKeySort().isPresent()) {
-            final Comparator<OK> comparator = mapReduce.getReduceKeySort().get();
-            final List<KeyValue<OK, OV>> list = new ArrayList<>(this.reduceQueue);
-            Collections.sort(list, Comparator.comparing(KeyValue::getKey, comparator));
-            this.reduceQueue.clear();
-            this.reduceQueue.addAll(list);
+            final List<KeyValue<OK, OV>> list = new ArrayList<>();
+            reduceEmitters.forEach(emitter -> list.addAll(emitter.reduceList));
+            list.sort(Comparator.comparing(KeyValue::getKey, mapReduce.getReduceKeySort().get()));
+            return list.iterator();
         }
+        return IteratorUtils.flatMap(reduceEmitters.iterator(), emitter -> emitter.reduceList.iterator());
     }
 }
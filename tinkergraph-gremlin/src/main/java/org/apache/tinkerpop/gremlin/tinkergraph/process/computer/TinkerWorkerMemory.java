@@ -91,6 +91,8 @@ public final class TinkerWorkerMemory implements Memory.Admin {
     @Override
     public void add(final String key, final Object value) {
         this.mainMemory.checkKeyValue(key, value);
+        // halted traversers go straight to the stream rather than waiting for the worker to complete
+        if (this.mainMemory.streamHaltedTraversers(key, value)) return;
         final Object v = this.workerMemory.get(key);
         this.workerMemory.put(key, null == v ? value : this.reducers.get(key).apply(v, value));
     }
@@ -18,14 +18,13 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
-import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.MapReducePool;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramPool;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 import org.apache.tinkerpop.gremlin.util.function.TriConsumer;
 
 import java.util.ArrayList;
@@ -35,53 +34,49 @@ import java.util.Queue;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
+ * Executes vertex programs and map reduce jobs over a fixed number of workers. The vertices are split into chunks of
+ * about equal weight, counting each vertex once plus once per incident edge, of which there are many more than there
+ * are workers. Each worker claims the next chunk as it finishes the last, so a worker that reaches the high degree
+ * vertices of a graph takes fewer chunks rather than holding the others up at the end of every iteration. The threads
+ * and the chunks come from the {@link TinkerGraphComputerRuntime} of the graph.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 public final class TinkerWorkerPool implements AutoCloseable {
 
-    private static final BasicThreadFactory THREAD_FACTORY_WORKER = new BasicThreadFactory.Builder().namingPattern("tinker-worker-%d").build();
-
     private final int numberOfWorkers;
-    private final ExecutorService workerPool;
     private final CompletionService<Object> completionService;
+    private final List<Future<Object>> futures = new ArrayList<>();
+    private final TinkerMemory memory;
+    private final TinkerGraphComputerView view;
 
     private VertexProgramPool vertexProgramPool;
     private MapReducePool mapReducePool;
     private final Queue<TinkerWorkerMemory> workerMemoryPool = new ConcurrentLinkedQueue<>();
-    private final List<List<Vertex>> workerVertices = new ArrayList<>();
+    private final Vertex[] vertices;
+    private final int[] chunks;
+    private final AtomicInteger nextChunk = new AtomicInteger(0);
 
-    public TinkerWorkerPool(final TinkerGraph graph, final TinkerMemory memory, final int numberOfWorkers) {
+    public TinkerWorkerPool(final TinkerGraphComputerRuntime runtime, final TinkerGraphComputerView view,
+                            final TinkerMemory memory, final int numberOfWorkers) {
         this.numberOfWorkers = numberOfWorkers;
-        this.workerPool = Executors.newFixedThreadPool(numberOfWorkers, THREAD_FACTORY_WORKER);
-        this.completionService = new ExecutorCompletionService<>(this.workerPool);
+        this.completionService = new ExecutorCompletionService<>(runtime.getWorkerService());
+        this.memory = memory;
+        this.view = view;
         for (int i = 0; i < this.numberOfWorkers; i++) {
             this.workerMemoryPool.add(new TinkerWorkerMemory(memory));
-            this.workerVertices.add(new ArrayList<>());
-        }
-        int batchSize = TinkerHelper.getVertices(graph).size() / this.numberOfWorkers;
-        if (0 == batchSize)
-            batchSize = 1;
-        int counter = 0;
-        int index = 0;
-
-        List<Vertex> currentWorkerVertices = this.workerVertices.get(index);
-        final Iterator<Vertex> iterator = graph.vertices();
-        while (iterator.hasNext()) {
-            final Vertex vertex = iterator.next();
-            if (counter++ < batchSize || index == this.workerVertices.size() - 1) {
-                currentWorkerVertices.add(vertex);
-            } else {
-                currentWorkerVertices = this.workerVertices.get(++index);
-                currentWorkerVertices.add(vertex);
-                counter = 1;
-            }
         }
+
+        final TinkerGraphComputerRuntime.Partitioning partitioning = runtime.getPartitioning();
+        this.vertices = partitioning.getVertices();
+        this.chunks = partitioning.getChunks(this.numberOfWorkers);
     }
 
     public void setVertexProgram(final VertexProgram vertexProgram) {
@@ -93,38 +88,47 @@ public final class TinkerWorkerPool implements AutoCloseable {
     }
 
     public void executeVertexProgram(final TriConsumer<Iterator<Vertex>, VertexProgram, TinkerWorkerMemory> worker) throws InterruptedException {
+        this.nextChunk.set(0);
+        final long[] workerRuntimes = new long[this.numberOfWorkers];
         for (int i = 0; i < this.numberOfWorkers; i++) {
             final int index = i;
-            this.completionService.submit(() -> {
+            this.futures.add(this.completionService.submit(() -> {
+                final long time = System.nanoTime();
                 final VertexProgram vp = this.vertexProgramPool.take();
                 final TinkerWorkerMemory workerMemory = this.workerMemoryPool.poll();
-                final List<Vertex> vertices = this.workerVertices.get(index);
-                worker.accept(vertices.iterator(), vp, workerMemory);
+                worker.accept(new ChunkIterator(), vp, workerMemory);
                 this.vertexProgramPool.offer(vp);
                 this.workerMemoryPool.offer(workerMemory);
+                workerRuntimes[index] = System.nanoTime() - time;
                 return null;
-            });
-        }
-        for (int i = 0; i < this.numberOfWorkers; i++) {
-            try {
-                this.completionService.take().get();
-            } catch (InterruptedException ie) {
-                throw ie;
-            } catch (final Exception e) {
-                throw new IllegalStateException(e.getMessage(), e);
-            }
+            }));
         }
+        this.awaitWorkers();
+        this.memory.addWorkerRuntimes(workerRuntimes);
+    }
+
+    /**
+     * Executes the map stage, where each worker claims chunks of the vertices like in
+     * {@link #executeVertexProgram(TriConsumer)}.
+     */
+    public void executeMapReduce(final BiConsumer<Iterator<Vertex>, MapReduce> worker) throws InterruptedException {
+        this.nextChunk.set(0);
+        this.executeMapReduce(mapReduce -> worker.accept(new ChunkIterator(), mapReduce));
     }
 
     public void executeMapReduce(final Consumer<MapReduce> worker) throws InterruptedException {
         for (int i = 0; i < this.numberOfWorkers; i++) {
-            this.completionService.submit(() -> {
+            this.futures.add(this.completionService.submit(() -> {
                 final MapReduce mr = this.mapReducePool.take();
                 worker.accept(mr);
                 this.mapReducePool.offer(mr);
                 return null;
-            });
+            }));
         }
+        this.awaitWorkers();
+    }
+
+    private void awaitWorkers() throws InterruptedException {
         for (int i = 0; i < this.numberOfWorkers; i++) {
             try {
                 this.completionService.take().get();
@@ -134,14 +138,50 @@ public final class TinkerWorkerPool implements AutoCloseable {
                 throw new IllegalStateException(e.getMessage(), e);
             }
         }
+        this.futures.clear();
     }
 
+    /**
+     * Interrupts the workers that are still running, as the threads are shared with other computations and can not
+     * be shut down.
+     */
     public void closeNow() throws Exception {
-        this.workerPool.shutdownNow();
+        this.futures.forEach(future -> future.cancel(true));
+        this.futures.clear();
     }
 
     @Override
     public void close() throws Exception {
-        this.workerPool.shutdown();
+        this.futures.clear();
+    }
+
+    /**
+     * Iterates the vertices of the chunks that a worker claims, claiming the next chunk when one is done. The chunks
+     * hold every vertex of the graph, so those that the {@link GraphFilter} of the view leaves out are skipped.
+     */
+    private final class ChunkIterator implements Iterator<Vertex> {
+
+        private int index = 0;
+        private int end = 0;
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                while (this.index < this.end) {
+                    if (view.legalVertex(vertices[this.index])) return true;
+                    this.index++;
+                }
+                final int chunk = nextChunk.getAndIncrement();
+                if (chunk >= chunks.length - 1) return false;
+                this.index = chunks[chunk];
+                this.end = chunks[chunk + 1];
+            }
+        }
+
+        @Override
+        public Vertex next() {
+            if (!this.hasNext()) throw FastNoSuchElementException.instance();
+            return vertices[this.index++];
+        }
     }
 }
\ No newline at end of file
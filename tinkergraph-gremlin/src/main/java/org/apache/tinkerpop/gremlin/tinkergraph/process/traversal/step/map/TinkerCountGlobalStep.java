@@ -19,18 +19,26 @@
 
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -38,11 +46,23 @@ import java.util.NoSuchElementException;
 public final class TinkerCountGlobalStep<S extends Element> extends AbstractStep<S, Long> {
 
     private final Class<S> elementClass;
+    private final List<HasContainer> hasContainers;
     private boolean done = false;
 
     public TinkerCountGlobalStep(final Traversal.Admin traversal, final Class<S> elementClass) {
+        this(traversal, elementClass, Collections.emptyList());
+    }
+
+    /**
+     * Counts the elements that match all of the {@link HasContainer} instances, answering from a
+     * {@link TinkerGraph.IndexType#RANGE} index when the containers all apply to the same range indexed key, from
+     * the label index when there is a single label filter and otherwise counting the matches of any other index lookup
+     * that applies, or of the elements of the graph when none does.
+     */
+    public TinkerCountGlobalStep(final Traversal.Admin traversal, final Class<S> elementClass, final List<HasContainer> hasContainers) {
         super(traversal);
         this.elementClass = elementClass;
+        this.hasContainers = new ArrayList<>(hasContainers);
     }
 
     @Override
@@ -50,22 +70,52 @@ public final class TinkerCountGlobalStep<S extends Element> extends AbstractStep
         if (!this.done) {
             this.done = true;
             final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-            return this.getTraversal().getTraverserGenerator().generate(Vertex.class.isAssignableFrom(this.elementClass) ?
-                            (long) TinkerHelper.getVertices(graph).size() :
-                            (long) TinkerHelper.getEdges(graph).size(),
-                    (Step) this, 1L);
+            return this.getTraversal().getTraverserGenerator().generate(count(graph), (Step) this, 1L);
         } else
             throw FastNoSuchElementException.instance();
     }
 
+    private long count(final TinkerGraph graph) {
+        final boolean vertices = Vertex.class.isAssignableFrom(this.elementClass);
+        if (this.hasContainers.isEmpty())
+            return vertices ? TinkerHelper.getVertices(graph).size() : TinkerHelper.getEdges(graph).size();
+
+        final long labeled = vertices ?
+                TinkerHelper.countVertexLabelIndex(graph, this.hasContainers) :
+                TinkerHelper.countEdgeLabelIndex(graph, this.hasContainers);
+        if (labeled >= 0) return labeled;
+
+        final String key = this.hasContainers.get(0).getKey();
+        if (this.hasContainers.stream().allMatch(c -> key.equals(c.getKey()))) {
+            final List<P<?>> predicates = this.hasContainers.stream().map(HasContainer::getPredicate).collect(Collectors.toList());
+            final long count = vertices ?
+                    TinkerHelper.countVertexRangeIndex(graph, key, predicates) :
+                    TinkerHelper.countEdgeRangeIndex(graph, key, predicates);
+            if (count >= 0) return count;
+        }
+
+        // fall back to the lookup TinkerGraphStep would make, so that equality and composite indices still apply
+        final Iterator<? extends Element> indexed = vertices ?
+                TinkerHelper.queryVertexIndex(graph, this.hasContainers) :
+                TinkerHelper.queryEdgeIndex(graph, this.hasContainers);
+        final Iterator<? extends Element> elements = null != indexed ? indexed : vertices ? graph.vertices() : graph.edges();
+        return IteratorUtils.count(IteratorUtils.filter(elements, e -> HasContainer.testAll(e, this.hasContainers)));
+    }
+
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
     @Override
     public String toString() {
-        return StringFactory.stepString(this, this.elementClass.getSimpleName().toLowerCase());
+        return this.hasContainers.isEmpty() ?
+                StringFactory.stepString(this, this.elementClass.getSimpleName().toLowerCase()) :
+                StringFactory.stepString(this, this.elementClass.getSimpleName().toLowerCase(), this.hasContainers);
     }
 
     @Override
     public int hashCode() {
-        return super.hashCode() ^ this.elementClass.hashCode();
+        return super.hashCode() ^ this.elementClass.hashCode() ^ this.hasContainers.hashCode();
     }
 
     @Override
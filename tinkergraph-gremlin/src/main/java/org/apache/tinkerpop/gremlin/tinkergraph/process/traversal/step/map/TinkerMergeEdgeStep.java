@@ -60,15 +60,16 @@ public class TinkerMergeEdgeStep<S> extends MergeEdgeStep<S> {
         } else if (search.containsKey(T.id)) {
             stream = IteratorUtils.stream(graph.edges(search.get(T.id)));
         } else {
-            // look for the first index we can find - that's the lucky winner. may or may not be the most selective
-            final Set<String> indexedKeys = graph.getIndexedKeys(Edge.class);
+            // look for the first index we can find - that's the lucky winner. may or may not be the most selective.
+            // RANGE indices match by Gremlin equality rather than equals() so they are skipped here
+            final Set<String> indexedKeys = graph.getIndexedKeys(Edge.class, TinkerGraph.IndexType.EQUALITY);
             firstIndex = search.keySet().stream().
                     filter(k -> k instanceof String).
                     map(k -> (String) k).
                     filter(indexedKeys::contains).findFirst();
 
             // use the index if possible otherwise just in memory filter
-            stream = firstIndex.map(s -> TinkerHelper.queryEdgeIndex(graph, s, search.get(s)).stream().map(e -> (Edge) e)).
+            stream = firstIndex.map(s -> IteratorUtils.stream(TinkerHelper.queryEdgeIndex(graph, s, search.get(s))).map(e -> (Edge) e)).
                     orElseGet(() -> {
                         if (search.containsKey(Direction.BOTH)) {
                             // filter self-edges with distinct()
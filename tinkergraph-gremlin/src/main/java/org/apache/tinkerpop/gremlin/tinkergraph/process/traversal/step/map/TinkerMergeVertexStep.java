@@ -57,15 +57,16 @@ public class TinkerMergeVertexStep<S> extends MergeVertexStep<S> {
         } else if (search.containsKey(T.id)) {
             stream = IteratorUtils.stream(graph.vertices(search.get(T.id)));
         } else {
-            // look for the first index we can find - that's the lucky winner. may or may not be the most selective
-            final Set<String> indexedKeys = graph.getIndexedKeys(Vertex.class);
+            // look for the first index we can find - that's the lucky winner. may or may not be the most selective.
+            // RANGE indices match by Gremlin equality rather than equals() so they are skipped here
+            final Set<String> indexedKeys = graph.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.EQUALITY);
             firstIndex = search.keySet().stream().
                     filter(k -> k instanceof String).
                     map(k -> (String) k).
                     filter(indexedKeys::contains).findFirst();
 
             // use the index if possible otherwise just in memory filter
-            stream = firstIndex.map(s -> TinkerHelper.queryVertexIndex(graph, s, search.get(s)).stream().map(v -> (Vertex) v)).
+            stream = firstIndex.map(s -> IteratorUtils.stream(TinkerHelper.queryVertexIndex(graph, s, search.get(s))).map(v -> (Vertex) v)).
                     orElseGet(() -> IteratorUtils.stream(graph.vertices()));
         }
 
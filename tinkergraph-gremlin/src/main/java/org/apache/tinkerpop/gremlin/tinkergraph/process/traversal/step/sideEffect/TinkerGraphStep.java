@@ -18,20 +18,23 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect;
 
-import org.apache.tinkerpop.gremlin.process.traversal.Compare;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraphIterator;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
@@ -39,8 +42,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -48,11 +50,15 @@ import java.util.stream.Collectors;
  */
 public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder, AutoCloseable {
 
-    private final List<HasContainer> hasContainers = new ArrayList<>();
+    private List<HasContainer> hasContainers = new ArrayList<>();
     /**
      * List of iterators opened by this step.
      */
-    private final List<Iterator> iterators = new ArrayList<>();
+    private List<Iterator> iterators = new ArrayList<>();
+    /**
+     * Determines if the traversal holding this step can modify the graph, which is resolved on first use.
+     */
+    private Boolean mutating;
 
     public TinkerGraphStep(final GraphStep<S, E> originalGraphStep) {
         super(originalGraphStep.getTraversal(), originalGraphStep.getReturnClass(), originalGraphStep.isStartStep(), originalGraphStep.getIds());
@@ -62,25 +68,27 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
         // but that allowed the filter in g.V(v).has('k','v') to be ignored.  this created problems for
         // PartitionStrategy which wants to prevent someone from passing "v" from one TraversalSource to
         // another TraversalSource using a different partition
-        this.setIteratorSupplier(() -> (Iterator<E>) (Vertex.class.isAssignableFrom(this.returnClass) ? this.vertices() : this.edges()));
+        this.setIteratorSupplier(this.iteratorSupplier());
+    }
+
+    private Supplier<Iterator<E>> iteratorSupplier() {
+        return () -> (Iterator<E>) (Vertex.class.isAssignableFrom(this.returnClass) ? this.vertices() : this.edges());
     }
 
     private Iterator<? extends Edge> edges() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Edge.class);
-        Iterator<Edge> iterator;
+        Iterator<? extends Edge> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
             iterator = this.iteratorList(graph.edges(this.ids));
-        else
-            iterator = null == indexedContainer ?
+        else {
+            final Iterator<TinkerEdge> indexed = TinkerHelper.queryEdgeIndex(graph, this.hasContainers);
+            iterator = null == indexed ?
                     this.iteratorList(graph.edges()) :
-                    TinkerHelper.queryEdgeIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).stream()
-                                .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
-                                .collect(Collectors.<Edge>toList()).iterator();
-
+                    this.iteratorIndexed(indexed);
+        }
 
         iterators.add(iterator);
 
@@ -89,33 +97,25 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     private Iterator<? extends Vertex> vertices() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Vertex.class);
         Iterator<? extends Vertex> iterator;
         // ids are present, filter on them first
         if (null == this.ids)
             iterator = Collections.emptyIterator();
         else if (this.ids.length > 0)
             iterator = this.iteratorList(graph.vertices(this.ids));
-        else
-            iterator = (null == indexedContainer ?
+        else {
+            // the index picks the most selective of its composite, single key and range lookups if any applies
+            final Iterator<TinkerVertex> indexed = TinkerHelper.queryVertexIndex(graph, this.hasContainers);
+            iterator = null == indexed ?
                     this.iteratorList(graph.vertices()) :
-                    IteratorUtils.filter(TinkerHelper.queryVertexIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).iterator(),
-                                         vertex -> HasContainer.testAll(vertex, this.hasContainers)));
+                    this.iteratorIndexed(indexed);
+        }
 
         iterators.add(iterator);
 
         return iterator;
     }
 
-    private HasContainer getIndexKey(final Class<? extends Element> indexedClass) {
-        final Set<String> indexedKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass);
-
-        final Iterator<HasContainer> itty = IteratorUtils.filter(hasContainers.iterator(),
-                c -> c.getPredicate().getBiPredicate() == Compare.eq && indexedKeys.contains(c.getKey()));
-        return itty.hasNext() ? itty.next() : null;
-
-    }
-
     @Override
     public String toString() {
         if (this.hasContainers.isEmpty())
@@ -144,6 +144,21 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
         return new TinkerGraphIterator<>(list.iterator());
     }
 
+    /**
+     * Streams the elements of an index lookup so that a traversal which stops early, as with a {@code limit()}, does
+     * not read the whole lookup. The index is read live and leaves out elements whose properties changed after the
+     * lookup started, so if the traversal can modify the graph the matches are collected up front instead, which
+     * keeps it reading the matches as they were before it changed any of them.
+     */
+    private <E extends Element> Iterator<E> iteratorIndexed(final Iterator<E> indexed) {
+        if (null == this.mutating)
+            this.mutating = TraversalHelper.hasStepOfAssignableClassRecursively(Mutating.class, TraversalHelper.getRootTraversal(this.getTraversal()));
+
+        return this.mutating ?
+                this.iteratorList(indexed) :
+                new TinkerGraphIterator<>(IteratorUtils.filter(indexed, e -> HasContainer.testAll(e, this.hasContainers)));
+    }
+
     @Override
     public List<HasContainer> getHasContainers() {
         return Collections.unmodifiableList(this.hasContainers);
@@ -159,6 +174,20 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
             this.hasContainers.add(hasContainer);
     }
 
+    @Override
+    public TinkerGraphStep<S, E> clone() {
+        final TinkerGraphStep<S, E> clone = (TinkerGraphStep<S, E>) super.clone();
+        clone.hasContainers = new ArrayList<>(this.hasContainers.size());
+        for (final HasContainer hasContainer : this.hasContainers) {
+            clone.hasContainers.add(hasContainer.clone());
+        }
+        clone.iterators = new ArrayList<>();
+        clone.mutating = null;
+        // the supplier of this step reads the ids and containers of this step rather than of the clone
+        clone.setIteratorSupplier(clone.iteratorSupplier());
+        return clone;
+    }
+
     @Override
     public int hashCode() {
         return super.hashCode() ^ this.hasContainers.hashCode();
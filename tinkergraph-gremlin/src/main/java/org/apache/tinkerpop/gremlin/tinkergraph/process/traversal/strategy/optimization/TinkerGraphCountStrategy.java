@@ -19,10 +19,12 @@
 
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
@@ -31,11 +33,15 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentitySt
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerCountGlobalStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -49,6 +55,7 @@ import java.util.Set;
  * g.V().count()               // is replaced by TinkerCountGlobalStep
  * g.V().map(out()).count()    // is replaced by TinkerCountGlobalStep
  * g.E().label().count()       // is replaced by TinkerCountGlobalStep
+ * g.V().has("age", gt(30)).count()   // is replaced by TinkerCountGlobalStep which may answer from a RANGE index
  * </pre>
  */
 public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
@@ -69,8 +76,16 @@ public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<Tr
                 !(steps.get(steps.size() - 1) instanceof CountGlobalStep))
             return;
 
+        final List<HasContainer> hasContainers = new ArrayList<>();
         for (int i = 1; i < steps.size() - 1; i++) {
             final Step current = steps.get(i);
+            // range filters on a single key can be answered by a RANGE index so they are folded into the count
+            if (current instanceof HasStep) {
+                if (!foldHasContainers(((HasStep<?>) current).getHasContainers(), hasContainers))
+                    return;
+                continue;
+            }
+
             // used to include "current instanceof MapStep" but they will not necessarily emit an element as
             // demonstrated in https://issues.apache.org/jira/browse/TINKERPOP-1958
             //
@@ -84,7 +99,22 @@ public final class TinkerGraphCountStrategy extends AbstractTraversalStrategy<Tr
         }
         final Class<? extends Element> elementClass = ((GraphStep<?, ?>) steps.get(0)).getReturnClass();
         TraversalHelper.removeAllSteps(traversal);
-        traversal.addStep(new TinkerCountGlobalStep<>(traversal, elementClass));
+        traversal.addStep(new TinkerCountGlobalStep<>(traversal, elementClass, hasContainers));
+    }
+
+    private static boolean foldHasContainers(final List<HasContainer> toFold, final List<HasContainer> folded) {
+        for (final HasContainer hasContainer : toFold) {
+            final List<? extends P<?>> predicates = hasContainer.getPredicate() instanceof AndP ?
+                    ((AndP<?>) hasContainer.getPredicate()).getPredicates() :
+                    Collections.singletonList(hasContainer.getPredicate());
+            for (final P<?> predicate : predicates) {
+                if (!(TinkerHelper.isRangeable(predicate) || TinkerHelper.isLabelIndexable(hasContainer.getKey(), predicate)) ||
+                        (!folded.isEmpty() && !folded.get(0).getKey().equals(hasContainer.getKey())))
+                    return false;
+                folded.add(new HasContainer(hasContainer.getKey(), predicate));
+            }
+        }
+        return true;
     }
 
     @Override
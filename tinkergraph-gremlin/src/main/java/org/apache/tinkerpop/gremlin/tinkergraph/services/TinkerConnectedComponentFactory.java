@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.services;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.service.Service;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.tinkerpop.gremlin.structure.service.Service.Type;
+import static org.apache.tinkerpop.gremlin.util.tools.CollectionFactory.asMap;
+
+/**
+ * Finds the connected component of each input vertex with a union-find over the edges of the graph, which gives the
+ * same components as the {@code ConnectedComponentVertexProgram} without a {@code GraphComputer}, where a component is
+ * named by the smallest string of the ids of its vertices. The components are found once for a {@code call()} step
+ * and its parameters. Demonstrates a {@link Service.Type#Streaming} service that keeps state between its inputs.
+ */
+public class TinkerConnectedComponentFactory extends TinkerServiceRegistry.TinkerServiceFactory<Vertex, String> {
+
+    public static final String NAME = "tinker.connected.component";
+
+    public interface Params {
+        /**
+         * Specify the edge label or labels that connect vertices (optional), default is all edges
+         */
+        String LABELS = "labels";
+
+        Map DESCRIBE = asMap(
+                LABELS, "Specify the edge label or labels that connect vertices (optional), default is all edges"
+        );
+    }
+
+    public TinkerConnectedComponentFactory(final TinkerGraph graph) {
+        super(graph, NAME);
+    }
+
+    @Override
+    public Map describeParams() {
+        return Params.DESCRIBE;
+    }
+
+    @Override
+    public Set<Type> getSupportedTypes() {
+        return Collections.singleton(Type.Streaming);
+    }
+
+    @Override
+    public Service<Vertex, String> createService(final boolean isStart, final Map params) {
+        if (isStart) {
+            throw new UnsupportedOperationException(Service.Exceptions.cannotStartTraversal);
+        }
+        return new ConnectedComponentService(this);
+    }
+
+    private Map<Object, String> findComponents(final Map params) {
+        final Map<Object, Vertex> vertices = TinkerHelper.getVertices(graph);
+        final Map<Object, Integer> indices = new HashMap<>(vertices.size() * 2);
+        final Object[] ids = new Object[vertices.size()];
+        for (final Object id : vertices.keySet()) {
+            ids[indices.size()] = id;
+            indices.put(id, indices.size());
+        }
+
+        final String[] labels = edgeLabels(params, Params.LABELS);
+        final Set<String> labelSet = labels.length == 0 ? null : new HashSet<>(Arrays.asList(labels));
+        final int[] parents = new int[ids.length];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        for (final Edge edge : TinkerHelper.getEdges(graph).values()) {
+            if (null == labelSet || labelSet.contains(edge.label())) {
+                final int a = root(parents, indices.get(edge.outVertex().id()));
+                final int b = root(parents, indices.get(edge.inVertex().id()));
+                if (a != b) parents[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+
+        final String[] components = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            final int root = root(parents, i);
+            final String id = ids[i].toString();
+            if (null == components[root] || id.compareTo(components[root]) < 0)
+                components[root] = id;
+        }
+        final Map<Object, String> result = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            result.put(ids[i], components[root(parents, i)]);
+        }
+        return result;
+    }
+
+    private static int root(final int[] parents, int index) {
+        while (parents[index] != index) {
+            // halve the path on the way up
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private static class ConnectedComponentService extends TinkerServiceRegistry.TinkerService<Vertex, String> {
+
+        private Map params;
+        private Map<Object, String> components;
+
+        private ConnectedComponentService(final TinkerConnectedComponentFactory factory) {
+            super(factory);
+        }
+
+        @Override
+        public Type getType() {
+            return Type.Streaming;
+        }
+
+        @Override
+        public CloseableIterator<String> execute(final ServiceCallContext ctx, final Traverser.Admin<Vertex> in, final Map params) {
+            // vertices added since the components were found call for finding them again
+            final Object id = in.get().id();
+            if (null == this.components || !params.equals(this.params) || !this.components.containsKey(id)) {
+                this.components = ((TinkerConnectedComponentFactory) serviceFactory).findComponents(params);
+                this.params = params;
+            }
+            return repeat(Collections.singletonList(this.components.get(id)), in.bulk());
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.services;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.service.Service;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.tinkerpop.gremlin.structure.service.Service.Type;
+import static org.apache.tinkerpop.gremlin.util.tools.CollectionFactory.asMap;
+
+/**
+ * Ranks the input vertices with a power iteration over the adjacency of all vertices of the graph, which converges to
+ * the same ranks as the {@code PageRankVertexProgram} without a {@code GraphComputer}. The ranks are computed once for
+ * a {@code call()} step and its parameters. Demonstrates a {@link Service.Type#Streaming} service that keeps state
+ * between its inputs.
+ */
+public class TinkerPageRankFactory extends TinkerServiceRegistry.TinkerServiceFactory<Vertex, Double> {
+
+    public static final String NAME = "tinker.page.rank";
+
+    public interface Params {
+        /**
+         * Specify the direction of the edges that pass on the rank (optional), default is Direction.OUT
+         */
+        String DIRECTION = "direction";
+        /**
+         * Specify the edge label or labels that pass on the rank (optional), default is all edges
+         */
+        String LABELS = "labels";
+        /**
+         * Specify the damping factor (optional), default is 0.85
+         */
+        String ALPHA = "alpha";
+        /**
+         * Specify the total change of the ranks at which they converged (optional), default is 0.00001
+         */
+        String EPSILON = "epsilon";
+        /**
+         * Specify the maximum number of iterations (optional), default is 20
+         */
+        String TIMES = "times";
+
+        Map DESCRIBE = asMap(
+                DIRECTION, "Specify the direction of the edges that pass on the rank (optional), default is Direction.OUT",
+                LABELS, "Specify the edge label or labels that pass on the rank (optional), default is all edges",
+                ALPHA, "Specify the damping factor (optional), default is 0.85",
+                EPSILON, "Specify the total change of the ranks at which they converged (optional), default is 0.00001",
+                TIMES, "Specify the maximum number of iterations (optional), default is 20"
+        );
+    }
+
+    public TinkerPageRankFactory(final TinkerGraph graph) {
+        super(graph, NAME);
+    }
+
+    @Override
+    public Map describeParams() {
+        return Params.DESCRIBE;
+    }
+
+    @Override
+    public Set<Type> getSupportedTypes() {
+        return Collections.singleton(Type.Streaming);
+    }
+
+    @Override
+    public Service<Vertex, Double> createService(final boolean isStart, final Map params) {
+        if (isStart) {
+            throw new UnsupportedOperationException(Service.Exceptions.cannotStartTraversal);
+        }
+        return new PageRankService(this);
+    }
+
+    private Map<Object, Double> rank(final Map params) {
+        final Direction direction = (Direction) params.getOrDefault(Params.DIRECTION, Direction.OUT);
+        final String[] labels = edgeLabels(params, Params.LABELS);
+        final double alpha = ((Number) params.getOrDefault(Params.ALPHA, 0.85d)).doubleValue();
+        final double epsilon = ((Number) params.getOrDefault(Params.EPSILON, 0.00001d)).doubleValue();
+        final int times = ((Number) params.getOrDefault(Params.TIMES, 20)).intValue();
+
+        final Map<Object, Vertex> vertices = TinkerHelper.getVertices(graph);
+        final int vertexCount = vertices.size();
+        final Map<Object, Integer> indices = new HashMap<>(vertexCount * 2);
+        final Vertex[] indexed = new Vertex[vertexCount];
+        for (final Vertex vertex : vertices.values()) {
+            indexed[indices.size()] = vertex;
+            indices.put(vertex.id(), indices.size());
+        }
+
+        // the adjacency in compressed rows, where the rank of a vertex is passed on over each of its edges
+        final int[] offsets = new int[vertexCount + 1];
+        int[] adjacent = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            int end = offsets[i];
+            final Iterator<TinkerVertex> others = TinkerHelper.getVertices((TinkerVertex) indexed[i], direction, labels);
+            while (others.hasNext()) {
+                if (end == adjacent.length)
+                    adjacent = Arrays.copyOf(adjacent, Math.max(16, adjacent.length * 2));
+                adjacent[end++] = indices.get(others.next().id());
+            }
+            offsets[i + 1] = end;
+        }
+
+        double[] ranks = new double[vertexCount];
+        double[] next = new double[vertexCount];
+        Arrays.fill(ranks, 1.0d / vertexCount);
+        for (int iteration = 0; iteration < times; iteration++) {
+            Arrays.fill(next, 0.0d);
+            // the rank of vertices without edges is spread over all vertices like the teleportation
+            double spread = 1.0d - alpha;
+            for (int i = 0; i < vertexCount; i++) {
+                final int edgeCount = offsets[i + 1] - offsets[i];
+                if (edgeCount == 0) {
+                    spread += alpha * ranks[i];
+                } else {
+                    final double share = alpha * ranks[i] / edgeCount;
+                    for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                        next[adjacent[j]] += share;
+                    }
+                }
+            }
+            double error = 0.0d;
+            for (int i = 0; i < vertexCount; i++) {
+                next[i] += spread / vertexCount;
+                error += Math.abs(next[i] - ranks[i]);
+            }
+            final double[] swap = ranks;
+            ranks = next;
+            next = swap;
+            if (error < epsilon) break;
+        }
+
+        final Map<Object, Double> result = new HashMap<>(vertexCount * 2);
+        for (int i = 0; i < vertexCount; i++) {
+            result.put(indexed[i].id(), ranks[i]);
+        }
+        return result;
+    }
+
+    private static class PageRankService extends TinkerServiceRegistry.TinkerService<Vertex, Double> {
+
+        private Map params;
+        private Map<Object, Double> ranks;
+
+        private PageRankService(final TinkerPageRankFactory factory) {
+            super(factory);
+        }
+
+        @Override
+        public Type getType() {
+            return Type.Streaming;
+        }
+
+        @Override
+        public CloseableIterator<Double> execute(final ServiceCallContext ctx, final Traverser.Admin<Vertex> in, final Map params) {
+            // vertices added since the ranks were computed call for computing them again
+            final Object id = in.get().id();
+            if (null == this.ranks || !params.equals(this.params) || !this.ranks.containsKey(id)) {
+                this.ranks = ((TinkerPageRankFactory) serviceFactory).rank(params);
+                this.params = params;
+            }
+            return repeat(Collections.singletonList(this.ranks.get(id)), in.bulk());
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -28,15 +28,18 @@ import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.util.function.TriFunction;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.stream.LongStream;
 
 /**
  * TinkerGraph services are currently just "toy" services, used to demonstrate and to test.
@@ -96,6 +99,28 @@ public class TinkerServiceRegistry extends ServiceRegistry {
         public Map describeParams() {
             return describeParams;
         }
+
+        /**
+         * Gets the edge labels from a parameter that holds either a single label or a collection of labels, where no
+         * labels means all edges.
+         */
+        protected static String[] edgeLabels(final Map params, final String key) {
+            final Object labels = params.get(key);
+            if (null == labels)
+                return new String[0];
+            else if (labels instanceof Collection)
+                return ((Collection<?>) labels).stream().map(Object::toString).toArray(String[]::new);
+            else
+                return new String[]{labels.toString()};
+        }
+
+        /**
+         * Emits the results once for each bulk of the input traverser.
+         */
+        protected static <R> CloseableIterator<R> repeat(final List<R> results, final long bulk) {
+            return CloseableIterator.of(LongStream.range(0, bulk).boxed()
+                    .flatMap(i -> results.stream()).iterator());
+        }
     }
 
     public abstract static class TinkerService<I, R> implements Service<I, R> {
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.services;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ImmutablePath;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.service.Service;
+import org.apache.tinkerpop.gremlin.structure.util.CloseableIterator;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.tinkerpop.gremlin.util.tools.CollectionFactory.asMap;
+
+/**
+ * Finds the shortest paths from each input vertex with a breadth-first search over the adjacency of the vertices,
+ * which gives the same paths as the {@code ShortestPathVertexProgram} without a {@code GraphComputer}. The search stops
+ * once all targets were reached, and each vertex only keeps the edges it was first reached over, from which the paths
+ * are put together at the end. Demonstrates a {@link Service.Type#Streaming} service that emits many results for an
+ * input.
+ */
+public class TinkerShortestPathFactory extends TinkerServiceRegistry.TinkerServiceFactory<Vertex, Path> implements Service<Vertex, Path> {
+
+    public static final String NAME = "tinker.shortest.path";
+
+    public interface Params {
+        /**
+         * Specify the target vertex or vertices, or their ids (optional), default is all vertices
+         */
+        String TARGET = "target";
+        /**
+         * Specify the edge direction (optional), default is Direction.BOTH
+         */
+        String DIRECTION = "direction";
+        /**
+         * Specify the edge label or labels to traverse (optional), default is all edges
+         */
+        String LABELS = "labels";
+        /**
+         * Specify the maximum number of hops (optional)
+         */
+        String MAX_DISTANCE = "maxDistance";
+        /**
+         * Include the edges in the paths (optional), default is false
+         */
+        String INCLUDE_EDGES = "includeEdges";
+
+        Map DESCRIBE = asMap(
+                TARGET, "Specify the target vertex or vertices, or their ids (optional), default is all vertices",
+                DIRECTION, "Specify the edge direction (optional), default is Direction.BOTH",
+                LABELS, "Specify the edge label or labels to traverse (optional), default is all edges",
+                MAX_DISTANCE, "Specify the maximum number of hops (optional)",
+                INCLUDE_EDGES, "Include the edges in the paths (optional), default is false"
+        );
+
+        static Set<Object> targetIds(final Object target) {
+            if (null == target)
+                return null;
+            final Set<Object> ids = new HashSet<>();
+            for (final Object t : target instanceof Collection ? (Collection<?>) target : Collections.singleton(target)) {
+                ids.add(t instanceof Vertex ? ((Vertex) t).id() : t);
+            }
+            return ids;
+        }
+    }
+
+    public TinkerShortestPathFactory(final TinkerGraph graph) {
+        super(graph, NAME);
+    }
+
+    @Override
+    public Type getType() {
+        return Type.Streaming;
+    }
+
+    @Override
+    public Map describeParams() {
+        return Params.DESCRIBE;
+    }
+
+    @Override
+    public Set<Type> getSupportedTypes() {
+        return Collections.singleton(Type.Streaming);
+    }
+
+    @Override
+    public Service<Vertex, Path> createService(final boolean isStart, final Map params) {
+        if (isStart) {
+            throw new UnsupportedOperationException(Service.Exceptions.cannotStartTraversal);
+        }
+        return this;
+    }
+
+    @Override
+    public CloseableIterator<Path> execute(final ServiceCallContext ctx, final Traverser.Admin<Vertex> in, final Map params) {
+        final Direction direction = (Direction) params.getOrDefault(Params.DIRECTION, Direction.BOTH);
+        final String[] labels = edgeLabels(params, Params.LABELS);
+        final Set<Object> targetIds = Params.targetIds(params.get(Params.TARGET));
+        final Number maxDistance = (Number) params.get(Params.MAX_DISTANCE);
+        final boolean includeEdges = (boolean) params.getOrDefault(Params.INCLUDE_EDGES, false);
+
+        // the edges each vertex was first reached over, in the order the vertices were reached
+        final Vertex source = in.get();
+        final Map<Vertex, List<Edge>> reachedOver = new LinkedHashMap<>();
+        reachedOver.put(source, Collections.emptyList());
+        int unreachedTargets = null == targetIds ? -1 : targetIds.size() - (targetIds.contains(source.id()) ? 1 : 0);
+        List<Vertex> frontier = Collections.singletonList(source);
+        int distance = 0;
+        while (!frontier.isEmpty() && unreachedTargets != 0 &&
+                (null == maxDistance || distance < maxDistance.intValue())) {
+            distance++;
+            final Map<Vertex, List<Edge>> next = new LinkedHashMap<>();
+            for (final Vertex vertex : frontier) {
+                final Iterator<TinkerEdge> edges = TinkerHelper.getEdges((TinkerVertex) vertex, direction, labels);
+                while (edges.hasNext()) {
+                    final Edge edge = edges.next();
+                    final Vertex other = otherVertex(edge, vertex);
+                    if (!reachedOver.containsKey(other))
+                        next.computeIfAbsent(other, k -> new ArrayList<>()).add(edge);
+                }
+            }
+            for (final Map.Entry<Vertex, List<Edge>> entry : next.entrySet()) {
+                reachedOver.put(entry.getKey(), entry.getValue());
+                if (null != targetIds && targetIds.contains(entry.getKey().id()))
+                    unreachedTargets--;
+            }
+            frontier = new ArrayList<>(next.keySet());
+        }
+
+        final List<Path> paths = new ArrayList<>();
+        for (final Vertex vertex : reachedOver.keySet()) {
+            if (null == targetIds || targetIds.contains(vertex.id()))
+                addPaths(reachedOver, vertex, new ArrayDeque<>(), includeEdges, paths);
+        }
+        return repeat(paths, in.bulk());
+    }
+
+    @Override
+    public void close() {}
+
+    /**
+     * Walks back over the edges each vertex was first reached over and adds a path whenever the source is reached.
+     */
+    private static void addPaths(final Map<Vertex, List<Edge>> reachedOver, final Vertex vertex,
+                                 final Deque<Element> elements, final boolean includeEdges, final List<Path> paths) {
+        elements.push(vertex);
+        final List<Edge> edges = reachedOver.get(vertex);
+        if (edges.isEmpty()) {
+            Path path = ImmutablePath.make();
+            for (final Element element : elements) {
+                path = path.extend(element, Collections.emptySet());
+            }
+            paths.add(path);
+        } else {
+            for (final Edge edge : edges) {
+                if (includeEdges) elements.push(edge);
+                addPaths(reachedOver, otherVertex(edge, vertex), elements, includeEdges, paths);
+                if (includeEdges) elements.pop();
+            }
+        }
+        elements.pop();
+    }
+
+    private static Vertex otherVertex(final Edge edge, final Vertex vertex) {
+        final Vertex outVertex = edge.outVertex();
+        return outVertex.equals(vertex) ? edge.inVertex() : outVertex;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A compact store of the edges of a {@link TinkerVertex} in one direction, used in place of a {@code HashMap} of
+ * {@code HashSet} when {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY} is enabled. The labels are held in
+ * an array sized to the number of labels on the vertex and the edges of each label in an {@link Edges} array, which
+ * avoids the table and entry objects of the hash based collections at the cost of a linear scan to remove an edge.
+ */
+final class TinkerAdjacency extends AbstractMap<String, Collection<Edge>> {
+
+    private static final String[] NO_LABELS = new String[0];
+    private static final Edges[] NO_EDGES = new Edges[0];
+
+    private String[] labels = NO_LABELS;
+    private Edges[] edges = NO_EDGES;
+
+    @Override
+    public Collection<Edge> get(final Object label) {
+        final int i = indexOf(label);
+        return i < 0 ? null : this.edges[i];
+    }
+
+    @Override
+    public boolean containsKey(final Object label) {
+        return indexOf(label) >= 0;
+    }
+
+    @Override
+    public Collection<Edge> put(final String label, final Collection<Edge> edges) {
+        if (!(edges instanceof Edges))
+            throw new IllegalArgumentException("The edges of a compact adjacency must be held in " + Edges.class.getSimpleName());
+
+        final int i = indexOf(label);
+        if (i >= 0) {
+            final Collection<Edge> old = this.edges[i];
+            this.edges[i] = (Edges) edges;
+            return old;
+        }
+
+        // vertices rarely have more than a few labels so the arrays grow by exactly one to keep them tight
+        final int size = this.labels.length;
+        this.labels = Arrays.copyOf(this.labels, size + 1);
+        this.edges = Arrays.copyOf(this.edges, size + 1);
+        this.labels[size] = label;
+        this.edges[size] = (Edges) edges;
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return this.labels.length;
+    }
+
+    @Override
+    public Set<Entry<String, Collection<Edge>>> entrySet() {
+        return new AbstractSet<Entry<String, Collection<Edge>>>() {
+            @Override
+            public Iterator<Entry<String, Collection<Edge>>> iterator() {
+                return new Iterator<Entry<String, Collection<Edge>>>() {
+                    private int current = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.current < labels.length;
+                    }
+
+                    @Override
+                    public Entry<String, Collection<Edge>> next() {
+                        if (!hasNext()) throw FastNoSuchElementException.instance();
+                        final int i = this.current++;
+                        return new SimpleImmutableEntry<>(labels[i], edges[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return labels.length;
+            }
+        };
+    }
+
+    private int indexOf(final Object label) {
+        // labels are interned by the graph so the identity check nearly always settles the match
+        for (int i = 0; i < this.labels.length; i++) {
+            if (this.labels[i] == label) return i;
+        }
+        for (int i = 0; i < this.labels.length; i++) {
+            if (this.labels[i].equals(label)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * The edges of a single label held in an array that grows by half of its length when full. An edge is only ever
+     * added once to the adjacency of a vertex, so {@link #add(Edge)} appends without checking for a duplicate.
+     * Removal moves the last edge into the vacated slot, so the order of the edges is not kept.
+     */
+    static final class Edges extends AbstractCollection<Edge> {
+
+        private static final Edge[] EMPTY = new Edge[0];
+        private static final int MINIMUM_CAPACITY = 4;
+
+        private Edge[] elements = EMPTY;
+        private int size = 0;
+
+        @Override
+        public boolean add(final Edge edge) {
+            if (this.size == this.elements.length)
+                this.elements = Arrays.copyOf(this.elements, Math.max(MINIMUM_CAPACITY, this.size + (this.size >> 1)));
+            this.elements[this.size++] = edge;
+            return true;
+        }
+
+        @Override
+        public boolean remove(final Object edge) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.elements[i].equals(edge)) {
+                    this.elements[i] = this.elements[--this.size];
+                    this.elements[this.size] = null;
+                    if (this.size == 0)
+                        this.elements = EMPTY;
+                    else if (this.elements.length > MINIMUM_CAPACITY && this.size < this.elements.length >> 2)
+                        this.elements = Arrays.copyOf(this.elements, this.size << 1);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean contains(final Object edge) {
+            for (int i = 0; i < this.size; i++) {
+                if (this.elements[i].equals(edge)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public Iterator<Edge> iterator() {
+            return new Iterator<Edge>() {
+                private final int expected = size;
+                private int current = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return this.current < size;
+                }
+
+                @Override
+                public Edge next() {
+                    if (this.expected != size) throw new ConcurrentModificationException();
+                    if (!hasNext()) throw FastNoSuchElementException.instance();
+                    return elements[this.current++];
+                }
+            };
+        }
+    }
+}
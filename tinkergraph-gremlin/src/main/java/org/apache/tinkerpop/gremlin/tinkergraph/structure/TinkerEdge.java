@@ -28,6 +28,7 @@ import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -55,21 +56,29 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public <V> Property<V> property(final String key, final V value) {
-        if (this.removed) throw elementAlreadyRemoved(Edge.class, id);
-        ElementHelper.validateProperty(key, value);
-
-        if (!allowNullPropertyValues && null == value) {
-            properties(key).forEachRemaining(Property::remove);
-            return Property.empty();
+        TinkerHelper.beginMutation((TinkerGraph) this.graph());
+        try {
+            if (this.removed) throw elementAlreadyRemoved(Edge.class, id);
+            ElementHelper.validateProperty(key, value);
+
+            if (!allowNullPropertyValues && null == value) {
+                properties(key).forEachRemaining(Property::remove);
+                return Property.empty();
+            }
+
+            final Property oldProperty = super.property(key);
+            final Property<V> newProperty = new TinkerProperty<>(this, key, value);
+            if (null == this.properties) this.properties = new HashMap<>();
+            this.properties.put(key, newProperty);
+            TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+
+            // the properties that the edge is created with are logged with the edge itself
+            final TinkerGraph graph = (TinkerGraph) this.graph();
+            if (null != graph.mutationLog && graph.edges.get(this.id) == this) graph.mutationLog.addProperty(newProperty);
+            return newProperty;
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.graph());
         }
-
-        final Property oldProperty = super.property(key);
-        final Property<V> newProperty = new TinkerProperty<>(this, key, value);
-        if (null == this.properties) this.properties = new HashMap<>();
-        this.properties.put(key, newProperty);
-        TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
-        return newProperty;
-
     }
 
     @Override
@@ -84,24 +93,32 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public void remove() {
-        final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
-        final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
-
-        if (null != outVertex && null != outVertex.outEdges) {
-            final Set<Edge> edges = outVertex.outEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
-        }
-        if (null != inVertex && null != inVertex.inEdges) {
-            final Set<Edge> edges = inVertex.inEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
+        TinkerHelper.beginMutation((TinkerGraph) this.graph());
+        try {
+            final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
+            final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
+
+            if (null != outVertex && null != outVertex.outEdges) {
+                final Collection<Edge> edges = outVertex.outEdges.get(this.label());
+                if (null != edges)
+                    edges.remove(this);
+            }
+            if (null != inVertex && null != inVertex.inEdges) {
+                final Collection<Edge> edges = inVertex.inEdges.get(this.label());
+                if (null != edges)
+                    edges.remove(this);
+            }
+
+            TinkerHelper.removeElementIndex(this);
+            TinkerHelper.removeLabelIndex(((TinkerGraph) this.graph()).edgeLabels, this);
+            ((TinkerGraph) this.graph()).edges.remove(this.id());
+            ((TinkerGraph) this.graph()).structureChanges.increment();
+            this.properties = null;
+            this.removed = true;
+            if (null != ((TinkerGraph) this.graph()).mutationLog) ((TinkerGraph) this.graph()).mutationLog.removeEdge(this);
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.graph());
         }
-
-        TinkerHelper.removeElementIndex(this);
-        ((TinkerGraph) this.graph()).edges.remove(this.id());
-        this.properties = null;
-        this.removed = true;
     }
 
     @Override
@@ -30,6 +30,12 @@ public abstract class TinkerElement implements Element {
     protected final String label;
     protected boolean removed = false;
 
+    /**
+     * The change of the {@link TinkerIndex} of the graph with which the element was last added to or moved within
+     * it by a change of its properties, which lets a lazy read of the index skip elements changed after it started.
+     */
+    protected long indexModification = 0L;
+
     protected TinkerElement(final Object id, final String label) {
         this.id = id;
         this.label = label;
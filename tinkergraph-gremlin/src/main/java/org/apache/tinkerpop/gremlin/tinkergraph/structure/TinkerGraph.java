@@ -25,6 +25,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -36,6 +37,7 @@ import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.GraphFactory;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerRuntime;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphCountStrategy;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
@@ -45,6 +47,10 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.File;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -55,6 +61,8 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceRegistry.TinkerServiceFactory;
@@ -91,8 +99,16 @@ public final class TinkerGraph implements Graph {
     public static final String GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY = "gremlin.tinkergraph.defaultVertexPropertyCardinality";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_LOCATION = "gremlin.tinkergraph.graphLocation";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_FORMAT = "gremlin.tinkergraph.graphFormat";
+    public static final String GREMLIN_TINKERGRAPH_GRAPH_SEGMENTS = "gremlin.tinkergraph.graphSegments";
+    public static final String GREMLIN_TINKERGRAPH_GRAPH_THREADS = "gremlin.tinkergraph.graphThreads";
     public static final String GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES = "gremlin.tinkergraph.allowNullPropertyValues";
     public static final String GREMLIN_TINKERGRAPH_SERVICE = "gremlin.tinkergraph.service";
+    public static final String GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY = "gremlin.tinkergraph.compactAdjacency";
+    public static final String GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES = "gremlin.tinkergraph.compactProperties";
+    public static final String GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES = "gremlin.tinkergraph.offHeapValues";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG = "gremlin.tinkergraph.mutationLog";
+    public static final String GREMLIN_TINKERGRAPH_MUTATION_LOG_SYNC = "gremlin.tinkergraph.mutationLogSync";
+    public static final String GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL = "gremlin.tinkergraph.snapshotInterval";
 
     private final TinkerGraphFeatures features = new TinkerGraphFeatures();
 
@@ -100,8 +116,26 @@ public final class TinkerGraph implements Graph {
     protected Map<Object, Vertex> vertices = new ConcurrentHashMap<>();
     protected Map<Object, Edge> edges = new ConcurrentHashMap<>();
 
+    /**
+     * The elements of each label, which allows label filters and counts to avoid a scan of all elements.
+     */
+    protected Map<String, Set<TinkerVertex>> vertexLabels = new ConcurrentHashMap<>();
+    protected Map<String, Set<TinkerEdge>> edgeLabels = new ConcurrentHashMap<>();
+
     protected TinkerGraphVariables variables = null;
     protected TinkerGraphComputerView graphComputerView = null;
+
+    /**
+     * The threads and the partitioning of the vertices that {@link TinkerGraphComputer} keeps between submissions,
+     * which is created on the first submission and released by {@link #close()}.
+     */
+    protected TinkerGraphComputerRuntime computerRuntime = null;
+
+    /**
+     * Counts the vertices and edges that were added or removed, which tells the {@link #computerRuntime} when its
+     * partitioning of the vertices is out of date.
+     */
+    protected final LongAdder structureChanges = new LongAdder();
     protected TinkerIndex<TinkerVertex> vertexIndex = null;
     protected TinkerIndex<TinkerEdge> edgeIndex = null;
 
@@ -110,12 +144,34 @@ public final class TinkerGraph implements Graph {
     protected final IdManager<?> vertexPropertyIdManager;
     protected final VertexProperty.Cardinality defaultVertexPropertyCardinality;
     protected final boolean allowNullPropertyValues;
+    protected final boolean compactAdjacency;
+    protected final boolean compactProperties;
+
+    /**
+     * The labels and property keys of the graph, used to share a single instance of each among the elements when
+     * {@link #GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY} or {@link #GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES} is enabled.
+     */
+    private final Map<String, String> dictionary = new ConcurrentHashMap<>();
+
+    /**
+     * The store that holds compact string property values outside of the heap, which is {@code null} unless
+     * {@link #GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES} is enabled.
+     */
+    protected volatile TinkerOffHeapStore offHeapStore = null;
+
+    /**
+     * The log that the mutations of the graph are appended to, which is {@code null} unless
+     * {@link #GREMLIN_TINKERGRAPH_MUTATION_LOG} is enabled.
+     */
+    protected TinkerMutationLog mutationLog = null;
 
     protected final TinkerServiceRegistry serviceRegistry;
 
     private final Configuration configuration;
     private final String graphLocation;
     private final String graphFormat;
+    private final int graphSegments;
+    private final int graphThreads;
 
     /**
      * An empty private constructor that initializes {@link TinkerGraph}.
@@ -128,16 +184,40 @@ public final class TinkerGraph implements Graph {
         defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
         allowNullPropertyValues = configuration.getBoolean(GREMLIN_TINKERGRAPH_ALLOW_NULL_PROPERTY_VALUES, false);
+        compactAdjacency = configuration.getBoolean(GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY, false);
+        compactProperties = configuration.getBoolean(GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES, false);
+
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES, false)) {
+            if (!compactProperties)
+                throw new IllegalStateException(String.format("The %s requires %s to be enabled",
+                        GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES, GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES));
+            offHeapStore = new TinkerOffHeapStore();
+        }
 
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
+        graphSegments = configuration.getInt(GREMLIN_TINKERGRAPH_GRAPH_SEGMENTS, 0);
+        graphThreads = configuration.getInt(GREMLIN_TINKERGRAPH_GRAPH_THREADS, Runtime.getRuntime().availableProcessors());
 
         if ((graphLocation != null && null == graphFormat) || (null == graphLocation && graphFormat != null))
             throw new IllegalStateException(String.format("The %s and %s must both be specified if either is present",
                     GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
 
+        if (graphSegments > 0 && !"gryo".equals(graphFormat))
+            throw new IllegalStateException(String.format("The %s requires the %s to be gryo",
+                    GREMLIN_TINKERGRAPH_GRAPH_SEGMENTS, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
+
         if (graphLocation != null) loadGraph();
 
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_MUTATION_LOG, false)) {
+            if (null == graphLocation)
+                throw new IllegalStateException(String.format("The %s requires %s to be specified",
+                        GREMLIN_TINKERGRAPH_MUTATION_LOG, GREMLIN_TINKERGRAPH_GRAPH_LOCATION));
+            mutationLog = TinkerMutationLog.open(this, graphLocation,
+                    configuration.getBoolean(GREMLIN_TINKERGRAPH_MUTATION_LOG_SYNC, false),
+                    configuration.getLong(GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL, 0L));
+        }
+
         serviceRegistry = new TinkerServiceRegistry(this);
         configuration.getList(String.class, GREMLIN_TINKERGRAPH_SERVICE, Collections.emptyList()).forEach(serviceClass ->
                 serviceRegistry.registerService(instantiate(serviceClass)));
@@ -172,26 +252,58 @@ public final class TinkerGraph implements Graph {
         return new TinkerGraph(configuration);
     }
 
+    /**
+     * Gets the instance of a label or property key that is shared through the graph dictionary.
+     */
+    protected String intern(final String name) {
+        return this.dictionary.computeIfAbsent(name, n -> n);
+    }
+
+    /**
+     * Copies the live values of the {@link TinkerOffHeapStore} to a new store once most of it holds removed values,
+     * so that the direct memory of the old one is released. Each vertex publishes its relocated values together with
+     * the new store, so a concurrent reader of any vertex decodes either the old addresses against the old store or
+     * the new ones against the new store, and the old store is only released once no vertex or reader refers to it.
+     */
+    protected void reclaimOffHeapValues() {
+        if (null == this.offHeapStore || !this.offHeapStore.isFragmented()) return;
+
+        final TinkerOffHeapStore reclaimed = new TinkerOffHeapStore();
+        for (Vertex vertex : this.vertices.values()) {
+            final TinkerPropertyArray compactProperties = ((TinkerVertex) vertex).compactProperties;
+            if (null != compactProperties) compactProperties.relocate(reclaimed);
+        }
+        this.offHeapStore = reclaimed;
+    }
+
     ////////////// STRUCTURE API METHODS //////////////////
 
     @Override
     public Vertex addVertex(final Object... keyValues) {
-        ElementHelper.legalPropertyKeyValueArray(keyValues);
-        Object idValue = vertexIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
-        final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
+        TinkerHelper.beginMutation(this);
+        try {
+            ElementHelper.legalPropertyKeyValueArray(keyValues);
+            Object idValue = vertexIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
+            final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
 
-        if (null != idValue) {
-            if (this.vertices.containsKey(idValue))
-                throw Exceptions.vertexWithIdAlreadyExists(idValue);
-        } else {
-            idValue = vertexIdManager.getNextId(this);
-        }
+            if (null != idValue) {
+                if (this.vertices.containsKey(idValue))
+                    throw Exceptions.vertexWithIdAlreadyExists(idValue);
+            } else {
+                idValue = vertexIdManager.getNextId(this);
+            }
 
-        final Vertex vertex = new TinkerVertex(idValue, label, this);
-        this.vertices.put(vertex.id(), vertex);
+            final TinkerVertex vertex = new TinkerVertex(idValue, compactAdjacency ? intern(label) : label, this);
+            this.vertices.put(vertex.id(), vertex);
+            this.structureChanges.increment();
+            TinkerHelper.addLabelIndex(this.vertexLabels, vertex);
+            if (null != this.mutationLog) this.mutationLog.addVertex(vertex);
 
-        ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
-        return vertex;
+            ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+            return vertex;
+        } finally {
+            TinkerHelper.endMutation(this);
+        }
     }
 
     @Override
@@ -229,25 +341,42 @@ public final class TinkerGraph implements Graph {
     }
 
     public void clear() {
-        this.vertices.clear();
-        this.edges.clear();
-        this.variables = null;
-        this.currentId.set(-1L);
-        this.vertexIndex = null;
-        this.edgeIndex = null;
-        this.graphComputerView = null;
+        TinkerHelper.beginMutation(this);
+        try {
+            this.vertices.clear();
+            this.edges.clear();
+            this.vertexLabels.clear();
+            this.edgeLabels.clear();
+            this.dictionary.clear();
+            if (null != this.offHeapStore) this.offHeapStore = new TinkerOffHeapStore();
+            this.variables = null;
+            this.currentId.set(-1L);
+            this.vertexIndex = null;
+            this.edgeIndex = null;
+            this.graphComputerView = null;
+            this.structureChanges.increment();
+            if (null != this.mutationLog) this.mutationLog.clear();
+        } finally {
+            TinkerHelper.endMutation(this);
+        }
     }
 
     /**
      * This method only has an effect if the {@link #GREMLIN_TINKERGRAPH_GRAPH_LOCATION} is set, in which case the
-     * data in the graph is persisted to that location. This method may be called multiple times and does not release
-     * resources.
+     * data in the graph is persisted to that location. With {@link #GREMLIN_TINKERGRAPH_MUTATION_LOG} a final snapshot
+     * is taken if there were mutations since the last one, and mutations made after are logged again. The threads
+     * that {@link TinkerGraphComputer} keeps are shut down, but the graph may still be read after and a later
+     * computation starts new ones. This method may be called multiple times.
      */
     @Override
     public void close() {
-        if (graphLocation != null) saveGraph();
+        if (mutationLog != null)
+            mutationLog.close();
+        else if (graphLocation != null)
+            saveGraph();
         // shutdown services
         serviceRegistry.close();
+        TinkerHelper.closeComputerRuntime(this);
     }
 
     @Override
@@ -279,7 +408,9 @@ public final class TinkerGraph implements Graph {
         final File f = new File(graphLocation);
         if (f.exists() && f.isFile()) {
             try {
-                if (graphFormat.equals("graphml")) {
+                if (graphSegments > 0) {
+                    new TinkerGraphSegments(this, graphLocation, graphThreads).read();
+                } else if (graphFormat.equals("graphml")) {
                     io(IoCore.graphml()).readGraph(graphLocation);
                 } else if (graphFormat.equals("graphson")) {
                     io(IoCore.graphson()).readGraph(graphLocation);
@@ -297,7 +428,8 @@ public final class TinkerGraph implements Graph {
     private void saveGraph() {
         final File f = new File(graphLocation);
         if (f.exists()) {
-            f.delete();
+            // segments only replace the graph once they are all written
+            if (0 == graphSegments) f.delete();
         } else {
             final File parent = f.getParentFile();
 
@@ -307,18 +439,84 @@ public final class TinkerGraph implements Graph {
             }
         }
 
+        writeGraph(this, graphLocation);
+    }
+
+    /**
+     * Copies the elements of the graph into an in-memory graph with the same identifiers, so that the
+     * {@link TinkerMutationLog} can write a snapshot of the graph as it is now while it goes on changing.
+     */
+    TinkerGraph copyForSnapshot() {
+        final Configuration conf = new BaseConfiguration();
+        configuration.getKeys().forEachRemaining(key -> conf.setProperty(key, configuration.getProperty(key)));
+        Arrays.asList(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT, GREMLIN_TINKERGRAPH_GRAPH_SEGMENTS,
+                GREMLIN_TINKERGRAPH_MUTATION_LOG, GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES, GREMLIN_TINKERGRAPH_SERVICE).forEach(conf::clearProperty);
+        final TinkerGraph copy = TinkerGraph.open(conf);
+
+        for (final Vertex vertex : vertices.values()) {
+            final Vertex copied = copy.addVertex(T.id, vertex.id(), T.label, vertex.label());
+            vertex.properties().forEachRemaining(vertexProperty -> {
+                final List<Object> keyValues = new ArrayList<>();
+                keyValues.add(T.id);
+                keyValues.add(vertexProperty.id());
+                vertexProperty.properties().forEachRemaining(property -> {
+                    keyValues.add(property.key());
+                    keyValues.add(property.value());
+                });
+                copied.property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value(), keyValues.toArray());
+            });
+        }
+        for (final Edge edge : edges.values()) {
+            final List<Object> keyValues = new ArrayList<>();
+            keyValues.add(T.id);
+            keyValues.add(edge.id());
+            edge.properties().forEachRemaining(property -> {
+                keyValues.add(property.key());
+                keyValues.add(property.value());
+            });
+            copy.vertices.get(edge.outVertex().id()).addEdge(edge.label(), copy.vertices.get(edge.inVertex().id()), keyValues.toArray());
+        }
+        return copy;
+    }
+
+    /**
+     * Writes a snapshot of the graph for the {@link TinkerMutationLog} from a copy of it next to the graph location
+     * first and then moves it into place, so that a crash while writing leaves the previous snapshot intact. Segments
+     * are written the same way by {@link TinkerGraphSegments}.
+     */
+    void snapshotGraph(final TinkerGraph copy) {
+        if (graphSegments > 0) {
+            writeGraph(copy, graphLocation);
+            return;
+        }
+
+        final String snapshotLocation = graphLocation + ".snapshot";
+        writeGraph(copy, snapshotLocation);
+        try {
+            Files.move(Paths.get(snapshotLocation), Paths.get(graphLocation), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception ex) {
+            throw new RuntimeException(String.format("Could not save graph at %s with %s", graphLocation, graphFormat), ex);
+        }
+    }
+
+    /**
+     * Writes the graph, which is this one or a copy of it, to the location in the format of this graph.
+     */
+    private void writeGraph(final TinkerGraph graph, final String location) {
         try {
-            if (graphFormat.equals("graphml")) {
-                io(IoCore.graphml()).writeGraph(graphLocation);
+            if (graphSegments > 0) {
+                new TinkerGraphSegments(graph, location, graphThreads).write(graphSegments);
+            } else if (graphFormat.equals("graphml")) {
+                graph.io(IoCore.graphml()).writeGraph(location);
             } else if (graphFormat.equals("graphson")) {
-                io(IoCore.graphson()).writeGraph(graphLocation);
+                graph.io(IoCore.graphson()).writeGraph(location);
             } else if (graphFormat.equals("gryo")) {
-                io(IoCore.gryo()).writeGraph(graphLocation);
+                graph.io(IoCore.gryo()).writeGraph(location);
             } else {
-                io(IoCore.createIoBuilder(graphFormat)).writeGraph(graphLocation);
+                graph.io(IoCore.createIoBuilder(graphFormat)).writeGraph(location);
             }
         } catch (Exception ex) {
-            throw new RuntimeException(String.format("Could not save graph at %s with %s", graphLocation, graphFormat), ex);
+            throw new RuntimeException(String.format("Could not save graph at %s with %s", location, graphFormat), ex);
         }
     }
 
@@ -505,12 +703,26 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
+        createIndex(key, elementClass, IndexType.EQUALITY);
+    }
+
+    /**
+     * Create an index of the specified {@link IndexType} for said element class ({@link Vertex} or {@link Edge}) and
+     * said property key. Creating an index for a key that is already indexed with a different {@link IndexType}
+     * rebuilds that index with the new type.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the kind of index structure to maintain for the key
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final IndexType indexType) {
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
+            this.vertexIndex.createKeyIndex(key, indexType);
         } else if (Edge.class.isAssignableFrom(elementClass)) {
             if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
+            this.edgeIndex.createKeyIndex(key, indexType);
         } else {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
@@ -550,6 +762,83 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Return the keys currently being indexed with the specified {@link IndexType} for said element class
+     * ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the indexed keys for
+     * @param indexType    the kind of index to get the keys for
+     * @param <E>          The type of the element class
+     * @return the set of keys currently being indexed with the {@link IndexType}
+     */
+    public <E extends Element> Set<String> getIndexedKeys(final Class<E> elementClass, final IndexType indexType) {
+        return getIndexedKeys(elementClass).stream().
+                filter(key -> indexType == (Vertex.class.isAssignableFrom(elementClass) ?
+                        this.vertexIndex.getIndexType(key) : this.edgeIndex.getIndexType(key))).
+                collect(Collectors.toSet());
+    }
+
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over the values of several
+     * property keys, optionally restricted to elements with the specified label. A lookup that filters for equality
+     * on the label and all of the keys, like {@code g.V().hasLabel('account').has('tenant',t).has('externalId',x)},
+     * can then be answered with a single index read. When several indices could serve a lookup, the one holding the
+     * fewest elements for the filtered values is used.
+     *
+     * @param label        the label of the elements to index or {@code null} to index elements of any label
+     * @param elementClass the element class to index
+     * @param keys         the property keys to index in combination
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final String label, final Class<E> elementClass, final String... keys) {
+        final CompositeIndex compositeIndex = new CompositeIndex(label, keys);
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createCompositeIndex(compositeIndex);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createCompositeIndex(compositeIndex);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}), label and keys.
+     *
+     * @param label        the label of the composite index or {@code null} if it indexes elements of any label
+     * @param elementClass the element class of the index to drop
+     * @param keys         the property keys of the composite index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final String label, final Class<E> elementClass, final String... keys) {
+        final CompositeIndex compositeIndex = new CompositeIndex(label, keys);
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeIndex(compositeIndex);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeIndex(compositeIndex);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return all the composite indices currently defined for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the composite indices for
+     * @param <E>          The type of the element class
+     * @return the set of composite indices
+     */
+    public <E extends Element> Set<CompositeIndex> getCompositeIndices(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getCompositeIndices();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getCompositeIndices();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
     /**
      * Construct an {@link TinkerGraph.IdManager} from the TinkerGraph {@code Configuration}.
      */
@@ -575,6 +864,75 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * The kinds of index structure that {@link TinkerGraph#createIndex(String, Class, IndexType)} can maintain for a
+     * property key.
+     */
+    public enum IndexType {
+        /**
+         * A hash-based index that can answer equality lookups.
+         */
+        EQUALITY,
+
+        /**
+         * An ordered index that can answer equality, range ({@code gt}, {@code gte}, {@code lt}, {@code lte},
+         * {@code between}, {@code inside}) and prefix ({@code startingWith}) lookups as well as count them without
+         * iterating the matching elements. Values are ordered by Gremlin orderability semantics.
+         */
+        RANGE
+    }
+
+    /**
+     * Describes a composite index created by {@link TinkerGraph#createCompositeIndex(String, Class, String...)}: the
+     * optional label the index is restricted to and the ordered property keys it combines.
+     */
+    public static final class CompositeIndex {
+        private final String label;
+        private final List<String> keys;
+
+        public CompositeIndex(final String label, final String... keys) {
+            if (null == keys || keys.length == 0)
+                throw new IllegalArgumentException("A composite index requires at least one key");
+            for (String key : keys) {
+                if (null == key)
+                    throw Graph.Exceptions.argumentCanNotBeNull("key");
+                if (key.isEmpty())
+                    throw new IllegalArgumentException("The key for the index cannot be an empty string");
+            }
+            this.label = label;
+            this.keys = Collections.unmodifiableList(Arrays.asList(keys.clone()));
+        }
+
+        /**
+         * The label of the elements in the index or {@code null} if elements of any label are indexed.
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        public List<String> getKeys() {
+            return keys;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CompositeIndex)) return false;
+            final CompositeIndex that = (CompositeIndex) o;
+            return Objects.equals(label, that.label) && keys.equals(that.keys);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, keys);
+        }
+
+        @Override
+        public String toString() {
+            return (null == label ? "" : label) + keys;
+        }
+    }
+
     /**
      * TinkerGraph will use an implementation of this interface to generate identifiers when a user does not supply
      * them and to handle identifier conversions when querying to provide better flexibility with respect to
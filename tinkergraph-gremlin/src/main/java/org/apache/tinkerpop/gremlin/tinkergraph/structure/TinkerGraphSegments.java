@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads and writes a {@link TinkerGraph} as a number of Gryo segments with a pool of threads when
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_GRAPH_SEGMENTS} is set. The vertices are partitioned among the segments by the
+ * hash of their identifier and each segment holds the {@code StarGraph} of each of its vertices with only the outgoing
+ * edges, so that every edge is written once. The file at the graph location is a manifest that names the number of
+ * segments and their generation, where the segments of a generation are the files at the graph location suffixed by
+ * the generation and the number of the segment. A new generation is written in full before the manifest is moved into
+ * place, so that a crash while writing leaves the previous generation intact. A graph location that still holds a
+ * single Gryo file, as written without segments, is read as such and replaced by the first generation on write.
+ * <p/>
+ * Reading happens in three passes that each run a task per segment. The first creates the vertices of the segment
+ * along with their properties and keeps the edges aside, as their incoming vertex may belong to another segment. The
+ * second creates those edges and adds them to their outgoing vertex, which belongs to the segment, and the third adds
+ * each edge to its incoming vertex from the task that owns that vertex, so that no vertex is changed by two threads.
+ */
+final class TinkerGraphSegments {
+
+    private static final String SEGMENTS = "segments";
+    private static final String GENERATION = "generation";
+
+    private final TinkerGraph graph;
+    private final String location;
+    private final int threads;
+
+    TinkerGraphSegments(final TinkerGraph graph, final String location, final int threads) {
+        this.graph = graph;
+        this.location = location;
+        this.threads = threads;
+    }
+
+    void read() throws IOException {
+        final Properties manifest = readManifest(this.location);
+        if (null == manifest) {
+            this.graph.io(IoCore.gryo()).readGraph(this.location);
+            return;
+        }
+
+        final int segments = Integer.parseInt(manifest.getProperty(SEGMENTS));
+        final long generation = Long.parseLong(manifest.getProperty(GENERATION));
+
+        final List<List<Object[]>> pending = new ArrayList<>();
+        final List<List<List<TinkerEdge>>> incoming = new ArrayList<>();
+        for (int i = 0; i < segments; i++) {
+            pending.add(new ArrayList<>());
+            incoming.add(new ArrayList<>());
+        }
+
+        final ExecutorService executor = createExecutor(segments);
+        try {
+            invokeAll(executor, segments, segment -> {
+                final GryoReader reader = this.graph.io(IoCore.gryo()).reader().create();
+                try (final InputStream stream = new BufferedInputStream(new FileInputStream(segmentLocation(generation, segment)))) {
+                    final Iterator<Vertex> vertices = reader.readVertices(stream, attachable -> attachable.get(), null, null);
+                    while (vertices.hasNext()) {
+                        readVertex(vertices.next(), pending.get(segment));
+                    }
+                }
+            });
+            invokeAll(executor, segments, segment -> addOutEdges(pending.get(segment), incoming.get(segment), segments));
+            invokeAll(executor, segments, segment -> {
+                for (List<List<TinkerEdge>> edges : incoming) {
+                    edges.get(segment).forEach(edge -> TinkerHelper.addInEdge((TinkerVertex) edge.inVertex, edge.label, edge));
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    void write(final int segments) throws IOException {
+        final File f = new File(this.location);
+        final Properties previous = f.exists() ? readManifest(this.location) : null;
+        final long generation = null == previous ? 0 : Long.parseLong(previous.getProperty(GENERATION)) + 1;
+
+        final List<List<Vertex>> partitions = new ArrayList<>();
+        for (int i = 0; i < segments; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (Vertex vertex : this.graph.vertices.values()) {
+            partitions.get(segmentOf(vertex.id(), segments)).add(vertex);
+        }
+
+        final ExecutorService executor = createExecutor(segments);
+        try {
+            invokeAll(executor, segments, segment -> {
+                final GryoWriter writer = this.graph.io(IoCore.gryo()).writer().create();
+                try (final OutputStream stream = new BufferedOutputStream(new FileOutputStream(segmentLocation(generation, segment)))) {
+                    writer.writeVertices(stream, partitions.get(segment).iterator(), Direction.OUT);
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final Properties manifest = new Properties();
+        manifest.setProperty(SEGMENTS, String.valueOf(segments));
+        manifest.setProperty(GENERATION, String.valueOf(generation));
+        final String manifestLocation = this.location + ".manifest";
+        try (final OutputStream stream = new FileOutputStream(manifestLocation)) {
+            manifest.store(stream, null);
+        }
+        Files.move(Paths.get(manifestLocation), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // the segments of earlier generations are no longer named by the manifest
+        final File parent = f.getAbsoluteFile().getParentFile();
+        final String prefix = f.getName() + ".";
+        final File[] files = parent.listFiles((dir, name) -> name.startsWith(prefix));
+        if (null != files) {
+            for (File file : files) {
+                final String[] suffix = file.getName().substring(prefix.length()).split("\\.");
+                if (suffix.length == 2 && isNumber(suffix[0]) && isNumber(suffix[1]) && Long.parseLong(suffix[0]) != generation)
+                    file.delete();
+            }
+        }
+    }
+
+    /**
+     * Creates the vertex with its properties and keeps its edges as the identifier, label, incoming vertex identifier
+     * and properties of each along with the outgoing vertex.
+     */
+    private void readVertex(final Vertex starVertex, final List<Object[]> pending) {
+        final Vertex vertex = this.graph.addVertex(T.id, starVertex.id(), T.label, starVertex.label());
+        starVertex.properties().forEachRemaining(vertexProperty -> {
+            final List<Object> keyValues = new ArrayList<>();
+            keyValues.add(T.id);
+            keyValues.add(vertexProperty.id());
+            vertexProperty.properties().forEachRemaining(property -> {
+                keyValues.add(property.key());
+                keyValues.add(property.value());
+            });
+            vertex.property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value(), keyValues.toArray());
+        });
+        starVertex.edges(Direction.OUT).forEachRemaining(edge -> {
+            final List<Object> keyValues = new ArrayList<>();
+            edge.properties().forEachRemaining(property -> {
+                keyValues.add(property.key());
+                keyValues.add(property.value());
+            });
+            pending.add(new Object[]{vertex, edge.id(), edge.label(), edge.inVertex().id(), keyValues.toArray()});
+        });
+    }
+
+    /**
+     * Creates the edges of a segment, adds each to its outgoing vertex and sorts them by the segment of their incoming
+     * vertex for the third pass.
+     */
+    private void addOutEdges(final List<Object[]> pending, final List<List<TinkerEdge>> incoming, final int segments) {
+        for (int i = 0; i < segments; i++) {
+            incoming.add(new ArrayList<>());
+        }
+
+        for (Object[] record : pending) {
+            final TinkerVertex outVertex = (TinkerVertex) record[0];
+            final Object id = this.graph.edgeIdManager.convert(record[1]);
+            final String label = this.graph.compactAdjacency ? this.graph.intern((String) record[2]) : (String) record[2];
+            final Object inVertexId = this.graph.vertexIdManager.convert(record[3]);
+            final TinkerVertex inVertex = (TinkerVertex) this.graph.vertices.get(inVertexId);
+            if (null == inVertex)
+                throw new IllegalStateException(String.format("Could not find inV with id [%s] to create edge with id [%s]", inVertexId, id));
+
+            final TinkerEdge edge = new TinkerEdge(id, outVertex, label, inVertex);
+            final Object[] keyValues = (Object[]) record[4];
+            for (int i = 0; i < keyValues.length; i = i + 2) {
+                edge.property((String) keyValues[i], keyValues[i + 1]);
+            }
+            if (null != this.graph.edges.putIfAbsent(id, edge))
+                throw Graph.Exceptions.edgeWithIdAlreadyExists(id);
+            TinkerHelper.addLabelIndex(this.graph.edgeLabels, edge);
+            TinkerHelper.addOutEdge(outVertex, label, edge);
+            incoming.get(segmentOf(inVertexId, segments)).add(edge);
+        }
+        pending.clear();
+    }
+
+    private String segmentLocation(final long generation, final int segment) {
+        return this.location + "." + generation + "." + segment;
+    }
+
+    private ExecutorService createExecutor(final int segments) {
+        return Executors.newFixedThreadPool(Math.max(1, Math.min(this.threads, segments)),
+                new BasicThreadFactory.Builder().namingPattern(TinkerGraphSegments.class.getSimpleName() + "-%d").build());
+    }
+
+    private static void invokeAll(final ExecutorService executor, final int segments, final SegmentTask task) throws IOException {
+        final List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < segments; i++) {
+            final int segment = i;
+            futures.add(executor.submit((Callable<Void>) () -> {
+                task.run(segment);
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ie);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof IOException) throw (IOException) ee.getCause();
+            if (ee.getCause() instanceof RuntimeException) throw (RuntimeException) ee.getCause();
+            throw new IOException(ee.getCause());
+        }
+    }
+
+    private static int segmentOf(final Object id, final int segments) {
+        return Math.floorMod(id.hashCode(), segments);
+    }
+
+    /**
+     * Reads the manifest at the location, or returns {@code null} if the file there is not a manifest, as when it is a
+     * Gryo file written without segments.
+     */
+    private static Properties readManifest(final String location) throws IOException {
+        final Properties manifest = new Properties();
+        try (final InputStream stream = new FileInputStream(location)) {
+            manifest.load(stream);
+        } catch (IllegalArgumentException iae) {
+            // binary content can hold what reads as a malformed escape
+            return null;
+        }
+        final String segments = manifest.getProperty(SEGMENTS);
+        final String generation = manifest.getProperty(GENERATION);
+        return null != segments && null != generation && isNumber(segments) && isNumber(generation) ? manifest : null;
+    }
+
+    private static boolean isNumber(final String s) {
+        return !s.isEmpty() && s.chars().allMatch(Character::isDigit);
+    }
+
+    @FunctionalInterface
+    private interface SegmentTask {
+        void run(final int segment) throws Exception;
+    }
+}
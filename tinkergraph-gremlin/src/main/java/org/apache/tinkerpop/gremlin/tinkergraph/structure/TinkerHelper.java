@@ -20,18 +20,27 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerRuntime;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -41,6 +50,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -54,54 +64,226 @@ public final class TinkerHelper {
     }
 
     protected static Edge addEdge(final TinkerGraph graph, final TinkerVertex outVertex, final TinkerVertex inVertex, final String label, final Object... keyValues) {
-        ElementHelper.validateLabel(label);
-        ElementHelper.legalPropertyKeyValueArray(keyValues);
-
-        Object idValue = graph.edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
+        TinkerHelper.beginMutation(graph);
+        try {
+            ElementHelper.validateLabel(label);
+            ElementHelper.legalPropertyKeyValueArray(keyValues);
+
+            Object idValue = graph.edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
+
+            final Edge edge;
+            if (null != idValue) {
+                if (graph.edges.containsKey(idValue))
+                    throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
+            } else {
+                idValue = graph.edgeIdManager.getNextId(graph);
+            }
 
-        final Edge edge;
-        if (null != idValue) {
-            if (graph.edges.containsKey(idValue))
-                throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
-        } else {
-            idValue = graph.edgeIdManager.getNextId(graph);
+            edge = new TinkerEdge(idValue, outVertex, graph.compactAdjacency ? graph.intern(label) : label, inVertex);
+            ElementHelper.attachProperties(edge, keyValues);
+            graph.edges.put(edge.id(), edge);
+            graph.structureChanges.increment();
+            TinkerHelper.addLabelIndex(graph.edgeLabels, (TinkerEdge) edge);
+            TinkerHelper.addOutEdge(outVertex, edge.label(), edge);
+            TinkerHelper.addInEdge(inVertex, edge.label(), edge);
+            if (null != graph.mutationLog) graph.mutationLog.addEdge(edge);
+            return edge;
+        } finally {
+            TinkerHelper.endMutation(graph);
         }
+    }
 
-        edge = new TinkerEdge(idValue, outVertex, label, inVertex);
-        ElementHelper.attachProperties(edge, keyValues);
-        graph.edges.put(edge.id(), edge);
-        TinkerHelper.addOutEdge(outVertex, label, edge);
-        TinkerHelper.addInEdge(inVertex, label, edge);
-        return edge;
+    protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (null == vertex.outEdges) vertex.outEdges = createAdjacency(graph);
+        vertex.outEdges.computeIfAbsent(label, l -> createEdges(graph)).add(edge);
+    }
 
+    protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (null == vertex.inEdges) vertex.inEdges = createAdjacency(graph);
+        vertex.inEdges.computeIfAbsent(label, l -> createEdges(graph)).add(edge);
     }
 
-    protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
-        Set<Edge> edges = vertex.outEdges.get(label);
-        if (null == edges) {
-            edges = new HashSet<>();
-            vertex.outEdges.put(label, edges);
+    protected static Map<String, Collection<Edge>> createAdjacency(final TinkerGraph graph) {
+        if (graph.compactAdjacency) return new TinkerAdjacency();
+        return new HashMap<>();
+    }
+
+    private static Collection<Edge> createEdges(final TinkerGraph graph) {
+        if (graph.compactAdjacency) return new TinkerAdjacency.Edges();
+        return new HashSet<>();
+    }
+
+    public static Iterator<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
+        return null == graph.vertexIndex ? Collections.emptyIterator() : graph.vertexIndex.get(key, value);
+    }
+
+    public static Iterator<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
+        return null == graph.edgeIndex ? Collections.emptyIterator() : graph.edgeIndex.get(key, value);
+    }
+
+    /**
+     * Queries the most selective vertex index that can serve the {@link HasContainer} filters, be it composite,
+     * single key or range. Returns {@code null} if no index applies. The returned vertices must still be tested
+     * against the filters. They are read lazily from the index, leaving out vertices that property changes add to
+     * the index or move within it while the iteration is underway.
+     */
+    public static Iterator<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final List<HasContainer> hasContainers) {
+        final Collection<TinkerVertex> labeled = getElementsWithLabels(graph.vertexLabels, hasContainers);
+        return null == graph.vertexIndex ?
+                (null == labeled ? null : labeled.iterator()) :
+                graph.vertexIndex.get(hasContainers, labeled);
+    }
+
+    /**
+     * Queries the most selective edge index that can serve the {@link HasContainer} filters, be it composite,
+     * single key or range. Returns {@code null} if no index applies. The returned edges must still be tested
+     * against the filters. They are read lazily from the index, leaving out edges that property changes add to the
+     * index or move within it while the iteration is underway.
+     */
+    public static Iterator<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final List<HasContainer> hasContainers) {
+        final Collection<TinkerEdge> labeled = getElementsWithLabels(graph.edgeLabels, hasContainers);
+        return null == graph.edgeIndex ?
+                (null == labeled ? null : labeled.iterator()) :
+                graph.edgeIndex.get(hasContainers, labeled);
+    }
+
+    /**
+     * Counts the vertices that match a single {@link T#label} filter of {@link Compare#eq} or {@link Contains#within}
+     * from the label index. Returns {@code -1} if the filters are not of that form.
+     */
+    public static long countVertexLabelIndex(final TinkerGraph graph, final List<HasContainer> hasContainers) {
+        return countElementsWithLabels(graph.vertexLabels, hasContainers);
+    }
+
+    /**
+     * Counts the edges that match a single {@link T#label} filter of {@link Compare#eq} or {@link Contains#within}
+     * from the label index. Returns {@code -1} if the filters are not of that form.
+     */
+    public static long countEdgeLabelIndex(final TinkerGraph graph, final List<HasContainer> hasContainers) {
+        return countElementsWithLabels(graph.edgeLabels, hasContainers);
+    }
+
+    /**
+     * Determines if the predicate filters labels in a way the label index can answer.
+     */
+    public static boolean isLabelIndexable(final String key, final P<?> predicate) {
+        return T.label.getAccessor().equals(key) &&
+                (predicate.getBiPredicate() == Compare.eq || predicate.getBiPredicate() == Contains.within);
+    }
+
+    protected static <E extends TinkerElement> void addLabelIndex(final Map<String, Set<E>> labels, final E element) {
+        labels.computeIfAbsent(element.label, k -> ConcurrentHashMap.newKeySet()).add(element);
+    }
+
+    protected static <E extends TinkerElement> void removeLabelIndex(final Map<String, Set<E>> labels, final E element) {
+        final Set<E> elements = labels.get(element.label);
+        if (null != elements) elements.remove(element);
+    }
+
+    /**
+     * Gets the elements for the first label filter found among the {@link HasContainer} list or {@code null} if
+     * there is none that the label index can answer.
+     */
+    private static <E extends TinkerElement> Collection<E> getElementsWithLabels(final Map<String, Set<E>> labels,
+                                                                              final List<HasContainer> hasContainers) {
+        for (HasContainer hasContainer : hasContainers) {
+            if (!isLabelIndexable(hasContainer.getKey(), hasContainer.getPredicate())) continue;
+
+            final Object value = hasContainer.getPredicate().getValue();
+            if (hasContainer.getPredicate().getBiPredicate() == Compare.eq)
+                return getElementsWithLabel(labels, value);
+
+            // a view over the sets of the labels so that they are neither copied nor merged
+            final List<Set<E>> sets = new ArrayList<>();
+            for (Object label : new HashSet<>((Collection<?>) value)) {
+                sets.add(getElementsWithLabel(labels, label));
+            }
+            return new AbstractCollection<E>() {
+                @Override
+                public Iterator<E> iterator() {
+                    return IteratorUtils.flatMap(sets.iterator(), Set::iterator);
+                }
+
+                @Override
+                public int size() {
+                    return sets.stream().mapToInt(Set::size).sum();
+                }
+            };
         }
-        edges.add(edge);
+        return null;
     }
 
-    protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
-        Set<Edge> edges = vertex.inEdges.get(label);
-        if (null == edges) {
-            edges = new HashSet<>();
-            vertex.inEdges.put(label, edges);
+    private static <E extends TinkerElement> Set<E> getElementsWithLabel(final Map<String, Set<E>> labels, final Object label) {
+        return null == label ? Collections.emptySet() : labels.getOrDefault(label, Collections.emptySet());
+    }
+
+    private static <E extends TinkerElement> long countElementsWithLabels(final Map<String, Set<E>> labels,
+                                                                        final List<HasContainer> hasContainers) {
+        if (hasContainers.size() != 1 || !isLabelIndexable(hasContainers.get(0).getKey(), hasContainers.get(0).getPredicate()))
+            return -1;
+
+        final Object value = hasContainers.get(0).getPredicate().getValue();
+        if (hasContainers.get(0).getPredicate().getBiPredicate() == Compare.eq)
+            return getElementsWithLabel(labels, value).size();
+
+        long count = 0;
+        for (Object label : new HashSet<>((Collection<?>) value)) {
+            count = count + getElementsWithLabel(labels, label).size();
         }
-        edges.add(edge);
+        return count;
     }
 
-    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
-        return null == graph.vertexIndex ? Collections.emptyList() : graph.vertexIndex.get(key, value);
+    /**
+     * Queries a {@link TinkerGraph.IndexType#RANGE} vertex index for the vertices whose value for the key satisfies
+     * all of the predicates. Returns {@code null} if the predicates can't be answered by such an index.
+     */
+    public static List<TinkerVertex> queryVertexRangeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.vertexIndex ? null : graph.vertexIndex.getRange(key, predicates);
     }
 
-    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
-        return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
+    /**
+     * Queries a {@link TinkerGraph.IndexType#RANGE} edge index for the edges whose value for the key satisfies
+     * all of the predicates. Returns {@code null} if the predicates can't be answered by such an index.
+     */
+    public static List<TinkerEdge> queryEdgeRangeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.edgeIndex ? null : graph.edgeIndex.getRange(key, predicates);
+    }
+
+    /**
+     * Counts the vertices that {@link #queryVertexRangeIndex(TinkerGraph, String, List)} would return. Returns
+     * {@code -1} if the predicates can't be answered by such an index.
+     */
+    public static long countVertexRangeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.vertexIndex ? -1 : graph.vertexIndex.countRange(key, predicates);
+    }
+
+    /**
+     * Counts the edges that {@link #queryEdgeRangeIndex(TinkerGraph, String, List)} would return. Returns
+     * {@code -1} if the predicates can't be answered by such an index.
+     */
+    public static long countEdgeRangeIndex(final TinkerGraph graph, final String key, final List<P<?>> predicates) {
+        return null == graph.edgeIndex ? -1 : graph.edgeIndex.countRange(key, predicates);
+    }
+
+    /**
+     * Determines if the predicate can bound a lookup on a {@link TinkerGraph.IndexType#RANGE} index.
+     */
+    public static boolean isRangeable(final P<?> predicate) {
+        return TinkerIndex.isRangeable(predicate);
+    }
+
+    /**
+     * Starts a mutation of the graph, which must be followed by {@link #endMutation(TinkerGraph)} once it is done, so
+     * that the {@link TinkerMutationLog} of the graph, if it has one, does not take a snapshot in the middle of it.
+     */
+    static void beginMutation(final TinkerGraph graph) {
+        if (null != graph.mutationLog) graph.mutationLog.beginMutation();
+    }
+
+    static void endMutation(final TinkerGraph graph) {
+        if (null != graph.mutationLog) graph.mutationLog.endMutation();
     }
 
     public static boolean inComputerMode(final TinkerGraph graph) {
@@ -120,8 +302,60 @@ public final class TinkerHelper {
         graph.graphComputerView = null;
     }
 
+    /**
+     * Gets the runtime that {@link TinkerGraphComputer} submissions to the graph share, creating it if there is none.
+     */
+    public static synchronized TinkerGraphComputerRuntime getComputerRuntime(final TinkerGraph graph) {
+        if (null == graph.computerRuntime)
+            graph.computerRuntime = new TinkerGraphComputerRuntime(graph);
+        return graph.computerRuntime;
+    }
+
+    public static synchronized void closeComputerRuntime(final TinkerGraph graph) {
+        if (null != graph.computerRuntime) {
+            graph.computerRuntime.close();
+            graph.computerRuntime = null;
+        }
+    }
+
+    /**
+     * Gets the number of vertices and edges that were added to or removed from the graph, which changes whenever
+     * the structure of the graph does.
+     */
+    public static long getStructureChanges(final TinkerGraph graph) {
+        return graph.structureChanges.sum();
+    }
+
+    /**
+     * Gets the vertices of the graph in the order in which {@link #indexVertices(Vertex[])} expects them.
+     */
+    public static Vertex[] getVertexArray(final TinkerGraph graph) {
+        return graph.vertices.values().toArray(new Vertex[0]);
+    }
+
+    /**
+     * Assigns each vertex a dense index from zero, which is its position in the array.
+     */
+    public static void indexVertices(final Vertex[] vertices) {
+        for (int i = 0; i < vertices.length; i++) {
+            ((TinkerVertex) vertices[i]).computerIndex = i;
+        }
+    }
+
+    public static int getComputerIndex(final TinkerVertex vertex) {
+        return vertex.computerIndex;
+    }
+
     public static Map<String, List<VertexProperty>> getProperties(final TinkerVertex vertex) {
-        return null == vertex.properties ? Collections.emptyMap() : vertex.properties;
+        if (null == vertex.compactProperties || vertex.compactProperties.size() == 0)
+            return null == vertex.properties ? Collections.emptyMap() : vertex.properties;
+
+        // compact properties have no VertexProperty of their own so they are materialized alongside the others
+        final Map<String, List<VertexProperty>> properties = null == vertex.properties ? new HashMap<>() : new HashMap<>(vertex.properties);
+        for (int i = 0; i < vertex.compactProperties.size(); i++) {
+            properties.put(vertex.compactProperties.key(i), Collections.singletonList(vertex.materialize(i)));
+        }
+        return properties;
     }
 
     public static void autoUpdateIndex(final TinkerEdge edge, final String key, final Object newValue, final Object oldValue) {
@@ -160,6 +394,24 @@ public final class TinkerHelper {
             graph.edgeIndex.remove(key, value, edge);
     }
 
+    /**
+     * Counts the edges of the vertex in both directions without collecting them.
+     */
+    public static int countEdges(final TinkerVertex vertex) {
+        int count = 0;
+        if (vertex.outEdges != null) {
+            for (final Collection<Edge> edges : vertex.outEdges.values()) {
+                count += edges.size();
+            }
+        }
+        if (vertex.inEdges != null) {
+            for (final Collection<Edge> edges : vertex.inEdges.values()) {
+                count += edges.size();
+            }
+        }
+        return count;
+    }
+
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
         final List<Edge> edges = new ArrayList<>();
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
@@ -194,7 +446,7 @@ public final class TinkerHelper {
                 else if (edgeLabels.length == 1)
                     vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
                 else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
+                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).flatMap(Collection::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
             }
         }
         if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
@@ -204,7 +456,7 @@ public final class TinkerHelper {
                 else if (edgeLabels.length == 1)
                     vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
                 else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
+                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).flatMap(Collection::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
             }
         }
         return (Iterator) vertices.iterator();
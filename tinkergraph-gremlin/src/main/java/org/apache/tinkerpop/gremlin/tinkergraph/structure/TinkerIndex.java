@@ -18,29 +18,69 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Text;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.util.GremlinValueComparator;
+import org.apache.tinkerpop.gremlin.util.NumberHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerIndex<T extends Element> {
 
+    /**
+     * Orders the values of a {@link TinkerGraph.IndexType#RANGE} index using Gremlin orderability semantics, which
+     * keeps values of the same type contiguous and treats numbers of differing classes as equal by value.
+     */
+    private static final Comparator<Object> RANGE_COMPARATOR = (a, b) -> GremlinValueComparator.ORDERABILITY.compare(
+            a instanceof IndexedNull ? null : a, b instanceof IndexedNull ? null : b);
+
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
-    private final Set<String> indexedKeys = new HashSet<>();
+    private final Map<String, TinkerGraph.IndexType> indexedKeys = new HashMap<>();
+
+    /**
+     * Keys for which some element has been indexed under more than one value (i.e. multi-properties), meaning that
+     * an element may appear more than once across a span of a range index.
+     */
+    private final Set<String> multiValuedKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Composite indices map the tuple of values of their keys (in key order) to the elements holding those values.
+     */
+    private final Map<TinkerGraph.CompositeIndex, Map<List<Object>, Set<T>>> compositeIndex = new ConcurrentHashMap<>();
     private final TinkerGraph graph;
 
+    /**
+     * Counts the changes of the properties of elements that added or moved them within the index, each element
+     * keeping the count of its last such change.
+     */
+    private final AtomicLong modifications = new AtomicLong();
+
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
         this.graph = graph;
         this.indexClass = indexClass;
@@ -49,27 +89,40 @@ final class TinkerIndex<T extends Element> {
     protected void put(final String key, final Object value, final T element) {
         Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null == keyMap) {
-            this.index.putIfAbsent(key, new ConcurrentHashMap<>());
+            this.index.putIfAbsent(key, TinkerGraph.IndexType.RANGE == this.indexedKeys.get(key) ?
+                    new ConcurrentSkipListMap<>(RANGE_COMPARATOR) : new ConcurrentHashMap<>());
             keyMap = this.index.get(key);
         }
-        Set<T> objects = keyMap.get(value);
+        final Object indexableValue = indexable(value);
+        Set<T> objects = keyMap.get(indexableValue);
         if (null == objects) {
-            keyMap.putIfAbsent(value, ConcurrentHashMap.newKeySet());
-            objects = keyMap.get(value);
+            keyMap.putIfAbsent(indexableValue, ConcurrentHashMap.newKeySet());
+            objects = keyMap.get(indexableValue);
         }
         objects.add(element);
+
+        // only range lookups need to know of multi-valued keys and a compact property always holds a single value
+        if (element instanceof TinkerVertex && TinkerGraph.IndexType.RANGE == this.indexedKeys.get(key)) {
+            final Map<String, List<VertexProperty>> vertexProperties = ((TinkerVertex) element).properties;
+            final List<VertexProperty> properties = null == vertexProperties ? null : vertexProperties.get(key);
+            if (null != properties && properties.size() > 1) this.multiValuedKeys.add(key);
+        }
     }
 
-    public List<T> get(final String key, final Object value) {
+    /**
+     * Gets the elements indexed under the value for the key, read lazily from the index as with
+     * {@link #get(List, Collection)}.
+     */
+    public Iterator<T> get(final String key, final Object value) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null == keyMap) {
-            return Collections.emptyList();
+            return Collections.emptyIterator();
         } else {
             Set<T> set = keyMap.get(indexable(value));
             if (null == set)
-                return Collections.emptyList();
+                return Collections.emptyIterator();
             else
-                return new ArrayList<>(set);
+                return unchanged(set.iterator());
         }
     }
 
@@ -86,14 +139,312 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
+    /**
+     * Gets the elements of a {@link TinkerGraph.IndexType#RANGE} index whose value for the key satisfies all of the
+     * supplied predicates, each of which must be {@link #isRangeable(P) rangeable}. Returns {@code null} if there is
+     * no range index for the key or if the predicates can't be resolved to a contiguous span of the index, in which
+     * case the caller should fall back to a scan.
+     */
+    public List<T> getRange(final String key, final List<P<?>> predicates) {
+        final Iterator<T> elements = iterateRange(key, predicates);
+        return null == elements ? null : IteratorUtils.list(elements);
+    }
+
+    /**
+     * Counts the elements that {@link #getRange(String, List)} would return without collecting them. Returns
+     * {@code -1} if the predicates cannot be answered by a range index for the key.
+     */
+    public long countRange(final String key, final List<P<?>> predicates) {
+        // an element indexed under several values could be counted more than once so those need to be distinct
+        if (this.multiValuedKeys.contains(key)) {
+            final Iterator<T> elements = iterateRange(key, predicates);
+            return null == elements ? -1 : IteratorUtils.count(elements);
+        }
+        return sizeRange(key, predicates);
+    }
+
+    /**
+     * Sums the sizes of the sets of the index entries matching the predicates, which is the number of elements in
+     * the range unless the key is multi-valued, in which case it is an upper bound. Returns {@code -1} if the
+     * predicates cannot be answered by a range index for the key.
+     */
+    private long sizeRange(final String key, final List<P<?>> predicates) {
+        final NavigableMap<Object, Set<T>> span = span(key, predicates);
+        if (null == span) return -1;
+
+        long count = 0;
+        final Object bound = boundOf(predicates);
+        for (Map.Entry<Object, Set<T>> entry : span.entrySet()) {
+            if (!withinSpan(entry.getKey(), bound, predicates)) break;
+            if (testAll(entry.getKey(), predicates)) count = count + entry.getValue().size();
+        }
+        return count;
+    }
+
+    /**
+     * Lazily walks the index entries matching the predicates, reading the live sets of the index rather than a copy
+     * of them, so the iteration is weakly consistent with concurrent changes to the graph. Returns {@code null} if
+     * the predicates cannot be answered by a range index for the key.
+     */
+    private Iterator<T> iterateRange(final String key, final List<P<?>> predicates) {
+        final NavigableMap<Object, Set<T>> span = span(key, predicates);
+        if (null == span) return null;
+
+        final Object bound = boundOf(predicates);
+        final Iterator<Map.Entry<Object, Set<T>>> entries = span.entrySet().iterator();
+        final Iterator<Set<T>> matching = new Iterator<Set<T>>() {
+            private Set<T> next = advance();
+
+            // the span is ordered so the walk ends at the first value that falls outside of it
+            private Set<T> advance() {
+                while (entries.hasNext()) {
+                    final Map.Entry<Object, Set<T>> entry = entries.next();
+                    if (!withinSpan(entry.getKey(), bound, predicates)) return null;
+                    if (testAll(entry.getKey(), predicates)) return entry.getValue();
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return null != this.next;
+            }
+
+            @Override
+            public Set<T> next() {
+                if (null == this.next) throw FastNoSuchElementException.instance();
+                final Set<T> current = this.next;
+                this.next = advance();
+                return current;
+            }
+        };
+
+        final Iterator<T> elements = IteratorUtils.flatMap(matching, Set::iterator);
+        if (!this.multiValuedKeys.contains(key)) return elements;
+
+        final Set<T> seen = new HashSet<>();
+        return IteratorUtils.filter(elements, seen::add);
+    }
+
+    /**
+     * Determines if the predicate can be used to bound a {@link TinkerGraph.IndexType#RANGE} index lookup.
+     */
+    public static boolean isRangeable(final P<?> predicate) {
+        final Object value = predicate.getValue();
+        if (predicate.getBiPredicate() == Text.startingWith)
+            return value instanceof String;
+
+        final GremlinValueComparator.Type type = GremlinValueComparator.Type.type(value);
+        return (predicate.getBiPredicate() == Compare.eq || predicate.getBiPredicate() == Compare.gt ||
+                predicate.getBiPredicate() == Compare.gte || predicate.getBiPredicate() == Compare.lt ||
+                predicate.getBiPredicate() == Compare.lte) &&
+                type != GremlinValueComparator.Type.Nulltype && type != GremlinValueComparator.Type.Unknown &&
+                !NumberHelper.isNaN(value);
+    }
+
+    /**
+     * Narrows the ordered index for the key to the part that can contain matches for the predicates. As the index
+     * groups values by type, a span with only a lower bound is read ascending and one with only an upper bound is
+     * read descending so that iteration can stop at the edge of the type of the bound.
+     */
+    private NavigableMap<Object, Set<T>> span(final String key, final List<P<?>> predicates) {
+        if (predicates.isEmpty() || TinkerGraph.IndexType.RANGE != this.indexedKeys.get(key)) return null;
+        final NavigableMap<Object, Set<T>> keyMap = (NavigableMap<Object, Set<T>>) this.index.get(key);
+        if (null == keyMap) return Collections.emptyNavigableMap();
+
+        Object lower = null, upper = null;
+        boolean lowerInclusive = true, upperInclusive = true;
+        for (P<?> predicate : predicates) {
+            if (!isRangeable(predicate)) return null;
+            final Object value = predicate.getValue();
+            final boolean eq = predicate.getBiPredicate() == Compare.eq;
+            if (eq || predicate.getBiPredicate() == Compare.gt || predicate.getBiPredicate() == Compare.gte ||
+                    predicate.getBiPredicate() == Text.startingWith) {
+                final int c = null == lower ? 1 : RANGE_COMPARATOR.compare(value, lower);
+                if (c > 0 || (c == 0 && predicate.getBiPredicate() == Compare.gt)) {
+                    lower = value;
+                    lowerInclusive = predicate.getBiPredicate() != Compare.gt;
+                }
+            }
+            if (eq || predicate.getBiPredicate() == Compare.lt || predicate.getBiPredicate() == Compare.lte) {
+                final int c = null == upper ? -1 : RANGE_COMPARATOR.compare(value, upper);
+                if (c < 0 || (c == 0 && predicate.getBiPredicate() == Compare.lt)) {
+                    upper = value;
+                    upperInclusive = predicate.getBiPredicate() != Compare.lt;
+                }
+            }
+        }
+
+        if (null != lower && null != upper) {
+            // values of differing types are never comparable so nothing can fall between the bounds
+            if (GremlinValueComparator.Type.type(lower) != GremlinValueComparator.Type.type(upper) ||
+                    RANGE_COMPARATOR.compare(lower, upper) > 0)
+                return Collections.emptyNavigableMap();
+            return keyMap.subMap(lower, lowerInclusive, upper, upperInclusive);
+        } else if (null != lower) {
+            return keyMap.tailMap(lower, lowerInclusive);
+        } else {
+            return keyMap.headMap(upper, upperInclusive).descendingMap();
+        }
+    }
+
+    private static Object boundOf(final List<P<?>> predicates) {
+        return predicates.get(0).getValue();
+    }
+
+    /**
+     * Determines if a value read from a span is still within the type of the bound and, for prefix searches, still
+     * starts with the prefix. Once a value falls outside, no later value in the span can match.
+     */
+    private static boolean withinSpan(final Object value, final Object bound, final List<P<?>> predicates) {
+        if (GremlinValueComparator.Type.type(value) != GremlinValueComparator.Type.type(bound)) return false;
+        for (P<?> predicate : predicates) {
+            if (predicate.getBiPredicate() == Text.startingWith && !((String) value).startsWith((String) predicate.getValue()))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean testAll(final Object value, final List<P<?>> predicates) {
+        for (P predicate : predicates) {
+            if (!predicate.test(value)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Chooses the most selective index that can answer the {@link Compare#eq} filters in the {@link HasContainer}
+     * list and returns the elements it holds for them. Composite indices are considered before single key indices and
+     * each candidate is weighed by the number of elements it holds for the filtered values, which the index keeps
+     * readily available. The elements of the labels being filtered on, if any, compete as a candidate as well. If no
+     * equality lookup applies, a {@link TinkerGraph.IndexType#RANGE} lookup is attempted. Returns {@code null} if
+     * no index can be used. The returned elements must still be tested against the {@link HasContainer} list.
+     * <p/>
+     * The elements are read lazily from the live sets of the index so that nothing is copied for a lookup that is
+     * only partially consumed, as with a {@code limit()}. Elements that are added to the index or moved within it by
+     * a change of their properties after the lookup started are left out, as they could otherwise be returned again,
+     * such as when incrementing the value of a range the lookup reads in ascending order, and a caller that needs
+     * them should copy the elements before changing the graph.
+     */
+    public Iterator<T> get(final List<HasContainer> hasContainers, final Collection<T> labeled) {
+        final Map<String, Object> equalities = new HashMap<>();
+        for (HasContainer hasContainer : hasContainers) {
+            if (hasContainer.getPredicate().getBiPredicate() == Compare.eq)
+                equalities.putIfAbsent(hasContainer.getKey(), hasContainer.getPredicate().getValue());
+        }
+
+        Collection<T> best = null;
+        for (Map.Entry<TinkerGraph.CompositeIndex, Map<List<Object>, Set<T>>> entry : this.compositeIndex.entrySet()) {
+            final List<Object> tuple = tupleOf(entry.getKey(), equalities);
+            if (null == tuple) continue;
+            final Set<T> set = entry.getValue().getOrDefault(tuple, Collections.emptySet());
+            if (null == best || set.size() < best.size()) best = set;
+        }
+        for (Map.Entry<String, Object> equality : equalities.entrySet()) {
+            final Map<Object, Set<T>> keyMap = this.indexedKeys.containsKey(equality.getKey()) ? this.index.get(equality.getKey()) : null;
+            if (null == keyMap) continue;
+            final Set<T> set = keyMap.getOrDefault(indexable(equality.getValue()), Collections.emptySet());
+            if (null == best || set.size() < best.size()) best = set;
+        }
+        if (null != best) return null != labeled && labeled.size() < best.size() ? labeled.iterator() : unchanged(best.iterator());
+
+        for (HasContainer hasContainer : hasContainers) {
+            if (TinkerGraph.IndexType.RANGE == this.indexedKeys.get(hasContainer.getKey()) && isRangeable(hasContainer.getPredicate())) {
+                final List<P<?>> predicates = new ArrayList<>();
+                for (HasContainer c : hasContainers) {
+                    if (c.getKey().equals(hasContainer.getKey()) && isRangeable(c.getPredicate()))
+                        predicates.add(c.getPredicate());
+                }
+                final long size = sizeRange(hasContainer.getKey(), predicates);
+                if (size >= 0)
+                    return null != labeled && labeled.size() < size ? labeled.iterator() : unchanged(iterateRange(hasContainer.getKey(), predicates));
+            }
+        }
+        return null == labeled ? null : labeled.iterator();
+    }
+
+    /**
+     * Leaves out the elements that were added to the index or moved within it after the iteration started. Every
+     * other element sits where it did when the iteration started and the live sets of the index return it once.
+     */
+    private Iterator<T> unchanged(final Iterator<T> elements) {
+        final long started = this.modifications.get();
+        return IteratorUtils.filter(elements, e -> ((TinkerElement) e).indexModification <= started);
+    }
+
+    /**
+     * Builds the lookup tuple for a composite index from the equality filters or returns {@code null} if the filters
+     * don't cover the label and every key of the index.
+     */
+    private static List<Object> tupleOf(final TinkerGraph.CompositeIndex compositeIndex, final Map<String, Object> equalities) {
+        if (null != compositeIndex.getLabel() && !compositeIndex.getLabel().equals(equalities.get(org.apache.tinkerpop.gremlin.structure.T.label.getAccessor())))
+            return null;
+
+        final List<Object> tuple = new ArrayList<>(compositeIndex.getKeys().size());
+        for (String key : compositeIndex.getKeys()) {
+            if (!equalities.containsKey(key)) return null;
+            tuple.add(indexable(equalities.get(key)));
+        }
+        return tuple;
+    }
+
+    /**
+     * Gets the tuples an element is indexed under for a composite index, substituting the value of one key if it is
+     * not {@code null}. There is more than one tuple if the element holds multi-properties for the keys.
+     */
+    private List<List<Object>> tuplesOf(final TinkerGraph.CompositeIndex compositeIndex, final T element,
+                                        final String substituteKey, final Object substituteValue) {
+        if (null != compositeIndex.getLabel() && !compositeIndex.getLabel().equals(element.label()))
+            return Collections.emptyList();
+
+        List<List<Object>> tuples = Collections.singletonList(Collections.emptyList());
+        for (String key : compositeIndex.getKeys()) {
+            final List<Object> values = new ArrayList<>();
+            if (key.equals(substituteKey))
+                values.add(indexable(substituteValue));
+            else
+                element.properties(key).forEachRemaining(p -> values.add(indexable(p.value())));
+            if (values.isEmpty()) return Collections.emptyList();
+
+            final List<List<Object>> expanded = new ArrayList<>(tuples.size() * values.size());
+            for (List<Object> tuple : tuples) {
+                for (Object value : values) {
+                    final List<Object> t = new ArrayList<>(tuple);
+                    t.add(value);
+                    expanded.add(t);
+                }
+            }
+            tuples = expanded;
+        }
+        return tuples;
+    }
+
+    private void putComposite(final TinkerGraph.CompositeIndex compositeIndex, final List<Object> tuple, final T element) {
+        this.compositeIndex.get(compositeIndex).computeIfAbsent(tuple, t -> ConcurrentHashMap.newKeySet()).add(element);
+    }
+
+    private void removeComposite(final TinkerGraph.CompositeIndex compositeIndex, final List<Object> tuple, final T element) {
+        final Map<List<Object>, Set<T>> tupleMap = this.compositeIndex.get(compositeIndex);
+        final Set<T> objects = tupleMap.get(tuple);
+        if (null != objects) {
+            objects.remove(element);
+            if (objects.isEmpty()) tupleMap.remove(tuple);
+        }
+    }
+
     public void remove(final String key, final Object value, final T element) {
+        for (TinkerGraph.CompositeIndex ci : this.compositeIndex.keySet()) {
+            if (ci.getKeys().contains(key))
+                tuplesOf(ci, element, key, value).forEach(tuple -> removeComposite(ci, tuple, element));
+        }
+
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null != keyMap) {
             final Set<T> objects = keyMap.get(indexable(value));
             if (null != objects) {
                 objects.remove(element);
                 if (objects.size() == 0) {
-                    keyMap.remove(value);
+                    keyMap.remove(indexable(value));
                 }
             }
         }
@@ -106,25 +457,80 @@ final class TinkerIndex<T extends Element> {
                     set.remove(element);
                 }
             }
+            for (Map<List<Object>, Set<T>> map : compositeIndex.values()) {
+                for (Set<T> set : map.values()) {
+                    set.remove(element);
+                }
+            }
         }
     }
 
     public void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
-        if (this.indexedKeys.contains(key)) {
+        // the element is marked before it is moved, so that a lookup which finds it at its new place skips it
+        if (isIndexed(key))
+            ((TinkerElement) element).indexModification = this.modifications.incrementAndGet();
+        if (this.indexedKeys.containsKey(key)) {
             this.remove(key, oldValue, element);
             this.put(key, newValue, element);
+        } else {
+            // remove() takes care of composite indices for the old value
+            for (TinkerGraph.CompositeIndex ci : this.compositeIndex.keySet()) {
+                if (ci.getKeys().contains(key) && null != oldValue)
+                    tuplesOf(ci, element, key, oldValue).forEach(tuple -> removeComposite(ci, tuple, element));
+            }
+        }
+        for (TinkerGraph.CompositeIndex ci : this.compositeIndex.keySet()) {
+            if (ci.getKeys().contains(key))
+                tuplesOf(ci, element, null, null).forEach(tuple -> putComposite(ci, tuple, element));
         }
     }
 
+    private boolean isIndexed(final String key) {
+        if (this.indexedKeys.containsKey(key)) return true;
+        for (TinkerGraph.CompositeIndex ci : this.compositeIndex.keySet()) {
+            if (ci.getKeys().contains(key)) return true;
+        }
+        return false;
+    }
+
+    public void createCompositeIndex(final TinkerGraph.CompositeIndex compositeIndex) {
+        if (this.compositeIndex.containsKey(compositeIndex))
+            return;
+        this.compositeIndex.put(compositeIndex, new ConcurrentHashMap<>());
+
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().parallelStream() :
+                this.graph.edges.values().parallelStream())
+                .forEach(e -> tuplesOf(compositeIndex, (T) e, null, null).forEach(tuple -> putComposite(compositeIndex, tuple, (T) e)));
+    }
+
+    public void dropCompositeIndex(final TinkerGraph.CompositeIndex compositeIndex) {
+        final Map<List<Object>, Set<T>> tupleMap = this.compositeIndex.remove(compositeIndex);
+        if (null != tupleMap) tupleMap.clear();
+    }
+
+    public Set<TinkerGraph.CompositeIndex> getCompositeIndices() {
+        return this.compositeIndex.keySet();
+    }
+
     public void createKeyIndex(final String key) {
+        createKeyIndex(key, TinkerGraph.IndexType.EQUALITY);
+    }
+
+    public void createKeyIndex(final String key, final TinkerGraph.IndexType indexType) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (null == indexType)
+            throw Graph.Exceptions.argumentCanNotBeNull("indexType");
 
-        if (this.indexedKeys.contains(key))
+        if (indexType == this.indexedKeys.get(key))
             return;
-        this.indexedKeys.add(key);
+
+        // changing the type of an existing index requires it to be rebuilt in the new structure
+        dropKeyIndex(key);
+        this.indexedKeys.put(key, indexType);
 
         (Vertex.class.isAssignableFrom(this.indexClass) ?
                 this.graph.vertices.values().parallelStream() :
@@ -139,6 +545,7 @@ final class TinkerIndex<T extends Element> {
             this.index.remove(key).clear();
 
         this.indexedKeys.remove(key);
+        this.multiValuedKeys.remove(key);
     }
 
     /**
@@ -150,7 +557,11 @@ final class TinkerIndex<T extends Element> {
     }
 
     public Set<String> getIndexedKeys() {
-        return this.indexedKeys;
+        return this.indexedKeys.keySet();
+    }
+
+    public TinkerGraph.IndexType getIndexType(final String key) {
+        return this.indexedKeys.get(key);
     }
 
     public static final class IndexedNull {
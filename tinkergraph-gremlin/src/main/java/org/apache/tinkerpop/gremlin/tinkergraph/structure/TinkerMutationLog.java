@@ -0,0 +1,539 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the mutations of a {@link TinkerGraph} that is enabled with
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_MUTATION_LOG}, so that the changes made since the graph was last saved to its
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_GRAPH_LOCATION} survive a crash. Each mutation is appended once it is applied,
+ * as a Gryo record framed by its length and checksum, to numbered segment files next to the graph location. When the
+ * graph is opened the snapshot at the graph location is loaded and the segments are replayed in order, where a record
+ * that was cut short by a crash ends the replay of its segment.
+ * <p/>
+ * Each mutation of the graph is made between {@link #beginMutation()} and {@link #endMutation()}, which hold one lock
+ * so that mutations are appended in the order they are applied, as replay would otherwise apply two changes of an
+ * element in the wrong order. A snapshot starts a new segment and copies the graph under that lock, then writes the
+ * copy to the graph location without it, so mutations go on while the snapshot is written. Once it is in place the
+ * number of the new segment is recorded next to it and the segments that came before it are deleted. Replay skips the
+ * segments that a snapshot is recorded to cover. Should a crash come between writing
+ * the snapshot and recording what it covers, the covered segments are replayed over a snapshot that already holds
+ * them, so replay is also idempotent: elements that already exist are not added again and mutations of elements that
+ * no longer exist are skipped.
+ */
+final class TinkerMutationLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TinkerMutationLog.class);
+
+    private static final byte ADD_VERTEX = 1;
+    private static final byte ADD_EDGE = 2;
+    private static final byte ADD_VERTEX_PROPERTY = 3;
+    private static final byte ADD_EDGE_PROPERTY = 4;
+    private static final byte ADD_META_PROPERTY = 5;
+    private static final byte REMOVE_VERTEX = 6;
+    private static final byte REMOVE_EDGE = 7;
+    private static final byte REMOVE_VERTEX_PROPERTY = 8;
+    private static final byte REMOVE_EDGE_PROPERTY = 9;
+    private static final byte REMOVE_META_PROPERTY = 10;
+    private static final byte CLEAR = 11;
+
+    private static final String SEGMENT_SUFFIX = ".log.";
+    private static final String COVERED_SUFFIX = ".covered";
+
+    private final TinkerGraph graph;
+    private final File location;
+    private final boolean sync;
+    private final Kryo kryo = GryoMapper.build().addRegistry(TinkerIoRegistryV3d0.instance()).create().createMapper();
+    private final Output output = new Output(4096, -1);
+    private final CRC32 crc = new CRC32();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService snapshotExecutor;
+
+    private long segment;
+
+    /**
+     * The current segment, which is {@code null} once the log is closed until the next mutation opens it again.
+     */
+    private FileChannel channel;
+    private long mutations = 0;
+
+    private TinkerMutationLog(final TinkerGraph graph, final String graphLocation, final boolean sync,
+                              final long snapshotInterval) throws IOException {
+        this.graph = graph;
+        this.location = new File(graphLocation).getAbsoluteFile();
+        this.sync = sync;
+        if (!this.location.getParentFile().exists()) this.location.getParentFile().mkdirs();
+
+        final long covered = readCovered();
+        final TreeMap<Long, File> segments = segments();
+        for (File file : segments.headMap(covered).values()) {
+            file.delete();
+        }
+        for (File file : segments.tailMap(covered).values()) {
+            replay(file);
+        }
+        this.segment = Math.max(covered, segments.isEmpty() ? 0 : segments.lastKey() + 1);
+        this.channel = openSegment(this.segment);
+
+        if (snapshotInterval > 0) {
+            this.snapshotExecutor = Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder().
+                    namingPattern(TinkerMutationLog.class.getSimpleName() + "-snapshot").daemon(true).build());
+            this.snapshotExecutor.scheduleWithFixedDelay(this::backgroundSnapshot, snapshotInterval, snapshotInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.snapshotExecutor = null;
+        }
+    }
+
+    /**
+     * Replays the segments of the log at the graph location into the graph, which must not log its mutations yet, and
+     * starts a new segment for the mutations that follow.
+     */
+    static TinkerMutationLog open(final TinkerGraph graph, final String graphLocation, final boolean sync,
+                                  final long snapshotInterval) {
+        try {
+            return new TinkerMutationLog(graph, graphLocation, sync, snapshotInterval);
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not open the mutation log at %s", graphLocation), ioe);
+        }
+    }
+
+    /**
+     * Starts a mutation of the graph, which holds off other mutations and the copy for a snapshot until the matching
+     * {@link #endMutation()}. Mutations may be nested. A mutation after the log is closed opens its current segment
+     * again, so the graph stays writable and the next {@link #close()} takes another snapshot.
+     */
+    void beginMutation() {
+        this.lock.lock();
+        if (null == this.channel) {
+            try {
+                this.channel = openSegment(this.segment);
+            } catch (IOException ioe) {
+                this.lock.unlock();
+                throw new RuntimeException(String.format("Could not open the mutation log at %s", this.location), ioe);
+            }
+        }
+    }
+
+    void endMutation() {
+        this.lock.unlock();
+    }
+
+    void addVertex(final Vertex vertex) {
+        append(ADD_VERTEX, output -> {
+            write(output, vertex.id());
+            output.writeString(vertex.label());
+        });
+    }
+
+    /**
+     * Logs the edge together with the properties it was created with, as those are attached before it is added.
+     */
+    void addEdge(final Edge edge) {
+        final List<Object> keyValues = new ArrayList<>();
+        edge.properties().forEachRemaining(property -> {
+            keyValues.add(property.key());
+            keyValues.add(property.value());
+        });
+        append(ADD_EDGE, output -> {
+            write(output, edge.id());
+            output.writeString(edge.label());
+            write(output, edge.outVertex().id());
+            write(output, edge.inVertex().id());
+            write(output, keyValues);
+        });
+    }
+
+    void addVertexProperty(final VertexProperty<?> vertexProperty) {
+        append(ADD_VERTEX_PROPERTY, output -> {
+            write(output, vertexProperty.element().id());
+            write(output, vertexProperty.id());
+            output.writeString(vertexProperty.key());
+            write(output, vertexProperty.value());
+        });
+    }
+
+    void addProperty(final Property<?> property) {
+        append(property.element() instanceof Edge ? ADD_EDGE_PROPERTY : ADD_META_PROPERTY, output -> {
+            writeElement(output, property);
+            output.writeString(property.key());
+            write(output, property.value());
+        });
+    }
+
+    void removeVertex(final Vertex vertex) {
+        append(REMOVE_VERTEX, output -> write(output, vertex.id()));
+    }
+
+    void removeEdge(final Edge edge) {
+        append(REMOVE_EDGE, output -> write(output, edge.id()));
+    }
+
+    void removeVertexProperty(final VertexProperty<?> vertexProperty) {
+        append(REMOVE_VERTEX_PROPERTY, output -> {
+            write(output, vertexProperty.element().id());
+            write(output, vertexProperty.id());
+            output.writeString(vertexProperty.key());
+        });
+    }
+
+    void removeProperty(final Property<?> property) {
+        append(property.element() instanceof Edge ? REMOVE_EDGE_PROPERTY : REMOVE_META_PROPERTY, output -> {
+            writeElement(output, property);
+            output.writeString(property.key());
+        });
+    }
+
+    void clear() {
+        append(CLEAR, output -> {});
+    }
+
+    /**
+     * Writes the graph to its location and deletes the segments that the snapshot covers. Mutations are only held off
+     * while the graph is copied, not while the copy is written. Returns {@code false} if there were no mutations to
+     * compact.
+     */
+    synchronized boolean snapshot() {
+        final long taken;
+        final long covering;
+        final TinkerGraph copy;
+        this.lock.lock();
+        try {
+            if (0 == this.mutations) return false;
+            this.channel.close();
+            this.channel = openSegment(++this.segment);
+            taken = this.mutations;
+            this.mutations = 0;
+            covering = this.segment;
+            copy = this.graph.copyForSnapshot();
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not take a snapshot of the mutation log at %s", this.location), ioe);
+        } finally {
+            this.lock.unlock();
+        }
+
+        try {
+            this.graph.snapshotGraph(copy);
+        } catch (RuntimeException ex) {
+            // the segments are still there, so the next snapshot covers these mutations as well
+            this.lock.lock();
+            this.mutations += taken;
+            this.lock.unlock();
+            throw ex;
+        }
+
+        this.lock.lock();
+        try {
+            writeCovered(covering);
+            segments().headMap(covering).values().forEach(File::delete);
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not take a snapshot of the mutation log at %s", this.location), ioe);
+        } finally {
+            this.lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Stops the background snapshots, takes a final snapshot and closes the current segment. The graph may still be
+     * mutated after, in which case the log opens the segment again. Closing again takes another snapshot if there were
+     * mutations since.
+     */
+    void close() {
+        if (this.snapshotExecutor != null && !this.snapshotExecutor.isShutdown()) {
+            this.snapshotExecutor.shutdown();
+            try {
+                this.snapshotExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        snapshot();
+
+        this.lock.lock();
+        try {
+            if (null == this.channel) return;
+            this.channel.force(false);
+            this.channel.close();
+            this.channel = null;
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not close the mutation log at %s", this.location), ioe);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void backgroundSnapshot() {
+        try {
+            snapshot();
+        } catch (Exception ex) {
+            // the segments are only deleted once the snapshot is in place so nothing is lost and the next attempt
+            // covers these mutations as well
+            logger.warn(String.format("Could not take a snapshot of the graph at %s", this.location), ex);
+        }
+    }
+
+    /**
+     * Appends a record of a mutation, which is called between {@link #beginMutation()} and {@link #endMutation()} so
+     * that the lock is already held and records follow the order in which mutations are applied.
+     */
+    private void append(final byte operation, final Consumer<Output> writer) {
+        this.lock.lock();
+        try {
+            this.output.clear();
+            this.output.writeByte(operation);
+            writer.accept(this.output);
+
+            final int length = this.output.position();
+            this.crc.reset();
+            this.crc.update(this.output.getBuffer(), 0, length);
+            final ByteBuffer record = ByteBuffer.allocate(Integer.BYTES * 2 + length);
+            record.putInt(length).putInt((int) this.crc.getValue()).put(this.output.getBuffer(), 0, length).flip();
+            while (record.hasRemaining()) {
+                this.channel.write(record);
+            }
+            if (this.sync) this.channel.force(false);
+            this.mutations++;
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not append to the mutation log at %s", this.location), ioe);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the id of the edge of an edge property or the vertex and id of the vertex property of a meta-property.
+     */
+    private void writeElement(final Output output, final Property<?> property) {
+        if (property.element() instanceof Edge) {
+            write(output, property.element().id());
+        } else {
+            write(output, ((VertexProperty<?>) property.element()).element().id());
+            write(output, property.element().id());
+        }
+    }
+
+    private void write(final Output output, final Object object) {
+        this.kryo.writeClassAndObject(output, object);
+    }
+
+    private void replay(final File file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 2);
+            while (true) {
+                header.clear();
+                if (!readFully(channel, header)) break;
+                header.flip();
+                final int length = header.getInt();
+                final int checksum = header.getInt();
+
+                // a length that does not fit in the rest of the segment belongs to a record that a crash cut short
+                if (length < 1 || length > channel.size() - channel.position()) break;
+                final ByteBuffer record = ByteBuffer.allocate(length);
+                if (!readFully(channel, record)) break;
+                this.crc.reset();
+                this.crc.update(record.array(), 0, length);
+                if ((int) this.crc.getValue() != checksum) break;
+
+                apply(new Input(record.array()));
+                this.mutations++;
+            }
+        }
+    }
+
+    /**
+     * Fills the buffer from the channel, returning {@code false} if the end of the channel comes first.
+     */
+    private static boolean readFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) return false;
+        }
+        return true;
+    }
+
+    private void apply(final Input input) {
+        final byte operation = input.readByte();
+        switch (operation) {
+            case ADD_VERTEX: {
+                final Object id = read(input);
+                final String label = input.readString();
+                if (!this.graph.vertices.containsKey(id)) this.graph.addVertex(T.id, id, T.label, label);
+                break;
+            }
+            case ADD_EDGE: {
+                final Object id = read(input);
+                final String label = input.readString();
+                final Vertex outVertex = this.graph.vertices.get(read(input));
+                final Vertex inVertex = this.graph.vertices.get(read(input));
+                final List<Object> keyValues = new ArrayList<>(read(input));
+                if (this.graph.edges.containsKey(id) || null == outVertex || null == inVertex) break;
+                keyValues.add(T.id);
+                keyValues.add(id);
+                outVertex.addEdge(label, inVertex, keyValues.toArray());
+                break;
+            }
+            case ADD_VERTEX_PROPERTY: {
+                final Vertex vertex = this.graph.vertices.get(read(input));
+                final Object id = read(input);
+                final String key = input.readString();
+                final Object value = read(input);
+                if (null != vertex && null == vertexProperty(vertex, id, key))
+                    vertex.property(VertexProperty.Cardinality.list, key, value, T.id, id);
+                break;
+            }
+            case ADD_EDGE_PROPERTY: {
+                final Edge edge = this.graph.edges.get(read(input));
+                final String key = input.readString();
+                final Object value = read(input);
+                if (null != edge) edge.property(key, value);
+                break;
+            }
+            case ADD_META_PROPERTY: {
+                final Vertex vertex = this.graph.vertices.get(read(input));
+                final Object id = read(input);
+                final String key = input.readString();
+                final Object value = read(input);
+                final VertexProperty<?> vertexProperty = null == vertex ? null : vertexProperty(vertex, id, null);
+                if (null != vertexProperty) vertexProperty.property(key, value);
+                break;
+            }
+            case REMOVE_VERTEX: {
+                final Vertex vertex = this.graph.vertices.get(read(input));
+                if (null != vertex) vertex.remove();
+                break;
+            }
+            case REMOVE_EDGE: {
+                final Edge edge = this.graph.edges.get(read(input));
+                if (null != edge) edge.remove();
+                break;
+            }
+            case REMOVE_VERTEX_PROPERTY: {
+                final Vertex vertex = this.graph.vertices.get(read(input));
+                final Object id = read(input);
+                final String key = input.readString();
+                final VertexProperty<?> vertexProperty = null == vertex ? null : vertexProperty(vertex, id, key);
+                if (null != vertexProperty) vertexProperty.remove();
+                break;
+            }
+            case REMOVE_EDGE_PROPERTY: {
+                final Edge edge = this.graph.edges.get(read(input));
+                final String key = input.readString();
+                if (null != edge) edge.properties(key).forEachRemaining(Property::remove);
+                break;
+            }
+            case REMOVE_META_PROPERTY: {
+                final Vertex vertex = this.graph.vertices.get(read(input));
+                final Object id = read(input);
+                final String key = input.readString();
+                final VertexProperty<?> vertexProperty = null == vertex ? null : vertexProperty(vertex, id, null);
+                if (null != vertexProperty) vertexProperty.properties(key).forEachRemaining(Property::remove);
+                break;
+            }
+            case CLEAR:
+                this.graph.clear();
+                break;
+            default:
+                throw new IllegalStateException(String.format("The mutation log at %s has an unknown operation %s", this.location, operation));
+        }
+    }
+
+    private <V> V read(final Input input) {
+        return (V) this.kryo.readClassAndObject(input);
+    }
+
+    private static VertexProperty<?> vertexProperty(final Vertex vertex, final Object id, final String key) {
+        final Iterator<VertexProperty<Object>> properties = null == key ? vertex.properties() : vertex.properties(key);
+        while (properties.hasNext()) {
+            final VertexProperty<?> vertexProperty = properties.next();
+            if (vertexProperty.id().equals(id)) return vertexProperty;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of the first segment that the snapshot at the graph location does not cover, which is zero if
+     * there is no snapshot or it was not taken by the log.
+     */
+    private long readCovered() throws IOException {
+        final File file = new File(this.location.getPath() + COVERED_SUFFIX);
+        if (!this.location.exists() || !file.exists()) return 0;
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim());
+        } catch (NumberFormatException nfe) {
+            return 0;
+        }
+    }
+
+    private void writeCovered(final long segment) throws IOException {
+        final File file = new File(this.location.getPath() + COVERED_SUFFIX);
+        final File temp = new File(file.getPath() + ".tmp");
+        Files.write(temp.toPath(), Long.toString(segment).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private FileChannel openSegment(final long segment) throws IOException {
+        return new FileOutputStream(new File(this.location.getPath() + SEGMENT_SUFFIX + segment), true).getChannel();
+    }
+
+    private TreeMap<Long, File> segments() {
+        final TreeMap<Long, File> segments = new TreeMap<>();
+        final String prefix = this.location.getName() + SEGMENT_SUFFIX;
+        final File[] files = this.location.getParentFile().listFiles((dir, name) -> name.startsWith(prefix));
+        if (null == files) return segments;
+        for (File file : files) {
+            try {
+                segments.put(Long.parseLong(file.getName().substring(prefix.length())), file);
+            } catch (NumberFormatException nfe) {
+                // not a segment of this log
+            }
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Holds string property values outside of the heap in direct {@code ByteBuffer} segments when
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES} is enabled. Each value is appended as its UTF-8 length and
+ * bytes and is addressed by a {@code long} that combines the segment number and the offset within it, so the heap
+ * only holds the address. Only these values live here, as vertices, edges and adjacency stay on the heap, and each read
+ * decodes a new {@code String}, so the store trades read speed for heap when a graph holds many string values.
+ * <p/>
+ * A removed value leaves its bytes in place and is only counted as {@link #free(long) freed}. Once the freed bytes
+ * make up most of the store, {@link TinkerGraph} copies the live values to a new store and drops this one.
+ */
+final class TinkerOffHeapStore {
+
+    static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private ByteBuffer current = null;
+    private long written = 0;
+    private long freed = 0;
+
+    /**
+     * Appends the string and returns the address to read it back with.
+     */
+    synchronized long write(final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final int required = Integer.BYTES + bytes.length;
+        if (null == this.current || this.current.remaining() < required) {
+            // a value larger than a segment gets a segment of its own
+            this.current = ByteBuffer.allocateDirect(Math.max(SEGMENT_SIZE, required));
+            final ByteBuffer[] grown = Arrays.copyOf(this.segments, this.segments.length + 1);
+            grown[grown.length - 1] = this.current;
+            this.segments = grown;
+        }
+
+        final long address = ((long) (this.segments.length - 1) << 32) | this.current.position();
+        this.current.putInt(bytes.length);
+        this.current.put(bytes);
+        this.written = this.written + required;
+        return address;
+    }
+
+    /**
+     * Marks the value at the address as no longer used.
+     */
+    synchronized void free(final long address) {
+        final ByteBuffer segment = this.segments[(int) (address >>> 32)];
+        this.freed = this.freed + Integer.BYTES + segment.getInt((int) address);
+    }
+
+    /**
+     * Determines if more than a segment and over half of what was written has been freed, so that copying the live
+     * values to a new store would release memory.
+     */
+    synchronized boolean isFragmented() {
+        return this.freed > SEGMENT_SIZE && this.freed * 2 > this.written;
+    }
+
+    String read(final long address) {
+        final ByteBuffer segment = this.segments[(int) (address >>> 32)].duplicate();
+        segment.position((int) address);
+        final byte[] bytes = new byte[segment.getInt()];
+        segment.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of bytes reserved outside of the heap.
+     */
+    long capacity() {
+        long capacity = 0;
+        for (ByteBuffer segment : this.segments) {
+            capacity = capacity + segment.capacity();
+        }
+        return capacity;
+    }
+}
@@ -79,11 +79,19 @@ public final class TinkerProperty<V> implements Property<V> {
 
     @Override
     public void remove() {
-        if (this.element instanceof Edge) {
-            ((TinkerEdge) this.element).properties.remove(this.key);
-            TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
-        } else {
-            ((TinkerVertexProperty) this.element).properties.remove(this.key);
+        TinkerHelper.beginMutation((TinkerGraph) this.element.graph());
+        try {
+            final TinkerGraph graph = (TinkerGraph) this.element.graph();
+            if (this.element instanceof Edge) {
+                ((TinkerEdge) this.element).properties.remove(this.key);
+                TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
+                if (null != graph.mutationLog) graph.mutationLog.removeProperty(this);
+            } else {
+                ((TinkerVertexProperty) this.element).properties.remove(this.key);
+                if (null != graph.mutationLog && !TinkerHelper.inComputerMode(graph)) graph.mutationLog.removeProperty(this);
+            }
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.element.graph());
         }
     }
 }
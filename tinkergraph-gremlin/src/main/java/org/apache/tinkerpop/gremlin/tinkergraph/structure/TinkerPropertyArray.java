@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import java.util.Arrays;
+
+/**
+ * The properties of a {@link TinkerVertex} that are stored without a {@link TinkerVertexProperty} when
+ * {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES} is enabled. These are the keys that hold a single value
+ * without meta-properties. The key, id and value of each property sit next to one another in a single array that is
+ * sized to the number of properties, and the keys are the instances shared through the graph dictionary.
+ * <p/>
+ * When a {@link TinkerOffHeapStore} is supplied, numbers and booleans are kept as raw bits in a {@code long} array
+ * alongside the slots and strings are written to the store with their address kept in that array instead, so that
+ * none of those values is an object on the heap. The value slot then holds the {@link Encoding} of the bits.
+ * <p/>
+ * The slots, the words and the store that the addresses point into are published together as one {@link Contents},
+ * which a reader takes once per access. Relocating the strings to another store therefore never lets a reader decode
+ * an address against the wrong store, and a reader that took the previous contents keeps reading the old store.
+ */
+final class TinkerPropertyArray {
+
+    private static final int STRIDE = 3;
+    private static final Contents EMPTY = new Contents(new Object[0], null, null);
+
+    private enum Encoding {
+        INTEGER, LONG, FLOAT, DOUBLE, BOOLEAN, STRING
+    }
+
+    private volatile Contents contents = EMPTY;
+
+    int size() {
+        return this.contents.slots.length / STRIDE;
+    }
+
+    String key(final int index) {
+        return (String) this.contents.slots[index * STRIDE];
+    }
+
+    Object id(final int index) {
+        return this.contents.slots[index * STRIDE + 1];
+    }
+
+    Object value(final int index) {
+        final Contents contents = this.contents;
+        final Object value = contents.slots[index * STRIDE + 2];
+        if (!(value instanceof Encoding)) return value;
+
+        final long word = contents.words[index];
+        switch ((Encoding) value) {
+            case INTEGER:
+                return (int) word;
+            case LONG:
+                return word;
+            case FLOAT:
+                return Float.intBitsToFloat((int) word);
+            case DOUBLE:
+                return Double.longBitsToDouble(word);
+            case BOOLEAN:
+                return word != 0;
+            default:
+                return contents.store.read(word);
+        }
+    }
+
+    /**
+     * Finds the position of the property with the key or returns {@code -1} if there is none.
+     */
+    int indexOfKey(final String key) {
+        final Object[] slots = this.contents.slots;
+        for (int i = 0; i < slots.length; i = i + STRIDE) {
+            if (slots[i] == key || slots[i].equals(key)) return i / STRIDE;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the position of the property with the key and id or returns {@code -1} if there is none. Vertex property
+     * ids are not guaranteed to be unique across the graph, so a property is matched by its key as well.
+     */
+    int indexOf(final String key, final Object id) {
+        final int index = indexOfKey(key);
+        return index >= 0 && id(index).equals(id) ? index : -1;
+    }
+
+    void add(final String key, final Object id, final Object value, final TinkerOffHeapStore store) {
+        final Contents current = null == store || store == this.contents.store ? this.contents : this.relocated(store);
+        final int length = current.slots.length;
+        final Object[] slots = Arrays.copyOf(current.slots, length + STRIDE);
+        slots[length] = key;
+        slots[length + 1] = id;
+        slots[length + 2] = value;
+        if (null == store && null == current.words) {
+            this.contents = new Contents(slots, null, current.store);
+            return;
+        }
+
+        final int index = length / STRIDE;
+        final long[] words = null == current.words ? new long[index + 1] : Arrays.copyOf(current.words, index + 1);
+        if (null != store) {
+            if (value instanceof Integer) {
+                encode(slots, words, index, Encoding.INTEGER, (Integer) value);
+            } else if (value instanceof Long) {
+                encode(slots, words, index, Encoding.LONG, (Long) value);
+            } else if (value instanceof Float) {
+                encode(slots, words, index, Encoding.FLOAT, Float.floatToRawIntBits((Float) value));
+            } else if (value instanceof Double) {
+                encode(slots, words, index, Encoding.DOUBLE, Double.doubleToRawLongBits((Double) value));
+            } else if (value instanceof Boolean) {
+                encode(slots, words, index, Encoding.BOOLEAN, (Boolean) value ? 1 : 0);
+            } else if (value instanceof String) {
+                encode(slots, words, index, Encoding.STRING, store.write((String) value));
+            }
+        }
+        this.contents = new Contents(slots, words, null == store ? current.store : store);
+    }
+
+    void remove(final int index) {
+        final Contents current = this.contents;
+        if (Encoding.STRING == current.slots[index * STRIDE + 2]) current.store.free(current.words[index]);
+
+        final Object[] remaining = new Object[current.slots.length - STRIDE];
+        System.arraycopy(current.slots, 0, remaining, 0, index * STRIDE);
+        System.arraycopy(current.slots, (index + 1) * STRIDE, remaining, index * STRIDE, remaining.length - index * STRIDE);
+
+        long[] remainingWords = null;
+        if (null != current.words) {
+            remainingWords = new long[current.words.length - 1];
+            System.arraycopy(current.words, 0, remainingWords, 0, index);
+            System.arraycopy(current.words, index + 1, remainingWords, index, remainingWords.length - index);
+        }
+        this.contents = new Contents(remaining, remainingWords, current.store);
+    }
+
+    /**
+     * Frees the strings of all of the properties in their store, as when the vertex is removed.
+     */
+    void free() {
+        final Contents current = this.contents;
+        for (int i = 0; i < current.slots.length / STRIDE; i++) {
+            if (Encoding.STRING == current.slots[i * STRIDE + 2]) current.store.free(current.words[i]);
+        }
+    }
+
+    /**
+     * Copies the strings of the properties to another store and publishes their new addresses together with that
+     * store, leaving the strings in the old store for readers that are still decoding them.
+     */
+    void relocate(final TinkerOffHeapStore to) {
+        if (to != this.contents.store) this.contents = this.relocated(to);
+    }
+
+    private Contents relocated(final TinkerOffHeapStore to) {
+        final Contents current = this.contents;
+        if (null == current.words) return new Contents(current.slots, null, to);
+        final long[] words = current.words.clone();
+        for (int i = 0; i < words.length; i++) {
+            if (Encoding.STRING == current.slots[i * STRIDE + 2]) words[i] = to.write(current.store.read(words[i]));
+        }
+        return new Contents(current.slots, words, to);
+    }
+
+    private static void encode(final Object[] slots, final long[] words, final int index, final Encoding encoding, final long word) {
+        slots[index * STRIDE + 2] = encoding;
+        words[index] = word;
+    }
+
+    private static final class Contents {
+        private final Object[] slots;
+        private final long[] words;
+        private final TinkerOffHeapStore store;
+
+        private Contents(final Object[] slots, final long[] words, final TinkerOffHeapStore store) {
+            this.slots = slots;
+            this.words = words;
+            this.store = store;
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
@@ -28,8 +29,10 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -43,11 +46,18 @@ import java.util.stream.Collectors;
 public final class TinkerVertex extends TinkerElement implements Vertex {
 
     protected Map<String, List<VertexProperty>> properties;
-    protected Map<String, Set<Edge>> outEdges;
-    protected Map<String, Set<Edge>> inEdges;
+    protected TinkerPropertyArray compactProperties;
+    protected Map<String, Collection<Edge>> outEdges;
+    protected Map<String, Collection<Edge>> inEdges;
     private final TinkerGraph graph;
     private boolean allowNullPropertyValues;
 
+    /**
+     * The dense position of the vertex among the vertices of the graph, assigned when a {@code TinkerGraphComputer}
+     * starts so that per-vertex state of the computation can be held in arrays.
+     */
+    protected int computerIndex = -1;
+
     protected TinkerVertex(final Object id, final String label, final TinkerGraph graph) {
         super(id, label);
         this.graph = graph;
@@ -77,6 +87,9 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
                     throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
                 else
                     return list.get(0);
+            } else if (this.compactProperties != null) {
+                final int index = this.compactProperties.indexOfKey(key);
+                return index < 0 ? VertexProperty.<V>empty() : this.materialize(index);
             } else
                 return VertexProperty.<V>empty();
         }
@@ -84,50 +97,133 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
-        if (this.removed) throw elementAlreadyRemoved(Vertex.class, id);
-        ElementHelper.legalPropertyKeyValueArray(keyValues);
-        ElementHelper.validateProperty(key, value);
-
-        // if we don't allow null property values and the value is null then the key can be removed but only if the
-        // cardinality is single. if it is list/set then we can just ignore the null.
-        if (!allowNullPropertyValues && null == value) {
-            final VertexProperty.Cardinality card = null == cardinality ? graph.features().vertex().getCardinality(key) : cardinality;
-            if (VertexProperty.Cardinality.single == card)
-                properties(key).forEachRemaining(VertexProperty::remove);
-            return VertexProperty.empty();
-        }
+        TinkerHelper.beginMutation(this.graph);
+        try {
+            if (this.removed) throw elementAlreadyRemoved(Vertex.class, id);
+            ElementHelper.legalPropertyKeyValueArray(keyValues);
+            ElementHelper.validateProperty(key, value);
 
-        final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
-        final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
-        if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
+            // if we don't allow null property values and the value is null then the key can be removed but only if the
+            // cardinality is single. if it is list/set then we can just ignore the null.
+            if (!allowNullPropertyValues && null == value) {
+                final VertexProperty.Cardinality card = null == cardinality ? graph.features().vertex().getCardinality(key) : cardinality;
+                if (VertexProperty.Cardinality.single == card)
+                    properties(key).forEachRemaining(VertexProperty::remove);
+                return VertexProperty.empty();
+            }
 
-        if (TinkerHelper.inComputerMode(this.graph)) {
-            final VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphComputerView.addProperty(this, key, value);
-            ElementHelper.attachProperties(vertexProperty, keyValues);
-            return vertexProperty;
-        } else {
-            final Object idValue = optionalId.isPresent() ?
-                    graph.vertexPropertyIdManager.convert(optionalId.get()) :
-                    graph.vertexPropertyIdManager.getNextId(graph);
-
-            final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
-
-            if (null == this.properties) this.properties = new HashMap<>();
-            final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
-            list.add(vertexProperty);
-            this.properties.put(key, list);
-            TinkerHelper.autoUpdateIndex(this, key, value, null);
-            ElementHelper.attachProperties(vertexProperty, keyValues);
-            return vertexProperty;
+            final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
+            final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
+            if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
+
+            if (TinkerHelper.inComputerMode(this.graph)) {
+                final VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphComputerView.addProperty(this, key, value);
+                ElementHelper.attachProperties(vertexProperty, keyValues);
+                return vertexProperty;
+            } else {
+                final Object idValue = optionalId.isPresent() ?
+                        graph.vertexPropertyIdManager.convert(optionalId.get()) :
+                        graph.vertexPropertyIdManager.getNextId(graph);
+
+                // a lone value without meta-properties can be held compactly until the key gets another value or a
+                // meta-property, at which point it moves to a TinkerVertexProperty of its own
+                if (this.graph.compactProperties && !hasMetaProperties(keyValues) && !this.keyExists(key)) {
+                    if (null == this.compactProperties) this.compactProperties = new TinkerPropertyArray();
+                    this.compactProperties.add(this.graph.intern(key), idValue, value, this.graph.offHeapStore);
+                    TinkerHelper.autoUpdateIndex(this, key, value, null);
+                    final VertexProperty<V> vertexProperty = this.materialize(this.compactProperties.size() - 1);
+                    if (null != this.graph.mutationLog) this.graph.mutationLog.addVertexProperty(vertexProperty);
+                    return vertexProperty;
+                }
+                this.expand(key);
+
+                final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
+
+                if (null == this.properties) this.properties = new HashMap<>();
+                final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
+                list.add(vertexProperty);
+                this.properties.put(key, list);
+                TinkerHelper.autoUpdateIndex(this, key, value, null);
+                if (null != this.graph.mutationLog) this.graph.mutationLog.addVertexProperty(vertexProperty);
+                ElementHelper.attachProperties(vertexProperty, keyValues);
+                return vertexProperty;
+            }
+        } finally {
+            TinkerHelper.endMutation(this.graph);
         }
     }
 
     @Override
     public Set<String> keys() {
-        if (null == this.properties) return Collections.emptySet();
-        return TinkerHelper.inComputerMode((TinkerGraph) graph()) ?
-                Vertex.super.keys() :
-                this.properties.keySet();
+        if (null == this.properties && null == this.compactProperties) return Collections.emptySet();
+        if (TinkerHelper.inComputerMode((TinkerGraph) graph())) return Vertex.super.keys();
+        if (null == this.compactProperties) return this.properties.keySet();
+
+        final Set<String> keys = null == this.properties ? new HashSet<>() : new HashSet<>(this.properties.keySet());
+        for (int i = 0; i < this.compactProperties.size(); i++) {
+            keys.add(this.compactProperties.key(i));
+        }
+        return keys;
+    }
+
+    /**
+     * Creates a {@link TinkerVertexProperty} for the compact property at the index. Each call returns a new instance
+     * but they are equal to one another as they share the id of the property.
+     */
+    protected <V> VertexProperty<V> materialize(final int index) {
+        return new TinkerVertexProperty<>(this.compactProperties.id(index), this, this.compactProperties.key(index),
+                (V) this.compactProperties.value(index));
+    }
+
+    /**
+     * Moves the compact property with the key, if there is one, to a {@link TinkerVertexProperty} of its own.
+     */
+    protected void expand(final String key) {
+        if (null == this.compactProperties) return;
+        final int index = this.compactProperties.indexOfKey(key);
+        if (index >= 0) expand((TinkerVertexProperty) this.materialize(index));
+    }
+
+    /**
+     * Moves the compact property with the id of the {@link TinkerVertexProperty} to that instance, so that it can
+     * hold meta-properties or share its key with other values. Returns {@code false} if the property is not compact.
+     */
+    protected boolean expand(final TinkerVertexProperty<?> vertexProperty) {
+        if (null == this.compactProperties) return false;
+        final int index = this.compactProperties.indexOf(vertexProperty.key(), vertexProperty.id());
+        if (index < 0) return false;
+
+        this.compactProperties.remove(index);
+        if (null == this.properties) this.properties = new HashMap<>();
+        this.properties.computeIfAbsent(vertexProperty.key(), k -> new ArrayList<>()).add(0, vertexProperty);
+        this.graph.reclaimOffHeapValues();
+        return true;
+    }
+
+    /**
+     * Removes the compact property with the id of the {@link TinkerVertexProperty}. Returns {@code false} if the
+     * property is not compact.
+     */
+    protected boolean removeCompact(final TinkerVertexProperty<?> vertexProperty) {
+        if (null == this.compactProperties) return false;
+        final int index = this.compactProperties.indexOf(vertexProperty.key(), vertexProperty.id());
+        if (index < 0) return false;
+
+        this.compactProperties.remove(index);
+        this.graph.reclaimOffHeapValues();
+        return true;
+    }
+
+    private boolean keyExists(final String key) {
+        return (null != this.properties && this.properties.containsKey(key)) ||
+                (null != this.compactProperties && this.compactProperties.indexOfKey(key) >= 0);
+    }
+
+    private static boolean hasMetaProperties(final Object... keyValues) {
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (!keyValues[i].equals(T.id) && !keyValues[i].equals(T.label)) return true;
+        }
+        return false;
     }
 
     @Override
@@ -139,13 +235,24 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public void remove() {
-        final List<Edge> edges = new ArrayList<>();
-        this.edges(Direction.BOTH).forEachRemaining(edges::add);
-        edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
-        this.properties = null;
-        TinkerHelper.removeElementIndex(this);
-        this.graph.vertices.remove(this.id);
-        this.removed = true;
+        TinkerHelper.beginMutation(this.graph);
+        try {
+            final List<Edge> edges = new ArrayList<>();
+            this.edges(Direction.BOTH).forEachRemaining(edges::add);
+            edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
+            this.properties = null;
+            if (null != this.compactProperties) this.compactProperties.free();
+            this.compactProperties = null;
+            TinkerHelper.removeElementIndex(this);
+            TinkerHelper.removeLabelIndex(this.graph.vertexLabels, this);
+            this.graph.vertices.remove(this.id);
+            this.graph.reclaimOffHeapValues();
+            this.graph.structureChanges.increment();
+            this.removed = true;
+            if (null != this.graph.mutationLog) this.graph.mutationLog.removeVertex(this);
+        } finally {
+            TinkerHelper.endMutation(this.graph);
+        }
     }
 
     @Override
@@ -178,6 +285,7 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         if (TinkerHelper.inComputerMode((TinkerGraph) graph()))
             return (Iterator) ((TinkerGraph) graph()).graphComputerView.getProperties(TinkerVertex.this).stream().filter(p -> ElementHelper.keyExists(p.key(), propertyKeys)).iterator();
         else {
+            if (null != this.compactProperties) return this.propertiesWithCompact(propertyKeys);
             if (null == this.properties) return Collections.emptyIterator();
             if (propertyKeys.length == 1) {
                 final List<VertexProperty> properties = this.properties.getOrDefault(propertyKeys[0], Collections.emptyList());
@@ -192,4 +300,17 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
                 return (Iterator) this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).flatMap(entry -> entry.getValue().stream()).collect(Collectors.toList()).iterator();
         }
     }
+
+    private <V> Iterator<VertexProperty<V>> propertiesWithCompact(final String... propertyKeys) {
+        final List<VertexProperty<V>> list = new ArrayList<>();
+        if (null != this.properties) {
+            this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).
+                    forEach(entry -> entry.getValue().forEach(p -> list.add((VertexProperty<V>) p)));
+        }
+        for (int i = 0; i < this.compactProperties.size(); i++) {
+            if (ElementHelper.keyExists(this.compactProperties.key(i), propertyKeys))
+                list.add(this.materialize(i));
+        }
+        return list.iterator();
+    }
 }
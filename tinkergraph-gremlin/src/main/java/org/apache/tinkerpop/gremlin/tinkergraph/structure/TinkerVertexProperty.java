@@ -115,17 +115,26 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public <U> Property<U> property(final String key, final U value) {
-        if (this.removed) throw elementAlreadyRemoved(VertexProperty.class, id);
+        TinkerHelper.beginMutation((TinkerGraph) this.vertex.graph());
+        try {
+            if (this.removed) throw elementAlreadyRemoved(VertexProperty.class, id);
 
-        if ((!allowNullPropertyValues && null == value)) {
-            properties(key).forEachRemaining(Property::remove);
-            return Property.empty();
-        }
+            if ((!allowNullPropertyValues && null == value)) {
+                properties(key).forEachRemaining(Property::remove);
+                return Property.empty();
+            }
 
-        final Property<U> property = new TinkerProperty<>(this, key, value);
-        if (this.properties == null) this.properties = new HashMap<>();
-        this.properties.put(key, property);
-        return property;
+            // a compact property of the vertex has to become this instance to be able to hold meta-properties
+            if (this.properties == null) this.vertex.expand(this);
+
+            final Property<U> property = new TinkerProperty<>(this, key, value);
+            if (this.properties == null) this.properties = new HashMap<>();
+            this.properties.put(key, property);
+            if (null != mutationLog()) mutationLog().addProperty(property);
+            return property;
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.vertex.graph());
+        }
     }
 
     @Override
@@ -135,24 +144,43 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public void remove() {
-        if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
-            this.vertex.properties.get(this.key).remove(this);
-            if (this.vertex.properties.get(this.key).size() == 0) {
-                this.vertex.properties.remove(this.key);
+        TinkerHelper.beginMutation((TinkerGraph) this.vertex.graph());
+        try {
+            if (this.vertex.removeCompact(this)) {
                 TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+                this.removed = true;
+                if (null != mutationLog()) mutationLog().removeVertexProperty(this);
+            } else if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
+                this.vertex.properties.get(this.key).remove(this);
+                if (this.vertex.properties.get(this.key).size() == 0) {
+                    this.vertex.properties.remove(this.key);
+                    TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+                }
+                final AtomicBoolean delete = new AtomicBoolean(true);
+                this.vertex.properties(this.key).forEachRemaining(property -> {
+                    final Object currentPropertyValue = property.value();
+                    if ((currentPropertyValue != null && currentPropertyValue.equals(this.value) || null == currentPropertyValue && null == this.value))
+                        delete.set(false);
+                });
+                if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+                this.properties = null;
+                this.removed = true;
+                if (null != mutationLog()) mutationLog().removeVertexProperty(this);
             }
-            final AtomicBoolean delete = new AtomicBoolean(true);
-            this.vertex.properties(this.key).forEachRemaining(property -> {
-                final Object currentPropertyValue = property.value();
-                if ((currentPropertyValue != null && currentPropertyValue.equals(this.value) || null == currentPropertyValue && null == this.value))
-                    delete.set(false);
-            });
-            if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
-            this.properties = null;
-            this.removed = true;
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.vertex.graph());
         }
     }
 
+    /**
+     * Gets the log of the graph, unless it is in computer mode where the vertex properties belong to the
+     * {@link TinkerGraphComputerView} rather than the graph.
+     */
+    private TinkerMutationLog mutationLog() {
+        final TinkerGraph graph = (TinkerGraph) this.vertex.graph();
+        return TinkerHelper.inComputerMode(graph) ? null : graph.mutationLog;
+    }
+
     @Override
     public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
         if (null == this.properties) return Collections.emptyIterator();
@@ -46,6 +46,9 @@ public class TinkerGraphComputerProvider extends TinkerGraphProvider {
             put(VertexProgramStrategy.GRAPH_COMPUTER, RANDOM.nextBoolean() ?
                     GraphComputer.class.getCanonicalName() :
                     TinkerGraphComputer.class.getCanonicalName());
+            // a small buffer makes the computation wait on the test to take the halted traversers
+            if (RANDOM.nextBoolean())
+                put(TinkerGraphComputer.HALTED_TRAVERSER_BUFFER_SIZE, RANDOM.nextInt(8) + 1);
         }})));
     }
 }
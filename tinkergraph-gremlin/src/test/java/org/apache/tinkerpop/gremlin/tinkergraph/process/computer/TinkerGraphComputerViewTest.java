@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TinkerGraphComputerViewTest {
+
+    private TinkerGraph graph;
+    private TinkerVertex vertex;
+    private TinkerGraphComputerView view;
+
+    @Before
+    public void setup() {
+        this.graph = TinkerGraph.open();
+        this.graph.addVertex("name", "marko");
+        this.vertex = (TinkerVertex) this.graph.addVertex("name", "vadas", "rank", 0.5d);
+        this.view = TinkerHelper.createGraphComputerView(this.graph, new GraphFilter(),
+                new HashSet<>(Arrays.asList(VertexComputeKey.of("rank", false), VertexComputeKey.of("visited", true))));
+    }
+
+    @After
+    public void teardown() {
+        this.graph.close();
+    }
+
+    private List<Object> values(final String key) {
+        return this.view.getProperty(this.vertex, key).stream().map(Property::value).collect(Collectors.toList());
+    }
+
+    @Test
+    public void shouldReadGraphPropertyUntilComputeKeyIsWritten() {
+        assertEquals(Collections.singletonList(0.5d), values("rank"));
+        this.view.addProperty(this.vertex, "rank", 0.25d);
+        assertEquals(Collections.singletonList(0.25d), values("rank"));
+    }
+
+    @Test
+    public void shouldHoldSeveralValuesOfComputeKey() {
+        this.view.addProperty(this.vertex, "rank", 1.0d);
+        this.view.addProperty(this.vertex, "rank", 2.0d);
+        assertEquals(Arrays.asList(1.0d, 2.0d), values("rank"));
+        assertEquals(new HashSet<>(Arrays.asList("vadas", 0.5d, 1.0d, 2.0d)), this.view.getProperties(this.vertex).stream()
+                .map(Property::value).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void shouldKeepIdentifierAndMetaPropertiesOfLoneComputeValue() {
+        this.view.addProperty(this.vertex, "rank", 1.0d);
+        final VertexProperty<?> property = this.view.getProperty(this.vertex, "rank").get(0);
+        assertEquals(0, IteratorUtils.count(property.properties()));
+
+        property.property("since", 2010);
+        final VertexProperty<?> read = this.view.getProperty(this.vertex, "rank").get(0);
+        assertEquals(property.id(), read.id());
+        assertEquals(2010, (int) read.value("since"));
+        assertEquals(Collections.singletonList(1.0d), values("rank"));
+    }
+
+    @Test
+    public void shouldRemoveComputeValue() {
+        this.view.addProperty(this.vertex, "visited", true);
+        this.view.addProperty(this.vertex, "rank", 1.0d);
+        this.view.addProperty(this.vertex, "rank", 2.0d);
+        this.view.getProperty(this.vertex, "visited").get(0).remove();
+        this.view.getProperty(this.vertex, "rank").get(0).remove();
+        assertEquals(Collections.emptyList(), values("visited"));
+        assertEquals(Collections.singletonList(2.0d), values("rank"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAddPropertyThatIsNotComputeKey() {
+        this.view.addProperty(this.vertex, "name", "josh");
+    }
+
+    @Test
+    public void shouldDropTransientKeysAndPersistTheOthers() {
+        this.view.addProperty(this.vertex, "rank", 1.0d);
+        this.view.addProperty(this.vertex, "visited", true);
+        this.view.complete();
+        assertEquals(Collections.emptyList(), values("visited"));
+        assertEquals(Collections.singletonList(1.0d), values("rank"));
+
+        this.view.processResultGraphPersist(GraphComputer.ResultGraph.ORIGINAL, GraphComputer.Persist.VERTEX_PROPERTIES);
+        assertFalse(TinkerHelper.inComputerMode(this.graph));
+        assertEquals(Arrays.asList(0.5d, 1.0d), IteratorUtils.list(this.vertex.values("rank")));
+        assertEquals(0, IteratorUtils.count(this.vertex.properties("visited")));
+    }
+}
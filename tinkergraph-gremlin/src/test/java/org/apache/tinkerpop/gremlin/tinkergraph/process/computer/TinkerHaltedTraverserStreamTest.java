@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerHaltedTraverserStreamTest {
+
+    private static TraverserSet<String> traversers(final String... objects) {
+        final TraverserSet<String> traversers = new TraverserSet<>();
+        for (final String object : objects) {
+            traversers.add(new B_O_Traverser<>(object, 1L));
+        }
+        return traversers;
+    }
+
+    @Test
+    public void shouldEndHaltedTraversersWhenComputationCompletes() throws Exception {
+        final TinkerHaltedTraverserStream<String> stream = new TinkerHaltedTraverserStream<>(2);
+        stream.setComputation(new CompletableFuture<>());
+        final Thread computation = new Thread(() -> {
+            stream.addAll(traversers("a", "b", "c"));
+            stream.complete();
+        });
+        computation.start();
+
+        final List<String> taken = new ArrayList<>();
+        final Iterator<Traverser.Admin<String>> iterator = stream.haltedTraversers();
+        while (iterator.hasNext()) {
+            taken.add(iterator.next().get());
+        }
+        assertEquals(Arrays.asList("a", "b", "c"), taken);
+        assertFalse(iterator.hasNext());
+        assertFalse(stream.haltedTraversers().hasNext());
+        computation.join(10000);
+        assertFalse(computation.isAlive());
+    }
+
+    @Test
+    public void shouldReleaseThreadsWaitingOnFullQueueWhenCancelled() throws Exception {
+        final TinkerHaltedTraverserStream<String> stream = new TinkerHaltedTraverserStream<>(1);
+        final CompletableFuture<ComputerResult> future = new CompletableFuture<>();
+        stream.setComputation(future);
+        final AtomicBoolean released = new AtomicBoolean(false);
+        final Thread computation = new Thread(() -> {
+            try {
+                stream.addAll(traversers("a", "b", "c"));
+            } catch (TraversalInterruptedException tie) {
+                released.set(true);
+            }
+            stream.complete();
+        });
+        computation.start();
+
+        final Iterator<Traverser.Admin<String>> iterator = stream.haltedTraversers();
+        assertEquals("a", iterator.next().get());
+
+        // cancelling without interrupting, as a caller that closes the traversal early may do, stops the thread
+        stream.cancel(false);
+        computation.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(computation.isAlive());
+        assertTrue(released.get());
+        assertTrue(future.isCancelled());
+        assertFalse(iterator.hasNext());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
+import org.apache.tinkerpop.gremlin.process.computer.util.StaticMapReduce;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+public class TinkerMapEmitterTest {
+
+    private static Map<String, List<Long>> merged(final TinkerMapEmitter<String, Long> emitter) {
+        final Map<String, List<Long>> merged = new HashMap<>();
+        for (final List<Map.Entry<String, List<Long>>> partition : emitter.getReducePartitions()) {
+            for (final Map.Entry<String, List<Long>> entry : partition) {
+                assertEquals(null, merged.put(entry.getKey(), entry.getValue()));
+            }
+        }
+        return merged;
+    }
+
+    @Test
+    public void shouldMergeCombinedValuesOfEveryWorkerIntoOneKey() {
+        final SumMapReduce mapReduce = new SumMapReduce(false);
+        final TinkerMapEmitter<String, Long> emitter = new TinkerMapEmitter<>(true, 4);
+        final TinkerMapEmitter<String, Long>.Worker first = emitter.worker();
+        final TinkerMapEmitter<String, Long>.Worker second = emitter.worker();
+        first.emit("a", 1L);
+        first.emit("a", 2L);
+        first.emit("b", 3L);
+        second.emit("a", 4L);
+        second.emit("c", 5L);
+
+        first.combine(mapReduce);
+        first.complete();
+        second.combine(mapReduce);
+        emitter.complete(mapReduce);
+
+        final Map<String, List<Long>> merged = merged(emitter);
+        assertEquals(3, merged.size());
+        assertEquals(Arrays.asList(3L, 4L), merged.get("a"));
+        assertEquals(Arrays.asList(3L), merged.get("b"));
+        assertEquals(Arrays.asList(5L), merged.get("c"));
+    }
+
+    @Test
+    public void shouldSplitSortedKeysIntoOrderedPartitions() {
+        final SumMapReduce mapReduce = new SumMapReduce(true);
+        final TinkerMapEmitter<String, Long> emitter = new TinkerMapEmitter<>(true, 3);
+        final TinkerMapEmitter<String, Long>.Worker first = emitter.worker();
+        final TinkerMapEmitter<String, Long>.Worker second = emitter.worker();
+        for (int i = 0; i < 10; i++) {
+            first.emit("k" + i, 1L);
+            second.emit("k" + (9 - i), 1L);
+        }
+        emitter.complete(mapReduce);
+
+        final List<String> keys = new ArrayList<>();
+        for (final List<Map.Entry<String, List<Long>>> partition : emitter.getReducePartitions()) {
+            for (final Map.Entry<String, List<Long>> entry : partition) {
+                keys.add(entry.getKey());
+                assertEquals(Arrays.asList(1L, 1L), entry.getValue());
+            }
+        }
+        assertEquals(3, emitter.getReducePartitions().size());
+        assertEquals(Arrays.asList("k0", "k1", "k2", "k3", "k4", "k5", "k6", "k7", "k8", "k9"), keys);
+    }
+
+    @Test
+    public void shouldGatherKeyValuesOfMapOnlyJob() {
+        final TinkerMapEmitter<String, Long> emitter = new TinkerMapEmitter<>(false, 4);
+        emitter.worker().emit("a", 1L);
+        emitter.worker().emit("a", 2L);
+        emitter.complete(new SumMapReduce(false));
+
+        long sum = 0L;
+        for (final KeyValue<String, Long> keyValue : emitter.getMapList()) {
+            assertEquals("a", keyValue.getKey());
+            sum = sum + keyValue.getValue();
+        }
+        assertEquals(2, emitter.getMapList().size());
+        assertEquals(3L, sum);
+    }
+
+    private static final class SumMapReduce extends StaticMapReduce<String, Long, String, Long, Map<String, Long>> {
+
+        private final boolean sorted;
+
+        private SumMapReduce(final boolean sorted) {
+            this.sorted = sorted;
+        }
+
+        @Override
+        public boolean doStage(final Stage stage) {
+            return true;
+        }
+
+        @Override
+        public void map(final Vertex vertex, final MapEmitter<String, Long> emitter) {
+        }
+
+        @Override
+        public void combine(final String key, final Iterator<Long> values, final ReduceEmitter<String, Long> emitter) {
+            long sum = 0L;
+            while (values.hasNext()) {
+                sum = sum + values.next();
+            }
+            emitter.emit(key, sum);
+        }
+
+        @Override
+        public Optional<Comparator<String>> getMapKeySort() {
+            return this.sorted ? Optional.of(Comparator.naturalOrder()) : Optional.empty();
+        }
+
+        @Override
+        public Map<String, Long> generateFinalResult(final Iterator<KeyValue<String, Long>> keyValues) {
+            final Map<String, Long> result = new HashMap<>();
+            keyValues.forEachRemaining(keyValue -> result.put(keyValue.getKey(), keyValue.getValue()));
+            return result;
+        }
+
+        @Override
+        public String getMemoryKey() {
+            return "sum";
+        }
+    }
+}
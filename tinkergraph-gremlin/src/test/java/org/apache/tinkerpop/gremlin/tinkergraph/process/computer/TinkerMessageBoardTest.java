@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerMessageBoardTest {
+
+    private static final MessageScope.Local<Object> LOCAL = MessageScope.Local.of(__::outE);
+
+    private static <M> List<M> receive(final TinkerMessageBoard<M> board, final MessageScope messageScope, final int slot) {
+        for (final TinkerMessageBoard.Scope<M> scope : board.getScopes()) {
+            if (scope.getMessageScope().equals(messageScope))
+                return IteratorUtils.list(scope.receiveMessages(slot));
+        }
+        return Collections.emptyList();
+    }
+
+    @Test
+    public void shouldDeliverCombinedMessagesInTheNextIterationOnly() {
+        final MessageCombiner<Double> sum = Double::sum;
+        final TinkerMessageBoard<Double> board = new TinkerMessageBoard<>(TinkerGraph.open(), 3, Optional.of(sum));
+
+        assertTrue(board.sendMessage(MessageScope.Global.instance(), 1, 1.5d));
+        assertFalse(board.sendMessage(MessageScope.Global.instance(), 1, 2.0d));
+        assertTrue(board.sendMessage(LOCAL, 2, 4.0d));
+        assertEquals(Collections.emptyList(), receive(board, MessageScope.Global.instance(), 1));
+
+        board.completeIteration();
+        assertEquals(Collections.singletonList(3.5d), receive(board, MessageScope.Global.instance(), 1));
+        assertEquals(Collections.singletonList(4.0d), receive(board, LOCAL, 2));
+        assertEquals(Collections.emptyList(), receive(board, MessageScope.Global.instance(), 0));
+
+        board.sendMessage(MessageScope.Global.instance(), 0, 1.0d);
+        board.completeIteration();
+        assertEquals(Collections.singletonList(1.0d), receive(board, MessageScope.Global.instance(), 0));
+        assertEquals(Collections.emptyList(), receive(board, MessageScope.Global.instance(), 1));
+        assertEquals(Collections.emptyList(), receive(board, LOCAL, 2));
+        assertFalse(board.getScopes()[1].hasMessages());
+    }
+
+    @Test
+    public void shouldCombineMessagesOfAnotherTypeThanTheFirst() {
+        final MessageCombiner<Number> sum = (a, b) -> a.longValue() + b.longValue();
+        final TinkerMessageBoard<Number> board = new TinkerMessageBoard<>(TinkerGraph.open(), 2, Optional.of(sum));
+
+        board.sendMessage(MessageScope.Global.instance(), 0, 1L);
+        board.sendMessage(MessageScope.Global.instance(), 0, 2);
+        board.sendMessage(MessageScope.Global.instance(), 1, 3);
+        board.completeIteration();
+        assertEquals(Collections.singletonList(3L), receive(board, MessageScope.Global.instance(), 0));
+        assertEquals(Collections.singletonList(3), receive(board, MessageScope.Global.instance(), 1));
+    }
+
+    @Test
+    public void shouldDeliverEveryMessageWithoutCombiner() {
+        final TinkerMessageBoard<String> board = new TinkerMessageBoard<>(TinkerGraph.open(), 2, Optional.empty());
+
+        board.sendMessage(MessageScope.Global.instance(), 0, "a");
+        board.sendMessage(MessageScope.Global.instance(), 0, "b");
+        board.sendMessage(LOCAL, 0, "c");
+        board.completeIteration();
+        assertEquals(Arrays.asList("a", "b"), receive(board, MessageScope.Global.instance(), 0));
+        assertEquals(Collections.singletonList("c"), receive(board, LOCAL, 0));
+
+        board.sendMessage(MessageScope.Global.instance(), 0, "d");
+        board.completeIteration();
+        assertEquals(Collections.singletonList("d"), receive(board, MessageScope.Global.instance(), 0));
+        assertEquals(Collections.emptyList(), receive(board, LOCAL, 0));
+    }
+
+    @Test
+    public void shouldShareScopeOfEqualLocalMessageScopes() {
+        final TinkerMessageBoard<String> board = new TinkerMessageBoard<>(TinkerGraph.open(), 1, Optional.empty());
+
+        board.sendMessage(MessageScope.Local.of(__::outE), 0, "a");
+        board.sendMessage(MessageScope.Local.of(__::outE), 0, "b");
+        assertEquals(1, board.getScopes().length);
+        board.completeIteration();
+        assertEquals(Arrays.asList("a", "b"), receive(board, LOCAL, 0));
+    }
+
+    @Test
+    public void shouldIgnoreMessagesToVerticesNotOnTheBoard() {
+        final TinkerMessageBoard<String> board = new TinkerMessageBoard<>(TinkerGraph.open(), 1, Optional.empty());
+
+        assertFalse(board.sendMessage(MessageScope.Global.instance(), -1, "a"));
+        board.completeIteration();
+        assertEquals(Collections.emptyList(), receive(board, MessageScope.Global.instance(), -1));
+    }
+
+    @Test
+    public void shouldSkipHaltedVerticesOnlyUntilTheyAreWoken() {
+        final TinkerMessageBoard<String> board = new TinkerMessageBoard<>(TinkerGraph.open(), 3, Optional.empty());
+
+        // the iteration after the first vote still executes every vertex as its messages were sent without waking
+        board.voteToHalt(0);
+        board.voteToHalt(1);
+        board.sendMessage(MessageScope.Global.instance(), 2, "a");
+        assertFalse(board.isWaking());
+        board.completeIteration();
+        assertTrue(board.activate(0));
+        assertTrue(board.activate(1));
+        assertTrue(board.activate(2));
+
+        // from then on a halted vertex only executes when a global message or its local sender wakes it
+        board.voteToHalt(0);
+        board.voteToHalt(1);
+        board.voteToHalt(2);
+        assertTrue(board.isWaking());
+        board.sendMessage(MessageScope.Global.instance(), 1, "b");
+        board.sendMessage(LOCAL, 0, "c");
+        board.wake(2);
+        board.completeIteration();
+        assertFalse(board.activate(0));
+        assertTrue(board.activate(1));
+        assertTrue(board.activate(2));
+
+        // a vertex that executed is no longer halted while the others stay halted without messages
+        board.completeIteration();
+        assertFalse(board.activate(0));
+        assertTrue(board.activate(1));
+        assertTrue(board.activate(2));
+        assertTrue(board.activate(-1));
+    }
+
+    @Test
+    public void shouldExecuteEveryHaltedVertexWhenWokenAll() {
+        final TinkerMessageBoard<String> board = new TinkerMessageBoard<>(TinkerGraph.open(), 2, Optional.empty());
+
+        board.voteToHalt(0);
+        board.completeIteration();
+        board.voteToHalt(0);
+        board.voteToHalt(1);
+        board.completeIteration();
+        assertFalse(board.activate(0));
+        assertFalse(board.activate(1));
+
+        board.wakeAll();
+        assertTrue(board.activate(0));
+        assertTrue(board.activate(1));
+    }
+}
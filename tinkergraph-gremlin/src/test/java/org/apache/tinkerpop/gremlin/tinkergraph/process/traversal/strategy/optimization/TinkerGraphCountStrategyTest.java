@@ -19,14 +19,19 @@
 
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
 
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
 import org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversal;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerCountGlobalStep;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
@@ -79,6 +84,10 @@ public class TinkerGraphCountStrategyTest {
 
     }
 
+    private static Traversal.Admin<?, ?> countStep(final Class<? extends Element> elementClass, final HasContainer... hasContainers) {
+        return new DefaultGraphTraversal<>().addStep(new TinkerCountGlobalStep(EmptyTraversal.instance(), elementClass, Arrays.asList(hasContainers)));
+    }
+
     @Parameterized.Parameters(name = "{0}")
     public static Iterable<Object[]> generateTestParameters() {
         return Arrays.asList(new Object[][]{
@@ -91,12 +100,23 @@ public class TinkerGraphCountStrategyTest {
                 {__.V().map(out().groupCount()).identity().count().as("a"), null, TraversalStrategies.GlobalCache.getStrategies(TinkerGraph.class).toList()},
                 {__.V().label().map(s -> s.get().length()).count(), null, TraversalStrategies.GlobalCache.getStrategies(TinkerGraph.class).toList()},
                 {__.V().as("a").map(select("a")).count(), null, TraversalStrategies.GlobalCache.getStrategies(TinkerGraph.class).toList()},
+                {__.V().has("age", P.gt(30)).count(), countStep(Vertex.class, new HasContainer("age", P.gt(30))), Collections.emptyList()},
+                {__.V().has("age", P.gt(30)).count(), countStep(Vertex.class, new HasContainer("age", P.gt(30))), TraversalStrategies.GlobalCache.getStrategies(TinkerGraph.class).toList()},
+                {__.V().has("age", P.between(20, 30)).count(), countStep(Vertex.class, new HasContainer("age", P.gte(20)), new HasContainer("age", P.lt(30))), Collections.emptyList()},
+                {__.E().has("weight", P.lte(0.5)).has("weight", P.gt(0.1)).count(), countStep(Edge.class, new HasContainer("weight", P.lte(0.5)), new HasContainer("weight", P.gt(0.1))), Collections.emptyList()},
+                {__.V().has("name", TextP.startingWith("ma")).count(), countStep(Vertex.class, new HasContainer("name", TextP.startingWith("ma"))), Collections.emptyList()},
+                {__.V().hasLabel("person").count(), countStep(Vertex.class, new HasContainer(T.label.getAccessor(), P.eq("person"))), Collections.emptyList()},
+                {__.E().hasLabel("knows", "created").count(), countStep(Edge.class, new HasContainer(T.label.getAccessor(), P.within("knows", "created"))), Collections.emptyList()},
                 //
                 {__.V(), null, Collections.emptyList()},
                 {__.V().out().count(), null, Collections.emptyList()},
                 {__.V(1).count(), null, Collections.emptyList()},
                 {__.count(), null, Collections.emptyList()},
                 {__.V().map(out().groupCount("m")).identity().count().as("a"), null, Collections.emptyList()},
+                {__.V().has("age", P.neq(30)).count(), null, Collections.emptyList()},
+                {__.V().has("age", P.gt(30)).has("name", "marko").count(), null, Collections.emptyList()},
+                {__.V().has("age", P.gt(30)).out().count(), null, Collections.emptyList()},
+                {__.V().hasLabel("person").has("age", P.gt(30)).count(), null, Collections.emptyList()},
         });
     }
 }
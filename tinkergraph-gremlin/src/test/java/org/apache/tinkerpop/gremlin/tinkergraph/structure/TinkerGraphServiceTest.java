@@ -18,6 +18,10 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.ConnectedComponent;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.PageRank;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.ShortestPath;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
@@ -25,9 +29,13 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerConnectedComponentFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerDegreeCentralityFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerPageRankFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerServiceRegistry;
+import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerShortestPathFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.services.TinkerTextSearchFactory;
 import org.apache.tinkerpop.gremlin.util.function.TriFunction;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
@@ -73,6 +81,9 @@ public class TinkerGraphServiceTest {
     public void registerServices() {
         graph.getServiceRegistry().registerService(new TinkerTextSearchFactory(graph));
         graph.getServiceRegistry().registerService(new TinkerDegreeCentralityFactory(graph));
+        graph.getServiceRegistry().registerService(new TinkerShortestPathFactory(graph));
+        graph.getServiceRegistry().registerService(new TinkerConnectedComponentFactory(graph));
+        graph.getServiceRegistry().registerService(new TinkerPageRankFactory(graph));
     }
 
     /**
@@ -85,7 +96,10 @@ public class TinkerGraphServiceTest {
          */
         assertArrayEquals(new String[] {
                 "tinker.search",
-                "tinker.degree.centrality"
+                "tinker.degree.centrality",
+                "tinker.shortest.path",
+                "tinker.connected.component",
+                "tinker.page.rank"
                 }, toResultStrings(
 
                 g.call()
@@ -93,7 +107,10 @@ public class TinkerGraphServiceTest {
         ));
         assertArrayEquals(new String[] {
                 "tinker.search",
-                "tinker.degree.centrality"
+                "tinker.degree.centrality",
+                "tinker.shortest.path",
+                "tinker.connected.component",
+                "tinker.page.rank"
                 }, toResultStrings(
 
                 g.call("--list")
@@ -199,6 +216,78 @@ public class TinkerGraphServiceTest {
         checkResult(0l, g.V().where(__.call("tinker.degree.centrality").is(100)).count());
     }
 
+    /**
+     * Demonstrate / test the shortest path service, which finds the same paths as the shortestPath() step.
+     */
+    @Test
+    public void g_V_call_shortest_path() {
+        assertArrayEquals(toSortedResultStrings(g.withComputer().V().shortestPath()),
+                toSortedResultStrings(g.V().call("tinker.shortest.path")));
+        assertArrayEquals(toSortedResultStrings(g.withComputer().V().shortestPath().with(ShortestPath.includeEdges)
+                        .with(ShortestPath.edges, Direction.OUT)),
+                toSortedResultStrings(g.V().call("tinker.shortest.path").with("includeEdges")
+                        .with("direction", Direction.OUT)));
+
+        assertArrayEquals(new String[] {
+                "path[v[2], v[1], v[4], v[5]]"
+        }, toResultStrings(
+
+                g.V(2).call("tinker.shortest.path").with("target", __.V(5))
+
+        ));
+
+        assertArrayEquals(new String[] {
+                "path[v[2], v[1], v[3]]",
+                "path[v[2], v[1], v[4]]"
+        }, toSortedResultStrings(
+
+                g.V(2).call("tinker.shortest.path").with("target", Arrays.asList(3, 4, 5))
+                        .with("labels", Arrays.asList("knows", "created")).with("maxDistance", 2)
+
+        ));
+
+        checkResult("path[v[2], v[1], v[4]]",
+                g.V(2).call("tinker.shortest.path").with("target", Arrays.asList(3, 4, 5)).with("labels", "knows")
+                        .map(t -> t.get().toString()));
+
+        checkResult(4l, g.V(1).call("tinker.shortest.path").with("maxDistance", 1).count());
+    }
+
+    /**
+     * Demonstrate / test the connected component service, which finds the same components as the
+     * connectedComponent() step.
+     */
+    @Test
+    public void g_V_call_connected_component() {
+        graph.addVertex(T.id, 7, "name", "alone");
+        final Vertex v8 = graph.addVertex(T.id, 8);
+        graph.addVertex(T.id, 9).addEdge("knows", v8);
+
+        assertArrayEquals(toSortedResultStrings(g.withComputer().V().connectedComponent()
+                        .project("vertex", "component").by().by(ConnectedComponent.component)),
+                toSortedResultStrings(g.V().as("v").call("tinker.connected.component")
+                        .project("vertex", "component").by(select("v")).by()));
+
+        checkResults(Arrays.asList("1", "1", "3", "1", "5", "6"),
+                g.V(1, 2, 3, 4, 5, 6).call("tinker.connected.component").with("labels", "knows"));
+    }
+
+    /**
+     * Demonstrate / test the page rank service, which converges to the ranks of the pageRank() step.
+     */
+    @Test
+    public void g_V_call_page_rank() {
+        final Map<Object, Double> expected = g.withComputer().V().pageRank().with(PageRank.times, 50)
+                .<Object, Double>group().by(T.id).by(__.values(PageRankVertexProgram.PAGE_RANK).sum()).next();
+        final Map<Object, Double> ranks = g.V().as("v").call("tinker.page.rank").with("times", 50)
+                .<Object, Double>group().by(select("v").id()).by(__.sum()).next();
+        assertEquals(expected.keySet(), ranks.keySet());
+        expected.forEach((id, rank) -> assertEquals(rank, ranks.get(id), 0.0001d));
+
+        checkResult(1.0d, g.V().call("tinker.page.rank").with("direction", Direction.BOTH).sum()
+                .map(t -> Math.round(t.get().doubleValue() * 1000000) / 1000000.0d));
+    }
+
     /**
      * Demonstrates registration and usage of a Starting lambda service. Start services take no input and are run
      * via GraphTraversalSource. Text search above is another example of a Start service.
@@ -453,6 +542,12 @@ public class TinkerGraphServiceTest {
         return (String[]) ((List) IteratorUtils.stream(traversal).map(Object::toString).collect(Collectors.toList())).toArray(new String[0]);
     }
 
+    private String[] toSortedResultStrings(final Traversal traversal) {
+        final String[] results = toResultStrings(traversal);
+        Arrays.sort(results);
+        return results;
+    }
+
     private void checkResult(final Object expected, final Traversal traversal) {
         final List result = traversal.toList();
         assertEquals("Did not produce exactly one result", 1, result.size());
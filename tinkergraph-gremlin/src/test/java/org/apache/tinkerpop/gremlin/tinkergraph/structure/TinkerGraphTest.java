@@ -23,13 +23,26 @@ import org.apache.commons.configuration2.Configuration;
 import org.apache.tinkerpop.gremlin.GraphHelper;
 import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.process.computer.Computer;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.ClusterPopulationMapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.ImmutableMemory;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.TextP;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.lambda.AbstractLambdaTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.FailStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.BatchStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.ParallelStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CountStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.IdentityRemovalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComputerVerificationStrategy;
@@ -37,9 +50,12 @@ import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.Rese
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.VerificationException;
 import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -57,6 +73,10 @@ import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoVersion;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
 import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerRuntime;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerMemory;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerCountGlobalStep;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.shaded.kryo.ClassResolver;
@@ -77,24 +97,38 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.apache.tinkerpop.gremlin.process.traversal.AnonymousTraversalSource.traversal;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeThat;
@@ -328,6 +362,318 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldManageRangeIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        g.createIndex("name", Vertex.class);
+        assertEquals(2, g.getIndexedKeys(Vertex.class).size());
+        assertEquals(Collections.singleton("age"), g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.RANGE));
+        assertEquals(Collections.singleton("name"), g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.EQUALITY));
+
+        // re-creating with another type rebuilds the index as that type
+        g.createIndex("age", Vertex.class);
+        assertEquals(Collections.emptySet(), g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.RANGE));
+        assertEquals(2, g.getIndexedKeys(Vertex.class, TinkerGraph.IndexType.EQUALITY).size());
+
+        g.dropIndex("age", Vertex.class);
+        assertEquals(Collections.singleton("name"), g.getIndexedKeys(Vertex.class));
+    }
+
+    @Test
+    public void shouldUseVertexRangeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "vadas", "age", 27);
+        g.addVertex("name", "josh", "age", 32L);
+        g.addVertex("name", "peter", "age", 35.0d);
+        g.addVertex("name", "lop", "age", "old");
+        g.addVertex("name", "ripple");
+
+        final GraphTraversalSource gts = g.traversal();
+
+        // a tricky way to evaluate if indices are actually being used is to pass a fake BiPredicate to has()
+        // to get into the Pipeline and evaluate what's going through it. in this case, we know that the index
+        // is used because only names of vertices in the age range should pass through the pipeline.
+        assertEquals(new HashSet<>(Arrays.asList("josh", "peter")), gts.V().has("age", P.gt(29)).has("name", P.test((t, u) -> {
+            assertTrue(t.equals("josh") || t.equals("peter"));
+            return true;
+        }, "x")).values("name").toSet());
+        assertEquals(new HashSet<>(Arrays.asList("marko", "josh")), gts.V().has("age", P.between(28, 35)).has("name", P.test((t, u) -> {
+            assertTrue(t.equals("marko") || t.equals("josh"));
+            return true;
+        }, "x")).values("name").toSet());
+        assertEquals(Collections.singleton("vadas"), gts.V().has("age", P.lt(28)).has("name", P.test((t, u) -> {
+            assertEquals("vadas", t);
+            return true;
+        }, "x")).values("name").toSet());
+        assertEquals(Collections.singleton("lop"), gts.V().has("age", TextP.startingWith("ol")).values("name").toSet());
+        assertEquals(Collections.singleton("josh"), gts.V().has("age", 32).values("name").toSet());
+
+        assertEquals(2, gts.V().has("age", P.gt(29)).count().next().longValue());
+        assertEquals(3, gts.V().has("age", P.inside(27, 40)).count().next().longValue());
+        assertEquals(4, gts.V().has("age", P.gte(27)).count().next().longValue());
+        assertEquals(0, gts.V().has("age", P.gt(40)).count().next().longValue());
+        assertEquals(0, gts.V().has("age", P.gt(30)).has("age", P.lt("z")).count().next().longValue());
+        assertEquals(1, gts.V().has("age", TextP.startingWith("o")).count().next().longValue());
+
+        // index must track mutations
+        gts.V().has("name", "marko").property("age", 31).iterate();
+        assertEquals(3, gts.V().has("age", P.gt(29)).count().next().longValue());
+        gts.V().has("name", "josh").drop().iterate();
+        assertEquals(2, gts.V().has("age", P.gt(29)).count().next().longValue());
+        assertEquals(new HashSet<>(Arrays.asList("marko", "peter")), gts.V().has("age", P.gt(29)).values("name").toSet());
+    }
+
+    @Test
+    public void shouldCountMultiPropertiesOnceInVertexRangeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("score", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        final Vertex v = g.addVertex("name", "marko");
+        v.property(VertexProperty.Cardinality.list, "score", 10);
+        v.property(VertexProperty.Cardinality.list, "score", 20);
+        g.addVertex("name", "vadas", "score", 15);
+
+        final GraphTraversalSource gts = g.traversal();
+        assertEquals(2, gts.V().has("score", P.gt(5)).count().next().longValue());
+        assertEquals(2, gts.V().has("score", P.gt(5)).toList().size());
+    }
+
+    @Test
+    public void shouldCountFromVertexEqualityIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "marko", "age", 30);
+        g.addVertex("name", "vadas", "age", 27);
+
+        // without a range index the count is answered from the equality index rather than a scan of the vertices
+        final GraphTraversalSource gts = g.traversal();
+        final Traversal.Admin<Vertex, Long> traversal = gts.V().has("name", "marko").count().asAdmin();
+        traversal.applyStrategies();
+        assertTrue(traversal.getStartStep() instanceof TinkerCountGlobalStep);
+        assertEquals(2, traversal.next().longValue());
+        assertEquals(0, gts.V().has("name", "stephen").count().next().longValue());
+
+        gts.V().has("name", "vadas").property("name", "marko").iterate();
+        assertEquals(3, gts.V().has("name", "marko").count().next().longValue());
+    }
+
+    @Test
+    public void shouldUseEdgeRangeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex();
+        v.addEdge("friend", v, "weight", 0.5f);
+        v.addEdge("friend", v, "weight", 0.6f);
+        v.addEdge("friend", v, "weight", 0.9d);
+
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.RANGE);
+
+        final GraphTraversalSource gts = g.traversal();
+        assertEquals(2, gts.E().has("weight", P.gt(0.55)).count().next().longValue());
+        assertEquals(2, gts.E().has("weight", P.gt(0.55)).toList().size());
+        assertEquals(1, gts.E().has("weight", P.lte(0.5)).has("weight", P.test((t, u) -> {
+            assertEquals(0.5f, t);
+            return true;
+        }, 0.5)).count().next().longValue());
+    }
+
+    @Test
+    public void shouldManageCompositeIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        assertEquals(0, g.getCompositeIndices(Vertex.class).size());
+
+        g.createCompositeIndex("account", Vertex.class, "tenant", "externalId");
+        g.createCompositeIndex(null, Edge.class, "since", "weight");
+        g.createCompositeIndex("account", Vertex.class, "tenant", "externalId");
+        assertEquals(Collections.singleton(new TinkerGraph.CompositeIndex("account", "tenant", "externalId")), g.getCompositeIndices(Vertex.class));
+        assertEquals(Collections.singleton(new TinkerGraph.CompositeIndex(null, "since", "weight")), g.getCompositeIndices(Edge.class));
+        assertEquals(0, g.getIndexedKeys(Vertex.class).size());
+
+        g.dropCompositeIndex("account", Vertex.class, "externalId", "tenant");
+        assertEquals(1, g.getCompositeIndices(Vertex.class).size());
+        g.dropCompositeIndex("account", Vertex.class, "tenant", "externalId");
+        assertEquals(0, g.getCompositeIndices(Vertex.class).size());
+        g.dropCompositeIndex(null, Edge.class, "since", "weight");
+        assertEquals(0, g.getCompositeIndices(Edge.class).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithoutKeys() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex("account", Vertex.class);
+    }
+
+    @Test
+    public void shouldUseCompositeVertexIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex("account", Vertex.class, "tenant", "externalId");
+
+        g.addVertex(T.label, "account", "tenant", "a", "externalId", 1, "name", "marko");
+        g.addVertex(T.label, "account", "tenant", "a", "externalId", 2, "name", "vadas");
+        g.addVertex(T.label, "account", "tenant", "b", "externalId", 1, "name", "josh");
+        g.addVertex(T.label, "person", "tenant", "a", "externalId", 1, "name", "peter");
+
+        final GraphTraversalSource gts = g.traversal();
+
+        // a tricky way to evaluate if indices are actually being used is to pass a fake BiPredicate to has()
+        // to get into the Pipeline and evaluate what's going through it. in this case, we know that the composite
+        // index is used because only "marko" should pass through the pipeline.
+        assertEquals(Collections.singletonList("marko"), gts.V().hasLabel("account").has("tenant", "a").has("externalId", 1).has("name", P.test((t, u) -> {
+            assertEquals("marko", t);
+            return true;
+        }, "x")).values("name").toList());
+
+        // without the label the composite index restricted to "account" can't be used
+        assertEquals(2, gts.V().has("tenant", "a").has("externalId", 1).count().next().longValue());
+
+        // index must track mutations
+        gts.V().has("name", "vadas").property("externalId", 1).iterate();
+        assertEquals(new HashSet<>(Arrays.asList("marko", "vadas")), gts.V().hasLabel("account").has("tenant", "a").has("externalId", 1).values("name").toSet());
+        assertEquals(0, gts.V().hasLabel("account").has("tenant", "a").has("externalId", 2).count().next().longValue());
+        gts.V().has("name", "marko").properties("tenant").drop().iterate();
+        assertEquals(Collections.singletonList("vadas"), gts.V().hasLabel("account").has("tenant", "a").has("externalId", 1).values("name").toList());
+        gts.V().has("name", "vadas").drop().iterate();
+        assertEquals(0, gts.V().hasLabel("account").has("tenant", "a").has("externalId", 1).count().next().longValue());
+        assertEquals(1, gts.V().hasLabel("account").has("tenant", "b").has("externalId", 1).count().next().longValue());
+    }
+
+    @Test
+    public void shouldUseMostSelectiveIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        for (int i = 0; i < 100; i++) {
+            g.addVertex(T.label, "account", "tenant", "a", "externalId", i, "name", "name" + i);
+        }
+
+        g.createIndex("tenant", Vertex.class);
+        g.createCompositeIndex("account", Vertex.class, "tenant", "externalId");
+
+        // the composite index holds a single vertex for the lookup while the "tenant" index holds all of them so only
+        // the matching vertex should be tested by the remaining filter
+        assertEquals(1, g.traversal().V().hasLabel("account").has("tenant", "a").has("externalId", 50).has("name", P.test((t, u) -> {
+            assertEquals("name50", t);
+            return true;
+        }, "x")).count().next().longValue());
+
+        g.createIndex("name", Vertex.class);
+        g.dropCompositeIndex("account", Vertex.class, "tenant", "externalId");
+
+        // the "name" index is more selective than the "tenant" index
+        assertEquals(1, g.traversal().V().has("tenant", "a").has("name", "name50").has("externalId", P.test((t, u) -> {
+            assertEquals(50, t);
+            return true;
+        }, "x")).count().next().longValue());
+    }
+
+    @Test
+    public void shouldReadIndexLazily() {
+        final TinkerGraph g = TinkerGraph.open();
+        for (int i = 0; i < 1000; i++) {
+            g.addVertex(T.label, "person", "tenant", "a", "age", i % 10);
+        }
+        g.createIndex("tenant", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        // a limit should stop the read of the index well short of the 1000 matches
+        final AtomicInteger tested = new AtomicInteger();
+        assertEquals(10, g.traversal().V().has("tenant", "a").has("age", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, "x")).limit(10).count().next().longValue());
+        assertThat(tested.get(), lessThan(100));
+
+        tested.set(0);
+        assertEquals(10, g.traversal().V().has("age", P.gte(5)).has("tenant", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, "x")).limit(10).count().next().longValue());
+        assertThat(tested.get(), lessThan(100));
+
+        tested.set(0);
+        assertEquals(10, g.traversal().V().hasLabel("person").has("age", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, "x")).limit(10).count().next().longValue());
+        assertThat(tested.get(), lessThan(100));
+
+        // a traversal that modifies the graph reads all of the matches before it makes any changes
+        assertEquals(1000, g.traversal().V().has("tenant", "a").addV("person").property("tenant", "a").count().next().longValue());
+        assertEquals(2000, g.traversal().V().has("tenant", "a").count().next().longValue());
+    }
+
+    @Test
+    public void shouldLeaveOutElementsChangedWhileReadingIndexLazily() {
+        final TinkerGraph g = TinkerGraph.open();
+        for (int i = 0; i < 100; i++) {
+            g.addVertex(T.label, "person", "name", "a", "age", i);
+        }
+        g.createIndex("name", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        // each increment moves the vertex further along the ascending range read, which must not find it again
+        final Set<Object> incremented = new HashSet<>();
+        g.traversal().V().has("age", P.gt(30)).forEachRemaining(v -> {
+            assertThat(incremented.add(v.id()), is(true));
+            v.property("age", v.<Integer>value("age") + 10);
+        });
+        assertEquals(69, incremented.size());
+        assertEquals(69, g.traversal().V().has("age", P.gt(40)).count().next().longValue());
+
+        // vertices added under the value being read are not read either
+        final AtomicInteger read = new AtomicInteger();
+        g.traversal().V().has("name", "a").forEachRemaining(v -> {
+            read.incrementAndGet();
+            g.addVertex(T.label, "person", "name", "a");
+        });
+        assertEquals(100, read.get());
+        assertEquals(200, g.traversal().V().has("name", "a").count().next().longValue());
+    }
+
+    @Test
+    public void shouldUseCompositeEdgeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex();
+        v.addEdge("knows", v, "since", 2010, "weight", 0.5d);
+        v.addEdge("knows", v, "since", 2010, "weight", 0.6d);
+        v.addEdge("created", v, "since", 2010, "weight", 0.5d);
+
+        g.createCompositeIndex(null, Edge.class, "since", "weight");
+
+        assertEquals(2, g.traversal().E().has("since", 2010).has("weight", 0.5d).count().next().longValue());
+        g.traversal().E().hasLabel("created").property("weight", 0.6d).iterate();
+        assertEquals(1, g.traversal().E().has("since", 2010).has("weight", 0.5d).count().next().longValue());
+        assertEquals(2, g.traversal().E().has("since", 2010).has("weight", 0.6d).count().next().longValue());
+    }
+
+    @Test
+    public void shouldUseLabelIndex() {
+        final TinkerGraph g = TinkerFactory.createModern();
+        final GraphTraversalSource gts = g.traversal();
+
+        assertEquals(4, gts.V().hasLabel("person").count().next().longValue());
+        assertEquals(6, gts.V().hasLabel("person", "software", "person").count().next().longValue());
+        assertEquals(0, gts.V().hasLabel("nothing").count().next().longValue());
+        assertEquals(2, gts.E().hasLabel("knows").count().next().longValue());
+        assertEquals(2, gts.V().hasLabel("person").has("age", P.gt(30)).count().next().longValue());
+        assertEquals(Arrays.asList("lop", "ripple"), gts.V().hasLabel("software").<String>values("name").order().toList());
+
+        gts.V().hasLabel("software").drop().iterate();
+        gts.addV("software").property("name", "gremlin").iterate();
+        gts.V().has("name", "marko").addE("created").to(__.V().has("name", "gremlin")).iterate();
+
+        assertEquals(Collections.singletonList("gremlin"), gts.V().hasLabel("software").values("name").toList());
+        assertEquals(1, gts.E().hasLabel("created").count().next().longValue());
+        assertEquals(0, gts.E().hasLabel("created").has("weight").count().next().longValue());
+
+        g.clear();
+        assertEquals(0, gts.V().hasLabel("person").count().next().longValue());
+    }
+
     @Test
     public void shouldSerializeTinkerGraphToGryo() throws Exception {
         final TinkerGraph graph = TinkerFactory.createModern();
@@ -434,6 +780,183 @@ public class TinkerGraphTest {
         v.value("name");
     }
 
+    @Test
+    public void shouldTraverseCompactAdjacency() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_ADJACENCY, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        final GraphTraversalSource g = graph.traversal();
+
+        assertEquals(Arrays.asList("josh", "lop", "vadas"), g.V().has("name", "marko").out().<String>values("name").order().toList());
+        assertEquals(Arrays.asList("josh", "vadas"), g.V().has("name", "marko").out("knows").<String>values("name").order().toList());
+        assertEquals(Arrays.asList("josh", "marko", "peter"), g.V().has("name", "lop").in("created", "knows").<String>values("name").order().toList());
+        assertEquals(3, g.V().has("name", "josh").bothE().count().next().longValue());
+
+        // enough edges to make the arrays grow and then shrink back as they are removed
+        final Vertex marko = g.V().has("name", "marko").next();
+        for (int i = 0; i < 100; i++) {
+            marko.addEdge("knows", graph.addVertex("name", "n" + i));
+        }
+        assertEquals(102, g.V(marko).out("knows").count().next().longValue());
+        g.V(marko).outE("knows").has("weight").drop().iterate();
+        assertEquals(100, g.V(marko).out("knows").count().next().longValue());
+        g.V().has("name", TextP.startingWith("n")).limit(95).drop().iterate();
+        assertEquals(5, g.V(marko).out("knows").count().next().longValue());
+        assertEquals(1, g.V(marko).out("created").count().next().longValue());
+        assertEquals(6, g.V(marko).outE().count().next().longValue());
+    }
+
+    @Test
+    public void shouldStoreCompactProperties() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        graph.createIndex("name", Vertex.class);
+        final GraphTraversalSource g = graph.traversal();
+
+        final Vertex v = graph.addVertex("name", "stephen", "age", 29);
+        assertEquals(new HashSet<>(Arrays.asList("name", "age")), v.keys());
+        assertEquals(v.property("name"), v.property("name"));
+        assertEquals(v.property("name").id(), v.properties("name").next().id());
+        assertEquals(1, g.V().has("name", "stephen").count().next().longValue());
+
+        // a meta-property moves the property out of compact storage and keeps its id
+        final Object id = v.property("name").id();
+        v.property("name").property("acl", "public");
+        assertEquals(id, v.property("name").id());
+        assertEquals("public", v.property("name").value("acl"));
+        assertEquals("stephen", g.V().has("name", "stephen").values("name").next());
+
+        // a second value for a key moves it out of compact storage as well
+        v.property(VertexProperty.Cardinality.list, "age", 30);
+        assertEquals(Arrays.asList(29, 30), g.V(v).values("age").order().toList());
+        assertEquals(2, IteratorUtils.count(v.properties("age")));
+
+        v.property("color", "blue");
+        v.property(VertexProperty.Cardinality.single, "color", "red");
+        assertEquals("red", v.value("color"));
+        v.property("color").remove();
+        assertFalse(v.property("color").isPresent());
+        assertEquals(new HashSet<>(Arrays.asList("name", "age")), v.keys());
+
+        v.property(VertexProperty.Cardinality.single, "name", "marko");
+        assertEquals(0, g.V().has("name", "stephen").count().next().longValue());
+        assertEquals(1, g.V().has("name", "marko").count().next().longValue());
+        assertEquals(3, IteratorUtils.count(v.properties()));
+
+        v.remove();
+        assertEquals(0, g.V().has("name", "marko").count().next().longValue());
+    }
+
+    @Test
+    public void shouldStoreValuesOffHeap() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        graph.createIndex("name", Vertex.class);
+        final GraphTraversalSource g = graph.traversal();
+
+        final Vertex v = graph.addVertex("name", "stéphen", "age", 29, "weight", 0.5d, "rank", 3L,
+                "ratio", 1.5f, "active", true, "birth", new Date(0));
+        assertEquals("stéphen", v.value("name"));
+        assertEquals(29, (int) v.value("age"));
+        assertEquals(0.5d, v.value("weight"), 0.0d);
+        assertEquals(3L, (long) v.value("rank"));
+        assertEquals(1.5f, v.value("ratio"), 0.0f);
+        assertEquals(true, v.value("active"));
+        assertEquals(new Date(0), v.value("birth"));
+        assertEquals(1, g.V().has("name", "stéphen").count().next().longValue());
+        assertEquals(1, g.V().has("age", P.gt(28)).count().next().longValue());
+
+        v.property("age").remove();
+        assertFalse(v.property("age").isPresent());
+        assertEquals("stéphen", v.value("name"));
+        assertEquals(true, v.value("active"));
+
+        // a value larger than a segment is still stored
+        final String large = new String(new char[TinkerOffHeapStore.SEGMENT_SIZE]).replace((char) 0, 'x');
+        assertEquals(large, graph.addVertex("name", large).value("name"));
+        assertEquals(29.5d, g.V(v).property("weight", 29.5d).values("weight").next());
+
+        graph.clear();
+        assertEquals("marko", graph.addVertex("name", "marko").value("name"));
+    }
+
+    @Test
+    public void shouldReclaimRemovedOffHeapValues() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+
+        final String large = new String(new char[1024 * 1024]).replace((char) 0, 'x');
+        for (int i = 0; i < 40; i++) {
+            graph.addVertex(T.id, i, "name", large + i);
+        }
+        final long capacity = graph.offHeapStore.capacity();
+
+        // removing most of the values, whether with their vertex or on their own, moves the rest to a smaller store
+        for (int i = 0; i < 15; i++) {
+            graph.vertices(i).next().remove();
+            graph.vertices(i + 15).next().property("name").remove();
+        }
+        assertTrue(graph.offHeapStore.capacity() < capacity);
+        for (int i = 30; i < 40; i++) {
+            assertEquals(large + i, graph.vertices(i).next().value("name"));
+        }
+    }
+
+    @Test
+    public void shouldReadOffHeapValuesWhileTheyAreReclaimed() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT_PROPERTIES, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+
+        final String large = new String(new char[1024 * 1024]).replace((char) 0, 'x');
+        for (int i = 0; i < 40; i++) {
+            graph.addVertex(T.id, i, "name", large + i);
+        }
+        final List<Vertex> kept = new ArrayList<>();
+        for (int i = 30; i < 40; i++) {
+            kept.add(graph.vertices(i).next());
+        }
+
+        // a reader of vertices that are not changed must never decode an address against the wrong store
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicInteger wrongReads = new AtomicInteger(0);
+        final Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                for (int i = 0; i < kept.size(); i++) {
+                    try {
+                        if (!(large + (30 + i)).equals(kept.get(i).value("name"))) wrongReads.incrementAndGet();
+                    } catch (RuntimeException ex) {
+                        wrongReads.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+        final long capacity = graph.offHeapStore.capacity();
+        for (int i = 0; i < 30; i++) {
+            graph.vertices(i).next().remove();
+        }
+        done.set(true);
+        reader.join();
+
+        assertTrue(graph.offHeapStore.capacity() < capacity);
+        assertEquals(0, wrongReads.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireCompactPropertiesForOffHeapValues() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_OFF_HEAP_VALUES, true);
+        TinkerGraph.open(conf);
+    }
+
     @Test(expected = IllegalStateException.class)
     public void shouldRequireGraphFormatIfLocationIsSet() {
         final Configuration conf = new BaseConfiguration();
@@ -514,6 +1037,257 @@ public class TinkerGraphTest {
         reloadedGraph.close();
     }
 
+    @Test
+    public void shouldPersistToSegments() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldPersistToSegments.kryo");
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_SEGMENTS, 3);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_THREADS, 2);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateTheCrew(graph);
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertCrewGraph(reloadedGraph, false);
+        reloadedGraph.addVertex(T.id, 100, "name", "josh");
+        reloadedGraph.close();
+
+        // only the segments of the latest generation are kept
+        final File[] segments = f.getParentFile().listFiles((dir, name) -> name.startsWith(f.getName() + "."));
+        assertEquals(3, segments.length);
+
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_THREADS, 1);
+        final TinkerGraph singleThreadedGraph = TinkerGraph.open(conf);
+        assertEquals(7, singleThreadedGraph.traversal().V().count().next().longValue());
+        assertEquals(14, singleThreadedGraph.traversal().E().count().next().longValue());
+        assertEquals(14, singleThreadedGraph.traversal().V().inE().count().next().longValue());
+    }
+
+    @Test
+    public void shouldMoveGryoFileToSegments() {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldMoveGryoFileToSegments.kryo");
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.list.name());
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateTheCrew(graph);
+        graph.close();
+
+        // a graph written without segments is still read and then written as the first generation of segments
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_SEGMENTS, 3);
+        final TinkerGraph segmentedGraph = TinkerGraph.open(conf);
+        IoTest.assertCrewGraph(segmentedGraph, false);
+        segmentedGraph.close();
+
+        final File[] segments = f.getParentFile().listFiles((dir, name) -> name.startsWith(f.getName() + "."));
+        assertEquals(3, segments.length);
+        IoTest.assertCrewGraph(TinkerGraph.open(conf), false);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireGryoForSegments() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "graphml");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, TestHelper.makeTestDataFile(TinkerGraphTest.class, "shouldRequireGryoForSegments.xml"));
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_SEGMENTS, 3);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldReplayMutationLog() throws Exception {
+        final Configuration conf = mutationLogConfiguration("shouldReplayMutationLog.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateTheCrew(graph);
+
+        // not closing the graph leaves all of its data in the log as if the process had crashed
+        IoTest.assertCrewGraph(TinkerGraph.open(conf), false);
+
+        final Vertex marko = graph.traversal().V().has("name", "marko").next();
+        marko.property(VertexProperty.Cardinality.single, "name", "mark");
+        marko.properties("location").next().property("endTime", 2000);
+        marko.properties("location").next().properties("startTime").forEachRemaining(Property::remove);
+        marko.edges(Direction.OUT, "develops").next().property("since", 2001);
+        marko.edges(Direction.OUT, "uses").next().remove();
+        graph.traversal().V().has("name", "stephen").drop().iterate();
+        graph.addVertex(T.id, 100, "name", "josh").addEdge("uses", graph.vertices(10).next(), T.id, 101, "skill", 2);
+
+        final TinkerGraph reloaded = TinkerGraph.open(conf);
+        final GraphTraversalSource g = reloaded.traversal();
+        assertEquals(6, g.V().count().next().longValue());
+        assertEquals(10, g.E().count().next().longValue());
+        assertEquals("mark", g.V(1).values("name").next());
+        assertEquals(2000, g.V(1).properties("location").limit(1).values("endTime").next());
+        assertFalse(g.V(1).properties("location").limit(1).has("startTime").hasNext());
+        assertEquals(2001, g.V(1).outE("develops").limit(1).values("since").next());
+        assertEquals(1, g.V(1).outE("uses").count().next().longValue());
+        assertEquals(2, g.E(101).values("skill").next());
+
+        // a snapshot on close compacts the log into the graph location
+        reloaded.close();
+        for (File segment : mutationLogSegments(conf)) {
+            assertEquals(0, segment.length());
+        }
+        final TinkerGraph compacted = TinkerGraph.open(conf);
+        assertEquals(6, compacted.traversal().V().count().next().longValue());
+        assertEquals("mark", compacted.traversal().V(1).values("name").next());
+    }
+
+    @Test
+    public void shouldIgnoreRecordCutShortInMutationLog() throws Exception {
+        final Configuration conf = mutationLogConfiguration("shouldIgnoreRecordCutShortInMutationLog.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        final File[] segments = mutationLogSegments(conf);
+        assertEquals(1, segments.length);
+        try (final FileOutputStream stream = new FileOutputStream(segments[0], true)) {
+            stream.write(new byte[] {0, 0, 1, 0, 12, 34});
+        }
+
+        final TinkerGraph reloaded = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloaded, false, false);
+        reloaded.addVertex(T.id, 100);
+        assertEquals(7, TinkerGraph.open(conf).traversal().V().count().next().longValue());
+    }
+
+    @Test
+    public void shouldSnapshotMutationLogInBackground() throws Exception {
+        final Configuration conf = mutationLogConfiguration("shouldSnapshotMutationLogInBackground.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL, 50);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG_SYNC, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        final File f = new File(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION));
+        final long start = System.currentTimeMillis();
+        while (!f.exists() && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(10);
+        }
+        assertTrue(f.exists());
+        graph.close();
+
+        // the graph reloads from the snapshot together with what remains of the log
+        final Configuration reloadConf = mutationLogConfiguration("shouldSnapshotMutationLogInBackground.kryo", false);
+        IoTest.assertModernGraph(TinkerGraph.open(reloadConf), false, false);
+    }
+
+    @Test
+    public void shouldIgnoreRecordWithBadLengthInMutationLog() throws Exception {
+        final Configuration conf = mutationLogConfiguration("shouldIgnoreRecordWithBadLengthInMutationLog.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        // a torn length prefix can claim far more bytes than the segment holds
+        final File[] segments = mutationLogSegments(conf);
+        try (final FileOutputStream stream = new FileOutputStream(segments[0], true)) {
+            stream.write(new byte[] {127, -1, -1, -1, 0, 0, 0, 0, 1, 2, 3});
+        }
+
+        IoTest.assertModernGraph(TinkerGraph.open(conf), false, false);
+    }
+
+    @Test
+    public void shouldKeepMutationsMadeWhileSnapshotting() throws Exception {
+        final Configuration conf = mutationLogConfiguration("shouldKeepMutationsMadeWhileSnapshotting.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL, 1);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final int writer = i;
+            writers.add(executor.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    final Vertex v = graph.addVertex(T.id, writer * 1000 + j, "name", "v" + j);
+                    v.property(VertexProperty.Cardinality.single, "age", j);
+                }
+            }));
+        }
+        for (Future<?> w : writers) {
+            w.get();
+        }
+        executor.shutdown();
+        graph.close();
+
+        final GraphTraversalSource g = TinkerGraph.open(conf).traversal();
+        assertEquals(2000, g.V().count().next().longValue());
+        assertEquals(2000, g.V().has("age").count().next().longValue());
+    }
+
+    @Test
+    public void shouldMutateAfterMutationLogClosed() {
+        final Configuration conf = mutationLogConfiguration("shouldMutateAfterMutationLogClosed.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        graph.addVertex(T.id, 1);
+        graph.close();
+        graph.addVertex(T.id, 2);
+
+        // the mutation after close is logged, so it survives without another close
+        assertEquals(2, TinkerGraph.open(mutationLogConfiguration("shouldMutateAfterMutationLogClosed.kryo", false)).traversal().V().count().next().longValue());
+        graph.close();
+        assertEquals(2, TinkerGraph.open(mutationLogConfiguration("shouldMutateAfterMutationLogClosed.kryo", false)).traversal().V().count().next().longValue());
+    }
+
+    @Test
+    public void shouldSnapshotMutationLogOnCloseWithSnapshotInterval() {
+        final Configuration conf = mutationLogConfiguration("shouldSnapshotMutationLogOnCloseWithSnapshotInterval.kryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_SNAPSHOT_INTERVAL, 3600000);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        // the snapshot covers every mutation, so the only segment left is the empty one it started
+        assertTrue(new File(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION)).exists());
+        final File[] segments = mutationLogSegments(conf);
+        assertEquals(1, segments.length);
+        assertEquals(0, segments[0].length());
+        IoTest.assertModernGraph(TinkerGraph.open(mutationLogConfiguration("shouldSnapshotMutationLogOnCloseWithSnapshotInterval.kryo", false)), false, false);
+    }
+
+    @Test
+    public void shouldReplayMutationsInTheOrderTheyWereApplied() throws Exception {
+        final Configuration conf = mutationLogConfiguration("shouldReplayMutationsInTheOrderTheyWereApplied.kryo");
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Vertex v = graph.addVertex(T.id, 1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final int writer = i;
+            writers.add(executor.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    v.property(VertexProperty.Cardinality.single, "last", writer * 1000 + j);
+                }
+            }));
+        }
+        for (Future<?> w : writers) {
+            w.get();
+        }
+        executor.shutdown();
+
+        // replay without a snapshot must end on the value that was set last
+        final Object last = v.value("last");
+        final TinkerGraph replayed = TinkerGraph.open(mutationLogConfiguration("shouldReplayMutationsInTheOrderTheyWereApplied.kryo", false));
+        assertEquals(last, replayed.vertices(1).next().value("last"));
+        assertEquals(1, IteratorUtils.count(replayed.vertices(1).next().properties("last")));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireGraphLocationForMutationLog() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        TinkerGraph.open(conf);
+    }
+
     @Test
     public void shouldPersistWithRelativePath() {
         final String graphLocation = TestHelper.convertToRelative(TinkerGraphTest.class,
@@ -702,6 +1476,184 @@ public class TinkerGraphTest {
         assertEquals(expected, g.withComputer(Computer.compute().workers(4)).V(1, 2).optional(__.bothE().dedup()).order().by(T.id).toList());
     }
 
+    @Test
+    public void shouldTimeWorkersOfEachIteration() throws Exception {
+        final int workers = Runtime.getRuntime().availableProcessors();
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final ComputerResult result = graph.compute().workers(workers).program(PageRankVertexProgram.build().iterations(5).create(graph)).submit().get();
+        final List<long[]> workerRuntimes = ((TinkerMemory) ((ImmutableMemory) result.memory()).getBaseMemory()).getWorkerRuntimes();
+        assertEquals(result.memory().getIteration() + 1, workerRuntimes.size());
+        for (final long[] iteration : workerRuntimes) {
+            assertEquals(workers, iteration.length);
+            assertThat(Arrays.stream(iteration).allMatch(runtime -> runtime > 0), is(true));
+        }
+    }
+
+    @Test
+    public void shouldReduceValuesThatEveryWorkerCombinedForAKey() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Map<Integer, Long> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            graph.addVertex(PeerPressureVertexProgram.CLUSTER, i % 7);
+            expected.merge(i % 7, 1L, Long::sum);
+        }
+        final ClusterPopulationMapReduce mapReduce = ClusterPopulationMapReduce.build().create();
+        final ComputerResult result = graph.compute().workers(Runtime.getRuntime().availableProcessors()).mapReduce(mapReduce).submit().get();
+        assertEquals(expected, result.memory().get(mapReduce.getMemoryKey()));
+        graph.close();
+    }
+
+    @Test
+    public void shouldReuseComputerRuntimeUntilStructureChanges() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final GraphTraversalSource g = graph.traversal().withComputer();
+        assertEquals(6L, g.V().count().next().longValue());
+        final TinkerGraphComputerRuntime runtime = TinkerHelper.getComputerRuntime(graph);
+        final TinkerGraphComputerRuntime.Partitioning partitioning = runtime.getPartitioning();
+
+        assertEquals(6L, g.V().count().next().longValue());
+        assertSame(runtime, TinkerHelper.getComputerRuntime(graph));
+        assertSame(partitioning, runtime.getPartitioning());
+
+        // property changes leave the partitioning as it is while new vertices and edges are picked up
+        graph.vertices(1).next().property("age", 30);
+        assertSame(partitioning, runtime.getPartitioning());
+        final Vertex vertex = graph.addVertex("person");
+        vertex.addEdge("knows", graph.vertices(1).next());
+        assertEquals(7L, g.V().count().next().longValue());
+        assertEquals(7L, g.E().count().next().longValue());
+        assertEquals(3L, g.V(1).both("knows").count().next().longValue());
+        vertex.remove();
+        assertEquals(6L, g.V().count().next().longValue());
+        assertEquals(6L, g.E().count().next().longValue());
+
+        // the threads are released on close but a later computation still runs
+        graph.close();
+        assertEquals(6L, g.V().count().next().longValue());
+        assertNotSame(runtime, TinkerHelper.getComputerRuntime(graph));
+        graph.close();
+    }
+
+    @Test
+    public void shouldStreamHaltedTraversersOfComputer() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final GraphTraversalSource g = graph.traversal().withComputer(
+                Computer.compute().configure(TinkerGraphComputer.HALTED_TRAVERSER_BUFFER_SIZE, 1));
+        final List<Object> expected = graph.traversal().withComputer().V().both().both().values("name").order().toList();
+        assertEquals(expected, g.V().both().both().values("name").toList().stream().sorted().collect(Collectors.toList()));
+
+        // side-effects are there once the results are all taken
+        final GraphTraversal<Vertex, Vertex> traversal = g.V().aggregate("x").out();
+        assertEquals(6, traversal.toList().size());
+        assertEquals(6, traversal.asAdmin().getSideEffects().<BulkSet<Object>>get("x").size());
+
+        // closing the traversal cancels the computation that waits for the rest to be taken
+        final GraphTraversal<Vertex, Object> partial = g.V().both().both().values("name");
+        partial.next();
+        partial.close();
+        assertEquals(expected.size(), g.V().both().both().count().next().intValue());
+        graph.close();
+    }
+
+    @Test
+    public void shouldTraverseInBatchesWithBatchStrategy() {
+        final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+        for (final int batchSize : new int[]{1, 2, 3, 64}) {
+            final GraphTraversalSource gb = g.withStrategies(BatchStrategy.build().batchSize(batchSize).create());
+            assertEquals(g.V().both().both().id().toList(), gb.V().both().both().id().toList());
+            assertEquals(g.V().both().has("age", P.gt(27)).values("name").toList(),
+                    gb.V().both().has("age", P.gt(27)).values("name").toList());
+            assertEquals(g.V().outE().inV().both().count().next(), gb.V().outE().inV().both().count().next());
+            assertEquals(g.V().both().local(__.out().id().fold()).toList(), gb.V().both().local(__.out().id().fold()).toList());
+
+            // the traversers that are read ahead are still there after the first one is taken
+            final GraphTraversal<Vertex, Object> traversal = gb.V().both().both().id();
+            final List<Object> ids = new ArrayList<>();
+            ids.add(traversal.next());
+            while (traversal.hasNext()) {
+                ids.add(traversal.next());
+            }
+            assertEquals(g.V().both().both().id().toList(), ids);
+
+            final GraphTraversal.Admin<Vertex, Object> admin = gb.V().out().id().asAdmin();
+            admin.applyStrategies();
+            assertEquals(batchSize, ((AbstractStep<?, ?>) admin.getSteps().get(1)).getBatchSize());
+        }
+    }
+
+    @Test
+    public void shouldTraverseInParallelWithParallelStrategy() {
+        final GraphTraversalSource g = TinkerFactory.createGratefulDead().traversal();
+        for (final int parallelism : new int[]{2, 3, 8}) {
+            final GraphTraversalSource gp = g.withStrategies(ParallelStrategy.build().parallelism(parallelism).create());
+            assertEquals(g.V().both().both().count().next(), gp.V().both().both().count().next());
+            assertEquals(g.V().out().out().groupCount().by("name").next(), gp.V().out().out().groupCount().by("name").next());
+            assertEquals(g.V().out().group().by(T.label).by(__.in().count()).next(),
+                    gp.V().out().group().by(T.label).by(__.in().count()).next());
+            assertEquals(g.V().as("a").out().out().select("a").by("name").groupCount().next(),
+                    gp.V().as("a").out().out().select("a").by("name").groupCount().next());
+            assertEquals(g.V().values("performances").sum().next(), gp.V().values("performances").sum().next());
+            assertEquals(g.V().values("performances").mean().next(), gp.V().values("performances").mean().next());
+            assertEquals(g.V().out().values("performances").max().next(), gp.V().out().values("performances").max().next());
+            assertEquals(g.E().has("weight", P.gt(10)).inV().values("name").fold().next(),
+                    gp.E().has("weight", P.gt(10)).inV().values("name").fold().next());
+            // there are more edges than go in a batch so the barriers of several batches are merged in order
+            assertEquals(g.E().id().fold().next(), gp.E().id().fold().next());
+            assertEquals(g.V().out().order().by("name").by(T.id).limit(10).values("name").toList(),
+                    gp.V().out().order().by("name").by(T.id).limit(10).values("name").toList());
+            assertEquals(0L, gp.V().has("name", "nobody").out().count().next().longValue());
+            assertFalse(gp.V().has("name", "nobody").values("performances").max().hasNext());
+
+            final GraphTraversal.Admin<Vertex, Long> admin = gp.V().out().out().count().asAdmin();
+            admin.applyStrategies();
+            assertThat(admin.getStartStep(), instanceOf(ParallelStep.class));
+        }
+
+        try {
+            g.withStrategies(ParallelStrategy.build().parallelism(4).create()).V().out().fail("stop").count().next();
+            fail("The failure of a batch should have been thrown");
+        } catch (FailStep.FailException fe) {
+            assertEquals("stop", fe.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldStopBatchesOfParallelStrategyOnInterrupt() throws Exception {
+        final GraphTraversalSource gp = TinkerFactory.createGratefulDead().traversal().
+                withStrategies(ParallelStrategy.build().parallelism(4).create());
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicBoolean interrupted = new AtomicBoolean(false);
+        final Thread t = new Thread(() -> {
+            try {
+                gp.V().out().has("name", P.test((a, b) -> {
+                    processed.incrementAndGet();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+                    return true;
+                }, "x")).count().next();
+            } catch (TraversalInterruptedException tie) {
+                interrupted.set(true);
+            }
+        });
+        t.start();
+        while (processed.get() == 0) {
+            Thread.sleep(10);
+        }
+        t.interrupt();
+        t.join(10000);
+        assertTrue(interrupted.get());
+
+        // the batches stop at their next traverser rather than going through all of the vertices
+        Thread.sleep(200);
+        final int stopped = processed.get();
+        Thread.sleep(200);
+        assertEquals(stopped, processed.get());
+
+        // the threads of the common pool are stopped through a flag rather than being interrupted
+        for (int i = 0; i < ForkJoinPool.getCommonPoolParallelism(); i++) {
+            assertFalse(ForkJoinPool.commonPool().submit(() -> Thread.currentThread().isInterrupted()).get());
+        }
+    }
+
     @Test
     public void shouldReservedKeyVerify() {
         final Set<String> reserved = new HashSet<>(Arrays.asList("something", "id", "label"));
@@ -1065,4 +2017,33 @@ public class TinkerGraphTest {
         }
 
     }
+
+    private static Configuration mutationLogConfiguration(final String fileName) {
+        return mutationLogConfiguration(fileName, true);
+    }
+
+    /**
+     * Creates the configuration of a graph with a mutation log at the file, which is deleted first with its log unless
+     * the graph is to be reloaded.
+     */
+    private static Configuration mutationLogConfiguration(final String fileName, final boolean clean) {
+        final String graphLocation = TestHelper.makeTestDataFile(TinkerGraphTest.class, fileName);
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_MUTATION_LOG, true);
+        if (clean) {
+            new File(graphLocation).delete();
+            new File(graphLocation + ".covered").delete();
+            for (File segment : mutationLogSegments(conf)) {
+                segment.delete();
+            }
+        }
+        return conf;
+    }
+
+    private static File[] mutationLogSegments(final Configuration conf) {
+        final File f = new File(conf.getString(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION));
+        return f.getParentFile().listFiles((dir, name) -> name.startsWith(f.getName() + ".log."));
+    }
 }